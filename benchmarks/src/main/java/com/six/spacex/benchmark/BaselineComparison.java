@@ -0,0 +1,113 @@
+package com.six.spacex.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result ({@code -rf csv}) against the checked-in baseline and exits with
+ * status 1 when any primary score or normalized allocation rate regressed by more than the
+ * threshold. Rows whose 99.9% error, in either file, exceeds the threshold (or is unknown) are
+ * reported as noisy and not judged, since such a change cannot be told apart from noise.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.six.spacex.benchmark.BaselineComparison \
+ *     benchmarks/baseline/baseline.csv result.csv [thresholdPercent]
+ * </pre>
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparison <baseline.csv> <result.csv> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        int noisy = 0;
+        for (Map.Entry<String, Score> e : current.entrySet()) {
+            Score before = baseline.get(e.getKey());
+            if (before == null || before.value == 0) continue;
+            Score after = e.getValue();
+            boolean higherIsBetter = e.getKey().contains("|thrpt|") && !e.getKey().contains(":");
+            double change = (after.value - before.value) / before.value * 100;
+            double worse = higherIsBetter ? -change : change;
+            String verdict;
+            if (!(before.errorPercent() <= threshold && after.errorPercent() <= threshold)) {
+                noisy++;
+                verdict = "noisy     ";
+            } else if (worse > threshold) {
+                regressions++;
+                verdict = "REGRESSION";
+            } else {
+                verdict = "ok        ";
+            }
+            System.out.printf("%s %-100s %14.3f -> %14.3f (%+.1f%%, error %.1f%% / %.1f%%)%n",
+                    verdict, e.getKey(), before.value, after.value, change, before.errorPercent(), after.errorPercent());
+        }
+        System.out.printf("%d regression(s) above %.1f%%, %d row(s) too noisy to judge%n", regressions, threshold, noisy);
+        if (regressions > 0) System.exit(1);
+    }
+
+    private static final class Score {
+        final double value;
+        final double error;
+
+        Score(double value, double error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        /** The 99.9% error relative to the score; NaN if JMH could not compute it (a single sample). */
+        double errorPercent() {
+            return Math.abs(error / value) * 100;
+        }
+    }
+
+    /** Keys are "benchmark|mode|threads|param=value..." for primary scores and gc.alloc.rate.norm. */
+    private static Map<String, Score> read(Path csv) throws IOException {
+        List<String> lines = Files.readAllLines(csv);
+        Map<String, Score> scores = new LinkedHashMap<>();
+        if (lines.isEmpty()) return scores;
+        List<String> header = split(lines.get(0));
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) continue;
+            List<String> cols = split(line);
+            String benchmark = cols.get(0);
+            if (benchmark.contains(":") && !benchmark.endsWith("gc.alloc.rate.norm")) continue;
+            StringBuilder key = new StringBuilder(benchmark).append('|').append(cols.get(1)).append('|').append(cols.get(2));
+            for (int i = 7; i < header.size() && i < cols.size(); i++) {
+                key.append('|').append(header.get(i).replace("Param: ", "")).append('=').append(cols.get(i));
+            }
+            scores.put(key.toString(), new Score(Double.parseDouble(cols.get(4)), Double.parseDouble(cols.get(5))));
+        }
+        return scores;
+    }
+
+    private static List<String> split(String line) {
+        List<String> cols = new ArrayList<>();
+        StringBuilder col = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                cols.add(col.toString());
+                col.setLength(0);
+            } else {
+                col.append(c);
+            }
+        }
+        cols.add(col.toString());
+        return cols;
+    }
+}
@@ -0,0 +1,73 @@
+package com.six.spacex.benchmark;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.repository.FleetImport;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeds a fleet of {@code rockets} rockets (eight per mission, a quarter of them unassigned,
+ * every eighth assigned one in repair) with pre-assigned ids, either one mutator call at a time
+ * or through {@link InMemorySpaceXRepository#importFleet}. Each score is one full load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class FleetImportBenchmark {
+
+    @Param({"1000000"})
+    public int rockets;
+
+    private RocketId[] rocketIds;
+    private MissionId[] missionIds;
+
+    @Setup(Level.Trial)
+    public void createIds() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        rocketIds = new RocketId[rockets];
+        missionIds = new MissionId[rockets / 4 * 3 / 8 + 1];
+        for (int i = 0; i < rocketIds.length; i++) rocketIds[i] = RocketId.of(new UUID(rnd.nextLong(), rnd.nextLong()));
+        for (int i = 0; i < missionIds.length; i++) missionIds[i] = MissionId.of(new UUID(rnd.nextLong(), rnd.nextLong()));
+    }
+
+    @Benchmark
+    public InMemorySpaceXRepository oneCallAtATime() {
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        for (MissionId m : missionIds) repo.addMission(m, "Mission " + m.hashCode() % 1000);
+        for (int i = 0; i < rocketIds.length; i++) {
+            RocketId r = rocketIds[i];
+            repo.addRocket(r, "Dragon " + (i % 1000));
+            MissionId m = missionOf(i);
+            if (m == null) continue;
+            repo.assignRocketToMission(r, m);
+            if (i % 8 == 0) repo.changeRocketStatus(r, RocketStatus.IN_REPAIR);
+        }
+        return repo;
+    }
+
+    @Benchmark
+    public InMemorySpaceXRepository importFleet() {
+        FleetImport fleet = new FleetImport(rocketIds.length, missionIds.length);
+        for (MissionId m : missionIds) fleet.mission(m, "Mission " + m.hashCode() % 1000);
+        for (int i = 0; i < rocketIds.length; i++) {
+            MissionId m = missionOf(i);
+            RocketStatus status = m != null && i % 8 == 0 ? RocketStatus.IN_REPAIR : RocketStatus.ON_GROUND;
+            fleet.rocket(rocketIds[i], "Dragon " + (i % 1000), status, m);
+        }
+        return InMemorySpaceXRepository.importFleet(fleet);
+    }
+
+    private MissionId missionOf(int rocket) {
+        if (rocket % 4 == 3) return null;
+        return missionIds[(rocket / 4 * 3 + rocket % 4) / 8];
+    }
+}
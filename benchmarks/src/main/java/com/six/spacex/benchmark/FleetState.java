@@ -0,0 +1,105 @@
+package com.six.spacex.benchmark;
+
+import com.six.spacex.cache.CachingSpaceXRepository;
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.metrics.InstrumentedSpaceXRepository;
+import com.six.spacex.repository.CompactSpaceXRepository;
+import com.six.spacex.repository.ConcurrentSpaceXRepository;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.ShardedSpaceXRepository;
+import com.six.spacex.repository.SpaceXRepository;
+import com.six.spacex.repository.VersionedSpaceXRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A pre-populated fleet shared by all benchmark threads.
+ * <p>
+ * {@code rockets} rockets are created and split across missions whose sizes follow
+ * {@code distribution} around a mean of {@code rocketsPerMission}. A fifth of the assigned
+ * rockets are put in repair so status buckets and mission statuses are mixed.
+ */
+@State(Scope.Benchmark)
+public class FleetState {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rockets;
+
+    @Param({"8"})
+    public int rocketsPerMission;
+
+    /** {@code fixed}: every mission gets the mean; {@code skewed}: geometric sizes with the same mean. */
+    @Param({"fixed", "skewed"})
+    public String distribution;
+
+    /**
+     * {@code inMemory} and {@code compact} run behind a global lock when benchmarked with several threads;
+     * {@code instrumented} is {@code concurrent} wrapped in the metrics decorator, to measure its overhead;
+     * {@code cached} is {@code concurrent} behind a 10,000-entry caching decorator;
+     * {@code sharded} partitions the fleet over one in-memory shard per available processor.
+     */
+    @Param({"inMemory", "concurrent", "compact", "versioned", "instrumented", "cached", "sharded"})
+    public String impl;
+
+    public SpaceXRepository repo;
+    public List<RocketId> rocketIds;
+    public List<RocketId> assignedRocketIds;
+    public List<MissionId> missionIds;
+
+    @Setup(Level.Trial)
+    public void populate(BenchmarkParams params) {
+        repo = newRepository(impl, params.getThreads());
+        rocketIds = new ArrayList<>(rockets);
+        assignedRocketIds = new ArrayList<>(rockets);
+        missionIds = new ArrayList<>();
+        SplittableRandom rnd = new SplittableRandom(42);
+
+        for (int i = 0; i < rockets; i++) {
+            rocketIds.add(repo.addRocket("Dragon " + i));
+        }
+        int next = 0;
+        while (next < rockets) {
+            int size = Math.min(missionSize(rnd), rockets - next);
+            MissionId mission = repo.addMission("Mission " + missionIds.size());
+            missionIds.add(mission);
+            List<RocketId> batch = rocketIds.subList(next, next + size);
+            repo.assignRocketsToMission(mission, batch);
+            assignedRocketIds.addAll(batch);
+            next += size;
+        }
+        for (RocketId id : assignedRocketIds) {
+            if (rnd.nextInt(5) == 0) repo.changeRocketStatus(id, RocketStatus.IN_REPAIR);
+        }
+    }
+
+    private int missionSize(SplittableRandom rnd) {
+        if ("fixed".equals(distribution)) return rocketsPerMission;
+        // geometric with mean rocketsPerMission, at least one rocket
+        double p = 1.0 / rocketsPerMission;
+        return 1 + (int) (Math.log(1 - rnd.nextDouble()) / Math.log(1 - p));
+    }
+
+    static SpaceXRepository newRepository(String impl, int threads) {
+        return switch (impl) {
+            case "inMemory" -> threads > 1
+                    ? new LockedRepository(new InMemorySpaceXRepository())
+                    : new InMemorySpaceXRepository();
+            case "concurrent" -> new ConcurrentSpaceXRepository();
+            case "compact" -> threads > 1
+                    ? new LockedRepository(new CompactSpaceXRepository())
+                    : new CompactSpaceXRepository();
+            case "versioned" -> new VersionedSpaceXRepository();
+            case "instrumented" -> new InstrumentedSpaceXRepository(new ConcurrentSpaceXRepository());
+            case "cached" -> new CachingSpaceXRepository(new ConcurrentSpaceXRepository(), 10_000, Duration.ofMinutes(1));
+            case "sharded" -> new ShardedSpaceXRepository(Runtime.getRuntime().availableProcessors());
+            default -> throw new IllegalArgumentException("Unknown impl: " + impl);
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.six.spacex.benchmark;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.repository.SpaceXRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prints the retained heap per rocket of each repository implementation for a fleet of eight
+ * rockets per mission, measured as the used-heap difference around populating it.
+ * <pre>
+ * java -Xmx3g -cp benchmarks/target/benchmarks.jar com.six.spacex.benchmark.FootprintReport [rockets]
+ * </pre>
+ */
+public final class FootprintReport {
+
+    private FootprintReport() {}
+
+    public static void main(String[] args) {
+        int rockets = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        for (String impl : new String[]{"inMemory", "concurrent", "compact"}) {
+            long before = usedHeap();
+            SpaceXRepository repo = populate(impl, rockets);
+            long after = usedHeap();
+            System.out.printf("%-12s %,d rockets: %,.1f bytes/rocket%n", impl, rockets, (after - before) / (double) rockets);
+            if (repo.countRocketsByStatus(com.six.spacex.domain.RocketStatus.ON_GROUND) != rockets) throw new AssertionError();
+        }
+    }
+
+    private static SpaceXRepository populate(String impl, int rockets) {
+        SpaceXRepository repo = FleetState.newRepository(impl, 1);
+        List<RocketId> batch = new ArrayList<>(8);
+        for (int i = 0; i < rockets; i++) {
+            batch.add(repo.addRocket("Dragon " + i));
+            if (batch.size() == 8) {
+                MissionId mission = repo.addMission("Mission " + i);
+                repo.assignRocketsToMission(mission, batch);
+                batch.clear();
+            }
+        }
+        return repo;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,40 @@
+package com.six.spacex.benchmark;
+
+import com.six.spacex.domain.IdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one id from each {@link IdGenerator}; run with {@code -t} above one to see how they
+ * behave when threads create ids at the same time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    @Param({"random", "timeOrdered", "sequential"})
+    public String generator;
+
+    private IdGenerator ids;
+
+    @Setup(Level.Trial)
+    public void create() {
+        ids = switch (generator) {
+            case "random" -> IdGenerator.random();
+            case "timeOrdered" -> IdGenerator.timeOrdered();
+            case "sequential" -> IdGenerator.sequential();
+            default -> throw new IllegalArgumentException("Unknown generator: " + generator);
+        };
+    }
+
+    @Benchmark
+    public UUID next() {
+        return ids.next();
+    }
+}
@@ -0,0 +1,84 @@
+package com.six.spacex.benchmark;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.persistence.FsyncPolicy;
+import com.six.spacex.persistence.JournaledSpaceXRepository;
+import com.six.spacex.persistence.MutationCodec;
+import com.six.spacex.persistence.WriteAheadLog;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.SpaceXRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast a write-ahead log of {@code events} mutations is replayed into a fresh
+ * repository on startup. Each score is the time of one full replay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class JournalReplayBenchmark {
+
+    @Param({"1000000", "5000000"})
+    public int events;
+
+    private Path file;
+    private long records;
+
+    @Setup(Level.Trial)
+    public void writeLog() throws IOException {
+        file = Files.createTempFile("replay-benchmark", ".wal");
+        Files.delete(file);
+        SplittableRandom rnd = new SplittableRandom(7);
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(file, new InMemorySpaceXRepository(), FsyncPolicy.never())) {
+            // 1/4 rocket adds, 1/32 mission adds, the rest assignments and status changes
+            List<RocketId> unassigned = new ArrayList<>();
+            List<RocketId> assigned = new ArrayList<>();
+            List<MissionId> missions = new ArrayList<>();
+            missions.add(repo.addMission("Mission 0"));
+            long written = 1;
+            while (written < events) {
+                int dice = rnd.nextInt(32);
+                if (dice == 0) {
+                    missions.add(repo.addMission("Mission " + missions.size()));
+                } else if (dice < 9 || unassigned.isEmpty()) {
+                    unassigned.add(repo.addRocket("Dragon " + written));
+                } else if (dice < 17 || assigned.isEmpty()) {
+                    RocketId r = unassigned.remove(unassigned.size() - 1);
+                    repo.assignRocketToMission(r, missions.get(rnd.nextInt(missions.size())));
+                    assigned.add(r);
+                } else {
+                    RocketId r = assigned.get(rnd.nextInt(assigned.size()));
+                    repo.changeRocketStatus(r, rnd.nextInt(4) == 0 ? RocketStatus.IN_REPAIR : RocketStatus.IN_SPACE);
+                }
+                written++;
+            }
+            records = repo.log().recordCount();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLog() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public SpaceXRepository replay() throws IOException {
+        SpaceXRepository repo = new InMemorySpaceXRepository();
+        long replayed = WriteAheadLog.replay(file, record -> MutationCodec.apply(record, repo));
+        if (replayed != records) throw new IllegalStateException("Replayed " + replayed + " of " + records);
+        return repo;
+    }
+}
@@ -0,0 +1,60 @@
+package com.six.spacex.benchmark;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.repository.SpaceXRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Serializes every call behind one monitor, the way single-threaded repositories are shared
+ * between threads in production. Used as the multi-threaded baseline.
+ */
+final class LockedRepository implements SpaceXRepository {
+
+    private final SpaceXRepository delegate;
+
+    LockedRepository(SpaceXRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override public synchronized RocketId addRocket(String name) { return delegate.addRocket(name); }
+    @Override public synchronized void addRocket(RocketId id, String name) { delegate.addRocket(id, name); }
+    @Override public synchronized MissionId addMission(String name) { return delegate.addMission(name); }
+    @Override public synchronized void addMission(MissionId id, String name) { delegate.addMission(id, name); }
+    @Override public synchronized void assignRocketToMission(RocketId rocketId, MissionId missionId) { delegate.assignRocketToMission(rocketId, missionId); }
+    @Override public synchronized void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) { delegate.assignRocketsToMission(missionId, rocketIds); }
+    @Override public synchronized void changeRocketStatus(RocketId rocketId, RocketStatus status) { delegate.changeRocketStatus(rocketId, status); }
+    @Override public synchronized void changeMissionStatus(MissionId missionId, MissionStatus status) { delegate.changeMissionStatus(missionId, status); }
+    @Override public synchronized void unassignRocket(RocketId rocketId) { delegate.unassignRocket(rocketId); }
+    @Override public synchronized void applyBatch(List<RepositoryCommand> commands) { delegate.applyBatch(commands); }
+    @Override public synchronized List<MissionSummary> summarizeMissionsByAssignedRockets() { return delegate.summarizeMissionsByAssignedRockets(); }
+    @Override public synchronized List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) { return delegate.summarizeMissionsByAssignedRockets(limit); }
+    @Override public synchronized Optional<RocketDetails> getRocket(RocketId id) { return delegate.getRocket(id); }
+    @Override public synchronized Optional<MissionSummary> getMission(MissionId id) { return delegate.getMission(id); }
+    @Override public synchronized List<RocketDetails> listRocketsByStatus(RocketStatus status) { return delegate.listRocketsByStatus(status); }
+    @Override public synchronized List<MissionSummary> listMissionsByStatus(MissionStatus status) { return delegate.listMissionsByStatus(status); }
+    @Override public synchronized Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) { return delegate.summarizeMissionsByAssignedRockets(limit, pageToken); }
+    @Override public synchronized Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) { return delegate.listRocketsByStatus(status, limit, pageToken); }
+    @Override public synchronized Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) { return delegate.listMissionsByStatus(status, limit, pageToken); }
+    // the delegate's lazy streams are not safe once the lock is released, so these materialize
+    @Override public synchronized Stream<MissionSummary> streamMissionsByAssignedRockets() { return delegate.summarizeMissionsByAssignedRockets().stream(); }
+    @Override public synchronized Stream<RocketDetails> streamRocketsByStatus(RocketStatus status) { return delegate.listRocketsByStatus(status).stream(); }
+    @Override public synchronized Stream<MissionSummary> streamMissionsByStatus(MissionStatus status) { return delegate.listMissionsByStatus(status).stream(); }
+    @Override public synchronized int countRocketsByStatus(RocketStatus status) { return delegate.countRocketsByStatus(status); }
+    @Override public synchronized int countMissionsByStatus(MissionStatus status) { return delegate.countMissionsByStatus(status); }
+    @Override public synchronized Optional<RocketStatus> getRocketStatus(RocketId id) { return delegate.getRocketStatus(id); }
+    @Override public synchronized Optional<MissionStatus> getMissionStatus(MissionId id) { return delegate.getMissionStatus(id); }
+    @Override public synchronized List<RocketId> findRocketsByName(String name) { return delegate.findRocketsByName(name); }
+    @Override public synchronized List<RocketId> findRocketsByNamePrefix(String prefix, int limit) { return delegate.findRocketsByNamePrefix(prefix, limit); }
+    @Override public synchronized List<MissionId> findMissionsByName(String name) { return delegate.findMissionsByName(name); }
+    @Override public synchronized List<MissionId> findMissionsByNamePrefix(String prefix, int limit) { return delegate.findMissionsByNamePrefix(prefix, limit); }
+}
@@ -0,0 +1,8 @@
+package com.six.spacex.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/** Four threads by default; override with {@code -t}. {@code inMemory} runs behind a global lock. */
+@Threads(4)
+public class MultiThreadedRepositoryBenchmark extends RepositoryBenchmark {
+}
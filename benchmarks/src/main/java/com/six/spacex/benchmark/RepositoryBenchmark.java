@@ -0,0 +1,156 @@
+package com.six.spacex.benchmark;
+
+import com.six.spacex.domain.DomainException;
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.Violation;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.repository.SpaceXRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks every hot {@code SpaceXRepository} operation against a {@link FleetState}.
+ * Subclasses pin the thread count; run with {@code -prof gc} to add allocation rates.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public abstract class RepositoryBenchmark {
+
+    /** Rockets per batch in {@link #assignRocketsToMission}. */
+    private static final int BATCH = 8;
+
+    /** Inserts per thread and iteration of {@link #addRocket}. */
+    private static final int INSERTS = 100_000;
+
+    /** Status changes per {@link #applyStatusBatch} call. */
+    private static final int STATUS_BATCH = 64;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        SplittableRandom rnd;
+        MissionId ownMission;
+        List<RocketId> ownRockets;
+        int inserted;
+
+        @Setup(Level.Trial)
+        public void setup(FleetState fleet) {
+            rnd = new SplittableRandom(Thread.currentThread().getId());
+            ownMission = fleet.repo.addMission("Bench " + Thread.currentThread().getName());
+            ownRockets = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                ownRockets.add(fleet.repo.addRocket("Bench rocket " + i));
+            }
+        }
+
+        <T> T pick(List<T> items) {
+            return items.get(rnd.nextInt(items.size()));
+        }
+    }
+
+    /**
+     * A repository of {@code rockets} unassigned rockets, rebuilt before every iteration so that
+     * {@link #addRocket} measures inserts at the parameterized size instead of growing the shared
+     * fleet by millions over the run. Inserted names are distinct from each other and from the
+     * fleet's, as a duplicate name's index entry would otherwise grow with every insert.
+     */
+    @State(Scope.Benchmark)
+    public static class InsertState {
+        SpaceXRepository repo;
+
+        @Setup(Level.Iteration)
+        public void setup(FleetState fleet, BenchmarkParams params) {
+            repo = null; // let the previous iteration's repository go before building the next
+            SpaceXRepository fresh = FleetState.newRepository(fleet.impl, params.getThreads());
+            for (int i = 0; i < fleet.rockets; i++) fresh.addRocket("Dragon " + i);
+            repo = fresh;
+            System.gc(); // collect the previous fleet here rather than during the measurement
+        }
+    }
+
+    /**
+     * Each iteration times exactly {@link #INSERTS} inserts per thread into a fresh fleet, so
+     * every sample does the same work. Timed by throughput over a fixed period instead, an
+     * iteration's insert count varied and with it whether a table resize fell inside it, which
+     * left the score too noisy to compare against a baseline.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = INSERTS)
+    @Measurement(iterations = 20, batchSize = INSERTS)
+    public RocketId addRocket(InsertState inserts, ThreadState thread) {
+        return inserts.repo.addRocket("Inserted " + thread.inserted++);
+    }
+
+    /** Assigns a batch to the thread's own mission and unassigns it again so state stays stable. */
+    @Benchmark
+    @OperationsPerInvocation(BATCH + 1)
+    public void assignRocketsToMission(FleetState fleet, ThreadState thread) {
+        fleet.repo.assignRocketsToMission(thread.ownMission, thread.ownRockets);
+        for (RocketId r : thread.ownRockets) {
+            fleet.repo.unassignRocket(r);
+        }
+    }
+
+    @Benchmark
+    public void changeRocketStatus(FleetState fleet, ThreadState thread) {
+        RocketStatus status = thread.rnd.nextInt(5) == 0 ? RocketStatus.IN_REPAIR : RocketStatus.IN_SPACE;
+        fleet.repo.changeRocketStatus(thread.pick(fleet.assignedRocketIds), status);
+    }
+
+    /** A status change the rules reject (an assigned rocket cannot be in build), caught as an exception. */
+    @Benchmark
+    public Violation rejectedChangeRocketStatus(FleetState fleet, ThreadState thread) {
+        try {
+            fleet.repo.changeRocketStatus(thread.pick(fleet.assignedRocketIds), RocketStatus.IN_BUILD);
+            return Violation.NONE;
+        } catch (DomainException e) {
+            return e.violation();
+        }
+    }
+
+    /** The rejection of {@link #rejectedChangeRocketStatus} through the exception-free variant. */
+    @Benchmark
+    public Violation tryRejectedChangeRocketStatus(FleetState fleet, ThreadState thread) {
+        return fleet.repo.tryChangeRocketStatus(thread.pick(fleet.assignedRocketIds), RocketStatus.IN_BUILD);
+    }
+
+    /** The same work as {@link #changeRocketStatus}, submitted as one batch. */
+    @Benchmark
+    @OperationsPerInvocation(STATUS_BATCH)
+    public void applyStatusBatch(FleetState fleet, ThreadState thread) {
+        List<RepositoryCommand> commands = new ArrayList<>(STATUS_BATCH);
+        for (int i = 0; i < STATUS_BATCH; i++) {
+            RocketStatus status = thread.rnd.nextInt(5) == 0 ? RocketStatus.IN_REPAIR : RocketStatus.IN_SPACE;
+            commands.add(RepositoryCommand.changeRocketStatus(thread.pick(fleet.assignedRocketIds), status));
+        }
+        fleet.repo.applyBatch(commands);
+    }
+
+    @Benchmark
+    public List<MissionSummary> summarizeMissionsByAssignedRockets(FleetState fleet) {
+        return fleet.repo.summarizeMissionsByAssignedRockets();
+    }
+
+    @Benchmark
+    public List<RocketDetails> listRocketsByStatus(FleetState fleet) {
+        return fleet.repo.listRocketsByStatus(RocketStatus.IN_REPAIR);
+    }
+
+    @Benchmark
+    public Optional<MissionSummary> getMission(FleetState fleet, ThreadState thread) {
+        return fleet.repo.getMission(thread.pick(fleet.missionIds));
+    }
+}
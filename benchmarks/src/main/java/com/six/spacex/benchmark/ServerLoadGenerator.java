@@ -0,0 +1,126 @@
+package com.six.spacex.benchmark;
+
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.metrics.LatencyHistogram;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.server.RepositoryClient;
+import com.six.spacex.server.RepositoryServer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives a {@link RepositoryServer} with pipelined requests from many connections and prints the
+ * throughput and the round-trip latency of each pipeline.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.six.spacex.benchmark.ServerLoadGenerator \
+ *     [connections=1000] [depth=32] [seconds=10] [threads=4] [host:port | unix:/path]
+ * </pre>
+ * Without an address an in-process server on a loopback port is started. All connections stay
+ * open for the whole run; each thread cycles through its share, sending {@code depth} requests
+ * (80% {@code getRocketStatus}, 20% {@code changeRocketStatus}) per connection and pipeline.
+ */
+public final class ServerLoadGenerator {
+
+    private static final int ROCKETS = 10_000;
+
+    private ServerLoadGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        RepositoryServer local = null;
+        SocketAddress address;
+        if (args.length > 4) {
+            address = parseAddress(args[4]);
+        } else {
+            local = RepositoryServer.start(new InMemorySpaceXRepository(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            address = local.address();
+        }
+        try {
+            run(address, connections, depth, seconds, threads);
+            if (local != null) System.out.printf("server saw %,d requests%n", local.requests());
+        } finally {
+            if (local != null) local.close();
+        }
+    }
+
+    private static void run(SocketAddress address, int connections, int depth, int seconds, int threads) throws Exception {
+        List<RocketId> rockets = new ArrayList<>(ROCKETS);
+        try (RepositoryClient setup = RepositoryClient.connect(address)) {
+            for (int i = 0; i < ROCKETS; i++) {
+                RocketId id = RocketId.random();
+                rockets.add(id);
+                setup.addRocket(id, "Load " + id);
+            }
+            setup.sync();
+        }
+
+        List<RepositoryClient> clients = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) clients.add(RepositoryClient.connect(address, depth));
+            System.out.printf("%,d connections open, pipeline depth %d, %d threads, %d s%n", connections, depth, threads, seconds);
+
+            LatencyHistogram roundTrips = new LatencyHistogram();
+            LongAdder requests = new LongAdder();
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                List<RepositoryClient> share = new ArrayList<>();
+                for (int i = t; i < connections; i += threads) share.add(clients.get(i));
+                SplittableRandom rnd = new SplittableRandom(t);
+                Thread worker = new Thread(() -> drive(share, rockets, depth, deadline, rnd, roundTrips, requests), "load-" + t);
+                workers.add(worker);
+                worker.start();
+            }
+            long start = System.nanoTime();
+            for (Thread w : workers) w.join();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            LatencyHistogram.Snapshot s = roundTrips.snapshot();
+            System.out.printf("%,.0f requests/s; pipeline round trip p50 %,d us, p99 %,d us, p99.9 %,d us, max %,d us%n",
+                    requests.sum() / elapsed, s.percentile(50) / 1000, s.percentile(99) / 1000,
+                    s.percentile(99.9) / 1000, s.max() / 1000);
+        } finally {
+            for (RepositoryClient c : clients) c.close();
+        }
+    }
+
+    private static void drive(List<RepositoryClient> clients, List<RocketId> rockets, int depth, long deadline,
+                              SplittableRandom rnd, LatencyHistogram roundTrips, LongAdder requests) {
+        if (clients.isEmpty()) return;
+        while (System.nanoTime() < deadline) {
+            for (RepositoryClient c : clients) {
+                long t0 = System.nanoTime();
+                for (int i = 0; i < depth; i++) {
+                    RocketId id = rockets.get(rnd.nextInt(rockets.size()));
+                    if (rnd.nextInt(5) == 0) {
+                        c.changeRocketStatus(id, rnd.nextBoolean() ? RocketStatus.IN_REPAIR : RocketStatus.ON_GROUND);
+                    } else {
+                        c.getRocketStatus(id);
+                    }
+                }
+                c.sync();
+                roundTrips.record(System.nanoTime() - t0);
+                requests.add(depth);
+            }
+        }
+    }
+
+    private static SocketAddress parseAddress(String spec) {
+        if (spec.startsWith("unix:")) return UnixDomainSocketAddress.of(Path.of(spec.substring(5)));
+        int colon = spec.lastIndexOf(':');
+        return new InetSocketAddress(spec.substring(0, colon), Integer.parseInt(spec.substring(colon + 1)));
+    }
+}
@@ -0,0 +1,7 @@
+package com.six.spacex.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+@Threads(1)
+public class SingleThreadedRepositoryBenchmark extends RepositoryBenchmark {
+}
@@ -0,0 +1,62 @@
+package com.six.spacex.benchmark;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.persistence.RepositorySnapshot;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast a snapshot of {@code rockets} rockets (eight per mission, a quarter of them
+ * unassigned) is mapped and restored into a fresh repository. Each score is one full load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class SnapshotLoadBenchmark {
+
+    @Param({"1000000", "3000000"})
+    public int rockets;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws IOException {
+        file = Files.createTempFile("snapshot-benchmark", ".snap");
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        List<RocketId> batch = new ArrayList<>(8);
+        for (int i = 0; i < rockets; i++) {
+            RocketId r = repo.addRocket("Dragon " + (i % 1000));
+            if (i % 4 == 3) continue;
+            batch.add(r);
+            if (batch.size() == 8) {
+                MissionId mission = repo.addMission("Mission " + i);
+                repo.assignRocketsToMission(mission, batch);
+                repo.changeRocketStatus(batch.get(0), i % 3 == 0 ? RocketStatus.IN_REPAIR : RocketStatus.IN_SPACE);
+                batch.clear();
+            }
+        }
+        RepositorySnapshot.write(file, repo, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public InMemorySpaceXRepository load() throws IOException {
+        return RepositorySnapshot.read(file).repository();
+    }
+}
@@ -0,0 +1,165 @@
+package com.six.spacex.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe LRU map with a time-to-live, split into independently locked segments. Eviction
+ * order is least recently used within a segment, so it approximates a global LRU.
+ * <p>
+ * A miss leaves a placeholder under its key while the loader runs, and the result is only stored
+ * if that placeholder is still there: invalidating the key removes it, so a value read before a
+ * mutation can never be cached after the mutation invalidated its key, while invalidations of
+ * other keys do not stop it from being cached.
+ */
+final class BoundedCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    BoundedCache(int maxEntries, long ttlNanos, LongSupplier clock) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive");
+        if (ttlNanos <= 0) throw new IllegalArgumentException("ttl must be positive");
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maxEntries / 16)));
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+        int capacity = (maxEntries + count - 1) / count;
+        for (int i = 0; i < count; i++) segments[i] = new Segment<>(capacity, evictions);
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+
+    /** The cached value, or the loader's result, which is cached unless {@code key} was invalidated meanwhile. */
+    V get(K key, Function<? super K, ? extends V> loader) {
+        Segment<K, V> s = segmentFor(key);
+        Entry<V> placeholder;
+        synchronized (s) {
+            Entry<V> e = s.get(key);
+            if (e != null && !e.pending) {
+                if (clock.getAsLong() - e.expiresAt < 0) {
+                    hits.increment();
+                    return e.value;
+                }
+                evictions.increment();
+            }
+            // a concurrent miss of the same key shares its placeholder; whichever loader ends first stores
+            placeholder = e != null && e.pending ? e : Entry.pending();
+            if (placeholder != e) s.put(key, placeholder);
+        }
+        misses.increment();
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error failure) {
+            synchronized (s) {
+                s.remove(key, placeholder);
+            }
+            throw failure;
+        }
+        synchronized (s) {
+            if (s.get(key) == placeholder) s.put(key, new Entry<>(value, clock.getAsLong() + ttlNanos));
+        }
+        return value;
+    }
+
+    /** Stores {@code value} regardless of loads in flight, e.g. a fact its caller just established. */
+    void put(K key, V value) {
+        Segment<K, V> s = segmentFor(key);
+        synchronized (s) {
+            s.put(key, new Entry<>(value, clock.getAsLong() + ttlNanos));
+        }
+    }
+
+    /** The cached value if present and fresh, without loading and without counting a hit or miss. */
+    V peek(K key) {
+        Segment<K, V> s = segmentFor(key);
+        synchronized (s) {
+            Entry<V> e = s.get(key);
+            return e != null && !e.pending && clock.getAsLong() - e.expiresAt < 0 ? e.value : null;
+        }
+    }
+
+    void invalidate(K key) {
+        Segment<K, V> s = segmentFor(key);
+        synchronized (s) {
+            s.remove(key);
+        }
+    }
+
+    void invalidateAll() {
+        for (Segment<K, V> s : segments) {
+            synchronized (s) {
+                s.clear();
+            }
+        }
+    }
+
+    /** Cached values, not counting loads in flight. */
+    int size() {
+        int size = 0;
+        for (Segment<K, V> s : segments) {
+            synchronized (s) {
+                for (Entry<V> e : s.values()) if (!e.pending) size++;
+            }
+        }
+        return size;
+    }
+
+    CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+        /** A placeholder for a load in flight; compared by identity. */
+        final boolean pending;
+
+        Entry(V value, long expiresAt) {
+            this(value, expiresAt, false);
+        }
+
+        private Entry(V value, long expiresAt, boolean pending) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.pending = pending;
+        }
+
+        static <V> Entry<V> pending() {
+            return new Entry<>(null, 0, true);
+        }
+    }
+
+    @SuppressWarnings("serial") // never serialized
+    private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() <= capacity) return false;
+            if (!eldest.getValue().pending) evictions.increment();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.six.spacex.cache;
+
+/**
+ * Counters of one cache since it was created. Evictions include entries dropped for size and for
+ * age, but not invalidations.
+ */
+public final class CacheStats {
+    public final long hits;
+    public final long misses;
+    public final long evictions;
+    public final int size;
+
+    public CacheStats(long hits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    /** Share of lookups served from the cache; 0 before the first lookup. */
+    public double hitRatio() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public double missRatio() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) misses / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d hitRatio=%.3f evictions=%d size=%d", hits, misses, hitRatio(), evictions, size);
+    }
+}
@@ -0,0 +1,258 @@
+package com.six.spacex.cache;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.repository.ForwardingSpaceXRepository;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.repository.SpaceXRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorator that caches the results of {@code getRocket} and {@code getMission}, so repeated point
+ * reads of hot entities return the same DTO instead of rebuilding it (or, for a remote delegate,
+ * fetching it again). {@code getRocketStatus} and {@code getMissionStatus} are answered from a
+ * cached DTO when there is one. Other queries are forwarded.
+ * <p>
+ * Each cache holds at most {@code maxEntries} results, evicting the least recently used, and
+ * drops results older than {@code ttl}. Mutations invalidate exactly the entries they change:
+ * the rocket itself and the summary of every mission that lists it, e.g. a
+ * {@code changeRocketStatus} invalidates that rocket's mission. To know a rocket's mission the
+ * decorator remembers the assignments of up to {@code maxEntries} recently mutated rockets, for
+ * {@code ttl} as well, and asks the delegate for any other. Changes made to the delegate directly
+ * are only picked up once the {@code ttl} expires.
+ * <p>
+ * Thread-safe if the delegate is. Mutations of one rocket are serialized by the decorator so its
+ * remembered assignment follows the delegate's order; a read racing with a mutation is returned
+ * but not cached.
+ */
+public final class CachingSpaceXRepository extends ForwardingSpaceXRepository {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final BoundedCache<RocketId, Optional<RocketDetails>> rockets;
+    private final BoundedCache<MissionId, Optional<MissionSummary>> missions;
+    private final BoundedCache<RocketId, Optional<MissionId>> missionOf;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    /** Caches up to {@code maxEntries} rockets and as many missions, each for at most {@code ttl}. */
+    public CachingSpaceXRepository(SpaceXRepository delegate, int maxEntries, Duration ttl) {
+        this(delegate, maxEntries, ttl, System::nanoTime);
+    }
+
+    CachingSpaceXRepository(SpaceXRepository delegate, int maxEntries, Duration ttl, LongSupplier clock) {
+        super(delegate);
+        long ttlNanos = ttl.toNanos();
+        this.rockets = new BoundedCache<>(maxEntries, ttlNanos, clock);
+        this.missions = new BoundedCache<>(maxEntries, ttlNanos, clock);
+        this.missionOf = new BoundedCache<>(maxEntries, ttlNanos, clock);
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new ReentrantLock();
+    }
+
+    public CacheStats rocketStats() {
+        return rockets.stats();
+    }
+
+    public CacheStats missionStats() {
+        return missions.stats();
+    }
+
+    /** Drops every cached result, e.g. after the delegate was changed directly. */
+    public void invalidateAll() {
+        rockets.invalidateAll();
+        missions.invalidateAll();
+        missionOf.invalidateAll();
+    }
+
+    @Override
+    public Optional<RocketDetails> getRocket(RocketId id) {
+        return rockets.get(id, delegate::getRocket);
+    }
+
+    @Override
+    public Optional<MissionSummary> getMission(MissionId id) {
+        return missions.get(id, delegate::getMission);
+    }
+
+    @Override
+    public Optional<RocketStatus> getRocketStatus(RocketId id) {
+        Optional<RocketDetails> cached = rockets.peek(id);
+        return cached != null ? cached.map(r -> r.status) : delegate.getRocketStatus(id);
+    }
+
+    @Override
+    public Optional<MissionStatus> getMissionStatus(MissionId id) {
+        Optional<MissionSummary> cached = missions.peek(id);
+        return cached != null ? cached.map(m -> m.missionStatus) : delegate.getMissionStatus(id);
+    }
+
+    @Override
+    public RocketId addRocket(String name) {
+        RocketId id = delegate.addRocket(name);
+        rockets.invalidate(id);
+        return id;
+    }
+
+    @Override
+    public void addRocket(RocketId id, String name) {
+        delegate.addRocket(id, name);
+        rockets.invalidate(id);
+    }
+
+    @Override
+    public MissionId addMission(String name) {
+        MissionId id = delegate.addMission(name);
+        missions.invalidate(id);
+        return id;
+    }
+
+    @Override
+    public void addMission(MissionId id, String name) {
+        delegate.addMission(id, name);
+        missions.invalidate(id);
+    }
+
+    @Override
+    public void assignRocketToMission(RocketId rocketId, MissionId missionId) {
+        ReentrantLock lock = lockFor(rocketId);
+        lock.lock();
+        try {
+            delegate.assignRocketToMission(rocketId, missionId);
+            missionOf.put(rocketId, Optional.of(missionId));
+            rockets.invalidate(rocketId);
+            missions.invalidate(missionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        int[] stripes = lockAll(rocketIds);
+        try {
+            delegate.assignRocketsToMission(missionId, rocketIds);
+            for (RocketId r : rocketIds) {
+                missionOf.put(r, Optional.of(missionId));
+                rockets.invalidate(r);
+            }
+            missions.invalidate(missionId);
+        } finally {
+            unlockAll(stripes);
+        }
+    }
+
+    @Override
+    public void changeRocketStatus(RocketId rocketId, RocketStatus status) {
+        ReentrantLock lock = lockFor(rocketId);
+        lock.lock();
+        try {
+            delegate.changeRocketStatus(rocketId, status);
+            rockets.invalidate(rocketId);
+            for (MissionId m : missionsOf(rocketId)) missions.invalidate(m);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void changeMissionStatus(MissionId missionId, MissionStatus status) {
+        delegate.changeMissionStatus(missionId, status);
+        missions.invalidate(missionId);
+    }
+
+    @Override
+    public void unassignRocket(RocketId rocketId) {
+        ReentrantLock lock = lockFor(rocketId);
+        lock.lock();
+        try {
+            List<MissionId> before = missionsOf(rocketId);
+            delegate.unassignRocket(rocketId);
+            missionOf.put(rocketId, Optional.empty());
+            rockets.invalidate(rocketId);
+            for (MissionId m : before) missions.invalidate(m);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void applyBatch(List<RepositoryCommand> commands) {
+        List<RocketId> rocketIds = new ArrayList<>();
+        for (RepositoryCommand c : commands) {
+            if (c.rocketId != null) rocketIds.add(c.rocketId);
+        }
+        int[] stripes = lockAll(rocketIds);
+        try {
+            Set<MissionId> changed = new LinkedHashSet<>();
+            for (RepositoryCommand c : commands) {
+                if (c.type == RepositoryCommand.Type.UNASSIGN) changed.addAll(missionsOf(c.rocketId));
+            }
+            delegate.applyBatch(commands);
+            for (RepositoryCommand c : commands) {
+                switch (c.type) {
+                    case ASSIGN -> {
+                        missionOf.put(c.rocketId, Optional.of(c.missionId));
+                        changed.add(c.missionId);
+                    }
+                    case UNASSIGN -> missionOf.put(c.rocketId, Optional.empty());
+                    case CHANGE_MISSION_STATUS -> changed.add(c.missionId);
+                    case CHANGE_ROCKET_STATUS -> { }
+                }
+                if (c.rocketId != null) rockets.invalidate(c.rocketId);
+            }
+            for (RepositoryCommand c : commands) {
+                if (c.type == RepositoryCommand.Type.CHANGE_ROCKET_STATUS) changed.addAll(missionsOf(c.rocketId));
+            }
+            for (MissionId m : changed) missions.invalidate(m);
+        } finally {
+            unlockAll(stripes);
+        }
+    }
+
+    /**
+     * Missions whose summary lists the rocket: its remembered assignment, or else what the
+     * delegate reports, remembered from then on. Called with the rocket's lock held.
+     */
+    private List<MissionId> missionsOf(RocketId rocketId) {
+        Optional<MissionId> known = missionOf.peek(rocketId);
+        if (known != null) return known.map(List::of).orElse(List.of());
+        Optional<RocketDetails> rocket = delegate.getRocket(rocketId);
+        if (rocket.isEmpty()) return List.of();
+        Optional<String> missionName = rocket.get().missionName;
+        // without unique mission names several missions may match; invalidate all, remember none
+        List<MissionId> ids = missionName.isPresent() ? delegate.findMissionsByName(missionName.get()) : List.of();
+        if (ids.size() <= 1) missionOf.put(rocketId, ids.stream().findFirst());
+        return ids;
+    }
+
+    private ReentrantLock lockFor(RocketId rocketId) {
+        return locks[stripe(rocketId)];
+    }
+
+    private static int stripe(RocketId rocketId) {
+        int h = rocketId.hashCode();
+        return (h ^ (h >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    /** Locks the stripes of all {@code rocketIds} in ascending order and returns them for {@link #unlockAll}. */
+    private int[] lockAll(List<RocketId> rocketIds) {
+        int[] stripes = rocketIds.stream().mapToInt(CachingSpaceXRepository::stripe).distinct().sorted().toArray();
+        for (int s : stripes) locks[s].lock();
+        return stripes;
+    }
+
+    private void unlockAll(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) locks[stripes[i]].unlock();
+    }
+}
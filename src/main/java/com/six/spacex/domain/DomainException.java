@@ -1,5 +1,17 @@
 package com.six.spacex.domain;
 
+import java.util.Objects;
+
 public class DomainException extends RuntimeException {
-    public DomainException(String message) { super(message); }
+    private final Violation violation;
+
+    public DomainException(String message) { this(Violation.UNSPECIFIED, message); }
+
+    public DomainException(Violation violation, String message) {
+        super(message);
+        this.violation = Objects.requireNonNull(violation);
+    }
+
+    /** The rule that was broken, for callers that branch or count by cause rather than by message. */
+    public Violation violation() { return violation; }
 }
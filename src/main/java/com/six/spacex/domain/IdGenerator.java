@@ -0,0 +1,58 @@
+package com.six.spacex.domain;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Source of the UUIDs behind new {@link RocketId}s and {@link MissionId}s, plugged into a
+ * repository with its {@code setIdGenerator}. Implementations must be thread-safe and never
+ * return the same value twice.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    UUID next();
+
+    default RocketId nextRocketId() {
+        return RocketId.of(next());
+    }
+
+    default MissionId nextMissionId() {
+        return MissionId.of(next());
+    }
+
+    /** Random (version 4) UUIDs from {@link UUID#randomUUID()}, whose shared {@code SecureRandom} serializes threads. */
+    static IdGenerator random() {
+        return UUID::randomUUID;
+    }
+
+    /**
+     * Time-ordered (version 7) UUIDs: a millisecond timestamp, a per-thread counter and 62 random
+     * bits from {@link ThreadLocalRandom}, so threads share no state. Ids from one thread are
+     * strictly increasing, ids from different threads sort by creation time to the millisecond.
+     */
+    static IdGenerator timeOrdered() {
+        return timeOrdered(System::currentTimeMillis);
+    }
+
+    /** {@link #timeOrdered()} with the given clock in milliseconds since the epoch. */
+    static IdGenerator timeOrdered(LongSupplier millisClock) {
+        return new TimeOrderedIdGenerator(millisClock);
+    }
+
+    /**
+     * Strictly increasing (version 8) UUIDs holding a 62-bit sequence number under a random
+     * 48-bit prefix, which tells apart the ids of separate generators.
+     */
+    static IdGenerator sequential() {
+        return new SequentialIdGenerator(ThreadLocalRandom.current().nextLong() >>> 16, 0);
+    }
+
+    /** {@link #sequential()} with a fixed prefix, starting at {@code first}. */
+    static IdGenerator sequential(long prefix, long first) {
+        if ((prefix >>> 48) != 0) throw new IllegalArgumentException("prefix must fit in 48 bits");
+        if (first < 0 || (first >>> 62) != 0) throw new IllegalArgumentException("first must fit in 62 bits");
+        return new SequentialIdGenerator(prefix, first);
+    }
+}
@@ -7,6 +7,10 @@ public final class Mission {
     private final String name;
     private MissionStatus status;
     private final Set<RocketId> assignedRockets = new LinkedHashSet<>();
+    // assigned rockets per RocketStatus ordinal, kept in step with assignedRockets
+    private final int[] rocketsByStatus = new int[ROCKET_STATUSES];
+
+    private static final int ROCKET_STATUSES = RocketStatus.values().length;
 
     public Mission(MissionId id, String name) {
         this.id = Objects.requireNonNull(id);
@@ -18,17 +22,38 @@ public final class Mission {
     public String name() { return name; }
     public MissionStatus status() { return status; }
     public Set<RocketId> assignedRockets() { return Collections.unmodifiableSet(assignedRockets); }
+    public int assignedCount() { return assignedRockets.size(); }
+    public int rocketsInStatus(RocketStatus status) { return rocketsByStatus[status.ordinal()]; }
+
+    public void addRocket(Rocket rocket) {
+        if (assignedRockets.add(rocket.id())) {
+            rocketsByStatus[rocket.status().ordinal()]++;
+        }
+    }
 
-    public void addRocket(RocketId rocketId) {
-        assignedRockets.add(Objects.requireNonNull(rocketId));
+    public void removeRocket(Rocket rocket) {
+        if (assignedRockets.remove(rocket.id())) {
+            rocketsByStatus[rocket.status().ordinal()]--;
+        }
     }
 
-    public void removeRocket(RocketId rocketId) {
-        assignedRockets.remove(Objects.requireNonNull(rocketId));
+    /**
+     * Changes the status of {@code rocket}, which must be assigned to this mission, and its
+     * per-status count together. Assigned rockets can only change status through here.
+     */
+    public void changeRocketStatus(Rocket rocket, RocketStatus status) {
+        if (!assignedRockets.contains(rocket.id())) {
+            throw new IllegalArgumentException("Rocket " + rocket.id() + " is not assigned to mission " + id);
+        }
+        RocketStatus previous = rocket.status();
+        rocket.updateStatus(status);
+        rocketsByStatus[previous.ordinal()]--;
+        rocketsByStatus[status.ordinal()]++;
     }
 
     public void clearRockets() {
         assignedRockets.clear();
+        Arrays.fill(rocketsByStatus, 0);
     }
 
     public void setStatus(MissionStatus status) {
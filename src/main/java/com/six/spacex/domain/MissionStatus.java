@@ -1,5 +1,16 @@
 package com.six.spacex.domain;
 
 public enum MissionStatus {
-    SCHEDULED, PENDING, IN_PROGRESS, ENDED
+    SCHEDULED("Scheduled"), PENDING("Pending"), IN_PROGRESS("In progress"), ENDED("Ended");
+
+    private final String label;
+
+    MissionStatus(String label) {
+        this.label = label;
+    }
+
+    /** Human-readable name used in reports, e.g. {@code "In progress"}. */
+    public String label() {
+        return label;
+    }
 }
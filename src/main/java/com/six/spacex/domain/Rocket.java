@@ -19,9 +19,10 @@ public final class Rocket {
     public String name() { return name; }
     public RocketStatus status() { return status; }
     public Optional<MissionId> missionId() { return Optional.ofNullable(missionId); }
+    public boolean isAssigned() { return missionId != null; }
 
     public void assignTo(MissionId missionId) {
-        if (this.missionId != null) throw new DomainException("Rocket already assigned to a mission");
+        if (this.missionId != null) throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission");
         this.missionId = Objects.requireNonNull(missionId);
     }
 
@@ -29,7 +30,13 @@ public final class Rocket {
         this.missionId = null;
     }
 
+    /** Changes the status of an unassigned rocket; an assigned one changes through {@link Mission#changeRocketStatus}. */
     public void setStatus(RocketStatus status) {
+        if (missionId != null) throw new IllegalStateException("Rocket " + id + " is assigned; change its status through its mission");
+        updateStatus(status);
+    }
+
+    void updateStatus(RocketStatus status) {
         this.status = Objects.requireNonNull(status);
     }
 }
@@ -1,6 +1,5 @@
 package com.six.spacex.domain;
 
-import java.util.Objects;
 import java.util.UUID;
 
 public final class RocketId {
@@ -15,6 +14,6 @@ public final class RocketId {
         RocketId rocketId = (RocketId) o;
         return value.equals(rocketId.value);
     }
-    @Override public int hashCode() { return Objects.hash(value); }
+    @Override public int hashCode() { return value.hashCode(); }
     @Override public String toString() { return value.toString(); }
 }
@@ -1,5 +1,16 @@
 package com.six.spacex.domain;
 
 public enum RocketStatus {
-    ON_GROUND, IN_SPACE, IN_REPAIR, IN_BUILD
+    ON_GROUND("On ground"), IN_SPACE("In space"), IN_REPAIR("In repair"), IN_BUILD("In build");
+
+    private final String label;
+
+    RocketStatus(String label) {
+        this.label = label;
+    }
+
+    /** Human-readable name used in reports, e.g. {@code "On ground"}. */
+    public String label() {
+        return label;
+    }
 }
@@ -0,0 +1,22 @@
+package com.six.spacex.domain;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** See {@link IdGenerator#sequential()}. */
+final class SequentialIdGenerator implements IdGenerator {
+    private final long msb;
+    private final AtomicLong sequence;
+
+    SequentialIdGenerator(long prefix, long first) {
+        this.msb = prefix << 16 | 0x8000;
+        this.sequence = new AtomicLong(first);
+    }
+
+    @Override
+    public UUID next() {
+        long n = sequence.getAndIncrement();
+        if ((n >>> 62) != 0) throw new IllegalStateException("Sequence exhausted");
+        return new UUID(msb, n | 0x8000_0000_0000_0000L);
+    }
+}
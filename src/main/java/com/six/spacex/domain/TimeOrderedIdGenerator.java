@@ -0,0 +1,35 @@
+package com.six.spacex.domain;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/** See {@link IdGenerator#timeOrdered()}. */
+final class TimeOrderedIdGenerator implements IdGenerator {
+    private static final int COUNTER_BITS = 12;
+
+    private final LongSupplier clock;
+    private final ThreadLocal<long[]> state = ThreadLocal.withInitial(() -> new long[]{Long.MIN_VALUE, 0}); // millis, counter
+
+    TimeOrderedIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID next() {
+        long[] s = state.get();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long now = clock.getAsLong();
+        if (now > s[0]) {
+            s[0] = now;
+            s[1] = rnd.nextInt(1 << (COUNTER_BITS - 1)); // random start, half the range left to count up
+        } else if (++s[1] == 1 << COUNTER_BITS) {
+            // counter exhausted within one millisecond (or the clock went back): borrow the next one
+            s[0]++;
+            s[1] = 0;
+        }
+        long msb = (s[0] & 0xFFFF_FFFF_FFFFL) << 16 | 0x7000 | s[1];
+        long lsb = rnd.nextLong() >>> 2 | 0x8000_0000_0000_0000L;
+        return new UUID(msb, lsb);
+    }
+}
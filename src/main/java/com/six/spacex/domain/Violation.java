@@ -0,0 +1,31 @@
+package com.six.spacex.domain;
+
+/**
+ * The domain rule a rejected operation broke; carried by {@link DomainException#violation()}.
+ */
+public enum Violation {
+    UNKNOWN_ROCKET,
+    UNKNOWN_MISSION,
+    DUPLICATE_ROCKET,
+    DUPLICATE_MISSION,
+    /** A rocket name is already taken while unique names are enforced. */
+    DUPLICATE_ROCKET_NAME,
+    /** A mission name is already taken while unique names are enforced. */
+    DUPLICATE_MISSION_NAME,
+    ROCKET_ALREADY_ASSIGNED,
+    ROCKET_NOT_ASSIGNED,
+    MISSION_ENDED,
+    IN_SPACE_WITHOUT_MISSION,
+    ASSIGNED_ROCKET_IN_BUILD,
+    END_WITH_ROCKETS_ASSIGNED,
+    SCHEDULED_WITH_ROCKETS,
+    MISSION_WITHOUT_ROCKETS,
+    PENDING_WITHOUT_REPAIR,
+    IN_PROGRESS_WITH_REPAIR,
+    /** Restored or imported state that does not satisfy the repository invariants. */
+    INCONSISTENT_STATE,
+    /** Raised through {@link DomainException#DomainException(String)} without a specific rule. */
+    UNSPECIFIED,
+    /** No rule was broken; what the {@code try...} mutators return when they applied the change. */
+    NONE
+}
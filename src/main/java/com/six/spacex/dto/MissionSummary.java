@@ -22,31 +22,13 @@ public final class MissionSummary {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        sb.append(missionName).append(" - ").append(formatStatus(missionStatus)).append(" - Dragons: ").append(dragonsCount);
+        sb.append(missionName).append(" - ").append(missionStatus.label()).append(" - Dragons: ").append(dragonsCount);
         for (RocketView r : rockets) {
-            sb.append(System.lineSeparator()).append("  o ").append(r.name).append(" - ").append(formatStatus(r.status));
+            sb.append(System.lineSeparator()).append("  o ").append(r.name).append(" - ").append(r.status.label());
         }
         return sb.toString();
     }
 
-    private static String formatStatus(MissionStatus s) {
-        return switch (s) {
-            case SCHEDULED -> "Scheduled";
-            case PENDING -> "Pending";
-            case IN_PROGRESS -> "In progress";
-            case ENDED -> "Ended";
-        };
-    }
-
-    private static String formatStatus(RocketStatus s) {
-        return switch (s) {
-            case ON_GROUND -> "On ground";
-            case IN_SPACE -> "In space";
-            case IN_REPAIR -> "In repair";
-            case IN_BUILD -> "In build";
-        };
-    }
-
     public static final class RocketView {
         public final String name;
         public final RocketStatus status;
@@ -0,0 +1,28 @@
+package com.six.spacex.dto;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * One page of a query result. Pass {@code nextPageToken} back to the same query on the same
+ * repository to get the following page; it is empty on the last page.
+ * <p>
+ * The page takes ownership of {@code items} and exposes it read-only without copying it, so
+ * callers must pass a list they will not change afterwards.
+ */
+public final class Page<T> {
+    public final List<T> items;
+    public final Optional<String> nextPageToken;
+
+    public Page(List<T> items, Optional<String> nextPageToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextPageToken = Objects.requireNonNull(nextPageToken);
+    }
+
+    @Override
+    public String toString() {
+        return items.size() + " items" + nextPageToken.map(t -> ", next: " + t).orElse("");
+    }
+}
@@ -18,17 +18,8 @@ public final class RocketDetails {
 
     @Override
     public String toString() {
-        return name + " - " + format(status) +
+        return name + " - " + status.label() +
                 missionName.map(m -> " (mission: " + m + ")").orElse("");
     }
-
-    private static String format(RocketStatus s) {
-        return switch (s) {
-            case ON_GROUND -> "On ground";
-            case IN_SPACE -> "In space";
-            case IN_REPAIR -> "In repair";
-            case IN_BUILD -> "In build";
-        };
-    }
 }
 
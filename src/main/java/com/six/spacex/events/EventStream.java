@@ -0,0 +1,178 @@
+package com.six.spacex.events;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, lock-free multi-producer ring buffer that hands repository events to subscribers on
+ * one dispatcher thread.
+ * <p>
+ * Producers claim a sequence number with a single atomic increment and publish into the slot it
+ * maps to; the dispatcher collects consecutive published events into batches of up to
+ * {@code maxBatch} and passes each batch to every subscriber in subscription order. When the
+ * buffer is full, producers wait (spinning briefly, then parking) until the dispatcher has
+ * delivered older events, so slow subscribers slow the repository down instead of losing events
+ * or growing memory.
+ * <p>
+ * Events from one producer thread are delivered in the order they were published. A subscriber
+ * that throws does not stop delivery; the failure is counted.
+ * <p>
+ * {@link #close()} seals the sequence counter itself, so a publish either claimed its sequence
+ * before the seal and is delivered, or claims one after it and is rejected; none is lost.
+ */
+public final class EventStream implements RepositoryListener, Closeable {
+
+    /** Receives batches of events; the list is only valid during the call. */
+    @FunctionalInterface
+    public interface Subscriber {
+        void onEvents(List<RepositoryEvent> events);
+    }
+
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PRODUCER_PARK_NANOS = 50_000;
+    private static final long DISPATCHER_PARK_NANOS = 1_000_000;
+    /** Set in {@link #claimed} by {@link #close()}; sequences claimed with it are rejected. */
+    private static final long CLOSED = 1L << 62;
+
+    private final AtomicReferenceArray<RepositoryEvent> slots;
+    private final int capacity;
+    private final int mask;
+    private final int maxBatch;
+    private final AtomicLong claimed = new AtomicLong();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final LongAdder producerWaits = new LongAdder();
+    private final LongAdder subscriberFailures = new LongAdder();
+    private final Thread dispatcher;
+
+    /** Sequences below this have been delivered and their slots may be reused. */
+    private volatile long delivered;
+    private volatile boolean dispatcherParked;
+    /** Sequences claimed before the stream was closed; the dispatcher stops once it delivered them. */
+    private volatile long end = Long.MAX_VALUE;
+
+    private EventStream(int capacity, int maxBatch) {
+        int size = 1;
+        while (size < capacity) size <<= 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.maxBatch = maxBatch;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.dispatcher = new Thread(this::dispatchLoop, "event-dispatcher");
+        dispatcher.setDaemon(true);
+    }
+
+    /**
+     * @param capacity events the buffer holds before producers wait; rounded up to a power of two
+     * @param maxBatch largest batch handed to a subscriber at once
+     */
+    public static EventStream start(int capacity, int maxBatch) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        if (maxBatch <= 0) throw new IllegalArgumentException("maxBatch must be positive");
+        EventStream stream = new EventStream(capacity, maxBatch);
+        stream.dispatcher.start();
+        return stream;
+    }
+
+    /** Subscribers receive the events published after they subscribed. */
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /** Publishes {@code event}, waiting while the buffer is full. */
+    @Override
+    public void onEvent(RepositoryEvent event) {
+        long seq = claimed.getAndIncrement();
+        if ((seq & CLOSED) != 0) throw new IllegalStateException("Event stream is closed");
+        if (seq - delivered >= capacity) awaitSpace(seq);
+        slots.set((int) seq & mask, event);
+        if (dispatcherParked) LockSupport.unpark(dispatcher);
+    }
+
+    /** Events published so far. */
+    public long published() {
+        return Math.min(claimed.get() & ~CLOSED, end);
+    }
+
+    /** Events handed to all subscribers so far. */
+    public long delivered() {
+        return delivered;
+    }
+
+    /** Times a producer found the buffer full. */
+    public long producerWaits() {
+        return producerWaits.sum();
+    }
+
+    public long subscriberFailures() {
+        return subscriberFailures.sum();
+    }
+
+    /**
+     * Stops accepting events, waits until every sequence claimed before then is published and
+     * delivered, and stops the dispatcher.
+     */
+    @Override
+    public void close() {
+        long c = claimed.get();
+        while ((c & CLOSED) == 0 && !claimed.compareAndSet(c, c | CLOSED)) c = claimed.get();
+        if ((c & CLOSED) == 0) end = c;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitSpace(long seq) {
+        producerWaits.increment();
+        for (int spins = 0; seq - delivered >= capacity; spins++) {
+            if (spins < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        List<RepositoryEvent> batch = new ArrayList<>(maxBatch);
+        List<RepositoryEvent> view = Collections.unmodifiableList(batch);
+        long next = 0;
+        while (true) {
+            RepositoryEvent event;
+            while (batch.size() < maxBatch && (event = slots.get((int) next & mask)) != null) {
+                slots.lazySet((int) next & mask, null);
+                batch.add(event);
+                next++;
+            }
+            if (!batch.isEmpty()) {
+                for (Subscriber s : subscribers) {
+                    try {
+                        s.onEvents(view);
+                    } catch (RuntimeException e) {
+                        subscriberFailures.increment();
+                    }
+                }
+                batch.clear();
+                delivered = next;
+                continue;
+            }
+            if (next == end) return;
+            dispatcherParked = true;
+            if (slots.get((int) next & mask) == null) LockSupport.parkNanos(this, DISPATCHER_PARK_NANOS);
+            dispatcherParked = false;
+        }
+    }
+}
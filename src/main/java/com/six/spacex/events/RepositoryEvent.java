@@ -0,0 +1,83 @@
+package com.six.spacex.events;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+
+import java.util.Objects;
+
+/**
+ * A state change made by a repository. Fields that do not apply to the event's type are
+ * {@code null}; {@code missionId} on a rocket status change is the rocket's mission, if any.
+ */
+public final class RepositoryEvent {
+
+    public enum Type {
+        ROCKET_ADDED, MISSION_ADDED, ROCKET_ASSIGNED, ROCKET_UNASSIGNED, ROCKET_STATUS_CHANGED, MISSION_STATUS_CHANGED
+    }
+
+    public final Type type;
+    public final RocketId rocketId;
+    public final MissionId missionId;
+    public final String name;
+    public final RocketStatus previousRocketStatus;
+    public final RocketStatus rocketStatus;
+    public final MissionStatus previousMissionStatus;
+    public final MissionStatus missionStatus;
+
+    private RepositoryEvent(Type type, RocketId rocketId, MissionId missionId, String name,
+                            RocketStatus previousRocketStatus, RocketStatus rocketStatus,
+                            MissionStatus previousMissionStatus, MissionStatus missionStatus) {
+        this.type = type;
+        this.rocketId = rocketId;
+        this.missionId = missionId;
+        this.name = name;
+        this.previousRocketStatus = previousRocketStatus;
+        this.rocketStatus = rocketStatus;
+        this.previousMissionStatus = previousMissionStatus;
+        this.missionStatus = missionStatus;
+    }
+
+    public static RepositoryEvent rocketAdded(RocketId rocketId, String name) {
+        return new RepositoryEvent(Type.ROCKET_ADDED, Objects.requireNonNull(rocketId), null, Objects.requireNonNull(name),
+                null, RocketStatus.ON_GROUND, null, null);
+    }
+
+    public static RepositoryEvent missionAdded(MissionId missionId, String name) {
+        return new RepositoryEvent(Type.MISSION_ADDED, null, Objects.requireNonNull(missionId), Objects.requireNonNull(name),
+                null, null, null, MissionStatus.SCHEDULED);
+    }
+
+    public static RepositoryEvent rocketAssigned(RocketId rocketId, MissionId missionId) {
+        return new RepositoryEvent(Type.ROCKET_ASSIGNED, Objects.requireNonNull(rocketId), Objects.requireNonNull(missionId), null,
+                null, null, null, null);
+    }
+
+    public static RepositoryEvent rocketUnassigned(RocketId rocketId, MissionId missionId) {
+        return new RepositoryEvent(Type.ROCKET_UNASSIGNED, Objects.requireNonNull(rocketId), Objects.requireNonNull(missionId), null,
+                null, null, null, null);
+    }
+
+    public static RepositoryEvent rocketStatusChanged(RocketId rocketId, MissionId missionId, RocketStatus previous, RocketStatus status) {
+        return new RepositoryEvent(Type.ROCKET_STATUS_CHANGED, Objects.requireNonNull(rocketId), missionId, null,
+                Objects.requireNonNull(previous), Objects.requireNonNull(status), null, null);
+    }
+
+    public static RepositoryEvent missionStatusChanged(MissionId missionId, MissionStatus previous, MissionStatus status) {
+        return new RepositoryEvent(Type.MISSION_STATUS_CHANGED, null, Objects.requireNonNull(missionId), null,
+                null, null, Objects.requireNonNull(previous), Objects.requireNonNull(status));
+    }
+
+    @Override
+    public String toString() {
+        return switch (type) {
+            case ROCKET_ADDED -> "rocket " + rocketId + " added as " + name;
+            case MISSION_ADDED -> "mission " + missionId + " added as " + name;
+            case ROCKET_ASSIGNED -> "rocket " + rocketId + " assigned to " + missionId;
+            case ROCKET_UNASSIGNED -> "rocket " + rocketId + " unassigned from " + missionId;
+            case ROCKET_STATUS_CHANGED -> "rocket " + rocketId + " " + previousRocketStatus + " -> " + rocketStatus;
+            case MISSION_STATUS_CHANGED -> "mission " + missionId + " " + previousMissionStatus + " -> " + missionStatus;
+        };
+    }
+}
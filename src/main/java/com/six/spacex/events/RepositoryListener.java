@@ -0,0 +1,14 @@
+package com.six.spacex.events;
+
+/**
+ * Receives every change a repository makes, synchronously on the mutating thread and in the
+ * order the changes were made to each rocket and mission. Derived mission status changes are
+ * reported after the change that caused them.
+ * <p>
+ * Implementations must be fast and must not call back into the repository; hand events to an
+ * {@link EventStream} to process them elsewhere.
+ */
+@FunctionalInterface
+public interface RepositoryListener {
+    void onEvent(RepositoryEvent event);
+}
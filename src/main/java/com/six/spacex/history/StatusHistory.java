@@ -0,0 +1,524 @@
+package com.six.spacex.history;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.events.RepositoryEvent;
+import com.six.spacex.events.RepositoryListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only record of every rocket and mission transition a repository reports, answering
+ * queries about the past: the status lists and the summary report as they were at an instant,
+ * and how long an entity spent in each status.
+ * <p>
+ * Attach it with the repository's {@code setListener}, ideally before the repository is
+ * populated; an entity first seen in a later event is recorded from then on, named by its id.
+ * Transitions are stored column-wise in fixed-size chunks (a {@code long} timestamp in epoch
+ * milliseconds, a {@code byte} kind and status, {@code int} handles for the rocket or mission
+ * and for the mission it was assigned to), so a record costs 18 bytes.
+ * <p>
+ * {@code maxRecords} and {@code retention} bound the retained transitions: once either is
+ * exceeded the oldest chunk is folded into a base state, moving the {@link #horizon()} forward.
+ * Queries about instants before the horizon are rejected. They do not bound the rest: the name,
+ * handle and base-state entries of every rocket and mission ever seen are kept for the lifetime
+ * of the history, so its memory grows with the number of entities. Timestamps come from the
+ * clock and never decrease, even if the clock does; a query at an instant sees every transition
+ * stamped in that millisecond.
+ * <p>
+ * Thread-safe, and queries do not hold up the repository's writers: a query only takes the lock
+ * to capture references to the base state and the chunks, then replays them on its own thread
+ * while appends carry on. Full chunks never change, and the base state is copied before the next
+ * fold if a query may still be reading it.
+ */
+public final class StatusHistory implements RepositoryListener {
+
+    private static final int CHUNK_RECORDS = 4096;
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+
+    // record kinds
+    private static final byte ROCKET_ADDED = 0;
+    private static final byte MISSION_ADDED = 1;
+    private static final byte ASSIGNED = 2;
+    private static final byte UNASSIGNED = 3;
+    private static final byte ROCKET_STATUS = 4;
+    private static final byte MISSION_STATUS = 5;
+
+    private final int maxRecords;
+    private final long retentionMillis;
+    private final Clock clock;
+    private final int chunkRecords;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // guarded by lock
+    private final Map<RocketId, Integer> rocketHandles = new HashMap<>();
+    private final Map<MissionId, Integer> missionHandles = new HashMap<>();
+    private final Names rocketNames = new Names();
+    private final Names missionNames = new Names();
+
+    private final ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+    private State base = new State();
+    private int retained;
+    private long horizon = Long.MIN_VALUE;
+    private long lastTime = Long.MIN_VALUE;
+
+    /** Keeps at most {@code maxRecords} transitions, none older than {@code retention}, stamped by the system clock. */
+    public StatusHistory(int maxRecords, Duration retention) {
+        this(maxRecords, retention, Clock.systemUTC());
+    }
+
+    public StatusHistory(int maxRecords, Duration retention, Clock clock) {
+        if (maxRecords < 1) throw new IllegalArgumentException("maxRecords must be positive");
+        if (retention.isNegative() || retention.isZero()) throw new IllegalArgumentException("retention must be positive");
+        this.maxRecords = maxRecords;
+        this.retentionMillis = retention.toMillis();
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.chunkRecords = Math.min(CHUNK_RECORDS, maxRecords);
+    }
+
+    @Override
+    public void onEvent(RepositoryEvent event) {
+        lock.lock();
+        try {
+            long now = Math.max(clock.millis(), lastTime);
+            lastTime = now;
+            switch (event.type) {
+                case ROCKET_ADDED -> append(now, ROCKET_ADDED, rocketHandle(event.rocketId, event.name, now, null), -1, event.rocketStatus.ordinal());
+                case MISSION_ADDED -> append(now, MISSION_ADDED, missionHandle(event.missionId, event.name, now, null), -1, event.missionStatus.ordinal());
+                case ROCKET_ASSIGNED, ROCKET_UNASSIGNED -> {
+                    int rocket = rocketHandle(event.rocketId, null, now, RocketStatus.ON_GROUND);
+                    int mission = missionHandle(event.missionId, null, now, MissionStatus.SCHEDULED);
+                    append(now, event.type == RepositoryEvent.Type.ROCKET_ASSIGNED ? ASSIGNED : UNASSIGNED, rocket, mission, -1);
+                }
+                case ROCKET_STATUS_CHANGED -> append(now, ROCKET_STATUS,
+                        rocketHandle(event.rocketId, null, now, event.previousRocketStatus), -1, event.rocketStatus.ordinal());
+                case MISSION_STATUS_CHANGED -> append(now, MISSION_STATUS,
+                        missionHandle(event.missionId, null, now, event.previousMissionStatus), -1, event.missionStatus.ordinal());
+            }
+            evict(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Rockets that were in {@code status} at {@code at}, in insertion order. */
+    public List<RocketDetails> listRocketsByStatus(RocketStatus status, Instant at) {
+        Snapshot snap = snapshot();
+        State s = snap.stateAt(at);
+        List<RocketDetails> out = new ArrayList<>();
+        for (int r = 0; r < s.rockets; r++) {
+            if (s.rocketStatus[r] == status.ordinal()) out.add(snap.detailsOf(s, r));
+        }
+        return out;
+    }
+
+    /** Missions that were in {@code status} at {@code at}, in insertion order. */
+    public List<MissionSummary> listMissionsByStatus(MissionStatus status, Instant at) {
+        Snapshot snap = snapshot();
+        State s = snap.stateAt(at);
+        List<MissionSummary> out = new ArrayList<>();
+        for (int m = 0; m < s.missions; m++) {
+            if (s.missionStatus[m] == status.ordinal()) out.add(snap.summaryOf(s, m));
+        }
+        return out;
+    }
+
+    /** The summary report as it was at {@code at}: by rocket count desc, then name desc, then insertion order. */
+    public List<MissionSummary> summarizeMissionsByAssignedRockets(Instant at) {
+        Snapshot snap = snapshot();
+        State s = snap.stateAt(at);
+        List<Integer> order = new ArrayList<>();
+        for (int m = 0; m < s.missions; m++) {
+            if (s.missionStatus[m] >= 0) order.add(m);
+        }
+        order.sort(Comparator.comparingInt((Integer m) -> s.assignedCount[m]).reversed()
+                .thenComparing((Integer m) -> Names.get(snap.missionNames, m), Comparator.reverseOrder())
+                .thenComparingInt(m -> m));
+        List<MissionSummary> out = new ArrayList<>(order.size());
+        for (int m : order) out.add(snap.summaryOf(s, m));
+        return out;
+    }
+
+    /** Time the rocket spent in each status between {@code from} and {@code to}; statuses it never had are absent. */
+    public Map<RocketStatus, Duration> rocketTimeInStatus(RocketId id, Instant from, Instant to) {
+        Integer handle;
+        Snapshot snap;
+        lock.lock();
+        try {
+            handle = rocketHandles.get(id);
+            snap = snapshotLocked();
+        } finally {
+            lock.unlock();
+        }
+        long[] millis = handle == null ? new long[0] : snap.timeInStatus(handle, ROCKET_ADDED, ROCKET_STATUS, ROCKET_STATUSES.length, from, to);
+        Map<RocketStatus, Duration> out = new EnumMap<>(RocketStatus.class);
+        for (int i = 0; i < millis.length; i++) {
+            if (millis[i] > 0) out.put(ROCKET_STATUSES[i], Duration.ofMillis(millis[i]));
+        }
+        return out;
+    }
+
+    /** Time the mission spent in each status between {@code from} and {@code to}; statuses it never had are absent. */
+    public Map<MissionStatus, Duration> missionTimeInStatus(MissionId id, Instant from, Instant to) {
+        Integer handle;
+        Snapshot snap;
+        lock.lock();
+        try {
+            handle = missionHandles.get(id);
+            snap = snapshotLocked();
+        } finally {
+            lock.unlock();
+        }
+        long[] millis = handle == null ? new long[0] : snap.timeInStatus(handle, MISSION_ADDED, MISSION_STATUS, MISSION_STATUSES.length, from, to);
+        Map<MissionStatus, Duration> out = new EnumMap<>(MissionStatus.class);
+        for (int i = 0; i < millis.length; i++) {
+            if (millis[i] > 0) out.put(MISSION_STATUSES[i], Duration.ofMillis(millis[i]));
+        }
+        return out;
+    }
+
+    /** Earliest instant queries can ask about; {@link Instant#MIN} while nothing was evicted. */
+    public Instant horizon() {
+        lock.lock();
+        try {
+            return horizon == Long.MIN_VALUE ? Instant.MIN : Instant.ofEpochMilli(horizon);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Number of transitions currently retained. */
+    public int size() {
+        lock.lock();
+        try {
+            return retained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Recording
+
+    /**
+     * Handle of the rocket, registering it if it is new. A rocket first seen in an event other
+     * than its addition is recorded as added now, in {@code firstStatus}.
+     */
+    private int rocketHandle(RocketId id, String name, long now, RocketStatus firstStatus) {
+        Integer handle = rocketHandles.get(id);
+        if (handle != null) return handle;
+        int h = rocketNames.size();
+        rocketHandles.put(id, h);
+        rocketNames.add(name != null ? name : id.toString());
+        if (firstStatus != null) append(now, ROCKET_ADDED, h, -1, firstStatus.ordinal());
+        return h;
+    }
+
+    /** Handle of the mission, see {@link #rocketHandle}. */
+    private int missionHandle(MissionId id, String name, long now, MissionStatus firstStatus) {
+        Integer handle = missionHandles.get(id);
+        if (handle != null) return handle;
+        int h = missionNames.size();
+        missionHandles.put(id, h);
+        missionNames.add(name != null ? name : id.toString());
+        if (firstStatus != null) append(now, MISSION_ADDED, h, -1, firstStatus.ordinal());
+        return h;
+    }
+
+    private void append(long time, byte kind, int subject, int mission, int status) {
+        Chunk c = chunks.peekLast();
+        if (c == null || c.size == chunkRecords) {
+            c = new Chunk(chunkRecords);
+            chunks.addLast(c);
+        }
+        int i = c.size++;
+        c.times[i] = time;
+        c.kinds[i] = kind;
+        c.subjects[i] = subject;
+        c.missions[i] = mission;
+        c.statuses[i] = (byte) status;
+        retained++;
+    }
+
+    /** Folds the oldest chunks into the base state while the history is over its bounds. */
+    private void evict(long now) {
+        while (chunks.size() > 1) {
+            Chunk oldest = chunks.peekFirst();
+            if (retained <= maxRecords && oldest.times[oldest.size - 1] >= now - retentionMillis) return;
+            chunks.pollFirst();
+            if (base.shared) base = base.copy(); // a query may still be replaying from it
+            for (int i = 0; i < oldest.size; i++) base.apply(oldest, i);
+            horizon = oldest.times[oldest.size - 1];
+            retained -= oldest.size;
+        }
+    }
+
+    // Replay
+
+    private Snapshot snapshot() {
+        lock.lock();
+        try {
+            return snapshotLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Caller holds lock. Costs one reference per chunk; the records are read later, without the lock. */
+    private Snapshot snapshotLocked() {
+        base.shared = true;
+        Chunk[] captured = chunks.toArray(new Chunk[0]);
+        int lastSize = captured.length == 0 ? 0 : captured[captured.length - 1].size;
+        return new Snapshot(base, captured, lastSize, horizon, rocketNames.pages, missionNames.pages);
+    }
+
+    /**
+     * What a query replays: a base state nobody changes any more, the chunks after it and how
+     * much of the last one was written, and the name pages. Every element it reads was written
+     * before the lock that captured it was released.
+     */
+    private static final class Snapshot {
+        final State base;
+        final Chunk[] chunks;
+        final int lastSize;
+        final long horizon;
+        final String[][] rocketNames;
+        final String[][] missionNames;
+
+        Snapshot(State base, Chunk[] chunks, int lastSize, long horizon, String[][] rocketNames, String[][] missionNames) {
+            this.base = base;
+            this.chunks = chunks;
+            this.lastSize = lastSize;
+            this.horizon = horizon;
+            this.rocketNames = rocketNames;
+            this.missionNames = missionNames;
+        }
+
+        /** The state after every record stamped at or before {@code at}. */
+        State stateAt(Instant at) {
+            long t = toMillis(at);
+            State s = base.copy();
+            for (int k = 0; k < chunks.length; k++) {
+                Chunk c = chunks[k];
+                for (int i = 0, n = sizeOf(k); i < n; i++) {
+                    if (c.times[i] > t) return s;
+                    s.apply(c, i);
+                }
+            }
+            return s;
+        }
+
+        /** Milliseconds an entity spent per status in {@code [from, to]}, replaying only its own records. */
+        long[] timeInStatus(int handle, byte addedKind, byte statusKind, int statuses, Instant from, Instant to) {
+            long start = toMillis(from);
+            long end = toMillis(to);
+            if (end < start) throw new IllegalArgumentException("to must not be before from");
+            int status = baseStatus(handle, addedKind);
+            long since = start;
+            long[] out = new long[statuses];
+            scan:
+            for (int k = 0; k < chunks.length; k++) {
+                Chunk c = chunks[k];
+                for (int i = 0, n = sizeOf(k); i < n; i++) {
+                    if (c.subjects[i] != handle || (c.kinds[i] != addedKind && c.kinds[i] != statusKind)) continue;
+                    long t = c.times[i];
+                    if (t > end) break scan;
+                    if (t > start && status >= 0) out[status] += t - since;
+                    if (t > start) since = t;
+                    status = c.statuses[i];
+                }
+            }
+            if (status >= 0) out[status] += end - since;
+            return out;
+        }
+
+        RocketDetails detailsOf(State s, int r) {
+            int m = s.rocketMission[r];
+            return new RocketDetails(Names.get(rocketNames, r), ROCKET_STATUSES[s.rocketStatus[r]],
+                    m < 0 ? Optional.empty() : Optional.of(Names.get(missionNames, m)));
+        }
+
+        MissionSummary summaryOf(State s, int m) {
+            int count = s.assignedCount[m];
+            List<MissionSummary.RocketView> rockets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int r = s.assigned[m][i];
+                rockets.add(new MissionSummary.RocketView(Names.get(rocketNames, r), ROCKET_STATUSES[s.rocketStatus[r]]));
+            }
+            return new MissionSummary(Names.get(missionNames, m), MISSION_STATUSES[s.missionStatus[m]], count, rockets);
+        }
+
+        /** Full chunks never change; only the last one may have grown since the capture. */
+        private int sizeOf(int k) {
+            return k == chunks.length - 1 ? lastSize : chunks[k].times.length;
+        }
+
+        private int baseStatus(int handle, byte addedKind) {
+            if (addedKind == ROCKET_ADDED) return handle < base.rockets ? base.rocketStatus[handle] : -1;
+            return handle < base.missions ? base.missionStatus[handle] : -1;
+        }
+
+        private long toMillis(Instant at) {
+            long t = at.toEpochMilli();
+            if (horizon != Long.MIN_VALUE && t < horizon) {
+                throw new IllegalArgumentException("No history before " + Instant.ofEpochMilli(horizon) + ": " + at);
+            }
+            return t;
+        }
+    }
+
+    /**
+     * Append-only names by handle, in fixed pages that never move, so a query can read the names
+     * that existed when it captured {@link #pages} while more are added.
+     */
+    private static final class Names {
+        private static final int PAGE_BITS = 12;
+        private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+        String[][] pages = new String[16][];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(String name) {
+            int page = size >>> PAGE_BITS;
+            if (page == pages.length) pages = Arrays.copyOf(pages, page * 2);
+            if (pages[page] == null) pages[page] = new String[PAGE_SIZE];
+            pages[page][size & (PAGE_SIZE - 1)] = name;
+            size++;
+        }
+
+        static String get(String[][] pages, int handle) {
+            return pages[handle >>> PAGE_BITS][handle & (PAGE_SIZE - 1)];
+        }
+    }
+
+    /** One block of records, column by column. */
+    private static final class Chunk {
+        final long[] times;
+        final byte[] kinds;
+        final int[] subjects;
+        final int[] missions;
+        final byte[] statuses;
+        int size;
+
+        Chunk(int capacity) {
+            times = new long[capacity];
+            kinds = new byte[capacity];
+            subjects = new int[capacity];
+            missions = new int[capacity];
+            statuses = new byte[capacity];
+        }
+    }
+
+    /**
+     * Rocket and mission state by handle, as of some record. A status of {@code -1} means the
+     * entity did not exist yet; {@code assigned[m]} lists the mission's rockets in assignment order.
+     */
+    private static final class State {
+        int rockets;
+        int missions;
+        byte[] rocketStatus = new byte[16];
+        int[] rocketMission = new int[16];
+        byte[] missionStatus = new byte[16];
+        int[][] assigned = new int[16][];
+        int[] assignedCount = new int[16];
+        /** Set once a query captured this state; it must not change from then on. */
+        boolean shared;
+
+        State copy() {
+            State s = new State();
+            s.rockets = rockets;
+            s.missions = missions;
+            s.rocketStatus = rocketStatus.clone();
+            s.rocketMission = rocketMission.clone();
+            s.missionStatus = missionStatus.clone();
+            s.assigned = assigned.clone();
+            for (int m = 0; m < missions; m++) {
+                if (assigned[m] != null) s.assigned[m] = assigned[m].clone();
+            }
+            s.assignedCount = assignedCount.clone();
+            return s;
+        }
+
+        void apply(Chunk c, int i) {
+            int subject = c.subjects[i];
+            switch (c.kinds[i]) {
+                case ROCKET_ADDED -> {
+                    growRockets(subject);
+                    rocketStatus[subject] = c.statuses[i];
+                }
+                case MISSION_ADDED -> {
+                    growMissions(subject);
+                    missionStatus[subject] = c.statuses[i];
+                }
+                case ASSIGNED -> {
+                    int m = c.missions[i];
+                    rocketMission[subject] = m;
+                    int[] list = assigned[m];
+                    if (list == null) list = assigned[m] = new int[4];
+                    if (assignedCount[m] == list.length) list = assigned[m] = Arrays.copyOf(list, list.length * 2);
+                    list[assignedCount[m]++] = subject;
+                }
+                case UNASSIGNED -> {
+                    int m = c.missions[i];
+                    rocketMission[subject] = -1;
+                    int[] list = assigned[m];
+                    for (int j = 0; j < assignedCount[m]; j++) {
+                        if (list[j] == subject) {
+                            System.arraycopy(list, j + 1, list, j, assignedCount[m] - j - 1);
+                            assignedCount[m]--;
+                            break;
+                        }
+                    }
+                }
+                case ROCKET_STATUS -> rocketStatus[subject] = c.statuses[i];
+                case MISSION_STATUS -> missionStatus[subject] = c.statuses[i];
+                default -> throw new IllegalStateException("Unknown record kind " + c.kinds[i]);
+            }
+        }
+
+        private void growRockets(int handle) {
+            if (handle >= rocketStatus.length) {
+                int size = Math.max(rocketStatus.length * 2, handle + 1);
+                rocketStatus = Arrays.copyOf(rocketStatus, size);
+                rocketMission = Arrays.copyOf(rocketMission, size);
+            }
+            for (int r = rockets; r <= handle; r++) {
+                rocketStatus[r] = -1;
+                rocketMission[r] = -1;
+            }
+            rockets = Math.max(rockets, handle + 1);
+        }
+
+        private void growMissions(int handle) {
+            if (handle >= missionStatus.length) {
+                int size = Math.max(missionStatus.length * 2, handle + 1);
+                missionStatus = Arrays.copyOf(missionStatus, size);
+                assigned = Arrays.copyOf(assigned, size);
+                assignedCount = Arrays.copyOf(assignedCount, size);
+            }
+            for (int m = missions; m <= handle; m++) missionStatus[m] = -1;
+            missions = Math.max(missions, handle + 1);
+        }
+    }
+}
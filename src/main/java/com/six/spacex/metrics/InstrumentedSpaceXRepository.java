@@ -0,0 +1,384 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.repository.ForwardingSpaceXRepository;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.repository.SpaceXRepository;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Decorator that times every call on the wrapped repository and counts failures, recording into
+ * a {@link RepositoryMetrics}. Status recalculation happens inside the mutating calls, so it is
+ * part of their latency. The {@code stream*} queries are forwarded untimed because their work
+ * happens as the caller consumes the stream.
+ */
+public final class InstrumentedSpaceXRepository extends ForwardingSpaceXRepository {
+
+    private final RepositoryMetrics metrics;
+
+    public InstrumentedSpaceXRepository(SpaceXRepository delegate) {
+        this(delegate, new RepositoryMetrics());
+    }
+
+    /** Records into {@code metrics}, which several decorators may share. */
+    public InstrumentedSpaceXRepository(SpaceXRepository delegate, RepositoryMetrics metrics) {
+        super(delegate);
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+    }
+
+    public RepositoryMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public RocketId addRocket(String name) {
+        long start = System.nanoTime();
+        try {
+            RocketId result = delegate.addRocket(name);
+            metrics.record(Operation.ADD_ROCKET, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.ADD_ROCKET, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void addRocket(RocketId id, String name) {
+        long start = System.nanoTime();
+        try {
+            delegate.addRocket(id, name);
+            metrics.record(Operation.ADD_ROCKET, start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.ADD_ROCKET, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public MissionId addMission(String name) {
+        long start = System.nanoTime();
+        try {
+            MissionId result = delegate.addMission(name);
+            metrics.record(Operation.ADD_MISSION, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.ADD_MISSION, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void addMission(MissionId id, String name) {
+        long start = System.nanoTime();
+        try {
+            delegate.addMission(id, name);
+            metrics.record(Operation.ADD_MISSION, start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.ADD_MISSION, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void assignRocketToMission(RocketId rocketId, MissionId missionId) {
+        long start = System.nanoTime();
+        try {
+            delegate.assignRocketToMission(rocketId, missionId);
+            metrics.record(Operation.ASSIGN_ROCKET, start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.ASSIGN_ROCKET, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        long start = System.nanoTime();
+        try {
+            delegate.assignRocketsToMission(missionId, rocketIds);
+            metrics.record(Operation.ASSIGN_ROCKETS, start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.ASSIGN_ROCKETS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void changeRocketStatus(RocketId rocketId, RocketStatus status) {
+        long start = System.nanoTime();
+        try {
+            delegate.changeRocketStatus(rocketId, status);
+            metrics.record(Operation.CHANGE_ROCKET_STATUS, start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.CHANGE_ROCKET_STATUS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void changeMissionStatus(MissionId missionId, MissionStatus status) {
+        long start = System.nanoTime();
+        try {
+            delegate.changeMissionStatus(missionId, status);
+            metrics.record(Operation.CHANGE_MISSION_STATUS, start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.CHANGE_MISSION_STATUS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void unassignRocket(RocketId rocketId) {
+        long start = System.nanoTime();
+        try {
+            delegate.unassignRocket(rocketId);
+            metrics.record(Operation.UNASSIGN_ROCKET, start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.UNASSIGN_ROCKET, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void applyBatch(List<RepositoryCommand> commands) {
+        long start = System.nanoTime();
+        try {
+            delegate.applyBatch(commands);
+            metrics.record(Operation.APPLY_BATCH, start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.APPLY_BATCH, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<MissionSummary> summarizeMissionsByAssignedRockets() {
+        long start = System.nanoTime();
+        try {
+            List<MissionSummary> result = delegate.summarizeMissionsByAssignedRockets();
+            metrics.record(Operation.SUMMARIZE_MISSIONS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.SUMMARIZE_MISSIONS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) {
+        long start = System.nanoTime();
+        try {
+            List<MissionSummary> result = delegate.summarizeMissionsByAssignedRockets(limit);
+            metrics.record(Operation.SUMMARIZE_MISSIONS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.SUMMARIZE_MISSIONS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) {
+        long start = System.nanoTime();
+        try {
+            Page<MissionSummary> result = delegate.summarizeMissionsByAssignedRockets(limit, pageToken);
+            metrics.record(Operation.SUMMARIZE_MISSIONS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.SUMMARIZE_MISSIONS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<RocketDetails> getRocket(RocketId id) {
+        long start = System.nanoTime();
+        try {
+            Optional<RocketDetails> result = delegate.getRocket(id);
+            metrics.record(Operation.GET_ROCKET, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.GET_ROCKET, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<MissionSummary> getMission(MissionId id) {
+        long start = System.nanoTime();
+        try {
+            Optional<MissionSummary> result = delegate.getMission(id);
+            metrics.record(Operation.GET_MISSION, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.GET_MISSION, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<RocketDetails> listRocketsByStatus(RocketStatus status) {
+        long start = System.nanoTime();
+        try {
+            List<RocketDetails> result = delegate.listRocketsByStatus(status);
+            metrics.record(Operation.LIST_ROCKETS_BY_STATUS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.LIST_ROCKETS_BY_STATUS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) {
+        long start = System.nanoTime();
+        try {
+            Page<RocketDetails> result = delegate.listRocketsByStatus(status, limit, pageToken);
+            metrics.record(Operation.LIST_ROCKETS_BY_STATUS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.LIST_ROCKETS_BY_STATUS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<MissionSummary> listMissionsByStatus(MissionStatus status) {
+        long start = System.nanoTime();
+        try {
+            List<MissionSummary> result = delegate.listMissionsByStatus(status);
+            metrics.record(Operation.LIST_MISSIONS_BY_STATUS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.LIST_MISSIONS_BY_STATUS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) {
+        long start = System.nanoTime();
+        try {
+            Page<MissionSummary> result = delegate.listMissionsByStatus(status, limit, pageToken);
+            metrics.record(Operation.LIST_MISSIONS_BY_STATUS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.LIST_MISSIONS_BY_STATUS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public int countRocketsByStatus(RocketStatus status) {
+        long start = System.nanoTime();
+        try {
+            int result = delegate.countRocketsByStatus(status);
+            metrics.record(Operation.COUNT_ROCKETS_BY_STATUS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.COUNT_ROCKETS_BY_STATUS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public int countMissionsByStatus(MissionStatus status) {
+        long start = System.nanoTime();
+        try {
+            int result = delegate.countMissionsByStatus(status);
+            metrics.record(Operation.COUNT_MISSIONS_BY_STATUS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.COUNT_MISSIONS_BY_STATUS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<RocketStatus> getRocketStatus(RocketId id) {
+        long start = System.nanoTime();
+        try {
+            Optional<RocketStatus> result = delegate.getRocketStatus(id);
+            metrics.record(Operation.GET_ROCKET_STATUS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.GET_ROCKET_STATUS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<MissionStatus> getMissionStatus(MissionId id) {
+        long start = System.nanoTime();
+        try {
+            Optional<MissionStatus> result = delegate.getMissionStatus(id);
+            metrics.record(Operation.GET_MISSION_STATUS, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.GET_MISSION_STATUS, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<RocketId> findRocketsByName(String name) {
+        long start = System.nanoTime();
+        try {
+            List<RocketId> result = delegate.findRocketsByName(name);
+            metrics.record(Operation.FIND_ROCKETS_BY_NAME, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.FIND_ROCKETS_BY_NAME, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<RocketId> findRocketsByNamePrefix(String prefix, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<RocketId> result = delegate.findRocketsByNamePrefix(prefix, limit);
+            metrics.record(Operation.FIND_ROCKETS_BY_NAME, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.FIND_ROCKETS_BY_NAME, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<MissionId> findMissionsByName(String name) {
+        long start = System.nanoTime();
+        try {
+            List<MissionId> result = delegate.findMissionsByName(name);
+            metrics.record(Operation.FIND_MISSIONS_BY_NAME, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.FIND_MISSIONS_BY_NAME, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<MissionId> findMissionsByNamePrefix(String prefix, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<MissionId> result = delegate.findMissionsByNamePrefix(prefix, limit);
+            metrics.record(Operation.FIND_MISSIONS_BY_NAME, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.FIND_MISSIONS_BY_NAME, start, e);
+            throw e;
+        }
+    }
+}
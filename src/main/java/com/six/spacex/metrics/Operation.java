@@ -0,0 +1,27 @@
+package com.six.spacex.metrics;
+
+/**
+ * Repository operations tracked by {@link RepositoryMetrics}. Limited and paged variants of a
+ * query are recorded under the same operation as the full query, as are prefix name lookups.
+ */
+public enum Operation {
+    ADD_ROCKET,
+    ADD_MISSION,
+    ASSIGN_ROCKET,
+    ASSIGN_ROCKETS,
+    CHANGE_ROCKET_STATUS,
+    CHANGE_MISSION_STATUS,
+    UNASSIGN_ROCKET,
+    APPLY_BATCH,
+    SUMMARIZE_MISSIONS,
+    GET_ROCKET,
+    GET_MISSION,
+    LIST_ROCKETS_BY_STATUS,
+    LIST_MISSIONS_BY_STATUS,
+    COUNT_ROCKETS_BY_STATUS,
+    COUNT_MISSIONS_BY_STATUS,
+    GET_ROCKET_STATUS,
+    GET_MISSION_STATUS,
+    FIND_ROCKETS_BY_NAME,
+    FIND_MISSIONS_BY_NAME
+}
@@ -0,0 +1,125 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.DomainException;
+import com.six.spacex.domain.Violation;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Per-operation call counts, error counts and latency histograms, plus rejection counts by
+ * {@link Violation}. Recording is lock-free and allocation-free; read it through the pull methods
+ * here or over JMX after {@link #register(String)}.
+ */
+public final class RepositoryMetrics implements RepositoryMetricsMXBean {
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final Violation[] VIOLATIONS = Violation.values();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final LongAdder[] errors = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] violations = new LongAdder[VIOLATIONS.length];
+
+    public RepositoryMetrics() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            errors[i] = new LongAdder();
+        }
+        for (int i = 0; i < VIOLATIONS.length; i++) violations[i] = new LongAdder();
+    }
+
+    /** Records a completed call that started at {@code startNanos} ({@link System#nanoTime()}). */
+    public void record(Operation op, long startNanos) {
+        latencies[op.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    /** Records a call that threw {@code failure}; domain rejections are also counted by violation. */
+    public void recordFailure(Operation op, long startNanos, RuntimeException failure) {
+        record(op, startNanos);
+        errors[op.ordinal()].increment();
+        if (failure instanceof DomainException de) violations[de.violation().ordinal()].increment();
+    }
+
+    /** Calls recorded for {@code op}, including failed ones. */
+    public long calls(Operation op) {
+        return latency(op).count();
+    }
+
+    public long errors(Operation op) {
+        return errors[op.ordinal()].sum();
+    }
+
+    public long violations(Violation violation) {
+        return violations[violation.ordinal()].sum();
+    }
+
+    public LatencyHistogram.Snapshot latency(Operation op) {
+        return latencies[op.ordinal()].snapshot();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            latencies[i].reset();
+            errors[i].reset();
+        }
+        for (LongAdder v : violations) v.reset();
+    }
+
+    /**
+     * Registers this instance with the platform MBean server as
+     * {@code com.six.spacex:type=RepositoryMetrics,name=<name>}.
+     */
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("com.six.spacex:type=RepositoryMetrics,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register repository metrics '" + name + "'", e);
+        }
+    }
+
+    @Override public Map<String, Long> getCalls() { return byOperation(s -> s.count()); }
+    @Override public Map<String, Double> getMeanNanos() { return byOperation(s -> s.mean()); }
+    @Override public Map<String, Long> getP50Nanos() { return byOperation(s -> s.percentile(50)); }
+    @Override public Map<String, Long> getP99Nanos() { return byOperation(s -> s.percentile(99)); }
+    @Override public Map<String, Long> getP999Nanos() { return byOperation(s -> s.percentile(99.9)); }
+    @Override public Map<String, Long> getMaxNanos() { return byOperation(s -> s.max()); }
+
+    @Override
+    public Map<String, Long> getErrors() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (Operation op : OPERATIONS) {
+            long n = errors(op);
+            if (n != 0) out.put(op.name(), n);
+        }
+        return out;
+    }
+
+    @Override
+    public Map<String, Long> getViolations() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (Violation v : VIOLATIONS) {
+            long n = violations(v);
+            if (n != 0) out.put(v.name(), n);
+        }
+        return out;
+    }
+
+    private <T> Map<String, T> byOperation(Function<LatencyHistogram.Snapshot, T> value) {
+        Map<String, T> out = new LinkedHashMap<>();
+        for (Operation op : OPERATIONS) {
+            LatencyHistogram.Snapshot s = latency(op);
+            if (s.count() != 0) out.put(op.name(), value.apply(s));
+        }
+        return out;
+    }
+}
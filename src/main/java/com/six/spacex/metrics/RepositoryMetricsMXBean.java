@@ -0,0 +1,19 @@
+package com.six.spacex.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link RepositoryMetrics}. Maps are keyed by {@link Operation} or
+ * {@link com.six.spacex.domain.Violation} name and only list entries that have been recorded.
+ */
+public interface RepositoryMetricsMXBean {
+    Map<String, Long> getCalls();
+    Map<String, Long> getErrors();
+    Map<String, Long> getViolations();
+    Map<String, Double> getMeanNanos();
+    Map<String, Long> getP50Nanos();
+    Map<String, Long> getP99Nanos();
+    Map<String, Long> getP999Nanos();
+    Map<String, Long> getMaxNanos();
+    void reset();
+}
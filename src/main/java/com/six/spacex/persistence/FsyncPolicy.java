@@ -0,0 +1,58 @@
+package com.six.spacex.persistence;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * When a {@link WriteAheadLog} forces appended records to disk.
+ */
+public final class FsyncPolicy {
+
+    enum Mode { EVERY_WRITE, BATCHED, NEVER }
+
+    final Mode mode;
+    final int maxRecords;
+    final long maxDelayNanos;
+
+    private FsyncPolicy(Mode mode, int maxRecords, long maxDelayNanos) {
+        this.mode = mode;
+        this.maxRecords = maxRecords;
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    /**
+     * Every mutation returns only once its record is on disk. Concurrent writers share one
+     * fsync (group commit), so the cost is amortized under load.
+     */
+    public static FsyncPolicy everyWrite() {
+        return new FsyncPolicy(Mode.EVERY_WRITE, 1, 0);
+    }
+
+    /**
+     * Mutations return immediately; a background thread forces the log once {@code maxRecords}
+     * records are pending or {@code maxDelay} has passed, which bounds what a crash can lose.
+     */
+    public static FsyncPolicy batched(int maxRecords, Duration maxDelay) {
+        if (maxRecords <= 0) throw new IllegalArgumentException("maxRecords must be positive");
+        Objects.requireNonNull(maxDelay, "maxDelay");
+        if (maxDelay.isNegative() || maxDelay.isZero()) throw new IllegalArgumentException("maxDelay must be positive");
+        return new FsyncPolicy(Mode.BATCHED, maxRecords, maxDelay.toNanos());
+    }
+
+    /**
+     * Each mutation writes its record to the OS page cache before returning, but the log is only
+     * forced on close. Survives JVM crashes, not power loss.
+     */
+    public static FsyncPolicy never() {
+        return new FsyncPolicy(Mode.NEVER, Integer.MAX_VALUE, 0);
+    }
+
+    @Override
+    public String toString() {
+        return switch (mode) {
+            case EVERY_WRITE -> "everyWrite";
+            case BATCHED -> "batched(" + maxRecords + " records, " + Duration.ofNanos(maxDelayNanos) + ")";
+            case NEVER -> "never";
+        };
+    }
+}
@@ -0,0 +1,291 @@
+package com.six.spacex.persistence;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.repository.FleetImport;
+import com.six.spacex.repository.ForwardingSpaceXRepository;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.repository.SpaceXRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable mode for a {@link SpaceXRepository}: every successful mutation is appended to a
+ * {@link WriteAheadLog}, and opening the repository replays the log into the (empty) delegate.
+ * <p>
+ * Mutations are applied and logged under one lock so the log order matches the order the
+ * delegate saw them in; only the in-memory append happens under the lock, the fsync (if the
+ * policy asks for one) happens after it is released. Rejected mutations are not logged.
+ * Queries go straight to the delegate, so concurrent readers need a thread-safe delegate.
+ * <p>
+ * The delegate is mutated before the record is appended. If the append (or, with
+ * {@code everyWrite}, the fsync) fails, the delegate is ahead of the log and the caller gets the
+ * exception for a change that was applied in memory; the repository then fails closed, and
+ * every later mutation throws {@link IllegalStateException}. Reopen it from the log to recover.
+ */
+public final class JournaledSpaceXRepository extends ForwardingSpaceXRepository implements Closeable {
+
+    private final WriteAheadLog log;
+    private final MutationCodec codec = new MutationCodec(); // guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile RuntimeException failure;
+
+    private JournaledSpaceXRepository(SpaceXRepository delegate, WriteAheadLog log) {
+        super(delegate);
+        this.log = log;
+    }
+
+    /**
+     * Opens the log at {@code file}, replays it into {@code delegate} and returns a repository
+     * that journals further mutations to it.
+     */
+    public static JournaledSpaceXRepository open(Path file, SpaceXRepository delegate, FsyncPolicy policy) throws IOException {
+        WriteAheadLog log = WriteAheadLog.open(file, policy, record -> MutationCodec.apply(record, delegate));
+        return new JournaledSpaceXRepository(delegate, log);
+    }
+
+    /**
+     * Restores an {@link InMemorySpaceXRepository} from {@code snapshot} if it exists, then opens
+     * the log at {@code file} and replays only the records written after the snapshot.
+     */
+    public static JournaledSpaceXRepository open(Path file, Path snapshot, FsyncPolicy policy) throws IOException {
+        InMemorySpaceXRepository delegate;
+        long from;
+        if (Files.exists(snapshot)) {
+            RepositorySnapshot loaded = RepositorySnapshot.read(snapshot);
+            delegate = loaded.repository();
+            from = loaded.walPosition();
+        } else {
+            delegate = new InMemorySpaceXRepository();
+            from = 0;
+        }
+        WriteAheadLog log = WriteAheadLog.open(file, policy, from, record -> MutationCodec.apply(record, delegate));
+        return new JournaledSpaceXRepository(delegate, log);
+    }
+
+    /**
+     * Starts a durable repository from a bulk {@link FleetImport}: the fleet is imported into an
+     * {@link InMemorySpaceXRepository} and written as one snapshot, instead of one log record per
+     * rocket and mission. The log at {@code file} must be new or empty; reopen later with
+     * {@link #open(Path, Path, FsyncPolicy)}.
+     */
+    public static JournaledSpaceXRepository importFleet(Path file, Path snapshot, FleetImport fleet, FsyncPolicy policy) throws IOException {
+        InMemorySpaceXRepository delegate = InMemorySpaceXRepository.importFleet(fleet);
+        WriteAheadLog log = WriteAheadLog.open(file, policy, record -> { });
+        try {
+            if (log.recordCount() != 0) throw new IllegalStateException("Cannot import into a log that has records: " + file);
+            RepositorySnapshot.write(snapshot, delegate, log.position());
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        return new JournaledSpaceXRepository(delegate, log);
+    }
+
+    /**
+     * Writes a snapshot of the delegate, which must be an {@link InMemorySpaceXRepository}, and
+     * returns the log position it covers. The log is forced up to that position first so the
+     * snapshot never runs ahead of it. Mutations wait while the snapshot is written.
+     */
+    public long checkpoint(Path snapshot) throws IOException {
+        if (!(delegate instanceof InMemorySpaceXRepository)) {
+            throw new UnsupportedOperationException("Snapshots need an InMemorySpaceXRepository delegate");
+        }
+        lock.lock();
+        try {
+            long position = log.position();
+            log.awaitDurable(position);
+            RepositorySnapshot.write(snapshot, (InMemorySpaceXRepository) delegate, position);
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public WriteAheadLog log() {
+        return log;
+    }
+
+    @Override
+    public RocketId addRocket(String name) {
+        RocketId id;
+        long position;
+        lock.lock();
+        try {
+            checkOpen();
+            id = delegate.addRocket(name);
+            position = append(codec.addRocket(id, name));
+        } finally {
+            lock.unlock();
+        }
+        commit(position);
+        return id;
+    }
+
+    @Override
+    public void addRocket(RocketId id, String name) {
+        long position;
+        lock.lock();
+        try {
+            checkOpen();
+            delegate.addRocket(id, name);
+            position = append(codec.addRocket(id, name));
+        } finally {
+            lock.unlock();
+        }
+        commit(position);
+    }
+
+    @Override
+    public MissionId addMission(String name) {
+        MissionId id;
+        long position;
+        lock.lock();
+        try {
+            checkOpen();
+            id = delegate.addMission(name);
+            position = append(codec.addMission(id, name));
+        } finally {
+            lock.unlock();
+        }
+        commit(position);
+        return id;
+    }
+
+    @Override
+    public void addMission(MissionId id, String name) {
+        long position;
+        lock.lock();
+        try {
+            checkOpen();
+            delegate.addMission(id, name);
+            position = append(codec.addMission(id, name));
+        } finally {
+            lock.unlock();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void assignRocketToMission(RocketId rocketId, MissionId missionId) {
+        long position;
+        lock.lock();
+        try {
+            checkOpen();
+            delegate.assignRocketToMission(rocketId, missionId);
+            position = append(codec.assign(rocketId, missionId));
+        } finally {
+            lock.unlock();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        long position;
+        lock.lock();
+        try {
+            checkOpen();
+            delegate.assignRocketsToMission(missionId, rocketIds);
+            position = append(codec.assignMany(missionId, rocketIds));
+        } finally {
+            lock.unlock();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void changeRocketStatus(RocketId rocketId, RocketStatus status) {
+        long position;
+        lock.lock();
+        try {
+            checkOpen();
+            delegate.changeRocketStatus(rocketId, status);
+            position = append(codec.rocketStatus(rocketId, status));
+        } finally {
+            lock.unlock();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void changeMissionStatus(MissionId missionId, MissionStatus status) {
+        long position;
+        lock.lock();
+        try {
+            checkOpen();
+            delegate.changeMissionStatus(missionId, status);
+            position = append(codec.missionStatus(missionId, status));
+        } finally {
+            lock.unlock();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void unassignRocket(RocketId rocketId) {
+        long position;
+        lock.lock();
+        try {
+            checkOpen();
+            delegate.unassignRocket(rocketId);
+            position = append(codec.unassign(rocketId));
+        } finally {
+            lock.unlock();
+        }
+        commit(position);
+    }
+
+    /** The batch is logged as a single record, so replay applies it atomically as well. */
+    @Override
+    public void applyBatch(List<RepositoryCommand> commands) {
+        long position;
+        lock.lock();
+        try {
+            checkOpen();
+            delegate.applyBatch(commands);
+            position = append(codec.batch(commands));
+        } finally {
+            lock.unlock();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /** Caller holds lock. */
+    private void checkOpen() {
+        if (failure != null) throw new IllegalStateException("Journal failed, memory may be ahead of the log; reopen the repository", failure);
+    }
+
+    /** Caller holds lock. */
+    private long append(ByteBuffer record) {
+        try {
+            return log.append(record);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    private void commit(long position) {
+        try {
+            log.commit(position);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        }
+    }
+}
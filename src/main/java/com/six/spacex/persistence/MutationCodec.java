@@ -0,0 +1,208 @@
+package com.six.spacex.persistence;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.repository.SpaceXRepository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of the mutating {@link SpaceXRepository} calls.
+ * <p>
+ * Every record starts with an opcode byte. Ids are written as the two longs of their UUID,
+ * statuses as their ordinal byte and names as an unsigned-short length followed by UTF-8 bytes.
+ * <p>
+ * Encoding reuses one growable buffer, so an instance belongs to a single writer; the buffer
+ * returned by an encode method is valid until the next call. Decoding is stateless.
+ */
+public final class MutationCodec {
+
+    static final byte ADD_ROCKET = 1;
+    static final byte ADD_MISSION = 2;
+    static final byte ASSIGN = 3;
+    static final byte ASSIGN_MANY = 4;
+    static final byte UNASSIGN = 5;
+    static final byte ROCKET_STATUS = 6;
+    static final byte MISSION_STATUS = 7;
+    static final byte BATCH = 8;
+
+    private static final int ID_BYTES = 16;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+    private static final RepositoryCommand.Type[] COMMAND_TYPES = RepositoryCommand.Type.values();
+
+    private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+    public ByteBuffer addRocket(RocketId id, String name) {
+        byte[] utf8 = utf8(name);
+        begin(1 + ID_BYTES + 2 + utf8.length).put(ADD_ROCKET);
+        putId(id.value());
+        buffer.putShort((short) utf8.length).put(utf8);
+        return end();
+    }
+
+    public ByteBuffer addMission(MissionId id, String name) {
+        byte[] utf8 = utf8(name);
+        begin(1 + ID_BYTES + 2 + utf8.length).put(ADD_MISSION);
+        putId(id.value());
+        buffer.putShort((short) utf8.length).put(utf8);
+        return end();
+    }
+
+    public ByteBuffer assign(RocketId rocketId, MissionId missionId) {
+        begin(1 + 2 * ID_BYTES).put(ASSIGN);
+        putId(rocketId.value());
+        putId(missionId.value());
+        return end();
+    }
+
+    public ByteBuffer assignMany(MissionId missionId, List<RocketId> rocketIds) {
+        begin(1 + ID_BYTES + 4 + rocketIds.size() * ID_BYTES).put(ASSIGN_MANY);
+        putId(missionId.value());
+        buffer.putInt(rocketIds.size());
+        for (RocketId id : rocketIds) putId(id.value());
+        return end();
+    }
+
+    public ByteBuffer unassign(RocketId rocketId) {
+        begin(1 + ID_BYTES).put(UNASSIGN);
+        putId(rocketId.value());
+        return end();
+    }
+
+    public ByteBuffer rocketStatus(RocketId rocketId, RocketStatus status) {
+        begin(1 + ID_BYTES + 1).put(ROCKET_STATUS);
+        putId(rocketId.value());
+        buffer.put((byte) status.ordinal());
+        return end();
+    }
+
+    public ByteBuffer missionStatus(MissionId missionId, MissionStatus status) {
+        begin(1 + ID_BYTES + 1).put(MISSION_STATUS);
+        putId(missionId.value());
+        buffer.put((byte) status.ordinal());
+        return end();
+    }
+
+    /** A batch as one record: a count, then each command as its type ordinal and operands. */
+    public ByteBuffer batch(List<RepositoryCommand> commands) {
+        begin(1 + 4 + commands.size() * (1 + 2 * ID_BYTES)).put(BATCH);
+        buffer.putInt(commands.size());
+        for (RepositoryCommand c : commands) {
+            buffer.put((byte) c.type.ordinal());
+            switch (c.type) {
+                case ASSIGN -> {
+                    putId(c.rocketId.value());
+                    putId(c.missionId.value());
+                }
+                case UNASSIGN -> putId(c.rocketId.value());
+                case CHANGE_ROCKET_STATUS -> {
+                    putId(c.rocketId.value());
+                    buffer.put((byte) c.rocketStatus.ordinal());
+                }
+                case CHANGE_MISSION_STATUS -> {
+                    putId(c.missionId.value());
+                    buffer.put((byte) c.missionStatus.ordinal());
+                }
+            }
+        }
+        return end();
+    }
+
+    /**
+     * Applies one encoded record to {@code target}, consuming it from {@code record}'s position
+     * to its limit.
+     */
+    public static void apply(ByteBuffer record, SpaceXRepository target) {
+        byte op = record.get();
+        switch (op) {
+            case ADD_ROCKET -> target.addRocket(RocketId.of(getId(record)), getName(record));
+            case ADD_MISSION -> target.addMission(MissionId.of(getId(record)), getName(record));
+            case ASSIGN -> target.assignRocketToMission(RocketId.of(getId(record)), MissionId.of(getId(record)));
+            case ASSIGN_MANY -> {
+                MissionId missionId = MissionId.of(getId(record));
+                int count = getCount(record, ID_BYTES);
+                List<RocketId> rocketIds = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) rocketIds.add(RocketId.of(getId(record)));
+                target.assignRocketsToMission(missionId, rocketIds);
+            }
+            case UNASSIGN -> target.unassignRocket(RocketId.of(getId(record)));
+            case ROCKET_STATUS -> target.changeRocketStatus(RocketId.of(getId(record)), ROCKET_STATUSES[record.get()]);
+            case MISSION_STATUS -> target.changeMissionStatus(MissionId.of(getId(record)), MISSION_STATUSES[record.get()]);
+            case BATCH -> {
+                int count = getCount(record, 1 + ID_BYTES);
+                List<RepositoryCommand> commands = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) commands.add(getCommand(record));
+                target.applyBatch(commands);
+            }
+            default -> throw new IllegalArgumentException("Unknown record type: " + op);
+        }
+    }
+
+    private static RepositoryCommand getCommand(ByteBuffer in) {
+        RepositoryCommand.Type type = COMMAND_TYPES[in.get()];
+        return switch (type) {
+            case ASSIGN -> RepositoryCommand.assign(RocketId.of(getId(in)), MissionId.of(getId(in)));
+            case UNASSIGN -> RepositoryCommand.unassign(RocketId.of(getId(in)));
+            case CHANGE_ROCKET_STATUS -> RepositoryCommand.changeRocketStatus(RocketId.of(getId(in)), ROCKET_STATUSES[in.get()]);
+            case CHANGE_MISSION_STATUS -> RepositoryCommand.changeMissionStatus(MissionId.of(getId(in)), MISSION_STATUSES[in.get()]);
+        };
+    }
+
+    private ByteBuffer begin(int bytes) {
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    private ByteBuffer end() {
+        buffer.flip();
+        return buffer;
+    }
+
+    private void putId(UUID id) {
+        buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+    }
+
+    /** A list length, checked against what is left of the record before anything is allocated for it. */
+    private static int getCount(ByteBuffer in, int minElementBytes) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / minElementBytes) {
+            throw new IllegalArgumentException("Bad element count " + count + " for " + in.remaining() + " bytes");
+        }
+        return count;
+    }
+
+    private static UUID getId(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static String getName(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        String name;
+        if (in.hasArray()) {
+            name = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(in.position(), bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + length);
+        return name;
+    }
+
+    private static byte[] utf8(String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name longer than " + MAX_NAME_BYTES + " bytes");
+        }
+        return utf8;
+    }
+}
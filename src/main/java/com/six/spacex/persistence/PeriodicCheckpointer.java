@@ -0,0 +1,85 @@
+package com.six.spacex.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshots a {@link JournaledSpaceXRepository} on a background thread at a fixed interval,
+ * skipping rounds in which nothing was logged. A failed round is remembered and retried at the
+ * next interval.
+ */
+public final class PeriodicCheckpointer implements Closeable {
+
+    private final JournaledSpaceXRepository repository;
+    private final Path snapshot;
+    private final ScheduledExecutorService executor;
+
+    // written by the checkpoint thread only
+    private long lastPosition = -1;
+    private volatile long checkpoints;
+    private volatile Exception lastFailure;
+
+    private PeriodicCheckpointer(JournaledSpaceXRepository repository, Path snapshot) {
+        this.repository = repository;
+        this.snapshot = snapshot;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "snapshot-checkpointer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static PeriodicCheckpointer start(JournaledSpaceXRepository repository, Path snapshot, Duration interval) {
+        Objects.requireNonNull(repository, "repository");
+        Objects.requireNonNull(snapshot, "snapshot");
+        if (interval.isNegative() || interval.isZero()) throw new IllegalArgumentException("interval must be positive");
+        PeriodicCheckpointer checkpointer = new PeriodicCheckpointer(repository, snapshot);
+        long nanos = interval.toNanos();
+        checkpointer.executor.scheduleWithFixedDelay(checkpointer::run, nanos, nanos, TimeUnit.NANOSECONDS);
+        return checkpointer;
+    }
+
+    /** Snapshots written so far. */
+    public long checkpoints() {
+        return checkpoints;
+    }
+
+    /**
+     * The error of the most recent round, empty if it succeeded or was skipped: an
+     * {@link IOException}, or a runtime exception such as {@link java.io.UncheckedIOException}
+     * from forcing the log.
+     */
+    public Optional<Exception> lastFailure() {
+        return Optional.ofNullable(lastFailure);
+    }
+
+    private void run() {
+        if (repository.log().position() == lastPosition) return;
+        try {
+            lastPosition = repository.checkpoint(snapshot);
+            checkpoints++;
+            lastFailure = null;
+        } catch (IOException | RuntimeException e) {
+            // anything escaping would cancel every later round
+            lastFailure = e;
+        }
+    }
+
+    /** Stops scheduling and waits for a running round to finish; does not take a final snapshot. */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
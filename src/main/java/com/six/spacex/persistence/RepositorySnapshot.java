@@ -0,0 +1,234 @@
+package com.six.spacex.persistence;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ * Point-in-time image of an {@link InMemorySpaceXRepository}, tagged with the write-ahead log
+ * position it covers.
+ * <p>
+ * Layout (big-endian): a header {@code [magic][version][long walPosition][int strings]
+ * [int rockets][int missions]}, a string table of {@code [int length][UTF-8 bytes]} entries in
+ * which every distinct name appears once, then rockets as {@code [long msb][long lsb][int name]
+ * [byte status][int mission]} and missions as {@code [long msb][long lsb][int name][byte status]
+ * [int count][count x int rocket]}, where {@code mission} and {@code rocket} are record indexes
+ * ({@code -1} for none). A trailing CRC32C covers everything before it.
+ * <p>
+ * Snapshots are written to a temporary file and moved into place, so a reader sees either the
+ * previous snapshot or the new one. Loading maps the file and creates only the final domain
+ * objects, one {@code String} per distinct name.
+ */
+public final class RepositorySnapshot {
+
+    private static final int MAGIC = 0x53505853; // "SPXS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4;
+    private static final int RECORD_BYTES = 8 + 8 + 4 + 1 + 4; // id, name, status, mission or rocket count
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+
+    private final InMemorySpaceXRepository repository;
+    private final long walPosition;
+
+    private RepositorySnapshot(InMemorySpaceXRepository repository, long walPosition) {
+        this.repository = repository;
+        this.walPosition = walPosition;
+    }
+
+    /** The restored repository. */
+    public InMemorySpaceXRepository repository() {
+        return repository;
+    }
+
+    /** Log position the snapshot covers; replaying from here brings the repository up to date. */
+    public long walPosition() {
+        return walPosition;
+    }
+
+    /**
+     * Writes {@code repository} to {@code file}, replacing any previous snapshot. The caller must
+     * keep the repository from changing until this returns.
+     */
+    public static void write(Path file, InMemorySpaceXRepository repository, long walPosition) throws IOException {
+        int rocketCount = repository.rocketCount();
+        int missionCount = repository.missionCount();
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        Map<MissionId, Integer> missionIndex = new HashMap<>(Math.max(16, missionCount * 4 / 3 + 1));
+        Map<RocketId, Integer> rocketIndex = new HashMap<>(Math.max(16, rocketCount * 4 / 3 + 1));
+        repository.forEachMission(m -> {
+            missionIndex.put(m.id(), missionIndex.size());
+            strings.putIfAbsent(m.name(), strings.size());
+        });
+        repository.forEachRocket(r -> {
+            rocketIndex.put(r.id(), rocketIndex.size());
+            strings.putIfAbsent(r.name(), strings.size());
+        });
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Sink out = new Sink(channel);
+            try {
+                out.reserve(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putLong(walPosition)
+                        .putInt(strings.size()).putInt(rocketCount).putInt(missionCount);
+                for (String s : strings.keySet()) {
+                    byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                    out.reserve(4).putInt(utf8.length);
+                    out.put(utf8);
+                }
+                repository.forEachRocket(r -> {
+                    UUID id = r.id().value();
+                    int mission = r.missionId().map(missionIndex::get).orElse(-1);
+                    out.reserve(RECORD_BYTES).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+                            .putInt(strings.get(r.name())).put((byte) r.status().ordinal()).putInt(mission);
+                });
+                repository.forEachMission(m -> {
+                    UUID id = m.id().value();
+                    out.reserve(RECORD_BYTES).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+                            .putInt(strings.get(m.name())).put((byte) m.status().ordinal()).putInt(m.assignedCount());
+                    for (RocketId rid : m.assignedRockets()) out.reserve(4).putInt(rocketIndex.get(rid));
+                });
+                out.finish();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Maps {@code file} and rebuilds the repository it holds. */
+    public static RepositorySnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Snapshot too large to map: " + file);
+            if (size < HEADER_BYTES + 4) throw new IOException("Not a repository snapshot: " + file);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            int contentBytes = (int) size - 4;
+            CRC32C crc = new CRC32C();
+            crc.update(buf.duplicate().limit(contentBytes));
+            if ((int) crc.getValue() != buf.getInt(contentBytes)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+            buf.limit(contentBytes);
+            try {
+                return decode(buf, file);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | DomainException e) {
+                throw new IOException("Corrupt snapshot: " + file, e);
+            }
+        }
+    }
+
+    private static RepositorySnapshot decode(ByteBuffer buf, Path file) throws IOException {
+        if (buf.getInt() != MAGIC) throw new IOException("Not a repository snapshot: " + file);
+        int version = buf.getInt();
+        if (version != VERSION) throw new IOException("Unsupported snapshot version " + version + ": " + file);
+        long walPosition = buf.getLong();
+        int stringCount = buf.getInt();
+        int rocketCount = buf.getInt();
+        int missionCount = buf.getInt();
+        if (stringCount < 0 || rocketCount < 0 || missionCount < 0
+                || (long) rocketCount * RECORD_BYTES + (long) missionCount * RECORD_BYTES > buf.remaining()) {
+            throw new IOException("Corrupt snapshot: " + file);
+        }
+
+        String[] strings = new String[stringCount];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < stringCount; i++) {
+            int length = buf.getInt();
+            if (length < 0 || length > buf.remaining()) throw new IOException("Corrupt snapshot: " + file);
+            if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buf.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        // rockets reference missions by index, so the mission objects are created first
+        Mission[] missions = new Mission[missionCount];
+        for (int i = 0, p = buf.position() + rocketCount * RECORD_BYTES; i < missionCount; i++) {
+            missions[i] = new Mission(MissionId.of(new UUID(buf.getLong(p), buf.getLong(p + 8))), strings[buf.getInt(p + 16)]);
+            p += RECORD_BYTES + 4 * buf.getInt(p + RECORD_BYTES - 4);
+        }
+
+        Rocket[] rockets = new Rocket[rocketCount];
+        for (int i = 0; i < rocketCount; i++) {
+            Rocket r = new Rocket(RocketId.of(new UUID(buf.getLong(), buf.getLong())), strings[buf.getInt()]);
+            r.setStatus(ROCKET_STATUSES[buf.get()]);
+            int mission = buf.getInt();
+            if (mission >= 0) r.assignTo(missions[mission].id());
+            rockets[i] = r;
+        }
+
+        for (Mission m : missions) {
+            buf.position(buf.position() + 8 + 8 + 4); // id and name were read in the first pass
+            MissionStatus status = MISSION_STATUSES[buf.get()];
+            int count = buf.getInt();
+            for (int j = 0; j < count; j++) m.addRocket(rockets[buf.getInt()]);
+            m.setStatus(status);
+        }
+        if (buf.hasRemaining()) throw new IOException("Corrupt snapshot: " + file);
+
+        return new RepositorySnapshot(InMemorySpaceXRepository.restore(List.of(rockets), List.of(missions)), walPosition);
+    }
+
+    /** Buffered channel writer that checksums everything it writes. */
+    private static final class Sink {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        private final CRC32C crc = new CRC32C();
+
+        Sink(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ByteBuffer reserve(int bytes) {
+            if (buffer.remaining() < bytes) flush();
+            return buffer;
+        }
+
+        void put(byte[] bytes) {
+            for (int off = 0; off < bytes.length; ) {
+                int n = Math.min(reserve(1).remaining(), bytes.length - off);
+                buffer.put(bytes, off, n);
+                off += n;
+            }
+        }
+
+        /** Writes the checksum trailer after everything written so far. */
+        void finish() {
+            flush();
+            buffer.putInt((int) crc.getValue());
+            write();
+        }
+
+        private void flush() {
+            crc.update(buffer.array(), 0, buffer.position());
+            write();
+        }
+
+        private void write() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) channel.write(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.six.spacex.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of opaque records on a {@link FileChannel}.
+ * <p>
+ * File layout: an 8-byte header (magic, version) followed by frames of
+ * {@code [int length][int crc32c][length bytes]}. A frame that is cut short or fails its
+ * checksum marks the end of the log; {@link #open} truncates such a torn tail left by a crash.
+ * <p>
+ * Appends are copied into an in-memory buffer and written to the channel when it fills or on
+ * sync. {@link #commit(long)} applies the {@link FsyncPolicy}: with {@code everyWrite}, callers
+ * block until a force covers their record, and threads that arrive while a force is running
+ * are covered together by the next one (group commit); with {@code never}, the buffer is written
+ * to the channel without forcing it.
+ */
+public final class WriteAheadLog implements Closeable {
+
+    /** Receives each valid record body during replay; the buffer is only valid during the call. */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void onRecord(ByteBuffer body);
+    }
+
+    private static final int MAGIC = 0x53505857; // "SPXW"
+    private static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 << 20;
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int READ_CHUNK_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private final Thread flusher;
+
+    // guarded by appendLock
+    private long appended;
+    private long records;
+    private int unsyncedRecords;
+
+    private volatile long durable;
+    private volatile boolean closed;
+
+    private WriteAheadLog(FileChannel channel, FsyncPolicy policy, long end, long records) {
+        this.channel = channel;
+        this.policy = policy;
+        this.appended = end;
+        this.durable = end;
+        this.records = records;
+        if (policy.mode == FsyncPolicy.Mode.BATCHED) {
+            flusher = new Thread(this::flushLoop, "wal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Opens or creates the log at {@code file}, passing every valid record to {@code replay} in
+     * order before truncating any torn tail.
+     */
+    public static WriteAheadLog open(Path file, FsyncPolicy policy, RecordHandler replay) throws IOException {
+        return open(file, policy, HEADER_BYTES, replay);
+    }
+
+    /**
+     * Like {@link #open(Path, FsyncPolicy, RecordHandler)}, but only replays the records from
+     * {@code fromPosition} on, e.g. those written after a snapshot was taken at that position.
+     */
+    public static WriteAheadLog open(Path file, FsyncPolicy policy, long fromPosition, RecordHandler replay) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long end;
+            long[] count = new long[1];
+            if (channel.size() == 0 && fromPosition <= HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) channel.write(header, HEADER_BYTES - header.remaining());
+                channel.force(true);
+                end = HEADER_BYTES;
+            } else {
+                if (fromPosition > channel.size()) {
+                    throw new IOException("Log ends at " + channel.size() + ", before position " + fromPosition + ": " + file);
+                }
+                checkHeader(channel, file);
+                end = scan(channel, Math.max(fromPosition, HEADER_BYTES), replay, count);
+                if (end < channel.size()) channel.truncate(end);
+            }
+            channel.position(end);
+            return new WriteAheadLog(channel, policy, end, count[0]);
+        } catch (IOException | RuntimeException | Error e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Reads every valid record of {@code file} without modifying it; returns the record count. */
+    public static long replay(Path file, RecordHandler handler) throws IOException {
+        return replay(file, HEADER_BYTES, handler);
+    }
+
+    /**
+     * Reads the valid records that start at or after byte {@code fromPosition}, which must be a
+     * position previously returned by {@link #append}; returns the record count.
+     */
+    public static long replay(Path file, long fromPosition, RecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            checkHeader(channel, file);
+            long[] count = new long[1];
+            scan(channel, Math.max(fromPosition, HEADER_BYTES), handler, count);
+            return count[0];
+        }
+    }
+
+    /**
+     * Appends one record (position to limit of {@code body}) and returns the log position just
+     * past it. The record is not necessarily durable until {@link #commit(long)} returns.
+     */
+    public long append(ByteBuffer body) {
+        int length = body.remaining();
+        if (length == 0 || length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Record size out of range: " + length);
+        }
+        long end;
+        boolean wakeFlusher;
+        appendLock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Log is closed");
+            crc.reset();
+            crc.update(body.duplicate());
+            int checksum = (int) crc.getValue();
+            int frame = FRAME_HEADER_BYTES + length;
+            if (buffer.remaining() < frame) drain();
+            if (buffer.remaining() >= frame) {
+                buffer.putInt(length).putInt(checksum).put(body);
+            } else {
+                frameHeader.clear();
+                frameHeader.putInt(length).putInt(checksum).flip();
+                ByteBuffer[] parts = {frameHeader, body};
+                while (body.hasRemaining()) channel.write(parts);
+            }
+            appended += frame;
+            records++;
+            end = appended;
+            wakeFlusher = flusher != null && ++unsyncedRecords >= policy.maxRecords;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+        if (wakeFlusher) LockSupport.unpark(flusher);
+        return end;
+    }
+
+    /**
+     * Waits until {@code position} is durable if the policy is {@code everyWrite}, writes it to
+     * the OS if the policy is {@code never}, and returns at once if it is {@code batched}.
+     */
+    public void commit(long position) {
+        switch (policy.mode) {
+            case EVERY_WRITE -> awaitDurable(position);
+            case NEVER -> flush();
+            case BATCHED -> { }
+        }
+    }
+
+    /** Forces everything appended so far to disk. */
+    public void sync() {
+        long target;
+        appendLock.lock();
+        try {
+            target = appended;
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(target);
+    }
+
+    /** Blocks until the log is durable at least up to {@code position}. */
+    public void awaitDurable(long position) {
+        if (durable >= position) return;
+        syncLock.lock();
+        try {
+            if (durable >= position) return;
+            long target;
+            appendLock.lock();
+            try {
+                drain();
+                target = appended;
+                unsyncedRecords = 0;
+            } finally {
+                appendLock.unlock();
+            }
+            channel.force(false);
+            durable = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** Writes buffered records to the channel without forcing it; a no-op if another thread already did. */
+    private void flush() {
+        appendLock.lock();
+        try {
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /** Position just past the last appended record. */
+    public long position() {
+        appendLock.lock();
+        try {
+            return appended;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /** Records appended plus those replayed on open. */
+    public long recordCount() {
+        appendLock.lock();
+        try {
+            return records;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public FsyncPolicy policy() {
+        return policy;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            sync();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /** Caller holds appendLock. */
+    private void drain() throws IOException {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(this, policy.maxDelayNanos);
+            if (closed) return;
+            try {
+                sync();
+            } catch (UncheckedIOException e) {
+                // the next append or sync on a caller thread reports the failure
+            }
+        }
+    }
+
+    private static void checkHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) break;
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException("Not a write-ahead log: " + file);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported write-ahead log version " + version + ": " + file);
+        }
+    }
+
+    /** Feeds valid records from {@code from} to {@code handler}; returns the end of the last one. */
+    private static long scan(FileChannel channel, long from, RecordHandler handler, long[] count) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(READ_CHUNK_BYTES);
+        buf.flip();
+        channel.position(from);
+        CRC32C crc = new CRC32C();
+        long end = from;
+        while (true) {
+            if (buf.remaining() < FRAME_HEADER_BYTES) {
+                if (!fill(channel, buf)) break;
+                continue;
+            }
+            int start = buf.position();
+            int length = buf.getInt(start);
+            int checksum = buf.getInt(start + 4);
+            if (length <= 0 || length > MAX_RECORD_BYTES) break;
+            int frame = FRAME_HEADER_BYTES + length;
+            if (buf.remaining() < frame) {
+                if (buf.capacity() < frame) buf = grow(buf, frame);
+                if (!fill(channel, buf)) break;
+                continue;
+            }
+            int limit = buf.limit();
+            int bodyStart = start + FRAME_HEADER_BYTES;
+            buf.position(bodyStart).limit(bodyStart + length);
+            crc.reset();
+            crc.update(buf);
+            if ((int) crc.getValue() != checksum) break;
+            buf.position(bodyStart);
+            handler.onRecord(buf);
+            buf.limit(limit).position(bodyStart + length);
+            end += frame;
+            count[0]++;
+        }
+        return end;
+    }
+
+    private static boolean fill(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.compact();
+        int read = channel.read(buf);
+        buf.flip();
+        return read > 0;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buf, int minCapacity) {
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(minCapacity, buf.capacity() * 2));
+        bigger.put(buf).flip();
+        return bigger;
+    }
+}
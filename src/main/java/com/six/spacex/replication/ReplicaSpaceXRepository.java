@@ -0,0 +1,222 @@
+package com.six.spacex.replication;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.persistence.MutationCodec;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.repository.SpaceXRepository;
+import com.six.spacex.repository.VersionedSpaceXRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Read-only follower of a {@link ReplicatedSpaceXRepository}: a background thread pulls the
+ * primary's mutation stream from a {@link ReplicationSource} and applies it, in order, to a
+ * {@link VersionedSpaceXRepository}, so queries never lock and always see a state the primary
+ * went through. Mutators throw {@link UnsupportedOperationException}.
+ * <p>
+ * The follower remembers the sequence it has applied. After a disconnect it reconnects and
+ * resumes from there; if the primary no longer retains those records, or the stream cannot be
+ * applied, it takes a state transfer into a fresh store and swaps it in whole. {@link #lagRecords()}
+ * and {@link #lag()} compare the applied position with the newest one the primary reported.
+ */
+public final class ReplicaSpaceXRepository implements SpaceXRepository, Closeable {
+
+    /** Opens a source, e.g. a new connection to the primary; called again after a failure. */
+    @FunctionalInterface
+    public interface Connector {
+        ReplicationSource connect() throws IOException;
+    }
+
+    private static final int FETCH_RECORDS = 4096;
+    private static final long FETCH_TIMEOUT_MILLIS = 200;
+    private static final long RETRY_MILLIS = 100;
+    private static final long RESYNC = -1;
+
+    private final Connector connector;
+    private final Thread puller;
+    private final Object progress = new Object();
+    private ReplicationSource source; // puller thread only
+    private volatile VersionedSpaceXRepository store = new VersionedSpaceXRepository();
+    private volatile long applied;
+    private volatile long appliedMillis;
+    private volatile long head;
+    private volatile long headMillis;
+    private volatile boolean connected;
+    private volatile boolean closed;
+
+    private ReplicaSpaceXRepository(Connector connector) {
+        this.connector = connector;
+        this.puller = new Thread(this::run, "replica-puller");
+        puller.setDaemon(true);
+    }
+
+    /** Follows a primary in the same process. */
+    public static ReplicaSpaceXRepository follow(ReplicationSource primary) {
+        return follow(() -> primary);
+    }
+
+    /** Follows a primary served by a {@link ReplicationServer} at {@code address}. */
+    public static ReplicaSpaceXRepository follow(SocketAddress address) {
+        return follow(() -> ReplicationClient.connect(address));
+    }
+
+    public static ReplicaSpaceXRepository follow(Connector connector) {
+        ReplicaSpaceXRepository replica = new ReplicaSpaceXRepository(connector);
+        replica.puller.start();
+        return replica;
+    }
+
+    /** Sequence of the last primary mutation applied here. */
+    public long appliedSequence() {
+        return Math.max(applied, 0);
+    }
+
+    /** Mutations the primary had committed, as of its last report, that are not applied here yet. */
+    public long lagRecords() {
+        return Math.max(0, head - applied);
+    }
+
+    /** How far the applied state trails the newest one the primary reported, in primary time. */
+    public Duration lag() {
+        if (applied >= head) return Duration.ZERO;
+        return Duration.ofMillis(Math.max(0, headMillis - appliedMillis));
+    }
+
+    /** Whether the follower currently has a working source; lag figures go stale while it has not. */
+    public boolean connected() {
+        return connected;
+    }
+
+    /** Waits until the mutation numbered {@code sequence} has been applied, e.g. to read one's own write. */
+    public boolean awaitSequence(long sequence, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (progress) {
+            while (applied < sequence) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) return false;
+                progress.wait(Math.max(1, left / 1_000_000));
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        puller.interrupt();
+        try {
+            puller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                if (source == null) {
+                    source = connector.connect();
+                    connected = true;
+                }
+                apply(source.fetch(applied, FETCH_RECORDS, FETCH_TIMEOUT_MILLIS));
+            } catch (IOException e) {
+                disconnect();
+                pause();
+            } catch (RuntimeException e) {
+                applied = RESYNC; // the stream did not apply: ask for a state transfer
+                pause();
+            }
+        }
+        disconnect();
+    }
+
+    private void apply(ReplicationBatch batch) {
+        if (batch.reset) {
+            VersionedSpaceXRepository fresh = new VersionedSpaceXRepository();
+            for (byte[] record : batch.records) MutationCodec.apply(ByteBuffer.wrap(record), fresh);
+            store = fresh;
+        } else if (!batch.records.isEmpty()) {
+            if (batch.lastSequence - batch.records.size() != applied) {
+                throw new IllegalStateException("Gap in the replication stream after " + applied);
+            }
+            VersionedSpaceXRepository target = store;
+            for (byte[] record : batch.records) MutationCodec.apply(ByteBuffer.wrap(record), target);
+        }
+        if (batch.reset || !batch.records.isEmpty()) appliedMillis = batch.lastMillis;
+        head = batch.headSequence;
+        headMillis = batch.headMillis;
+        synchronized (progress) {
+            applied = batch.lastSequence;
+            progress.notifyAll();
+        }
+    }
+
+    private void disconnect() {
+        connected = false;
+        if (source instanceof Closeable c) {
+            try {
+                c.close();
+            } catch (IOException e) {
+                // the connection is being dropped anyway
+            }
+        }
+        source = null;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_MILLIS);
+        } catch (InterruptedException e) {
+            // close() interrupts; the loop checks the flag
+        }
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Replica is read-only; write to the primary");
+    }
+
+    @Override public RocketId addRocket(String name) { throw readOnly(); }
+    @Override public void addRocket(RocketId id, String name) { throw readOnly(); }
+    @Override public MissionId addMission(String name) { throw readOnly(); }
+    @Override public void addMission(MissionId id, String name) { throw readOnly(); }
+    @Override public void assignRocketToMission(RocketId rocketId, MissionId missionId) { throw readOnly(); }
+    @Override public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) { throw readOnly(); }
+    @Override public void changeRocketStatus(RocketId rocketId, RocketStatus status) { throw readOnly(); }
+    @Override public void changeMissionStatus(MissionId missionId, MissionStatus status) { throw readOnly(); }
+    @Override public void unassignRocket(RocketId rocketId) { throw readOnly(); }
+    @Override public void applyBatch(List<RepositoryCommand> commands) { throw readOnly(); }
+
+    @Override public List<MissionSummary> summarizeMissionsByAssignedRockets() { return store.summarizeMissionsByAssignedRockets(); }
+    @Override public List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) { return store.summarizeMissionsByAssignedRockets(limit); }
+    @Override public Optional<RocketDetails> getRocket(RocketId id) { return store.getRocket(id); }
+    @Override public Optional<MissionSummary> getMission(MissionId id) { return store.getMission(id); }
+    @Override public List<RocketDetails> listRocketsByStatus(RocketStatus status) { return store.listRocketsByStatus(status); }
+    @Override public List<MissionSummary> listMissionsByStatus(MissionStatus status) { return store.listMissionsByStatus(status); }
+    @Override public Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) { return store.summarizeMissionsByAssignedRockets(limit, pageToken); }
+    @Override public Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) { return store.listRocketsByStatus(status, limit, pageToken); }
+    @Override public Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) { return store.listMissionsByStatus(status, limit, pageToken); }
+    @Override public Stream<MissionSummary> streamMissionsByAssignedRockets() { return store.streamMissionsByAssignedRockets(); }
+    @Override public Stream<RocketDetails> streamRocketsByStatus(RocketStatus status) { return store.streamRocketsByStatus(status); }
+    @Override public Stream<MissionSummary> streamMissionsByStatus(MissionStatus status) { return store.streamMissionsByStatus(status); }
+    @Override public int countRocketsByStatus(RocketStatus status) { return store.countRocketsByStatus(status); }
+    @Override public int countMissionsByStatus(MissionStatus status) { return store.countMissionsByStatus(status); }
+    @Override public Optional<RocketStatus> getRocketStatus(RocketId id) { return store.getRocketStatus(id); }
+    @Override public Optional<MissionStatus> getMissionStatus(MissionId id) { return store.getMissionStatus(id); }
+    @Override public List<RocketId> findRocketsByName(String name) { return store.findRocketsByName(name); }
+    @Override public List<RocketId> findRocketsByNamePrefix(String prefix, int limit) { return store.findRocketsByNamePrefix(prefix, limit); }
+    @Override public List<MissionId> findMissionsByName(String name) { return store.findMissionsByName(name); }
+    @Override public List<MissionId> findMissionsByNamePrefix(String prefix, int limit) { return store.findMissionsByNamePrefix(prefix, limit); }
+}
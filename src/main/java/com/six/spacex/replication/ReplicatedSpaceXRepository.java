@@ -0,0 +1,274 @@
+package com.six.spacex.replication;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.persistence.MutationCodec;
+import com.six.spacex.repository.ForwardingSpaceXRepository;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.RepositoryCommand;
+
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Primary of a replicated repository: every successful mutation is encoded with
+ * {@link MutationCodec}, numbered and kept in a ring of the last {@code retainedRecords}, from
+ * which {@link ReplicaSpaceXRepository followers} pull it in-process or through a
+ * {@link ReplicationServer}.
+ * <p>
+ * Mutations are applied and numbered under one lock, so the sequence matches the order the store
+ * saw them in; rejected mutations are not replicated. A follower that falls behind the ring gets
+ * a state transfer built from the store under the same lock, so writers wait while it is built.
+ * Queries take the lock too, since the store is not thread-safe; streams are collected under it.
+ * Followers serve reads without locking at all.
+ */
+public final class ReplicatedSpaceXRepository extends ForwardingSpaceXRepository implements ReplicationSource {
+
+    private final InMemorySpaceXRepository store;
+    private final ReplicationLog log;
+    private final LongSupplier clock;
+    private final MutationCodec codec = new MutationCodec(); // guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ReplicatedSpaceXRepository(InMemorySpaceXRepository store, int retainedRecords) {
+        this(store, retainedRecords, System::currentTimeMillis);
+    }
+
+    ReplicatedSpaceXRepository(InMemorySpaceXRepository store, int retainedRecords, LongSupplier clock) {
+        super(store);
+        this.store = store;
+        this.log = new ReplicationLog(retainedRecords);
+        this.clock = clock;
+    }
+
+    /** Sequence of the newest replicated mutation; {@code 0} before the first. */
+    public long sequence() {
+        return log.head();
+    }
+
+    @Override
+    public ReplicationBatch fetch(long after, int maxRecords, long timeoutMillis) throws InterruptedIOException {
+        if (maxRecords < 1) throw new IllegalArgumentException("maxRecords must be positive");
+        try {
+            ReplicationBatch batch = log.read(after, maxRecords, timeoutMillis);
+            return batch != null ? batch : stateTransfer();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for records");
+        }
+    }
+
+    /**
+     * Records that rebuild the store in an empty repository. Some states are only reachable in a
+     * certain order, so: missions, then rockets in insertion order with their statuses except
+     * {@code In space}; each mission's rockets in assignment order; rockets in space, going
+     * through an assignment to the first mission for those no longer assigned; and ended missions
+     * last. The other mission statuses follow from their rockets.
+     */
+    private ReplicationBatch stateTransfer() {
+        lock.lock();
+        try {
+            List<byte[]> records = new ArrayList<>(store.missionCount() * 2 + store.rocketCount() * 2);
+            List<Mission> ended = new ArrayList<>();
+            List<MissionId> missions = new ArrayList<>(1);
+            store.forEachMission(m -> {
+                records.add(bytes(codec.addMission(m.id(), m.name())));
+                if (missions.isEmpty()) missions.add(m.id());
+                if (m.status() == MissionStatus.ENDED) ended.add(m);
+            });
+            store.forEachRocket(r -> {
+                records.add(bytes(codec.addRocket(r.id(), r.name())));
+                if (r.status() == RocketStatus.IN_BUILD || r.status() == RocketStatus.IN_REPAIR) {
+                    records.add(bytes(codec.rocketStatus(r.id(), r.status())));
+                }
+            });
+            store.forEachMission(m -> {
+                if (m.assignedCount() > 0) records.add(bytes(codec.assignMany(m.id(), new ArrayList<>(m.assignedRockets()))));
+            });
+            store.forEachRocket(r -> {
+                if (r.status() != RocketStatus.IN_SPACE) return;
+                if (r.isAssigned()) {
+                    records.add(bytes(codec.rocketStatus(r.id(), r.status())));
+                } else {
+                    // only reachable by unassigning a rocket in space, so go through an assignment
+                    records.add(bytes(codec.assign(r.id(), missions.get(0))));
+                    records.add(bytes(codec.rocketStatus(r.id(), r.status())));
+                    records.add(bytes(codec.unassign(r.id())));
+                }
+            });
+            for (Mission m : ended) records.add(bytes(codec.missionStatus(m.id(), MissionStatus.ENDED)));
+            long head = log.head();
+            long headMillis = log.headMillis();
+            return new ReplicationBatch(true, head, headMillis, head, headMillis, records);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public RocketId addRocket(String name) {
+        lock.lock();
+        try {
+            RocketId id = delegate.addRocket(name);
+            append(codec.addRocket(id, name));
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addRocket(RocketId id, String name) {
+        lock.lock();
+        try {
+            delegate.addRocket(id, name);
+            append(codec.addRocket(id, name));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public MissionId addMission(String name) {
+        lock.lock();
+        try {
+            MissionId id = delegate.addMission(name);
+            append(codec.addMission(id, name));
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addMission(MissionId id, String name) {
+        lock.lock();
+        try {
+            delegate.addMission(id, name);
+            append(codec.addMission(id, name));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void assignRocketToMission(RocketId rocketId, MissionId missionId) {
+        lock.lock();
+        try {
+            delegate.assignRocketToMission(rocketId, missionId);
+            append(codec.assign(rocketId, missionId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        lock.lock();
+        try {
+            delegate.assignRocketsToMission(missionId, rocketIds);
+            append(codec.assignMany(missionId, rocketIds));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void changeRocketStatus(RocketId rocketId, RocketStatus status) {
+        lock.lock();
+        try {
+            delegate.changeRocketStatus(rocketId, status);
+            append(codec.rocketStatus(rocketId, status));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void changeMissionStatus(MissionId missionId, MissionStatus status) {
+        lock.lock();
+        try {
+            delegate.changeMissionStatus(missionId, status);
+            append(codec.missionStatus(missionId, status));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void unassignRocket(RocketId rocketId) {
+        lock.lock();
+        try {
+            delegate.unassignRocket(rocketId);
+            append(codec.unassign(rocketId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The batch is replicated as a single record, so followers apply it atomically as well. */
+    @Override
+    public void applyBatch(List<RepositoryCommand> commands) {
+        lock.lock();
+        try {
+            delegate.applyBatch(commands);
+            append(codec.batch(commands));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override public List<MissionSummary> summarizeMissionsByAssignedRockets() { return locked(delegate::summarizeMissionsByAssignedRockets); }
+    @Override public List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) { return locked(() -> delegate.summarizeMissionsByAssignedRockets(limit)); }
+    @Override public Optional<RocketDetails> getRocket(RocketId id) { return locked(() -> delegate.getRocket(id)); }
+    @Override public Optional<MissionSummary> getMission(MissionId id) { return locked(() -> delegate.getMission(id)); }
+    @Override public List<RocketDetails> listRocketsByStatus(RocketStatus status) { return locked(() -> delegate.listRocketsByStatus(status)); }
+    @Override public List<MissionSummary> listMissionsByStatus(MissionStatus status) { return locked(() -> delegate.listMissionsByStatus(status)); }
+    @Override public Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) { return locked(() -> delegate.summarizeMissionsByAssignedRockets(limit, pageToken)); }
+    @Override public Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) { return locked(() -> delegate.listRocketsByStatus(status, limit, pageToken)); }
+    @Override public Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) { return locked(() -> delegate.listMissionsByStatus(status, limit, pageToken)); }
+    @Override public Stream<MissionSummary> streamMissionsByAssignedRockets() { return locked(() -> delegate.streamMissionsByAssignedRockets().toList()).stream(); }
+    @Override public Stream<RocketDetails> streamRocketsByStatus(RocketStatus status) { return locked(() -> delegate.streamRocketsByStatus(status).toList()).stream(); }
+    @Override public Stream<MissionSummary> streamMissionsByStatus(MissionStatus status) { return locked(() -> delegate.streamMissionsByStatus(status).toList()).stream(); }
+    @Override public int countRocketsByStatus(RocketStatus status) { return locked(() -> delegate.countRocketsByStatus(status)); }
+    @Override public int countMissionsByStatus(MissionStatus status) { return locked(() -> delegate.countMissionsByStatus(status)); }
+    @Override public Optional<RocketStatus> getRocketStatus(RocketId id) { return locked(() -> delegate.getRocketStatus(id)); }
+    @Override public Optional<MissionStatus> getMissionStatus(MissionId id) { return locked(() -> delegate.getMissionStatus(id)); }
+    @Override public List<RocketId> findRocketsByName(String name) { return locked(() -> delegate.findRocketsByName(name)); }
+    @Override public List<RocketId> findRocketsByNamePrefix(String prefix, int limit) { return locked(() -> delegate.findRocketsByNamePrefix(prefix, limit)); }
+    @Override public List<MissionId> findMissionsByName(String name) { return locked(() -> delegate.findMissionsByName(name)); }
+    @Override public List<MissionId> findMissionsByNamePrefix(String prefix, int limit) { return locked(() -> delegate.findMissionsByNamePrefix(prefix, limit)); }
+
+    private <T> T locked(Supplier<T> query) {
+        lock.lock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Caller holds lock. */
+    private void append(ByteBuffer record) {
+        log.append(record, clock.getAsLong());
+    }
+
+    private static byte[] bytes(ByteBuffer record) {
+        byte[] copy = new byte[record.remaining()];
+        record.get(copy);
+        return copy;
+    }
+}
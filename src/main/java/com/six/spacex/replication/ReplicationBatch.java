@@ -0,0 +1,33 @@
+package com.six.spacex.replication;
+
+import java.util.List;
+
+/**
+ * One answer of a {@link ReplicationSource}: encoded mutation records (see
+ * {@link com.six.spacex.persistence.MutationCodec}) plus the primary's position.
+ * <p>
+ * A normal batch holds the records numbered {@code lastSequence - records.size() + 1} to
+ * {@code lastSequence}, possibly none. A {@code reset} batch is a state transfer instead: its
+ * records rebuild the primary's whole state as of {@code lastSequence} in an empty repository.
+ */
+public final class ReplicationBatch {
+
+    public final boolean reset;
+    /** Sequence of the last record covered; a follower that applied the batch is at this position. */
+    public final long lastSequence;
+    /** Primary time (epoch millis) at which {@code lastSequence} was committed; {@code 0} if unknown. */
+    public final long lastMillis;
+    /** Newest sequence on the primary when the batch was built. */
+    public final long headSequence;
+    public final long headMillis;
+    public final List<byte[]> records;
+
+    public ReplicationBatch(boolean reset, long lastSequence, long lastMillis, long headSequence, long headMillis, List<byte[]> records) {
+        this.reset = reset;
+        this.lastSequence = lastSequence;
+        this.lastMillis = lastMillis;
+        this.headSequence = headSequence;
+        this.headMillis = headMillis;
+        this.records = records;
+    }
+}
@@ -0,0 +1,77 @@
+package com.six.spacex.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection to a {@link ReplicationServer}, speaking the protocol described there. Not
+ * thread-safe: a follower uses one client from its puller thread.
+ */
+public final class ReplicationClient implements ReplicationSource, Closeable {
+
+    private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    private ReplicationClient(SocketChannel channel) {
+        this.channel = channel;
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), STREAM_BUFFER_BYTES));
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 32));
+    }
+
+    public static ReplicationClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                : SocketChannel.open();
+        try {
+            channel.connect(address);
+            if (channel.supportedOptions().contains(StandardSocketOptions.TCP_NODELAY)) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new ReplicationClient(channel);
+    }
+
+    @Override
+    public ReplicationBatch fetch(long after, int maxRecords, long timeoutMillis) throws IOException {
+        out.writeLong(after);
+        out.writeInt(maxRecords);
+        out.writeInt((int) Math.min(Integer.MAX_VALUE, timeoutMillis));
+        out.flush();
+        boolean reset = in.readBoolean();
+        long lastSequence = in.readLong();
+        long lastMillis = in.readLong();
+        long headSequence = in.readLong();
+        long headMillis = in.readLong();
+        int count = in.readInt();
+        List<byte[]> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] record = new byte[in.readInt()];
+            in.readFully(record);
+            records.add(record);
+        }
+        return new ReplicationBatch(reset, lastSequence, lastMillis, headSequence, headMillis, records);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,94 @@
+package com.six.spacex.replication;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The most recent {@code capacity} records of the primary, numbered from 1 without gaps, in a
+ * ring. Readers that fall further behind than the ring reaches need a state transfer.
+ */
+final class ReplicationLog {
+
+    private final byte[][] records;
+    private final long[] millis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long head; // guarded by lock
+
+    ReplicationLog(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        records = new byte[capacity][];
+        millis = new long[capacity];
+    }
+
+    /** Copies {@code record} (position to limit) into the ring and returns its sequence. */
+    long append(ByteBuffer record, long now) {
+        byte[] copy = new byte[record.remaining()];
+        record.get(copy);
+        lock.lock();
+        try {
+            long seq = ++head;
+            int slot = slot(seq);
+            records[slot] = copy;
+            millis[slot] = now;
+            appended.signalAll();
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long head() {
+        lock.lock();
+        try {
+            return head;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Commit time of the newest record, {@code 0} while there is none. */
+    long headMillis() {
+        lock.lock();
+        try {
+            return head == 0 ? 0 : millis[slot(head)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for records after {@code after}, then returns up to
+     * {@code max} of them; {@code null} if they are no longer in the ring or {@code after} is
+     * not a position the primary went through (negative, or ahead of the head).
+     */
+    ReplicationBatch read(long after, int max, long timeoutMillis) throws InterruptedException {
+        if (after < 0) return null;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (head == after) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) break;
+                appended.awaitNanos(left);
+            }
+            if (after > head || after < head - records.length) return null;
+            int count = (int) Math.min(max, head - after);
+            List<byte[]> out = new ArrayList<>(count);
+            for (long seq = after + 1; seq <= after + count; seq++) out.add(records[slot(seq)]);
+            long last = after + count;
+            long lastMillis = last == 0 ? 0 : millis[slot(last)];
+            return new ReplicationBatch(false, last, lastMillis, head, millis[slot(Math.max(head, 1))], out);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slot(long seq) {
+        return (int) ((seq - 1) % records.length);
+    }
+}
@@ -0,0 +1,140 @@
+package com.six.spacex.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves a {@link ReplicationSource} (normally a {@link ReplicatedSpaceXRepository}) to followers
+ * in other processes over TCP or a Unix domain socket.
+ * <p>
+ * The protocol is a plain request/response loop, big-endian: a follower sends
+ * {@code [long after][int maxRecords][int timeoutMillis]} and receives
+ * {@code [byte reset][long lastSequence][long lastMillis][long headSequence][long headMillis]
+ * [int count]} followed by {@code count} records as {@code [int length][bytes]}. Followers are
+ * few and mostly waiting for the next record, so each connection gets its own thread.
+ */
+public final class ReplicationServer implements Closeable {
+
+    private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+
+    private final ReplicationSource primary;
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+    private final Thread acceptor;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    private ReplicationServer(ReplicationSource primary, SocketAddress bindTo) throws IOException {
+        this.primary = primary;
+        this.server = bindTo instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        try {
+            server.bind(bindTo);
+            this.address = server.getLocalAddress();
+        } catch (IOException | RuntimeException e) {
+            server.close();
+            throw e;
+        }
+        this.acceptor = new Thread(this::acceptLoop, "replication-server");
+        acceptor.setDaemon(true);
+    }
+
+    /**
+     * Binds to {@code address} (an {@link java.net.InetSocketAddress}, port 0 for any free port,
+     * or a {@link UnixDomainSocketAddress}) and starts serving {@code primary}.
+     */
+    public static ReplicationServer start(ReplicationSource primary, SocketAddress address) throws IOException {
+        ReplicationServer server = new ReplicationServer(primary, address);
+        server.acceptor.start();
+        return server;
+    }
+
+    public SocketAddress address() {
+        return address;
+    }
+
+    public int connections() {
+        return connections.size();
+    }
+
+    /** Stops accepting and drops every follower connection; followers reconnect on their own. */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (SocketChannel c : connections) closeQuietly(c);
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (address instanceof UnixDomainSocketAddress unix) Files.deleteIfExists(unix.getPath());
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (IOException e) {
+                if (closed) return;
+                continue; // e.g. out of file descriptors: keep serving the open connections
+            }
+            connections.add(channel);
+            if (closed) closeQuietly(channel);
+            Thread serving = new Thread(() -> serve(channel), "replication-follower");
+            serving.setDaemon(true);
+            serving.start();
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try (channel) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), STREAM_BUFFER_BYTES));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), STREAM_BUFFER_BYTES));
+            while (!closed) {
+                long after = in.readLong();
+                int maxRecords = in.readInt();
+                int timeoutMillis = in.readInt();
+                ReplicationBatch batch = primary.fetch(after, Math.max(1, maxRecords), Math.max(0, timeoutMillis));
+                out.writeBoolean(batch.reset);
+                out.writeLong(batch.lastSequence);
+                out.writeLong(batch.lastMillis);
+                out.writeLong(batch.headSequence);
+                out.writeLong(batch.headMillis);
+                out.writeInt(batch.records.size());
+                for (byte[] record : batch.records) {
+                    out.writeInt(record.length);
+                    out.write(record);
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the follower went away; it resumes from its own position on reconnect
+        } finally {
+            connections.remove(channel);
+        }
+    }
+
+    private static void closeQuietly(Closeable c) {
+        try {
+            c.close();
+        } catch (IOException ignored) {
+            // closing anyway
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.six.spacex.replication;
+
+import java.io.IOException;
+
+/**
+ * Where a follower reads the primary's mutation stream from: the primary itself in-process, or a
+ * {@link ReplicationClient} connected to a {@link ReplicationServer}.
+ */
+public interface ReplicationSource {
+
+    /**
+     * Up to {@code maxRecords} records after sequence {@code after}, waiting up to
+     * {@code timeoutMillis} for one to arrive. If the records after {@code after} are no longer
+     * retained, or {@code after} is not a position the primary knows, the answer is a state
+     * transfer ({@link ReplicationBatch#reset}).
+     */
+    ReplicationBatch fetch(long after, int maxRecords, long timeoutMillis) throws IOException;
+}
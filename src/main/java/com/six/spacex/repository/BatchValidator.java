@@ -0,0 +1,151 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.DomainException;
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.Violation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks a whole batch before anything is applied. Commands are played in order against an
+ * overlay of the touched rockets and missions, with the same rules and messages as the single
+ * mutators, so a batch is accepted exactly when applying its commands one by one would succeed.
+ * <p>
+ * A non-ended mission's status is always the one derived from its counts, so the overlay only
+ * tracks counts plus explicit status changes; implementations can therefore apply a validated
+ * batch with one status recalculation per affected mission at the end.
+ */
+final class BatchValidator {
+
+    /** Read access to the state a batch starts from. */
+    interface StateView {
+        /** {@code null} if the rocket does not exist. */
+        RocketStatus rocketStatus(RocketId id);
+
+        /** {@code null} if the (existing) rocket is unassigned. */
+        MissionId rocketMission(RocketId id);
+
+        /** {@code null} if the mission does not exist. */
+        MissionStatus missionStatus(MissionId id);
+
+        int assignedCount(MissionId id);
+
+        int inRepairCount(MissionId id);
+    }
+
+    private final StateView view;
+    private final Map<RocketId, RocketState> rockets = new HashMap<>();
+    private final Map<MissionId, MissionState> missions = new HashMap<>();
+
+    private BatchValidator(StateView view) {
+        this.view = view;
+    }
+
+    /** Throws a {@link DomainException} naming the first command that would be rejected. */
+    static void validate(List<RepositoryCommand> commands, StateView view) {
+        BatchValidator validator = new BatchValidator(view);
+        for (int i = 0; i < commands.size(); i++) {
+            RepositoryCommand command = commands.get(i);
+            try {
+                validator.play(command);
+            } catch (DomainException e) {
+                throw new DomainException(e.violation(), "Batch command " + i + " (" + command + ") rejected: " + e.getMessage());
+            }
+        }
+    }
+
+    private void play(RepositoryCommand c) {
+        switch (c.type) {
+            case ASSIGN -> {
+                RocketState r = rocket(c.rocketId);
+                MissionState m = mission(c.missionId);
+                StatusRules.checkAssignable(m.status);
+                if (r.mission != null) throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission");
+                r.mission = c.missionId;
+                m.assigned++;
+                if (r.status == RocketStatus.IN_REPAIR) m.inRepair++;
+                m.rederive();
+            }
+            case UNASSIGN -> {
+                RocketState r = rocket(c.rocketId);
+                if (r.mission == null) throw new DomainException(Violation.ROCKET_NOT_ASSIGNED, "Rocket is not assigned to any mission");
+                MissionState m = mission(r.mission);
+                m.assigned--;
+                if (r.status == RocketStatus.IN_REPAIR) m.inRepair--;
+                r.mission = null;
+                m.rederive();
+            }
+            case CHANGE_ROCKET_STATUS -> {
+                RocketState r = rocket(c.rocketId);
+                StatusRules.checkRocketStatus(c.rocketStatus, r.mission != null);
+                if (r.mission != null) {
+                    MissionState m = mission(r.mission);
+                    if (r.status == RocketStatus.IN_REPAIR) m.inRepair--;
+                    if (c.rocketStatus == RocketStatus.IN_REPAIR) m.inRepair++;
+                    r.status = c.rocketStatus;
+                    m.rederive();
+                } else {
+                    r.status = c.rocketStatus;
+                }
+            }
+            case CHANGE_MISSION_STATUS -> {
+                MissionState m = mission(c.missionId);
+                StatusRules.checkMissionStatus(c.missionStatus, m.assigned, m.inRepair > 0);
+                m.status = c.missionStatus;
+            }
+        }
+    }
+
+    private RocketState rocket(RocketId id) {
+        RocketState r = rockets.get(id);
+        if (r == null) {
+            RocketStatus status = view.rocketStatus(id);
+            if (status == null) throw new DomainException(Violation.UNKNOWN_ROCKET, "Unknown rocket: " + id);
+            r = new RocketState(status, view.rocketMission(id));
+            rockets.put(id, r);
+        }
+        return r;
+    }
+
+    private MissionState mission(MissionId id) {
+        MissionState m = missions.get(id);
+        if (m == null) {
+            MissionStatus status = view.missionStatus(id);
+            if (status == null) throw new DomainException(Violation.UNKNOWN_MISSION, "Unknown mission: " + id);
+            m = new MissionState(status, view.assignedCount(id), view.inRepairCount(id));
+            missions.put(id, m);
+        }
+        return m;
+    }
+
+    private static final class RocketState {
+        RocketStatus status;
+        MissionId mission;
+
+        RocketState(RocketStatus status, MissionId mission) {
+            this.status = status;
+            this.mission = mission;
+        }
+    }
+
+    private static final class MissionState {
+        MissionStatus status;
+        int assigned;
+        int inRepair;
+
+        MissionState(MissionStatus status, int assigned, int inRepair) {
+            this.status = status;
+            this.assigned = assigned;
+            this.inRepair = inRepair;
+        }
+
+        void rederive() {
+            status = StatusRules.derive(status, assigned, inRepair > 0);
+        }
+    }
+}
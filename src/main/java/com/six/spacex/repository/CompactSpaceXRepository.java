@@ -0,0 +1,793 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.events.RepositoryEvent;
+import com.six.spacex.events.RepositoryListener;
+
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Memory-lean, single-threaded {@link SpaceXRepository}.
+ * <p>
+ * Rockets and missions are numbered in insertion order and their state lives in parallel
+ * primitive arrays (struct of arrays): the two UUID longs, a status byte, a name index into an
+ * interned string table and, for rockets, the owning mission. Ids are found through
+ * open-addressing tables of record numbers keyed by the UUID longs, so lookups do not allocate.
+ * A mission's rockets form an intrusive doubly linked list threaded through rocket columns, in
+ * assignment order.
+ * <p>
+ * Status queries scan the status column, which is a sequential pass over one byte per record;
+ * counts are kept up to date. The summary order is computed on demand and cached until the next
+ * assignment change.
+ */
+public final class CompactSpaceXRepository implements SpaceXRepository {
+
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+    private static final int NONE = -1;
+    private static final int PENDING = -2;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // rocket columns, indexed by rocket number
+    private int rocketCount;
+    private long[] rocketMsb = new long[INITIAL_CAPACITY];
+    private long[] rocketLsb = new long[INITIAL_CAPACITY];
+    private int[] rocketName = new int[INITIAL_CAPACITY];
+    private byte[] rocketStatus = new byte[INITIAL_CAPACITY];
+    private int[] rocketMission = new int[INITIAL_CAPACITY];
+    private int[] rocketNext = new int[INITIAL_CAPACITY];
+    private int[] rocketPrev = new int[INITIAL_CAPACITY];
+    private int[] rocketSameName = new int[INITIAL_CAPACITY]; // next rocket with this name
+    private int[] rocketTable = new int[INITIAL_CAPACITY * 2]; // rocket number + 1, 0 = empty
+
+    // mission columns, indexed by mission number
+    private int missionCount;
+    private long[] missionMsb = new long[INITIAL_CAPACITY];
+    private long[] missionLsb = new long[INITIAL_CAPACITY];
+    private int[] missionName = new int[INITIAL_CAPACITY];
+    private byte[] missionStatus = new byte[INITIAL_CAPACITY];
+    private int[] missionHead = new int[INITIAL_CAPACITY];
+    private int[] missionTail = new int[INITIAL_CAPACITY];
+    private int[] missionAssigned = new int[INITIAL_CAPACITY];
+    private int[] missionInRepair = new int[INITIAL_CAPACITY];
+    private int[] missionSameName = new int[INITIAL_CAPACITY];
+    private int[] missionTable = new int[INITIAL_CAPACITY * 2];
+
+    // interned names, found through an open-addressing table of name index + 1
+    private int nameCount;
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] nameTable = new int[INITIAL_CAPACITY * 2];
+    // per name: first and last rocket/mission carrying it, chained through the *SameName columns
+    private int[] nameFirstRocket = newNoneArray(INITIAL_CAPACITY);
+    private int[] nameLastRocket = newNoneArray(INITIAL_CAPACITY);
+    private int[] nameFirstMission = newNoneArray(INITIAL_CAPACITY);
+    private int[] nameLastMission = newNoneArray(INITIAL_CAPACITY);
+    private int[] sortedNames; // name indexes in name order, null when stale
+    private boolean uniqueNames;
+    private IdGenerator ids = IdGenerator.random();
+
+    private final int[] rocketsByStatus = new int[ROCKET_STATUSES.length];
+    private final int[] missionsByStatus = new int[MISSION_STATUSES.length];
+
+    private int[] summaryOrder; // null when stale
+    private RepositoryListener listener;
+    private final List<RepositoryEvent> pendingEvents = new ArrayList<>();
+
+    private final BatchValidator.StateView batchView = new BatchValidator.StateView() {
+        @Override
+        public RocketStatus rocketStatus(RocketId id) {
+            int r = find(rocketTable, rocketMsb, rocketLsb, id.value().getMostSignificantBits(), id.value().getLeastSignificantBits());
+            return r == NONE ? null : ROCKET_STATUSES[rocketStatus[r]];
+        }
+
+        @Override
+        public MissionId rocketMission(RocketId id) {
+            int m = rocketMission[requireRocket(id)];
+            return m == NONE ? null : missionIdOf(m);
+        }
+
+        @Override
+        public MissionStatus missionStatus(MissionId id) {
+            int m = find(missionTable, missionMsb, missionLsb, id.value().getMostSignificantBits(), id.value().getLeastSignificantBits());
+            return m == NONE ? null : missionStatusOf(m);
+        }
+
+        @Override
+        public int assignedCount(MissionId id) {
+            return missionAssigned[requireMission(id)];
+        }
+
+        @Override
+        public int inRepairCount(MissionId id) {
+            return missionInRepair[requireMission(id)];
+        }
+    };
+
+    /**
+     * Receives every state change from now on, including derived mission status changes;
+     * {@code null} to stop. Ids are only materialized for events while a listener is set. A
+     * mutation's events are delivered once it is complete, so a listener that throws leaves the
+     * repository consistent.
+     */
+    public void setListener(RepositoryListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * With {@code unique} set, adding a rocket or mission under a name that is already taken is
+     * rejected. Turning it on fails if the repository already holds duplicate names.
+     */
+    public void setUniqueNames(boolean unique) {
+        if (unique) {
+            for (int n = 0; n < nameCount; n++) {
+                if (nameFirstRocket[n] != nameLastRocket[n]) throw new DomainException(Violation.DUPLICATE_ROCKET_NAME, "Rocket names are not unique");
+                if (nameFirstMission[n] != nameLastMission[n]) throw new DomainException(Violation.DUPLICATE_MISSION_NAME, "Mission names are not unique");
+            }
+        }
+        this.uniqueNames = unique;
+    }
+
+    /** Generates the ids of rockets and missions added without one; {@link IdGenerator#random()} by default. */
+    public void setIdGenerator(IdGenerator ids) {
+        this.ids = Objects.requireNonNull(ids, "ids");
+    }
+
+    @Override
+    public RocketId addRocket(String name) {
+        RocketId id = ids.nextRocketId();
+        addRocket(id, name);
+        return id;
+    }
+
+    @Override
+    public void addRocket(RocketId id, String name) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(name, "name");
+        long msb = id.value().getMostSignificantBits();
+        long lsb = id.value().getLeastSignificantBits();
+        if (find(rocketTable, rocketMsb, rocketLsb, msb, lsb) != NONE) throw new DomainException(Violation.DUPLICATE_ROCKET, "Rocket already exists: " + id);
+        if (uniqueNames) {
+            int taken = findName(name);
+            if (taken != NONE && nameFirstRocket[taken] != NONE) throw new DomainException(Violation.DUPLICATE_ROCKET_NAME, "Rocket name already taken: " + name);
+        }
+        if (rocketCount == rocketMsb.length) growRockets();
+        int r = rocketCount++;
+        rocketMsb[r] = msb;
+        rocketLsb[r] = lsb;
+        int n = intern(name);
+        rocketName[r] = n;
+        rocketSameName[r] = NONE;
+        if (nameLastRocket[n] == NONE) nameFirstRocket[n] = r;
+        else rocketSameName[nameLastRocket[n]] = r;
+        nameLastRocket[n] = r;
+        rocketStatus[r] = (byte) RocketStatus.ON_GROUND.ordinal();
+        rocketMission[r] = NONE;
+        rocketNext[r] = NONE;
+        rocketPrev[r] = NONE;
+        rocketsByStatus[RocketStatus.ON_GROUND.ordinal()]++;
+        if (rocketCount * 2 > rocketTable.length) {
+            rocketTable = rehash(rocketTable.length * 2, rocketCount - 1, rocketMsb, rocketLsb);
+        }
+        insert(rocketTable, msb, lsb, r);
+        if (listener != null) pendingEvents.add(RepositoryEvent.rocketAdded(id, name));
+        publishEvents();
+    }
+
+    @Override
+    public MissionId addMission(String name) {
+        MissionId id = ids.nextMissionId();
+        addMission(id, name);
+        return id;
+    }
+
+    @Override
+    public void addMission(MissionId id, String name) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(name, "name");
+        long msb = id.value().getMostSignificantBits();
+        long lsb = id.value().getLeastSignificantBits();
+        if (find(missionTable, missionMsb, missionLsb, msb, lsb) != NONE) throw new DomainException(Violation.DUPLICATE_MISSION, "Mission already exists: " + id);
+        if (uniqueNames) {
+            int taken = findName(name);
+            if (taken != NONE && nameFirstMission[taken] != NONE) throw new DomainException(Violation.DUPLICATE_MISSION_NAME, "Mission name already taken: " + name);
+        }
+        if (missionCount == missionMsb.length) growMissions();
+        int m = missionCount++;
+        missionMsb[m] = msb;
+        missionLsb[m] = lsb;
+        int n = intern(name);
+        missionName[m] = n;
+        missionSameName[m] = NONE;
+        if (nameLastMission[n] == NONE) nameFirstMission[n] = m;
+        else missionSameName[nameLastMission[n]] = m;
+        nameLastMission[n] = m;
+        missionStatus[m] = (byte) MissionStatus.SCHEDULED.ordinal();
+        missionHead[m] = NONE;
+        missionTail[m] = NONE;
+        missionAssigned[m] = 0;
+        missionInRepair[m] = 0;
+        missionsByStatus[MissionStatus.SCHEDULED.ordinal()]++;
+        if (missionCount * 2 > missionTable.length) {
+            missionTable = rehash(missionTable.length * 2, missionCount - 1, missionMsb, missionLsb);
+        }
+        insert(missionTable, msb, lsb, m);
+        summaryOrder = null;
+        if (listener != null) pendingEvents.add(RepositoryEvent.missionAdded(id, name));
+        publishEvents();
+    }
+
+    @Override
+    public void assignRocketToMission(RocketId rocketId, MissionId missionId) {
+        int r = requireRocket(rocketId);
+        int m = requireMission(missionId);
+        StatusRules.checkAssignable(missionStatusOf(m));
+        if (rocketMission[r] != NONE) throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission");
+        link(r, m);
+        if (listener != null) pendingEvents.add(RepositoryEvent.rocketAssigned(rocketId, missionId));
+        summaryOrder = null;
+        recalcMissionStatus(m);
+        publishEvents();
+    }
+
+    @Override
+    public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        int m = requireMission(missionId);
+        StatusRules.checkAssignable(missionStatusOf(m));
+        int[] resolved = new int[rocketIds.size()];
+        // resolved rockets are marked PENDING so a rocket listed twice is rejected before anything changes
+        for (int i = 0; i < resolved.length; i++) {
+            RocketId rid = rocketIds.get(i);
+            int r = find(rocketTable, rocketMsb, rocketLsb, rid.value().getMostSignificantBits(), rid.value().getLeastSignificantBits());
+            if (r == NONE || rocketMission[r] != NONE) {
+                for (int j = 0; j < i; j++) rocketMission[resolved[j]] = NONE;
+                if (r == NONE) throw new DomainException(Violation.UNKNOWN_ROCKET, "Unknown rocket: " + rid);
+                throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission: " + rid);
+            }
+            rocketMission[r] = PENDING;
+            resolved[i] = r;
+        }
+        for (int i = 0; i < resolved.length; i++) {
+            link(resolved[i], m);
+            if (listener != null) pendingEvents.add(RepositoryEvent.rocketAssigned(rocketIds.get(i), missionId));
+        }
+        summaryOrder = null;
+        recalcMissionStatus(m);
+        publishEvents();
+    }
+
+    @Override
+    public void changeRocketStatus(RocketId rocketId, RocketStatus status) {
+        int r = requireRocket(rocketId);
+        int m = rocketMission[r];
+        StatusRules.checkRocketStatus(status, m != NONE);
+        setRocketStatus(r, status);
+        if (m != NONE && missionStatusOf(m) != MissionStatus.ENDED) {
+            recalcMissionStatus(m);
+        }
+        publishEvents();
+    }
+
+    @Override
+    public void changeMissionStatus(MissionId missionId, MissionStatus status) {
+        int m = requireMission(missionId);
+        StatusRules.checkMissionStatus(status, missionAssigned[m], missionInRepair[m] > 0);
+        setMissionStatus(m, status);
+        publishEvents();
+    }
+
+    @Override
+    public void unassignRocket(RocketId rocketId) {
+        int r = requireRocket(rocketId);
+        int m = rocketMission[r];
+        if (m == NONE) throw new DomainException(Violation.ROCKET_NOT_ASSIGNED, "Rocket is not assigned to any mission");
+        unlink(r, m);
+        if (listener != null) pendingEvents.add(RepositoryEvent.rocketUnassigned(rocketId, missionIdOf(m)));
+        summaryOrder = null;
+        recalcMissionStatus(m);
+        publishEvents();
+    }
+
+    @Override
+    public void applyBatch(List<RepositoryCommand> commands) {
+        BatchValidator.validate(commands, batchView);
+        BitSet touched = new BitSet(missionCount);
+        for (RepositoryCommand c : commands) {
+            switch (c.type) {
+                case ASSIGN -> {
+                    int m = requireMission(c.missionId);
+                    link(requireRocket(c.rocketId), m);
+                    if (listener != null) pendingEvents.add(RepositoryEvent.rocketAssigned(c.rocketId, c.missionId));
+                    touched.set(m);
+                    summaryOrder = null;
+                }
+                case UNASSIGN -> {
+                    int r = requireRocket(c.rocketId);
+                    int m = rocketMission[r];
+                    unlink(r, m);
+                    if (listener != null) pendingEvents.add(RepositoryEvent.rocketUnassigned(c.rocketId, missionIdOf(m)));
+                    touched.set(m);
+                    summaryOrder = null;
+                }
+                case CHANGE_ROCKET_STATUS -> {
+                    int r = requireRocket(c.rocketId);
+                    setRocketStatus(r, c.rocketStatus);
+                    if (rocketMission[r] != NONE) touched.set(rocketMission[r]);
+                }
+                case CHANGE_MISSION_STATUS -> setMissionStatus(requireMission(c.missionId), c.missionStatus);
+            }
+        }
+        for (int m = touched.nextSetBit(0); m >= 0; m = touched.nextSetBit(m + 1)) recalcMissionStatus(m);
+        publishEvents();
+    }
+
+    @Override
+    public List<MissionSummary> summarizeMissionsByAssignedRockets() {
+        return summarizeMissionsByAssignedRockets(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must not be negative");
+        int[] order = summaryOrder();
+        int n = Math.min(limit, order.length);
+        List<MissionSummary> summaries = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) summaries.add(summaryOf(order[i]));
+        return summaries;
+    }
+
+    @Override
+    public Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) {
+        PageTokens.checkLimit(limit);
+        PageTokens.SummaryKey after = PageTokens.summaryKey(pageToken);
+        int[] order = summaryOrder();
+        int from = 0;
+        if (after != null) {
+            // first position that sorts after the token's key
+            int lo = 0, hi = order.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int m = order[mid];
+                if (after.isFollowedBy(missionAssigned[m], name(missionName[m]), m)) hi = mid;
+                else lo = mid + 1;
+            }
+            from = lo;
+        }
+        int to = (int) Math.min(order.length, (long) from + limit);
+        List<MissionSummary> items = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) items.add(summaryOf(order[i]));
+        if (to == order.length) return new Page<>(items, Optional.empty());
+        int last = order[to - 1];
+        return new Page<>(items, Optional.of(PageTokens.afterSummary(missionAssigned[last], name(missionName[last]), last)));
+    }
+
+    @Override
+    public Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) {
+        PageTokens.checkLimit(limit);
+        byte wanted = (byte) status.ordinal();
+        List<RocketDetails> items = new ArrayList<>(Math.min(limit, rocketsByStatus[status.ordinal()]));
+        int r = nextRocket(wanted, (int) Math.min(rocketCount, PageTokens.seq(pageToken) + 1));
+        int last = NONE;
+        for (; r < rocketCount && items.size() < limit; r = nextRocket(wanted, r + 1)) {
+            items.add(detailsOf(r));
+            last = r;
+        }
+        return new Page<>(items, r < rocketCount ? Optional.of(PageTokens.afterSeq(last)) : Optional.empty());
+    }
+
+    @Override
+    public Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) {
+        PageTokens.checkLimit(limit);
+        byte wanted = (byte) status.ordinal();
+        List<MissionSummary> items = new ArrayList<>(Math.min(limit, missionsByStatus[status.ordinal()]));
+        int m = nextMission(wanted, (int) Math.min(missionCount, PageTokens.seq(pageToken) + 1));
+        int last = NONE;
+        for (; m < missionCount && items.size() < limit; m = nextMission(wanted, m + 1)) {
+            items.add(summaryOf(m));
+            last = m;
+        }
+        return new Page<>(items, m < missionCount ? Optional.of(PageTokens.afterSeq(last)) : Optional.empty());
+    }
+
+    @Override
+    public Stream<MissionSummary> streamMissionsByAssignedRockets() {
+        return Arrays.stream(summaryOrder()).mapToObj(this::summaryOf);
+    }
+
+    @Override
+    public Stream<RocketDetails> streamRocketsByStatus(RocketStatus status) {
+        byte wanted = (byte) status.ordinal();
+        return IntStream.range(0, rocketCount).filter(r -> rocketStatus[r] == wanted).mapToObj(this::detailsOf);
+    }
+
+    @Override
+    public Stream<MissionSummary> streamMissionsByStatus(MissionStatus status) {
+        byte wanted = (byte) status.ordinal();
+        return IntStream.range(0, missionCount).filter(m -> missionStatus[m] == wanted).mapToObj(this::summaryOf);
+    }
+
+    @Override
+    public Optional<RocketDetails> getRocket(RocketId id) {
+        int r = find(rocketTable, rocketMsb, rocketLsb, id.value().getMostSignificantBits(), id.value().getLeastSignificantBits());
+        return r == NONE ? Optional.empty() : Optional.of(detailsOf(r));
+    }
+
+    @Override
+    public Optional<MissionSummary> getMission(MissionId id) {
+        int m = find(missionTable, missionMsb, missionLsb, id.value().getMostSignificantBits(), id.value().getLeastSignificantBits());
+        return m == NONE ? Optional.empty() : Optional.of(summaryOf(m));
+    }
+
+    @Override
+    public List<RocketDetails> listRocketsByStatus(RocketStatus status) {
+        byte wanted = (byte) status.ordinal();
+        List<RocketDetails> result = new ArrayList<>(rocketsByStatus[status.ordinal()]);
+        for (int r = 0; r < rocketCount; r++) {
+            if (rocketStatus[r] == wanted) result.add(detailsOf(r));
+        }
+        return result;
+    }
+
+    @Override
+    public List<MissionSummary> listMissionsByStatus(MissionStatus status) {
+        byte wanted = (byte) status.ordinal();
+        List<MissionSummary> result = new ArrayList<>(missionsByStatus[status.ordinal()]);
+        for (int m = 0; m < missionCount; m++) {
+            if (missionStatus[m] == wanted) result.add(summaryOf(m));
+        }
+        return result;
+    }
+
+    @Override
+    public int countRocketsByStatus(RocketStatus status) {
+        return rocketsByStatus[status.ordinal()];
+    }
+
+    @Override
+    public int countMissionsByStatus(MissionStatus status) {
+        return missionsByStatus[status.ordinal()];
+    }
+
+    @Override
+    public Optional<RocketStatus> getRocketStatus(RocketId id) {
+        int r = find(rocketTable, rocketMsb, rocketLsb, id.value().getMostSignificantBits(), id.value().getLeastSignificantBits());
+        return r == NONE ? Optional.empty() : Optional.of(ROCKET_STATUSES[rocketStatus[r]]);
+    }
+
+    @Override
+    public Optional<MissionStatus> getMissionStatus(MissionId id) {
+        int m = find(missionTable, missionMsb, missionLsb, id.value().getMostSignificantBits(), id.value().getLeastSignificantBits());
+        return m == NONE ? Optional.empty() : Optional.of(missionStatusOf(m));
+    }
+
+    @Override
+    public List<RocketId> findRocketsByName(String name) {
+        List<RocketId> out = new ArrayList<>();
+        int n = findName(Objects.requireNonNull(name, "name"));
+        if (n != NONE) {
+            for (int r = nameFirstRocket[n]; r != NONE; r = rocketSameName[r]) out.add(rocketIdOf(r));
+        }
+        return out;
+    }
+
+    @Override
+    public List<RocketId> findRocketsByNamePrefix(String prefix, int limit) {
+        PageTokens.checkLimit(limit);
+        List<RocketId> out = new ArrayList<>(Math.min(limit, 16));
+        int[] sorted = sortedNames();
+        for (int i = firstNameAtOrAfter(sorted, prefix); i < sorted.length && out.size() < limit; i++) {
+            int n = sorted[i];
+            if (!names[n].startsWith(prefix)) break;
+            for (int r = nameFirstRocket[n]; r != NONE && out.size() < limit; r = rocketSameName[r]) out.add(rocketIdOf(r));
+        }
+        return out;
+    }
+
+    @Override
+    public List<MissionId> findMissionsByName(String name) {
+        List<MissionId> out = new ArrayList<>();
+        int n = findName(Objects.requireNonNull(name, "name"));
+        if (n != NONE) {
+            for (int m = nameFirstMission[n]; m != NONE; m = missionSameName[m]) out.add(missionIdOf(m));
+        }
+        return out;
+    }
+
+    @Override
+    public List<MissionId> findMissionsByNamePrefix(String prefix, int limit) {
+        PageTokens.checkLimit(limit);
+        List<MissionId> out = new ArrayList<>(Math.min(limit, 16));
+        int[] sorted = sortedNames();
+        for (int i = firstNameAtOrAfter(sorted, prefix); i < sorted.length && out.size() < limit; i++) {
+            int n = sorted[i];
+            if (!names[n].startsWith(prefix)) break;
+            for (int m = nameFirstMission[n]; m != NONE && out.size() < limit; m = missionSameName[m]) out.add(missionIdOf(m));
+        }
+        return out;
+    }
+
+    // Helpers
+    private int requireRocket(RocketId id) {
+        int r = find(rocketTable, rocketMsb, rocketLsb, id.value().getMostSignificantBits(), id.value().getLeastSignificantBits());
+        if (r == NONE) throw new DomainException(Violation.UNKNOWN_ROCKET, "Unknown rocket: " + id);
+        return r;
+    }
+
+    private int requireMission(MissionId id) {
+        int m = find(missionTable, missionMsb, missionLsb, id.value().getMostSignificantBits(), id.value().getLeastSignificantBits());
+        if (m == NONE) throw new DomainException(Violation.UNKNOWN_MISSION, "Unknown mission: " + id);
+        return m;
+    }
+
+    /** First rocket at or after {@code from} in the wanted status, or {@code rocketCount}. */
+    private int nextRocket(byte wanted, int from) {
+        int r = from;
+        while (r < rocketCount && rocketStatus[r] != wanted) r++;
+        return r;
+    }
+
+    private int nextMission(byte wanted, int from) {
+        int m = from;
+        while (m < missionCount && missionStatus[m] != wanted) m++;
+        return m;
+    }
+
+    private MissionStatus missionStatusOf(int m) {
+        return MISSION_STATUSES[missionStatus[m]];
+    }
+
+    private void recalcMissionStatus(int m) {
+        MissionStatus current = missionStatusOf(m);
+        if (current == MissionStatus.ENDED) return;
+        setMissionStatus(m, StatusRules.derive(current, missionAssigned[m], missionInRepair[m] > 0));
+    }
+
+    /** All rocket status writes go through here to keep the counts and the owner's repair count in sync. */
+    private void setRocketStatus(int r, RocketStatus status) {
+        RocketStatus previous = ROCKET_STATUSES[rocketStatus[r]];
+        if (previous == status) return;
+        rocketsByStatus[previous.ordinal()]--;
+        rocketsByStatus[status.ordinal()]++;
+        rocketStatus[r] = (byte) status.ordinal();
+        int m = rocketMission[r];
+        if (m != NONE) {
+            if (previous == RocketStatus.IN_REPAIR) missionInRepair[m]--;
+            if (status == RocketStatus.IN_REPAIR) missionInRepair[m]++;
+        }
+        if (listener != null) {
+            pendingEvents.add(RepositoryEvent.rocketStatusChanged(rocketIdOf(r), m == NONE ? null : missionIdOf(m), previous, status));
+        }
+    }
+
+    private void setMissionStatus(int m, MissionStatus status) {
+        int previous = missionStatus[m];
+        if (previous == status.ordinal()) return;
+        missionsByStatus[previous]--;
+        missionsByStatus[status.ordinal()]++;
+        missionStatus[m] = (byte) status.ordinal();
+        if (listener != null) pendingEvents.add(RepositoryEvent.missionStatusChanged(missionIdOf(m), MISSION_STATUSES[previous], status));
+    }
+
+    /** Hands the events of the mutation that just completed to the listener, in the order they were made. */
+    private void publishEvents() {
+        if (pendingEvents.isEmpty()) return;
+        RepositoryListener l = listener;
+        try {
+            for (RepositoryEvent e : pendingEvents) l.onEvent(e);
+        } finally {
+            pendingEvents.clear();
+        }
+    }
+
+    private RocketId rocketIdOf(int r) {
+        return RocketId.of(new UUID(rocketMsb[r], rocketLsb[r]));
+    }
+
+    private MissionId missionIdOf(int m) {
+        return MissionId.of(new UUID(missionMsb[m], missionLsb[m]));
+    }
+
+    /** Appends rocket {@code r} to mission {@code m}'s list. */
+    private void link(int r, int m) {
+        rocketMission[r] = m;
+        rocketPrev[r] = missionTail[m];
+        rocketNext[r] = NONE;
+        if (missionTail[m] == NONE) missionHead[m] = r;
+        else rocketNext[missionTail[m]] = r;
+        missionTail[m] = r;
+        missionAssigned[m]++;
+        if (rocketStatus[r] == RocketStatus.IN_REPAIR.ordinal()) missionInRepair[m]++;
+    }
+
+    private void unlink(int r, int m) {
+        int prev = rocketPrev[r];
+        int next = rocketNext[r];
+        if (prev == NONE) missionHead[m] = next;
+        else rocketNext[prev] = next;
+        if (next == NONE) missionTail[m] = prev;
+        else rocketPrev[next] = prev;
+        rocketMission[r] = NONE;
+        rocketPrev[r] = NONE;
+        rocketNext[r] = NONE;
+        missionAssigned[m]--;
+        if (rocketStatus[r] == RocketStatus.IN_REPAIR.ordinal()) missionInRepair[m]--;
+    }
+
+    /** Mission numbers by dragons count desc, then mission name desc, then insertion order. */
+    private int[] summaryOrder() {
+        int[] order = summaryOrder;
+        if (order == null) {
+            Integer[] boxed = new Integer[missionCount];
+            for (int m = 0; m < missionCount; m++) boxed[m] = m;
+            Arrays.sort(boxed, (a, b) -> {
+                int c = Integer.compare(missionAssigned[b], missionAssigned[a]);
+                if (c != 0) return c;
+                c = name(missionName[b]).compareTo(name(missionName[a]));
+                return c != 0 ? c : Integer.compare(a, b);
+            });
+            order = new int[missionCount];
+            for (int i = 0; i < missionCount; i++) order[i] = boxed[i];
+            summaryOrder = order;
+        }
+        return order;
+    }
+
+    private MissionSummary summaryOf(int m) {
+        List<MissionSummary.RocketView> rv = new ArrayList<>(missionAssigned[m]);
+        for (int r = missionHead[m]; r != NONE; r = rocketNext[r]) {
+            rv.add(new MissionSummary.RocketView(name(rocketName[r]), ROCKET_STATUSES[rocketStatus[r]]));
+        }
+        return new MissionSummary(name(missionName[m]), missionStatusOf(m), rv.size(), rv);
+    }
+
+    private RocketDetails detailsOf(int r) {
+        int m = rocketMission[r];
+        Optional<String> missionName = m == NONE ? Optional.empty() : Optional.of(name(this.missionName[m]));
+        return new RocketDetails(name(rocketName[r]), ROCKET_STATUSES[rocketStatus[r]], missionName);
+    }
+
+    private String name(int index) {
+        return names[index];
+    }
+
+    /** Name indexes sorted by name; rebuilt on the first lookup after a new name was added. */
+    private int[] sortedNames() {
+        int[] sorted = sortedNames;
+        if (sorted == null) {
+            Integer[] boxed = new Integer[nameCount];
+            for (int n = 0; n < nameCount; n++) boxed[n] = n;
+            Arrays.sort(boxed, (a, b) -> names[a].compareTo(names[b]));
+            sorted = new int[nameCount];
+            for (int i = 0; i < nameCount; i++) sorted[i] = boxed[i];
+            sortedNames = sorted;
+        }
+        return sorted;
+    }
+
+    private int firstNameAtOrAfter(int[] sorted, String prefix) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (names[sorted[mid]].compareTo(prefix) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int findName(String name) {
+        int mask = nameTable.length - 1;
+        for (int i = nameSlot(name, mask); nameTable[i] != 0; i = (i + 1) & mask) {
+            if (names[nameTable[i] - 1].equals(name)) return nameTable[i] - 1;
+        }
+        return NONE;
+    }
+
+    private int intern(String name) {
+        int mask = nameTable.length - 1;
+        int i = nameSlot(name, mask);
+        for (; nameTable[i] != 0; i = (i + 1) & mask) {
+            if (names[nameTable[i] - 1].equals(name)) return nameTable[i] - 1;
+        }
+        if (nameCount == names.length) growNames();
+        int index = nameCount++;
+        names[index] = name;
+        sortedNames = null;
+        nameTable[i] = index + 1;
+        if (nameCount * 2 > nameTable.length) {
+            nameTable = new int[nameTable.length * 2];
+            int newMask = nameTable.length - 1;
+            for (int n = 0; n < nameCount; n++) {
+                int j = nameSlot(names[n], newMask);
+                while (nameTable[j] != 0) j = (j + 1) & newMask;
+                nameTable[j] = n + 1;
+            }
+        }
+        return index;
+    }
+
+    private static int nameSlot(String name, int mask) {
+        int h = name.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void growNames() {
+        int capacity = names.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        nameFirstRocket = growNoneArray(nameFirstRocket, capacity);
+        nameLastRocket = growNoneArray(nameLastRocket, capacity);
+        nameFirstMission = growNoneArray(nameFirstMission, capacity);
+        nameLastMission = growNoneArray(nameLastMission, capacity);
+    }
+
+    private static int[] newNoneArray(int length) {
+        int[] a = new int[length];
+        Arrays.fill(a, NONE);
+        return a;
+    }
+
+    private static int[] growNoneArray(int[] a, int capacity) {
+        int length = a.length;
+        a = Arrays.copyOf(a, capacity);
+        Arrays.fill(a, length, capacity, NONE);
+        return a;
+    }
+
+    private void growRockets() {
+        int capacity = rocketMsb.length * 2;
+        rocketMsb = Arrays.copyOf(rocketMsb, capacity);
+        rocketLsb = Arrays.copyOf(rocketLsb, capacity);
+        rocketName = Arrays.copyOf(rocketName, capacity);
+        rocketStatus = Arrays.copyOf(rocketStatus, capacity);
+        rocketMission = Arrays.copyOf(rocketMission, capacity);
+        rocketNext = Arrays.copyOf(rocketNext, capacity);
+        rocketPrev = Arrays.copyOf(rocketPrev, capacity);
+        rocketSameName = Arrays.copyOf(rocketSameName, capacity);
+    }
+
+    private void growMissions() {
+        int capacity = missionMsb.length * 2;
+        missionMsb = Arrays.copyOf(missionMsb, capacity);
+        missionLsb = Arrays.copyOf(missionLsb, capacity);
+        missionName = Arrays.copyOf(missionName, capacity);
+        missionStatus = Arrays.copyOf(missionStatus, capacity);
+        missionHead = Arrays.copyOf(missionHead, capacity);
+        missionTail = Arrays.copyOf(missionTail, capacity);
+        missionAssigned = Arrays.copyOf(missionAssigned, capacity);
+        missionInRepair = Arrays.copyOf(missionInRepair, capacity);
+        missionSameName = Arrays.copyOf(missionSameName, capacity);
+    }
+
+    // Open-addressing tables: power-of-two length, linear probing, slots hold record number + 1.
+
+    private static int slot(long msb, long lsb, int mask) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private static int find(int[] table, long[] msbs, long[] lsbs, long msb, long lsb) {
+        int mask = table.length - 1;
+        for (int i = slot(msb, lsb, mask); ; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == 0) return NONE;
+            int n = entry - 1;
+            if (msbs[n] == msb && lsbs[n] == lsb) return n;
+        }
+    }
+
+    private static void insert(int[] table, long msb, long lsb, int n) {
+        int mask = table.length - 1;
+        int i = slot(msb, lsb, mask);
+        while (table[i] != 0) i = (i + 1) & mask;
+        table[i] = n + 1;
+    }
+
+    private static int[] rehash(int length, int count, long[] msbs, long[] lsbs) {
+        int[] table = new int[length];
+        for (int n = 0; n < count; n++) insert(table, msbs[n], lsbs[n], n);
+        return table;
+    }
+}
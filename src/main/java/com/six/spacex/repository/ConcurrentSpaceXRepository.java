@@ -0,0 +1,610 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.events.RepositoryEvent;
+import com.six.spacex.events.RepositoryListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe {@link SpaceXRepository} that guards state with striped locks keyed by
+ * {@link RocketId} and {@link MissionId}, so calls on unrelated missions run in parallel.
+ * <p>
+ * Locking protocol:
+ * <ul>
+ *     <li>a mission, its status and its assigned-rocket set are guarded by the mission's stripe;</li>
+ *     <li>a rocket is guarded by its own stripe and, while assigned, also by its mission's stripe,
+ *     so holding a mission's stripe is enough to read all of its rockets consistently;</li>
+ *     <li>a call touching several stripes acquires them in ascending index order, which rules out
+ *     lock cycles and therefore deadlocks.</li>
+ * </ul>
+ * A rocket's mission is read optimistically before locking and re-checked once the stripes are
+ * held; if it changed in between, the call releases its stripes and retries.
+ * <p>
+ * Unlike {@link InMemorySpaceXRepository}, list queries do not follow insertion order. Name
+ * lookups may return the id of a rocket or mission that is still being added, a moment before
+ * {@code getRocket}/{@code getMission} resolve it.
+ * <p>
+ * Without a stable order to key pages on, the paged queries use the positional fallback of
+ * {@link SpaceXRepository}: every page materializes (and, for the summary, sorts) the whole
+ * result and slices it, so a page costs as much time and memory as the full query, and entities
+ * changed between two pages may be skipped or repeated. Page through
+ * {@link InMemorySpaceXRepository} or {@link VersionedSpaceXRepository} when that matters.
+ */
+public final class ConcurrentSpaceXRepository implements SpaceXRepository {
+
+    private static final int DEFAULT_STRIPES = 256;
+
+    private final ConcurrentMap<RocketId, Rocket> rockets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MissionId, Mission> missions = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray rocketsByStatus = new AtomicIntegerArray(RocketStatus.values().length);
+    private final AtomicIntegerArray missionsByStatus = new AtomicIntegerArray(MissionStatus.values().length);
+    private final NameIndex<RocketId> rocketNames = NameIndex.concurrent();
+    private final NameIndex<MissionId> missionNames = NameIndex.concurrent();
+    private volatile boolean uniqueNames;
+    private volatile IdGenerator ids = IdGenerator.random();
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private volatile RepositoryListener listener;
+
+    /** Only read while holding the stripes of everything asked about. */
+    private final BatchValidator.StateView batchView = new BatchValidator.StateView() {
+        @Override
+        public RocketStatus rocketStatus(RocketId id) {
+            Rocket r = rockets.get(id);
+            return r == null ? null : r.status();
+        }
+
+        @Override
+        public MissionId rocketMission(RocketId id) {
+            return rockets.get(id).missionId().orElse(null);
+        }
+
+        @Override
+        public MissionStatus missionStatus(MissionId id) {
+            Mission m = missions.get(id);
+            return m == null ? null : m.status();
+        }
+
+        @Override
+        public int assignedCount(MissionId id) {
+            return missions.get(id).assignedCount();
+        }
+
+        @Override
+        public int inRepairCount(MissionId id) {
+            return missions.get(id).rocketsInStatus(RocketStatus.IN_REPAIR);
+        }
+    };
+
+    public ConcurrentSpaceXRepository() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripeCount number of locks; rounded up to a power of two
+     */
+    public ConcurrentSpaceXRepository(int stripeCount) {
+        if (stripeCount <= 0) throw new IllegalArgumentException("stripeCount must be positive");
+        int size = 1;
+        while (size < stripeCount) size <<= 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) stripes[i] = new ReentrantLock();
+        this.mask = size - 1;
+    }
+
+    /**
+     * Receives every state change from now on, including derived mission status changes;
+     * {@code null} to stop. Events are emitted once a mutation is complete but while the changed
+     * entity's stripe is still held, so the events of one rocket or mission arrive in the order
+     * they happened and a listener that throws leaves the repository consistent.
+     */
+    public void setListener(RepositoryListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * With {@code unique} set, adding a rocket or mission under a name that is already taken is
+     * rejected. Turning it on fails if the repository already holds duplicate names; it should
+     * happen before the repository is shared, as adds racing with it are not checked.
+     */
+    public void setUniqueNames(boolean unique) {
+        if (unique && rocketNames.hasDuplicates()) throw new DomainException(Violation.DUPLICATE_ROCKET_NAME, "Rocket names are not unique");
+        if (unique && missionNames.hasDuplicates()) throw new DomainException(Violation.DUPLICATE_MISSION_NAME, "Mission names are not unique");
+        this.uniqueNames = unique;
+    }
+
+    /** Generates the ids of rockets and missions added without one; {@link IdGenerator#random()} by default. */
+    public void setIdGenerator(IdGenerator ids) {
+        this.ids = Objects.requireNonNull(ids, "ids");
+    }
+
+    @Override
+    public RocketId addRocket(String name) {
+        RocketId id = ids.nextRocketId();
+        addRocket(id, name);
+        return id;
+    }
+
+    @Override
+    public void addRocket(RocketId id, String name) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(name, "name");
+        if (rockets.containsKey(id)) throw new DomainException(Violation.DUPLICATE_ROCKET, "Rocket already exists: " + id);
+        // the name is claimed first so that unique-name races are settled by the index
+        String indexed = rocketNames.add(name, id, uniqueNames);
+        if (indexed == null) throw new DomainException(Violation.DUPLICATE_ROCKET_NAME, "Rocket name already taken: " + name);
+        if (rockets.putIfAbsent(id, new Rocket(id, indexed)) != null) {
+            rocketNames.remove(name, id);
+            throw new DomainException(Violation.DUPLICATE_ROCKET, "Rocket already exists: " + id);
+        }
+        rocketsByStatus.incrementAndGet(RocketStatus.ON_GROUND.ordinal());
+        RepositoryListener l = listener;
+        if (l != null) l.onEvent(RepositoryEvent.rocketAdded(id, name));
+    }
+
+    @Override
+    public MissionId addMission(String name) {
+        MissionId id = ids.nextMissionId();
+        addMission(id, name);
+        return id;
+    }
+
+    @Override
+    public void addMission(MissionId id, String name) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(name, "name");
+        if (missions.containsKey(id)) throw new DomainException(Violation.DUPLICATE_MISSION, "Mission already exists: " + id);
+        String indexed = missionNames.add(name, id, uniqueNames);
+        if (indexed == null) throw new DomainException(Violation.DUPLICATE_MISSION_NAME, "Mission name already taken: " + name);
+        if (missions.putIfAbsent(id, new Mission(id, indexed)) != null) {
+            missionNames.remove(name, id);
+            throw new DomainException(Violation.DUPLICATE_MISSION, "Mission already exists: " + id);
+        }
+        missionsByStatus.incrementAndGet(MissionStatus.SCHEDULED.ordinal());
+        RepositoryListener l = listener;
+        if (l != null) l.onEvent(RepositoryEvent.missionAdded(id, name));
+    }
+
+    @Override
+    public void assignRocketToMission(RocketId rocketId, MissionId missionId) {
+        Rocket rocket = requireRocket(rocketId);
+        Mission mission = requireMission(missionId);
+        int rs = stripe(rocketId);
+        int ms = stripe(missionId);
+
+        lock(rs, ms);
+        try {
+            StatusRules.checkAssignable(mission.status());
+            if (rocket.missionId().isPresent()) {
+                throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission");
+            }
+            rocket.assignTo(missionId);
+            mission.addRocket(rocket);
+            List<RepositoryEvent> events = newEvents();
+            if (events != null) events.add(RepositoryEvent.rocketAssigned(rocketId, missionId));
+            recalcMissionStatus(mission, events);
+            publish(events);
+        } finally {
+            unlock(rs, ms);
+        }
+    }
+
+    @Override
+    public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        Mission mission = requireMission(missionId);
+        List<Rocket> toAssign = new ArrayList<>(rocketIds.size());
+        int[] held = new int[rocketIds.size() + 1];
+        held[0] = stripe(missionId);
+        for (int i = 0; i < rocketIds.size(); i++) {
+            RocketId rid = rocketIds.get(i);
+            toAssign.add(requireRocket(rid));
+            held[i + 1] = stripe(rid);
+        }
+
+        held = lockAll(held);
+        try {
+            StatusRules.checkAssignable(mission.status());
+            for (Rocket r : toAssign) {
+                if (r.missionId().isPresent()) {
+                    throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission: " + r.id());
+                }
+            }
+            List<RepositoryEvent> events = newEvents();
+            for (Rocket r : toAssign) {
+                r.assignTo(missionId);
+                mission.addRocket(r);
+                if (events != null) events.add(RepositoryEvent.rocketAssigned(r.id(), missionId));
+            }
+            recalcMissionStatus(mission, events);
+            publish(events);
+        } finally {
+            unlockAll(held);
+        }
+    }
+
+    @Override
+    public void changeRocketStatus(RocketId rocketId, RocketStatus status) {
+        Rocket rocket = requireRocket(rocketId);
+        int rs = stripe(rocketId);
+        while (true) {
+            MissionId observed = rocket.missionId().orElse(null);
+            int ms = observed == null ? rs : stripe(observed);
+            lock(rs, ms);
+            try {
+                MissionId current = rocket.missionId().orElse(null);
+                if (!Objects.equals(current, observed)) continue;
+
+                Mission mission = current == null ? null : requireMission(current);
+                StatusRules.checkRocketStatus(status, mission != null);
+                List<RepositoryEvent> events = newEvents();
+                setRocketStatus(rocket, mission, status, events);
+                if (mission != null && mission.status() != MissionStatus.ENDED) {
+                    recalcMissionStatus(mission, events);
+                }
+                publish(events);
+                return;
+            } finally {
+                unlock(rs, ms);
+            }
+        }
+    }
+
+    @Override
+    public void changeMissionStatus(MissionId missionId, MissionStatus status) {
+        Mission mission = requireMission(missionId);
+        int ms = stripe(missionId);
+        stripes[ms].lock();
+        try {
+            StatusRules.checkMissionStatus(status, mission);
+            List<RepositoryEvent> events = newEvents();
+            setMissionStatus(mission, status, events);
+            publish(events);
+        } finally {
+            stripes[ms].unlock();
+        }
+    }
+
+    @Override
+    public void unassignRocket(RocketId rocketId) {
+        Rocket rocket = requireRocket(rocketId);
+        int rs = stripe(rocketId);
+        while (true) {
+            MissionId observed = rocket.missionId().orElse(null);
+            int ms = observed == null ? rs : stripe(observed);
+            lock(rs, ms);
+            try {
+                MissionId current = rocket.missionId().orElse(null);
+                if (!Objects.equals(current, observed)) continue;
+                if (current == null) {
+                    throw new DomainException(Violation.ROCKET_NOT_ASSIGNED, "Rocket is not assigned to any mission");
+                }
+
+                Mission mission = requireMission(current);
+                rocket.unassign();
+                mission.removeRocket(rocket);
+                List<RepositoryEvent> events = newEvents();
+                if (events != null) events.add(RepositoryEvent.rocketUnassigned(rocketId, current));
+                recalcMissionStatus(mission, events);
+                publish(events);
+                return;
+            } finally {
+                unlock(rs, ms);
+            }
+        }
+    }
+
+    /**
+     * Locks the stripes of every rocket and mission the batch names plus the current missions of
+     * its rockets, re-checking those missions once the stripes are held as the single-rocket
+     * mutators do. Every mission the batch can touch is then covered.
+     */
+    @Override
+    public void applyBatch(List<RepositoryCommand> commands) {
+        while (true) {
+            Map<RocketId, MissionId> observed = new HashMap<>();
+            int[] held = new int[commands.size() * 3];
+            int n = 0;
+            for (RepositoryCommand c : commands) {
+                if (c.rocketId != null) {
+                    held[n++] = stripe(c.rocketId);
+                    if (!observed.containsKey(c.rocketId)) {
+                        Rocket r = rockets.get(c.rocketId);
+                        MissionId current = r == null ? null : r.missionId().orElse(null);
+                        observed.put(c.rocketId, current);
+                        if (current != null) held[n++] = stripe(current);
+                    }
+                }
+                if (c.missionId != null) held[n++] = stripe(c.missionId);
+            }
+            held = lockAll(Arrays.copyOf(held, n));
+            try {
+                if (!observedStillCurrent(observed)) continue;
+                BatchValidator.validate(commands, batchView);
+                applyValidated(commands);
+                return;
+            } finally {
+                unlockAll(held);
+            }
+        }
+    }
+
+    @Override
+    public List<MissionSummary> summarizeMissionsByAssignedRockets() {
+        List<MissionSummary> summaries = missions.values().stream()
+                .map(this::summarize)
+                .collect(Collectors.toList());
+
+        summaries.sort(Comparator
+                .comparingInt((MissionSummary s) -> s.dragonsCount).reversed()
+                .thenComparing((MissionSummary s) -> s.missionName, Comparator.reverseOrder())
+        );
+        return summaries;
+    }
+
+    @Override
+    public Optional<RocketDetails> getRocket(RocketId id) {
+        Rocket r = rockets.get(id);
+        if (r == null) return Optional.empty();
+        return Optional.of(details(r));
+    }
+
+    @Override
+    public Optional<MissionSummary> getMission(MissionId id) {
+        Mission m = missions.get(id);
+        if (m == null) return Optional.empty();
+        return Optional.of(summarize(m));
+    }
+
+    @Override
+    public List<RocketDetails> listRocketsByStatus(RocketStatus status) {
+        List<RocketDetails> result = new ArrayList<>();
+        for (Rocket r : rockets.values()) {
+            RocketDetails d = details(r);
+            if (d.status == status) result.add(d);
+        }
+        return result;
+    }
+
+    @Override
+    public List<MissionSummary> listMissionsByStatus(MissionStatus status) {
+        List<MissionSummary> result = new ArrayList<>();
+        for (Mission m : missions.values()) {
+            MissionSummary s = summarize(m);
+            if (s.missionStatus == status) result.add(s);
+        }
+        return result;
+    }
+
+    /** Lazily reads each rocket under its stripe, so it may be consumed while writers continue. */
+    @Override
+    public Stream<RocketDetails> streamRocketsByStatus(RocketStatus status) {
+        return rockets.values().stream().map(this::details).filter(d -> d.status == status);
+    }
+
+    @Override
+    public Stream<MissionSummary> streamMissionsByStatus(MissionStatus status) {
+        return missions.values().stream().map(this::summarize).filter(s -> s.missionStatus == status);
+    }
+
+    @Override
+    public int countRocketsByStatus(RocketStatus status) {
+        return rocketsByStatus.get(status.ordinal());
+    }
+
+    @Override
+    public int countMissionsByStatus(MissionStatus status) {
+        return missionsByStatus.get(status.ordinal());
+    }
+
+    @Override
+    public Optional<RocketStatus> getRocketStatus(RocketId id) {
+        Rocket r = rockets.get(id);
+        if (r == null) return Optional.empty();
+        int rs = stripe(id);
+        stripes[rs].lock();
+        try {
+            return Optional.of(r.status());
+        } finally {
+            stripes[rs].unlock();
+        }
+    }
+
+    @Override
+    public List<RocketId> findRocketsByName(String name) {
+        return rocketNames.find(Objects.requireNonNull(name, "name"), Function.identity());
+    }
+
+    @Override
+    public List<RocketId> findRocketsByNamePrefix(String prefix, int limit) {
+        return rocketNames.findByPrefix(Objects.requireNonNull(prefix, "prefix"), limit, Function.identity());
+    }
+
+    @Override
+    public List<MissionId> findMissionsByName(String name) {
+        return missionNames.find(Objects.requireNonNull(name, "name"), Function.identity());
+    }
+
+    @Override
+    public List<MissionId> findMissionsByNamePrefix(String prefix, int limit) {
+        return missionNames.findByPrefix(Objects.requireNonNull(prefix, "prefix"), limit, Function.identity());
+    }
+
+    @Override
+    public Optional<MissionStatus> getMissionStatus(MissionId id) {
+        Mission m = missions.get(id);
+        if (m == null) return Optional.empty();
+        int ms = stripe(id);
+        stripes[ms].lock();
+        try {
+            return Optional.of(m.status());
+        } finally {
+            stripes[ms].unlock();
+        }
+    }
+
+    // Helpers
+    private boolean observedStillCurrent(Map<RocketId, MissionId> observed) {
+        for (Map.Entry<RocketId, MissionId> e : observed.entrySet()) {
+            Rocket r = rockets.get(e.getKey());
+            MissionId current = r == null ? null : r.missionId().orElse(null);
+            if (!Objects.equals(current, e.getValue())) return false;
+        }
+        return true;
+    }
+
+    /** Caller holds every stripe the batch can touch. */
+    private void applyValidated(List<RepositoryCommand> commands) {
+        Set<Mission> touched = new LinkedHashSet<>();
+        List<RepositoryEvent> events = newEvents();
+        for (RepositoryCommand c : commands) {
+            switch (c.type) {
+                case ASSIGN -> {
+                    Rocket rocket = requireRocket(c.rocketId);
+                    Mission mission = requireMission(c.missionId);
+                    rocket.assignTo(c.missionId);
+                    mission.addRocket(rocket);
+                    if (events != null) events.add(RepositoryEvent.rocketAssigned(c.rocketId, c.missionId));
+                    touched.add(mission);
+                }
+                case UNASSIGN -> {
+                    Rocket rocket = requireRocket(c.rocketId);
+                    Mission mission = requireMission(rocket.missionId().orElseThrow());
+                    rocket.unassign();
+                    mission.removeRocket(rocket);
+                    if (events != null) events.add(RepositoryEvent.rocketUnassigned(c.rocketId, mission.id()));
+                    touched.add(mission);
+                }
+                case CHANGE_ROCKET_STATUS -> {
+                    Rocket rocket = requireRocket(c.rocketId);
+                    Mission owner = rocket.missionId().map(this::requireMission).orElse(null);
+                    setRocketStatus(rocket, owner, c.rocketStatus, events);
+                    if (owner != null) touched.add(owner);
+                }
+                case CHANGE_MISSION_STATUS -> setMissionStatus(requireMission(c.missionId), c.missionStatus, events);
+            }
+        }
+        for (Mission m : touched) recalcMissionStatus(m, events);
+        publish(events);
+    }
+
+    private Rocket requireRocket(RocketId id) {
+        Rocket r = rockets.get(id);
+        if (r == null) throw new DomainException(Violation.UNKNOWN_ROCKET, "Unknown rocket: " + id);
+        return r;
+    }
+
+    private Mission requireMission(MissionId id) {
+        Mission m = missions.get(id);
+        if (m == null) throw new DomainException(Violation.UNKNOWN_MISSION, "Unknown mission: " + id);
+        return m;
+    }
+
+    /** Collects the events of one mutation; {@code null} while no listener is set. */
+    private List<RepositoryEvent> newEvents() {
+        return listener == null ? null : new ArrayList<>(4);
+    }
+
+    /**
+     * Hands the events of a completed mutation to the listener. Caller still holds the stripes,
+     * so the events of one entity keep their order, and the repository is already consistent.
+     */
+    private void publish(List<RepositoryEvent> events) {
+        RepositoryListener l = listener;
+        if (events == null || l == null) return;
+        for (RepositoryEvent e : events) l.onEvent(e);
+    }
+
+    /** Caller holds the mission's stripe. */
+    private void recalcMissionStatus(Mission mission, List<RepositoryEvent> events) {
+        if (mission.status() == MissionStatus.ENDED) return;
+        setMissionStatus(mission, StatusRules.derive(mission), events);
+    }
+
+    /** Caller holds the rocket's stripe and, if {@code owner} is non-null, the owner's stripe. */
+    private void setRocketStatus(Rocket rocket, Mission owner, RocketStatus status, List<RepositoryEvent> events) {
+        RocketStatus previous = rocket.status();
+        if (previous == status) return;
+        if (owner != null) owner.changeRocketStatus(rocket, status);
+        else rocket.setStatus(status);
+        rocketsByStatus.decrementAndGet(previous.ordinal());
+        rocketsByStatus.incrementAndGet(status.ordinal());
+        if (events != null) events.add(RepositoryEvent.rocketStatusChanged(rocket.id(), owner == null ? null : owner.id(), previous, status));
+    }
+
+    /** Caller holds the mission's stripe. */
+    private void setMissionStatus(Mission mission, MissionStatus status, List<RepositoryEvent> events) {
+        MissionStatus previous = mission.status();
+        if (previous == status) return;
+        mission.setStatus(status);
+        missionsByStatus.decrementAndGet(previous.ordinal());
+        missionsByStatus.incrementAndGet(status.ordinal());
+        if (events != null) events.add(RepositoryEvent.missionStatusChanged(mission.id(), previous, status));
+    }
+
+    private RocketDetails details(Rocket r) {
+        int rs = stripe(r.id());
+        stripes[rs].lock();
+        try {
+            Optional<String> missionName = r.missionId().map(mid -> requireMission(mid).name());
+            return new RocketDetails(r.name(), r.status(), missionName);
+        } finally {
+            stripes[rs].unlock();
+        }
+    }
+
+    private MissionSummary summarize(Mission m) {
+        int ms = stripe(m.id());
+        stripes[ms].lock();
+        try {
+            List<MissionSummary.RocketView> rv = new ArrayList<>(m.assignedCount());
+            for (RocketId rid : m.assignedRockets()) {
+                Rocket r = requireRocket(rid);
+                rv.add(new MissionSummary.RocketView(r.name(), r.status()));
+            }
+            return new MissionSummary(m.name(), m.status(), rv.size(), rv);
+        } finally {
+            stripes[ms].unlock();
+        }
+    }
+
+    // Lock striping
+    private int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void lock(int a, int b) {
+        if (a == b) {
+            stripes[a].lock();
+        } else {
+            stripes[Math.min(a, b)].lock();
+            stripes[Math.max(a, b)].lock();
+        }
+    }
+
+    private void unlock(int a, int b) {
+        stripes[a].unlock();
+        if (a != b) stripes[b].unlock();
+    }
+
+    /** Locks the given stripes in ascending order and returns them de-duplicated. */
+    private int[] lockAll(int[] indexes) {
+        int[] sorted = Arrays.stream(indexes).sorted().distinct().toArray();
+        for (int i : sorted) stripes[i].lock();
+        return sorted;
+    }
+
+    private void unlockAll(int[] sorted) {
+        for (int i = sorted.length - 1; i >= 0; i--) stripes[sorted[i]].unlock();
+    }
+}
@@ -0,0 +1,92 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A whole fleet to load in one go with {@link InMemorySpaceXRepository#importFleet}, instead of
+ * seeding a repository one {@code addRocket}/{@code addMission} call at a time.
+ * <p>
+ * Records carry their own ids, statuses and assignments and may be given in any order; nothing is
+ * checked until the import, which validates the whole fleet once against the rules the mutators
+ * enforce. A mission's status is derived from its rockets unless one is given, so only ended
+ * missions (or a check of the expected status) need it. The imported repository takes over the
+ * records, so a {@code FleetImport} can be imported once. Not thread-safe.
+ */
+public final class FleetImport {
+
+    final List<Rocket> rockets;
+    final List<Mission> missions;
+    // the status given for each mission, null to derive it
+    final List<MissionStatus> missionStatuses;
+    private boolean imported;
+
+    public FleetImport() {
+        this(16, 16);
+    }
+
+    /** Presizes for {@code expectedRockets} and {@code expectedMissions} records, and so does the import. */
+    public FleetImport(int expectedRockets, int expectedMissions) {
+        if (expectedRockets < 0 || expectedMissions < 0) throw new IllegalArgumentException("expected sizes must not be negative");
+        rockets = new ArrayList<>(expectedRockets);
+        missions = new ArrayList<>(expectedMissions);
+        missionStatuses = new ArrayList<>(expectedMissions);
+    }
+
+    /** Adds an unassigned rocket that is {@code On ground}. */
+    public FleetImport rocket(RocketId id, String name) {
+        return rocket(id, name, RocketStatus.ON_GROUND, null);
+    }
+
+    /** Adds a rocket in {@code status}, assigned to {@code missionId} unless that is {@code null}. */
+    public FleetImport rocket(RocketId id, String name, RocketStatus status, MissionId missionId) {
+        checkNotImported();
+        Rocket r = new Rocket(id, name);
+        r.setStatus(status);
+        if (missionId != null) r.assignTo(missionId);
+        rockets.add(r);
+        return this;
+    }
+
+    /** Adds a mission whose status follows from its rockets. */
+    public FleetImport mission(MissionId id, String name) {
+        checkNotImported();
+        missions.add(new Mission(id, name));
+        missionStatuses.add(null);
+        return this;
+    }
+
+    /** Adds a mission in {@code status}, which must agree with its rockets. */
+    public FleetImport mission(MissionId id, String name, MissionStatus status) {
+        checkNotImported();
+        missions.add(new Mission(id, name));
+        missionStatuses.add(Objects.requireNonNull(status, "status"));
+        return this;
+    }
+
+    /** Claims the records for an import; fails if they were claimed before. */
+    void markImported() {
+        checkNotImported();
+        imported = true;
+    }
+
+    public int rocketCount() {
+        return rockets.size();
+    }
+
+    public int missionCount() {
+        return missions.size();
+    }
+
+    private void checkNotImported() {
+        if (imported) throw new IllegalStateException("Fleet already imported");
+    }
+}
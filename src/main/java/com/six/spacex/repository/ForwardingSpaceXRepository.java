@@ -0,0 +1,58 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
+import com.six.spacex.dto.RocketDetails;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Base class for decorators: forwards every call to a delegate so subclasses only override
+ * the operations they change.
+ */
+public abstract class ForwardingSpaceXRepository implements SpaceXRepository {
+
+    protected final SpaceXRepository delegate;
+
+    protected ForwardingSpaceXRepository(SpaceXRepository delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    @Override public RocketId addRocket(String name) { return delegate.addRocket(name); }
+    @Override public void addRocket(RocketId id, String name) { delegate.addRocket(id, name); }
+    @Override public MissionId addMission(String name) { return delegate.addMission(name); }
+    @Override public void addMission(MissionId id, String name) { delegate.addMission(id, name); }
+    @Override public void assignRocketToMission(RocketId rocketId, MissionId missionId) { delegate.assignRocketToMission(rocketId, missionId); }
+    @Override public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) { delegate.assignRocketsToMission(missionId, rocketIds); }
+    @Override public void changeRocketStatus(RocketId rocketId, RocketStatus status) { delegate.changeRocketStatus(rocketId, status); }
+    @Override public void changeMissionStatus(MissionId missionId, MissionStatus status) { delegate.changeMissionStatus(missionId, status); }
+    @Override public void unassignRocket(RocketId rocketId) { delegate.unassignRocket(rocketId); }
+    @Override public void applyBatch(List<RepositoryCommand> commands) { delegate.applyBatch(commands); }
+    @Override public List<MissionSummary> summarizeMissionsByAssignedRockets() { return delegate.summarizeMissionsByAssignedRockets(); }
+    @Override public List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) { return delegate.summarizeMissionsByAssignedRockets(limit); }
+    @Override public Optional<RocketDetails> getRocket(RocketId id) { return delegate.getRocket(id); }
+    @Override public Optional<MissionSummary> getMission(MissionId id) { return delegate.getMission(id); }
+    @Override public List<RocketDetails> listRocketsByStatus(RocketStatus status) { return delegate.listRocketsByStatus(status); }
+    @Override public List<MissionSummary> listMissionsByStatus(MissionStatus status) { return delegate.listMissionsByStatus(status); }
+    @Override public Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) { return delegate.summarizeMissionsByAssignedRockets(limit, pageToken); }
+    @Override public Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) { return delegate.listRocketsByStatus(status, limit, pageToken); }
+    @Override public Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) { return delegate.listMissionsByStatus(status, limit, pageToken); }
+    @Override public Stream<MissionSummary> streamMissionsByAssignedRockets() { return delegate.streamMissionsByAssignedRockets(); }
+    @Override public Stream<RocketDetails> streamRocketsByStatus(RocketStatus status) { return delegate.streamRocketsByStatus(status); }
+    @Override public Stream<MissionSummary> streamMissionsByStatus(MissionStatus status) { return delegate.streamMissionsByStatus(status); }
+    @Override public int countRocketsByStatus(RocketStatus status) { return delegate.countRocketsByStatus(status); }
+    @Override public int countMissionsByStatus(MissionStatus status) { return delegate.countMissionsByStatus(status); }
+    @Override public Optional<RocketStatus> getRocketStatus(RocketId id) { return delegate.getRocketStatus(id); }
+    @Override public Optional<MissionStatus> getMissionStatus(MissionId id) { return delegate.getMissionStatus(id); }
+    @Override public List<RocketId> findRocketsByName(String name) { return delegate.findRocketsByName(name); }
+    @Override public List<RocketId> findRocketsByNamePrefix(String prefix, int limit) { return delegate.findRocketsByNamePrefix(prefix, limit); }
+    @Override public List<MissionId> findMissionsByName(String name) { return delegate.findMissionsByName(name); }
+    @Override public List<MissionId> findMissionsByNamePrefix(String prefix, int limit) { return delegate.findMissionsByNamePrefix(prefix, limit); }
+}
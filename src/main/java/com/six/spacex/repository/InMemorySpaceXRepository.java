@@ -2,237 +2,846 @@ package com.six.spacex.repository;
 
 import com.six.spacex.domain.*;
 import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
 import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.events.RepositoryEvent;
+import com.six.spacex.events.RepositoryListener;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class InMemorySpaceXRepository implements SpaceXRepository {
 
-    private final Map<RocketId, Rocket> rockets = new LinkedHashMap<>();
-    private final Map<MissionId, Mission> missions = new LinkedHashMap<>();
+    /** Summary order: dragons count desc, then mission name desc, then insertion order. */
+    private static final Comparator<MissionEntry> SUMMARY_ORDER = Comparator
+            .comparingInt((MissionEntry e) -> e.indexedCount).reversed()
+            .thenComparing((MissionEntry e) -> e.mission.name(), Comparator.reverseOrder())
+            .thenComparingLong(e -> e.seq);
+    private static final MissionId PROBE_ID = MissionId.of(new UUID(0, 0));
+
+    private final Map<RocketId, RocketEntry> rockets;
+    private final Map<MissionId, MissionEntry> missions;
+    private final NavigableSet<MissionEntry> summaryIndex = new TreeSet<>(SUMMARY_ORDER);
+    private final Map<RocketStatus, NavigableMap<Long, RocketEntry>> rocketsByStatus = new EnumMap<>(RocketStatus.class);
+    private final Map<MissionStatus, NavigableMap<Long, MissionEntry>> missionsByStatus = new EnumMap<>(MissionStatus.class);
+    private final NameIndex<RocketId> rocketNames = NameIndex.sorted();
+    private final NameIndex<MissionId> missionNames = NameIndex.sorted();
+    private boolean uniqueNames;
+    private IdGenerator ids = IdGenerator.random();
+    private long nextRocketSeq;
+    private long nextMissionSeq;
+    private RepositoryListener listener;
+    private final List<RepositoryEvent> pendingEvents = new ArrayList<>();
+    private ForkJoinPool queryPool;
+    private int parallelThreshold;
+
+    private final BatchValidator.StateView batchView = new BatchValidator.StateView() {
+        @Override
+        public RocketStatus rocketStatus(RocketId id) {
+            RocketEntry e = rockets.get(id);
+            return e == null ? null : e.rocket.status();
+        }
+
+        @Override
+        public MissionId rocketMission(RocketId id) {
+            return rockets.get(id).rocket.missionId().orElse(null);
+        }
+
+        @Override
+        public MissionStatus missionStatus(MissionId id) {
+            MissionEntry e = missions.get(id);
+            return e == null ? null : e.mission.status();
+        }
+
+        @Override
+        public int assignedCount(MissionId id) {
+            return missions.get(id).mission.assignedCount();
+        }
+
+        @Override
+        public int inRepairCount(MissionId id) {
+            return missions.get(id).mission.rocketsInStatus(RocketStatus.IN_REPAIR);
+        }
+    };
+
+    public InMemorySpaceXRepository() {
+        this(16, 16);
+    }
+
+    private InMemorySpaceXRepository(int expectedRockets, int expectedMissions) {
+        rockets = new LinkedHashMap<>(capacityFor(expectedRockets));
+        missions = new LinkedHashMap<>(capacityFor(expectedMissions));
+        for (RocketStatus s : RocketStatus.values()) rocketsByStatus.put(s, new TreeMap<>());
+        for (MissionStatus s : MissionStatus.values()) missionsByStatus.put(s, new TreeMap<>());
+    }
+
+    /**
+     * Builds a repository from already wired rockets and missions, e.g. ones loaded from a
+     * snapshot; list order becomes insertion order. The graph must satisfy the same rules the
+     * mutators enforce (each assigned rocket listed by exactly its own mission, mission counters
+     * and statuses consistent), otherwise a {@link DomainException} is thrown.
+     */
+    public static InMemorySpaceXRepository restore(List<Rocket> rockets, List<Mission> missions) {
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository(rockets.size(), missions.size());
+        for (Rocket r : rockets) {
+            repo.indexRocket(repo.putRocket(r));
+        }
+        int[] counts = new int[RocketStatus.values().length];
+        long assigned = 0;
+        for (Mission m : missions) {
+            Arrays.fill(counts, 0);
+            for (RocketId rid : m.assignedRockets()) {
+                Rocket r = repo.requireRocket(rid).rocket;
+                if (!m.id().equals(r.missionId().orElse(null))) {
+                    throw new DomainException(Violation.INCONSISTENT_STATE, "Rocket " + rid + " is listed by mission " + m.id() + " but not assigned to it");
+                }
+                counts[r.status().ordinal()]++;
+            }
+            for (RocketStatus s : RocketStatus.values()) {
+                if (m.rocketsInStatus(s) != counts[s.ordinal()]) {
+                    throw new DomainException(Violation.INCONSISTENT_STATE, "Mission " + m.id() + " miscounts rockets in status " + s);
+                }
+            }
+            StatusRules.checkMissionStatus(m.status(), m);
+            assigned += m.assignedCount();
+
+            repo.indexMission(repo.putMission(m));
+        }
+        for (Rocket r : rockets) {
+            boolean isAssigned = r.missionId().isPresent();
+            if (isAssigned) assigned--;
+            StatusRules.checkRocketStatus(r.status(), isAssigned);
+        }
+        if (assigned != 0) throw new DomainException(Violation.INCONSISTENT_STATE, "Rocket assignments do not match mission rocket lists");
+        repo.indexNames();
+        return repo;
+    }
+
+    /**
+     * Builds a repository from a whole fleet at once: storage is presized for it, every domain
+     * rule is checked in one pass over the records, and each index is built once from the filed
+     * records, with no events and no per-call id generation. Record order becomes insertion order.
+     * Throws the {@link DomainException} the first offending mutation would have thrown, e.g.
+     * {@code UNKNOWN_MISSION} for a rocket assigned to a mission that is not in the fleet.
+     */
+    public static InMemorySpaceXRepository importFleet(FleetImport fleet) {
+        fleet.markImported();
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository(fleet.rocketCount(), fleet.missionCount());
+        for (int i = 0; i < fleet.missions.size(); i++) {
+            Mission m = fleet.missions.get(i);
+            // an ended mission takes no rockets, so it has to be ended before they are filed
+            if (fleet.missionStatuses.get(i) == MissionStatus.ENDED) m.setStatus(MissionStatus.ENDED);
+            repo.putMission(m);
+        }
+        for (Rocket r : fleet.rockets) {
+            RocketEntry entry = repo.putRocket(r);
+            Optional<MissionId> missionId = r.missionId();
+            StatusRules.checkRocketStatus(r.status(), missionId.isPresent());
+            if (missionId.isPresent()) {
+                Mission m = repo.requireMission(missionId.get()).mission;
+                StatusRules.checkAssignable(m.status());
+                m.addRocket(r);
+            }
+            repo.indexRocket(entry);
+        }
+        Iterator<MissionStatus> given = fleet.missionStatuses.iterator();
+        for (MissionEntry entry : repo.missions.values()) {
+            Mission m = entry.mission;
+            MissionStatus status = given.next();
+            if (status == null) {
+                m.setStatus(StatusRules.derive(m));
+            } else {
+                StatusRules.checkMissionStatus(status, m);
+                m.setStatus(status);
+            }
+            repo.indexMission(entry);
+        }
+        repo.indexNames();
+        return repo;
+    }
+
+    /**
+     * Receives every state change from now on, including derived mission status changes; {@code null} to stop.
+     * A mutation's events are delivered once it is complete, so a listener that throws leaves the
+     * repository consistent.
+     */
+    public void setListener(RepositoryListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Builds the DTOs of {@link #summarizeMissionsByAssignedRockets()} and the status list queries
+     * on {@code pool} when a result has at least {@code threshold} entries; a {@code null} pool
+     * turns it off and the threshold is then ignored. Results, their order and their list type
+     * are the same as in sequential mode, and the repository must still not be mutated during a
+     * query.
+     */
+    public void setParallelQueries(ForkJoinPool pool, int threshold) {
+        if (pool != null && threshold < 1) throw new IllegalArgumentException("threshold must be positive");
+        this.queryPool = pool;
+        this.parallelThreshold = threshold;
+    }
+
+    /**
+     * With {@code unique} set, adding a rocket or mission under a name that is already taken is
+     * rejected. Turning it on fails if the repository already holds duplicate names.
+     */
+    public void setUniqueNames(boolean unique) {
+        if (unique && rocketNames.hasDuplicates()) throw new DomainException(Violation.DUPLICATE_ROCKET_NAME, "Rocket names are not unique");
+        if (unique && missionNames.hasDuplicates()) throw new DomainException(Violation.DUPLICATE_MISSION_NAME, "Mission names are not unique");
+        this.uniqueNames = unique;
+    }
+
+    /** Generates the ids of rockets and missions added without one; {@link IdGenerator#random()} by default. */
+    public void setIdGenerator(IdGenerator ids) {
+        this.ids = Objects.requireNonNull(ids, "ids");
+    }
 
     @Override
     public RocketId addRocket(String name) {
-        Objects.requireNonNull(name, "name");
-        RocketId id = RocketId.random();
-        rockets.put(id, new Rocket(id, name));
+        RocketId id = ids.nextRocketId();
+        addRocket(id, name);
         return id;
     }
 
     @Override
-    public MissionId addMission(String name) {
+    public void addRocket(RocketId id, String name) {
+        addRocket(id, name, nextRocketSeq);
+    }
+
+    /** Adds a rocket at position {@code seq} of the list order, which a sharded repository assigns globally. */
+    void addRocket(RocketId id, String name, long seq) {
+        Objects.requireNonNull(id, "id");
         Objects.requireNonNull(name, "name");
-        MissionId id = MissionId.random();
-        missions.put(id, new Mission(id, name));
+        if (rockets.containsKey(id)) throw new DomainException(Violation.DUPLICATE_ROCKET, "Rocket already exists: " + id);
+        String indexed = rocketNames.add(name, id, uniqueNames);
+        if (indexed == null) throw new DomainException(Violation.DUPLICATE_ROCKET_NAME, "Rocket name already taken: " + name);
+        RocketEntry entry = new RocketEntry(new Rocket(id, indexed), seq);
+        nextRocketSeq = Math.max(nextRocketSeq, seq + 1);
+        rockets.put(id, entry);
+        rocketsByStatus.get(entry.rocket.status()).put(entry.seq, entry);
+        if (listener != null) pendingEvents.add(RepositoryEvent.rocketAdded(id, name));
+        publishEvents();
+    }
+
+    @Override
+    public MissionId addMission(String name) {
+        MissionId id = ids.nextMissionId();
+        addMission(id, name);
         return id;
     }
 
+    @Override
+    public void addMission(MissionId id, String name) {
+        addMission(id, name, nextMissionSeq);
+    }
+
+    /** Adds a mission at position {@code seq} of the list and summary order, see {@link #addRocket(RocketId, String, long)}. */
+    void addMission(MissionId id, String name, long seq) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(name, "name");
+        if (missions.containsKey(id)) throw new DomainException(Violation.DUPLICATE_MISSION, "Mission already exists: " + id);
+        String indexed = missionNames.add(name, id, uniqueNames);
+        if (indexed == null) throw new DomainException(Violation.DUPLICATE_MISSION_NAME, "Mission name already taken: " + name);
+        MissionEntry entry = new MissionEntry(new Mission(id, indexed), seq);
+        nextMissionSeq = Math.max(nextMissionSeq, seq + 1);
+        missions.put(id, entry);
+        summaryIndex.add(entry);
+        missionsByStatus.get(entry.mission.status()).put(entry.seq, entry);
+        if (listener != null) pendingEvents.add(RepositoryEvent.missionAdded(id, name));
+        publishEvents();
+    }
+
     @Override
     public void assignRocketToMission(RocketId rocketId, MissionId missionId) {
-        Rocket rocket = requireRocket(rocketId);
-        Mission mission = requireMission(missionId);
+        Violation v = tryAssignRocketToMission(rocketId, missionId);
+        if (v != Violation.NONE) throw rejection(v, rocketId, missionId);
+    }
 
-        if (mission.status() == MissionStatus.ENDED) {
-            throw new DomainException("Cannot assign rockets to an ended mission");
-        }
-        if (rocket.missionId().isPresent()) {
-            throw new DomainException("Rocket already assigned to a mission");
-        }
+    @Override
+    public Violation tryAssignRocketToMission(RocketId rocketId, MissionId missionId) {
+        RocketEntry rocketEntry = rockets.get(rocketId);
+        if (rocketEntry == null) return Violation.UNKNOWN_ROCKET;
+        MissionEntry entry = missions.get(missionId);
+        if (entry == null) return Violation.UNKNOWN_MISSION;
+        Rocket rocket = rocketEntry.rocket;
+        Mission mission = entry.mission;
+
+        Violation v = StatusRules.assignViolation(mission.status());
+        if (v != Violation.NONE) return v;
+        if (rocket.isAssigned()) return Violation.ROCKET_ALREADY_ASSIGNED;
 
         rocket.assignTo(missionId);
-        mission.addRocket(rocketId);
+        mission.addRocket(rocket);
+        if (listener != null) pendingEvents.add(RepositoryEvent.rocketAssigned(rocketId, missionId));
 
-        recalcMissionStatus(mission);
+        reindex(entry);
+        recalcMissionStatus(entry);
+        publishEvents();
+        return Violation.NONE;
     }
 
     @Override
     public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
-        Mission mission = requireMission(missionId);
-        if (mission.status() == MissionStatus.ENDED) {
-            throw new DomainException("Cannot assign rockets to an ended mission");
-        }
+        MissionEntry entry = requireMission(missionId);
+        Mission mission = entry.mission;
+        StatusRules.checkAssignable(mission.status());
         for (RocketId rid : rocketIds) {
-            Rocket r = requireRocket(rid);
+            Rocket r = requireRocket(rid).rocket;
             if (r.missionId().isPresent()) {
-                throw new DomainException("Rocket already assigned to a mission: " + rid);
+                throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission: " + rid);
             }
         }
         for (RocketId rid : rocketIds) {
-            Rocket r = requireRocket(rid);
+            Rocket r = requireRocket(rid).rocket;
             r.assignTo(missionId);
-            mission.addRocket(rid);
+            mission.addRocket(r);
+            if (listener != null) pendingEvents.add(RepositoryEvent.rocketAssigned(rid, missionId));
         }
-        recalcMissionStatus(mission);
+        reindex(entry);
+        recalcMissionStatus(entry);
+        publishEvents();
     }
 
     @Override
     public void changeRocketStatus(RocketId rocketId, RocketStatus status) {
-        Rocket rocket = requireRocket(rocketId);
-        Mission mission = rocket.missionId().map(this::requireMission).orElse(null);
+        Violation v = tryChangeRocketStatus(rocketId, status);
+        if (v != Violation.NONE) throw rejection(v, rocketId, null);
+    }
 
-        if (status == RocketStatus.IN_SPACE && mission == null) {
-            throw new DomainException("Rocket cannot be 'In space' without an assigned mission");
-        }
-        if (status == RocketStatus.IN_BUILD && mission != null) {
-            throw new DomainException("Assigned rocket cannot be set to 'In build'");
-        }
+    @Override
+    public Violation tryChangeRocketStatus(RocketId rocketId, RocketStatus status) {
+        RocketEntry rocketEntry = rockets.get(rocketId);
+        if (rocketEntry == null) return Violation.UNKNOWN_ROCKET;
+        Violation v = StatusRules.rocketStatusViolation(status, rocketEntry.rocket.isAssigned());
+        if (v != Violation.NONE) return v;
+
+        MissionEntry entry = rocketEntry.rocket.missionId().map(this::requireMission).orElse(null);
 
-        rocket.setStatus(status);
+        setRocketStatus(rocketEntry, entry, status);
 
-        if (mission != null && mission.status() != MissionStatus.ENDED) {
-            recalcMissionStatus(mission);
+        if (entry != null) {
+            if (entry.mission.status() != MissionStatus.ENDED) {
+                recalcMissionStatus(entry);
+            }
         }
+        publishEvents();
+        return Violation.NONE;
     }
 
     @Override
     public void changeMissionStatus(MissionId missionId, MissionStatus status) {
-        Mission mission = requireMission(missionId);
-        Set<RocketId> assigned = mission.assignedRockets();
+        Violation v = tryChangeMissionStatus(missionId, status);
+        if (v != Violation.NONE) throw rejection(v, null, missionId);
+    }
 
-        switch (status) {
-            case ENDED -> {
-                if (!assigned.isEmpty()) {
-                    throw new DomainException("Cannot end mission while rockets are assigned");
-                }
-                mission.setStatus(MissionStatus.ENDED);
-            }
-            case SCHEDULED -> {
-                if (!assigned.isEmpty()) {
-                    throw new DomainException("Scheduled requires zero assigned rockets");
-                }
-                mission.setStatus(MissionStatus.SCHEDULED);
-            }
-            case PENDING, IN_PROGRESS -> {
-                if (assigned.isEmpty()) {
-                    throw new DomainException("Mission must have at least one assigned rocket");
+    @Override
+    public Violation tryChangeMissionStatus(MissionId missionId, MissionStatus status) {
+        MissionEntry entry = missions.get(missionId);
+        if (entry == null) return Violation.UNKNOWN_MISSION;
+        Violation v = StatusRules.missionStatusViolation(status, entry.mission);
+        if (v != Violation.NONE) return v;
+        setMissionStatus(entry, status);
+        publishEvents();
+        return Violation.NONE;
+    }
+
+    @Override
+    public void unassignRocket(RocketId rocketId) {
+        Violation v = tryUnassignRocket(rocketId);
+        if (v != Violation.NONE) throw rejection(v, rocketId, null);
+    }
+
+    @Override
+    public Violation tryUnassignRocket(RocketId rocketId) {
+        RocketEntry rocketEntry = rockets.get(rocketId);
+        if (rocketEntry == null) return Violation.UNKNOWN_ROCKET;
+        Rocket rocket = rocketEntry.rocket;
+        if (!rocket.isAssigned()) return Violation.ROCKET_NOT_ASSIGNED;
+        MissionEntry entry = requireMission(rocket.missionId().get());
+
+        rocket.unassign();
+        entry.mission.removeRocket(rocket);
+        if (listener != null) pendingEvents.add(RepositoryEvent.rocketUnassigned(rocketId, entry.mission.id()));
+        reindex(entry);
+        recalcMissionStatus(entry);
+        publishEvents();
+        return Violation.NONE;
+    }
+
+    @Override
+    public void applyBatch(List<RepositoryCommand> commands) {
+        BatchValidator.validate(commands, batchView);
+        Set<MissionEntry> reassigned = new LinkedHashSet<>();
+        Set<MissionEntry> touched = new LinkedHashSet<>();
+        for (RepositoryCommand c : commands) {
+            switch (c.type) {
+                case ASSIGN -> {
+                    Rocket rocket = requireRocket(c.rocketId).rocket;
+                    MissionEntry entry = requireMission(c.missionId);
+                    rocket.assignTo(c.missionId);
+                    entry.mission.addRocket(rocket);
+                    if (listener != null) pendingEvents.add(RepositoryEvent.rocketAssigned(c.rocketId, c.missionId));
+                    reassigned.add(entry);
+                    touched.add(entry);
                 }
-                boolean anyInRepair = assigned.stream().map(this::requireRocket)
-                        .anyMatch(r -> r.status() == RocketStatus.IN_REPAIR);
-                if (status == MissionStatus.PENDING && !anyInRepair) {
-                    throw new DomainException("Pending requires at least one rocket in repair");
+                case UNASSIGN -> {
+                    Rocket rocket = requireRocket(c.rocketId).rocket;
+                    MissionEntry entry = requireMission(rocket.missionId().orElseThrow());
+                    rocket.unassign();
+                    entry.mission.removeRocket(rocket);
+                    if (listener != null) pendingEvents.add(RepositoryEvent.rocketUnassigned(c.rocketId, entry.mission.id()));
+                    reassigned.add(entry);
+                    touched.add(entry);
                 }
-                if (status == MissionStatus.IN_PROGRESS && anyInRepair) {
-                    throw new DomainException("In Progress cannot have rockets in repair");
+                case CHANGE_ROCKET_STATUS -> {
+                    RocketEntry rocketEntry = requireRocket(c.rocketId);
+                    MissionEntry owner = rocketEntry.rocket.missionId().map(this::requireMission).orElse(null);
+                    setRocketStatus(rocketEntry, owner, c.rocketStatus);
+                    if (owner != null) touched.add(owner);
                 }
-                mission.setStatus(status);
+                case CHANGE_MISSION_STATUS -> setMissionStatus(requireMission(c.missionId), c.missionStatus);
             }
         }
+        for (MissionEntry e : reassigned) reindex(e);
+        for (MissionEntry e : touched) recalcMissionStatus(e);
+        publishEvents();
     }
 
     @Override
-    public void unassignRocket(RocketId rocketId) {
-        Rocket rocket = requireRocket(rocketId);
-        Mission mission = rocket.missionId().map(this::requireMission).orElseThrow(
-                () -> new DomainException("Rocket is not assigned to any mission")
-        );
-
-        rocket.unassign();
-        mission.removeRocket(rocketId);
-        recalcMissionStatus(mission);
+    public List<MissionSummary> summarizeMissionsByAssignedRockets() {
+        if (isParallel(summaryIndex.size())) return mapInParallel(summaryIndex, this::summaryOf);
+        List<MissionSummary> summaries = new ArrayList<>(summaryIndex.size());
+        for (MissionEntry e : summaryIndex) {
+            summaries.add(summaryOf(e));
+        }
+        return summaries;
     }
 
     @Override
-    public List<MissionSummary> summarizeMissionsByAssignedRockets() {
-        List<MissionSummary> summaries = missions.values().stream()
-                .map(m -> {
-                    List<MissionSummary.RocketView> rv = m.assignedRockets().stream()
-                            .map(this::requireRocket)
-                            .map(r -> new MissionSummary.RocketView(r.name(), r.status()))
-                            .collect(Collectors.toList());
-                    return new MissionSummary(m.name(), m.status(), m.assignedRockets().size(), rv);
-                })
-                .collect(Collectors.toList());
-
-        summaries.sort(Comparator
-                .comparingInt((MissionSummary s) -> s.dragonsCount).reversed()
-                .thenComparing((MissionSummary s) -> s.missionName, Comparator.reverseOrder())
-        );
+    public List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must not be negative");
+        List<MissionSummary> summaries = new ArrayList<>(Math.min(limit, summaryIndex.size()));
+        for (MissionEntry e : summaryIndex) {
+            if (summaries.size() == limit) break;
+            summaries.add(summaryOf(e));
+        }
         return summaries;
     }
 
+    @Override
+    public Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) {
+        PageTokens.checkLimit(limit);
+        return page(summariesAfter(PageTokens.summaryKey(pageToken)).iterator(), limit, this::summaryOf,
+                e -> PageTokens.afterSummary(e.indexedCount, e.mission.name(), e.seq));
+    }
+
+    @Override
+    public Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) {
+        PageTokens.checkLimit(limit);
+        Iterator<RocketEntry> rest = rocketsByStatus.get(status).tailMap(PageTokens.seq(pageToken), false).values().iterator();
+        return page(rest, limit, e -> detailsOf(e.rocket), e -> PageTokens.afterSeq(e.seq));
+    }
+
+    @Override
+    public Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) {
+        PageTokens.checkLimit(limit);
+        Iterator<MissionEntry> rest = missionsByStatus.get(status).tailMap(PageTokens.seq(pageToken), false).values().iterator();
+        return page(rest, limit, this::summaryOf, e -> PageTokens.afterSeq(e.seq));
+    }
+
+    @Override
+    public Stream<MissionSummary> streamMissionsByAssignedRockets() {
+        return summaryIndex.stream().map(this::summaryOf);
+    }
+
+    @Override
+    public Stream<RocketDetails> streamRocketsByStatus(RocketStatus status) {
+        return rocketsByStatus.get(status).values().stream().map(e -> detailsOf(e.rocket));
+    }
+
+    @Override
+    public Stream<MissionSummary> streamMissionsByStatus(MissionStatus status) {
+        return missionsByStatus.get(status).values().stream().map(this::summaryOf);
+    }
+
     @Override
     public Optional<RocketDetails> getRocket(RocketId id) {
-        Rocket r = rockets.get(id);
-        if (r == null) return Optional.empty();
-        Optional<String> missionName = r.missionId().map(mid -> requireMission(mid).name());
-        return Optional.of(new RocketDetails(r.name(), r.status(), missionName));
+        RocketEntry e = rockets.get(id);
+        if (e == null) return Optional.empty();
+        return Optional.of(detailsOf(e.rocket));
     }
 
     @Override
     public Optional<MissionSummary> getMission(MissionId id) {
-        Mission m = missions.get(id);
-        if (m == null) return Optional.empty();
-        List<MissionSummary.RocketView> rv = m.assignedRockets().stream()
-                .map(this::requireRocket)
-                .map(r -> new MissionSummary.RocketView(r.name(), r.status()))
-                .collect(Collectors.toList());
-        return Optional.of(new MissionSummary(m.name(), m.status(), m.assignedRockets().size(), rv));
+        MissionEntry e = missions.get(id);
+        if (e == null) return Optional.empty();
+        return Optional.of(summaryOf(e));
     }
 
     @Override
     public List<RocketDetails> listRocketsByStatus(RocketStatus status) {
-        return rockets.values().stream()
-                .filter(r -> r.status() == status)
-                .map(r -> new RocketDetails(r.name(), r.status(),
-                        r.missionId().map(mid -> requireMission(mid).name())))
-                .collect(Collectors.toList());
+        Collection<RocketEntry> bucket = rocketsByStatus.get(status).values();
+        if (isParallel(bucket.size())) return mapInParallel(bucket, e -> detailsOf(e.rocket));
+        return bucket.stream()
+                .map(e -> detailsOf(e.rocket))
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     @Override
     public List<MissionSummary> listMissionsByStatus(MissionStatus status) {
-        return missions.values().stream()
-                .filter(m -> m.status() == status)
-                .map(m -> {
-                    List<MissionSummary.RocketView> rv = m.assignedRockets().stream()
-                            .map(this::requireRocket)
-                            .map(r -> new MissionSummary.RocketView(r.name(), r.status()))
-                            .collect(Collectors.toList());
-                    return new MissionSummary(m.name(), m.status(), m.assignedRockets().size(), rv);
-                })
-                .collect(Collectors.toList());
+        Collection<MissionEntry> bucket = missionsByStatus.get(status).values();
+        if (isParallel(bucket.size())) return mapInParallel(bucket, this::summaryOf);
+        return bucket.stream()
+                .map(this::summaryOf)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @Override
+    public int countRocketsByStatus(RocketStatus status) {
+        return rocketsByStatus.get(status).size();
+    }
+
+    @Override
+    public int countMissionsByStatus(MissionStatus status) {
+        return missionsByStatus.get(status).size();
     }
 
     @Override
     public Optional<RocketStatus> getRocketStatus(RocketId id) {
-        Rocket r = rockets.get(id);
-        return r == null ? Optional.empty() : Optional.of(r.status());
+        RocketEntry e = rockets.get(id);
+        return e == null ? Optional.empty() : Optional.of(e.rocket.status());
     }
 
     @Override
     public Optional<MissionStatus> getMissionStatus(MissionId id) {
-        Mission m = missions.get(id);
-        return m == null ? Optional.empty() : Optional.of(m.status());
+        MissionEntry e = missions.get(id);
+        return e == null ? Optional.empty() : Optional.of(e.mission.status());
+    }
+
+    @Override
+    public List<RocketId> findRocketsByName(String name) {
+        return rocketNames.find(Objects.requireNonNull(name, "name"), Function.identity());
+    }
+
+    @Override
+    public List<RocketId> findRocketsByNamePrefix(String prefix, int limit) {
+        return rocketNames.findByPrefix(Objects.requireNonNull(prefix, "prefix"), limit, Function.identity());
+    }
+
+    @Override
+    public List<MissionId> findMissionsByName(String name) {
+        return missionNames.find(Objects.requireNonNull(name, "name"), Function.identity());
+    }
+
+    @Override
+    public List<MissionId> findMissionsByNamePrefix(String prefix, int limit) {
+        return missionNames.findByPrefix(Objects.requireNonNull(prefix, "prefix"), limit, Function.identity());
+    }
+
+    // Shard access for ShardedSpaceXRepository
+
+    BatchValidator.StateView batchView() {
+        return batchView;
+    }
+
+    /** Removes an unassigned rocket so it can be {@link #attachRocket attached} to another repository. */
+    Rocket detachRocket(RocketId id) {
+        RocketEntry entry = requireRocket(id);
+        if (entry.rocket.missionId().isPresent()) throw new IllegalStateException("Cannot detach an assigned rocket: " + id);
+        rockets.remove(id);
+        rocketsByStatus.get(entry.rocket.status()).remove(entry.seq);
+        rocketNames.remove(entry.rocket.name(), id);
+        return entry.rocket;
+    }
+
+    /** Takes over a {@link #detachRocket detached} rocket at position {@code seq} of the list order. */
+    void attachRocket(Rocket rocket, long seq) {
+        if (rockets.containsKey(rocket.id())) throw new IllegalStateException("Rocket already attached: " + rocket.id());
+        RocketEntry entry = new RocketEntry(rocket, seq);
+        rockets.put(rocket.id(), entry);
+        rocketsByStatus.get(rocket.status()).put(seq, entry);
+        rocketNames.add(rocket.name(), rocket.id(), false);
+        nextRocketSeq = Math.max(nextRocketSeq, seq + 1);
+    }
+
+    /** Up to {@code limit} summaries after {@code after} ({@code null} for the first), with their summary order keys. */
+    List<Keyed<MissionSummary>> keyedSummaries(PageTokens.SummaryKey after, int limit) {
+        List<Keyed<MissionSummary>> out = new ArrayList<>(Math.min(limit, summaryIndex.size()));
+        for (MissionEntry e : summariesAfter(after)) {
+            if (out.size() == limit) break;
+            out.add(new Keyed<>(summaryOf(e), e.indexedCount, e.mission.name(), e.seq));
+        }
+        return out;
+    }
+
+    /** Up to {@code limit} rockets in {@code status} after sequence {@code afterSeq}, with their sequences. */
+    List<Keyed<RocketDetails>> keyedRockets(RocketStatus status, long afterSeq, int limit) {
+        return keyed(rocketsByStatus.get(status).tailMap(afterSeq, false).values(), limit, e -> detailsOf(e.rocket), e -> e.seq);
+    }
+
+    /** Up to {@code limit} missions in {@code status} after sequence {@code afterSeq}, with their sequences. */
+    List<Keyed<MissionSummary>> keyedMissions(MissionStatus status, long afterSeq, int limit) {
+        return keyed(missionsByStatus.get(status).tailMap(afterSeq, false).values(), limit, this::summaryOf, e -> e.seq);
+    }
+
+    /** Visits every rocket in insertion order. The rockets are live state and must not be modified. */
+    public void forEachRocket(Consumer<? super Rocket> action) {
+        for (RocketEntry e : rockets.values()) action.accept(e.rocket);
+    }
+
+    /** Visits every mission in insertion order. The missions are live state and must not be modified. */
+    public void forEachMission(Consumer<? super Mission> action) {
+        for (MissionEntry e : missions.values()) action.accept(e.mission);
+    }
+
+    public int rocketCount() {
+        return rockets.size();
+    }
+
+    public int missionCount() {
+        return missions.size();
     }
 
     // Helpers
-    private Rocket requireRocket(RocketId id) {
-        Rocket r = rockets.get(id);
-        if (r == null) throw new DomainException("Unknown rocket: " + id);
-        return r;
+    private static int capacityFor(int expected) {
+        return (int) Math.min(1 << 30, expected * 4L / 3 + 1);
+    }
+
+    private boolean isParallel(int size) {
+        return queryPool != null && size >= parallelThreshold;
+    }
+
+    /**
+     * Maps {@code source}, which is already in result order, on the query pool. Tasks set disjoint
+     * slices of one pre-sized {@link ArrayList}, so the order is kept without a merge step and the
+     * result is the same growable list type the sequential path returns, without a copy.
+     */
+    private <E, T> List<T> mapInParallel(Collection<E> source, Function<E, T> toItem) {
+        Object[] in = source.toArray();
+        List<T> out = new ArrayList<>(Collections.nCopies(in.length, null));
+        int leaf = Math.max(256, in.length / (queryPool.getParallelism() * 4));
+        queryPool.invoke(new MapSlice<>(in, out, 0, in.length, leaf, toItem));
+        return out;
     }
 
-    private Mission requireMission(MissionId id) {
-        Mission m = missions.get(id);
-        if (m == null) throw new DomainException("Unknown mission: " + id);
-        return m;
+    /** The summary index after {@code after}, or all of it for {@code null}. */
+    private NavigableSet<MissionEntry> summariesAfter(PageTokens.SummaryKey after) {
+        if (after == null) return summaryIndex;
+        MissionEntry probe = new MissionEntry(new Mission(PROBE_ID, after.name), after.seq);
+        probe.indexedCount = after.count;
+        return summaryIndex.tailSet(probe, false);
     }
 
-    private void recalcMissionStatus(Mission mission) {
-        if (mission.status() == MissionStatus.ENDED) return;
+    private static <E, T> List<Keyed<T>> keyed(Collection<E> entries, int limit, Function<E, T> toItem, ToLongFunction<E> seqOf) {
+        List<Keyed<T>> out = new ArrayList<>(Math.min(limit, 64));
+        for (E e : entries) {
+            if (out.size() == limit) break;
+            out.add(new Keyed<>(toItem.apply(e), seqOf.applyAsLong(e)));
+        }
+        return out;
+    }
 
-        int assigned = mission.assignedRockets().size();
-        if (assigned == 0) {
-            mission.setStatus(MissionStatus.SCHEDULED);
-            return;
+    /** Takes up to {@code limit} entries; the token points after the last one if any remain. */
+    private static <E, T> Page<T> page(Iterator<E> rest, int limit, Function<E, T> toItem, Function<E, String> tokenAfter) {
+        List<T> items = new ArrayList<>(Math.min(limit, 64));
+        E last = null;
+        while (items.size() < limit && rest.hasNext()) {
+            last = rest.next();
+            items.add(toItem.apply(last));
         }
-        boolean anyRepair = mission.assignedRockets().stream()
-                .map(this::requireRocket)
-                .anyMatch(r -> r.status() == RocketStatus.IN_REPAIR);
-        if (anyRepair) {
-            mission.setStatus(MissionStatus.PENDING);
+        return new Page<>(items, rest.hasNext() ? Optional.of(tokenAfter.apply(last)) : Optional.empty());
+    }
+
+    /** Files {@code r} as the next rocket of a {@link #restore}d or imported repository, without indexing it. */
+    private RocketEntry putRocket(Rocket r) {
+        RocketEntry entry = new RocketEntry(r, nextRocketSeq++);
+        if (rockets.put(r.id(), entry) != null) throw new DomainException(Violation.DUPLICATE_ROCKET, "Rocket already exists: " + r.id());
+        return entry;
+    }
+
+    /** Files {@code m} as the next mission, see {@link #putRocket}. */
+    private MissionEntry putMission(Mission m) {
+        MissionEntry entry = new MissionEntry(m, nextMissionSeq++);
+        if (missions.put(m.id(), entry) != null) throw new DomainException(Violation.DUPLICATE_MISSION, "Mission already exists: " + m.id());
+        return entry;
+    }
+
+    /** Indexes the names of all filed rockets and missions at once. */
+    private void indexNames() {
+        rocketNames.addAll(rockets.values(), e -> e.rocket.name(), e -> e.rocket.id());
+        missionNames.addAll(missions.values(), e -> e.mission.name(), e -> e.mission.id());
+    }
+
+    private void indexRocket(RocketEntry entry) {
+        rocketsByStatus.get(entry.rocket.status()).put(entry.seq, entry);
+    }
+
+    /** Indexes a mission whose rockets and status are final; names are indexed by {@link #indexNames}. */
+    private void indexMission(MissionEntry entry) {
+        Mission m = entry.mission;
+        entry.indexedCount = m.assignedCount();
+        summaryIndex.add(entry);
+        missionsByStatus.get(m.status()).put(entry.seq, entry);
+    }
+
+    /** The exception a throwing mutator raises for a rule its {@code try...} variant reported. */
+    private static DomainException rejection(Violation v, RocketId rocketId, MissionId missionId) {
+        return switch (v) {
+            case UNKNOWN_ROCKET -> new DomainException(v, "Unknown rocket: " + rocketId);
+            case UNKNOWN_MISSION -> new DomainException(v, "Unknown mission: " + missionId);
+            default -> StatusRules.rejection(v);
+        };
+    }
+
+    private RocketEntry requireRocket(RocketId id) {
+        RocketEntry e = rockets.get(id);
+        if (e == null) throw new DomainException(Violation.UNKNOWN_ROCKET, "Unknown rocket: " + id);
+        return e;
+    }
+
+    private MissionEntry requireMission(MissionId id) {
+        MissionEntry e = missions.get(id);
+        if (e == null) throw new DomainException(Violation.UNKNOWN_MISSION, "Unknown mission: " + id);
+        return e;
+    }
+
+    private void recalcMissionStatus(MissionEntry entry) {
+        if (entry.mission.status() == MissionStatus.ENDED) return;
+        setMissionStatus(entry, StatusRules.derive(entry.mission));
+    }
+
+    /**
+     * All rocket status writes go through here to keep the status buckets and the owning
+     * mission's per-status counters in sync.
+     */
+    private void setRocketStatus(RocketEntry entry, MissionEntry owner, RocketStatus status) {
+        RocketStatus previous = entry.rocket.status();
+        if (previous == status) return;
+        rocketsByStatus.get(previous).remove(entry.seq);
+        if (owner != null) {
+            owner.mission.changeRocketStatus(entry.rocket, status);
+            owner.summary = null;
         } else {
-            mission.setStatus(MissionStatus.IN_PROGRESS);
+            entry.rocket.setStatus(status);
+        }
+        rocketsByStatus.get(status).put(entry.seq, entry);
+        if (listener != null) {
+            pendingEvents.add(RepositoryEvent.rocketStatusChanged(entry.rocket.id(), owner == null ? null : owner.mission.id(), previous, status));
+        }
+    }
+
+    /** All mission status writes go through here to keep the status buckets in sync. */
+    private void setMissionStatus(MissionEntry entry, MissionStatus status) {
+        MissionStatus previous = entry.mission.status();
+        if (previous == status) return;
+        missionsByStatus.get(previous).remove(entry.seq);
+        entry.mission.setStatus(status);
+        missionsByStatus.get(status).put(entry.seq, entry);
+        entry.summary = null;
+        if (listener != null) pendingEvents.add(RepositoryEvent.missionStatusChanged(entry.mission.id(), previous, status));
+    }
+
+    /** Hands the events of the mutation that just completed to the listener, in the order they were made. */
+    private void publishEvents() {
+        if (pendingEvents.isEmpty()) return;
+        RepositoryListener l = listener;
+        try {
+            for (RepositoryEvent e : pendingEvents) l.onEvent(e);
+        } finally {
+            pendingEvents.clear();
+        }
+    }
+
+    /** Re-files the entry under its current rocket count after its assignments changed. */
+    private void reindex(MissionEntry entry) {
+        summaryIndex.remove(entry);
+        entry.indexedCount = entry.mission.assignedCount();
+        entry.summary = null;
+        summaryIndex.add(entry);
+    }
+
+    private MissionSummary summaryOf(MissionEntry e) {
+        MissionSummary s = e.summary;
+        if (s == null) {
+            Mission m = e.mission;
+            List<MissionSummary.RocketView> rv = new ArrayList<>(m.assignedCount());
+            for (RocketId rid : m.assignedRockets()) {
+                Rocket r = requireRocket(rid).rocket;
+                rv.add(new MissionSummary.RocketView(r.name(), r.status()));
+            }
+            s = new MissionSummary(m.name(), m.status(), rv.size(), rv);
+            e.summary = s;
+        }
+        return s;
+    }
+
+    private RocketDetails detailsOf(Rocket r) {
+        Optional<String> missionName = r.missionId().map(mid -> requireMission(mid).mission.name());
+        return new RocketDetails(r.name(), r.status(), missionName);
+    }
+
+    /** Maps {@code in[from, to)} into {@code out}, splitting in halves down to {@code leaf} elements. */
+    @SuppressWarnings("serial") // never serialized
+    private static final class MapSlice<E, T> extends RecursiveAction {
+        private final Object[] in;
+        private final List<T> out;
+        private final int from;
+        private final int to;
+        private final int leaf;
+        private final Function<E, T> toItem;
+
+        MapSlice(Object[] in, List<T> out, int from, int to, int leaf, Function<E, T> toItem) {
+            this.in = in;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+            this.toItem = toItem;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (to - from <= leaf) {
+                for (int i = from; i < to; i++) out.set(i, toItem.apply((E) in[i])); // set never resizes or counts as a modification
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MapSlice<>(in, out, from, mid, leaf, toItem), new MapSlice<>(in, out, mid, to, leaf, toItem));
+        }
+    }
+
+    /** A rocket together with its insertion sequence, which orders it within its status bucket. */
+    private static final class RocketEntry {
+        final Rocket rocket;
+        final long seq;
+
+        RocketEntry(Rocket rocket, long seq) {
+            this.rocket = rocket;
+            this.seq = seq;
+        }
+    }
+
+    /**
+     * A mission together with its position in the summary index and its last rendered summary.
+     * {@code indexedCount} only changes while the entry is out of the index, so the tree stays ordered.
+     */
+    private static final class MissionEntry {
+        final Mission mission;
+        final long seq;
+        int indexedCount;
+        MissionSummary summary; // null when stale
+
+        MissionEntry(Mission mission, long seq) {
+            this.mission = mission;
+            this.seq = seq;
         }
     }
 }
@@ -0,0 +1,35 @@
+package com.six.spacex.repository;
+
+import java.util.Comparator;
+
+/**
+ * A query result item together with the key it is ordered by, so results from several shards
+ * can be merged into the order a single repository would return.
+ */
+final class Keyed<T> {
+
+    /** Summary order: dragons count desc, then mission name desc, then insertion order. */
+    static final Comparator<Keyed<?>> SUMMARY_ORDER = Comparator
+            .comparingInt((Keyed<?> k) -> k.count).reversed()
+            .thenComparing((Keyed<?> k) -> k.name, Comparator.reverseOrder())
+            .thenComparingLong(k -> k.seq);
+
+    /** List order: insertion order. */
+    static final Comparator<Keyed<?>> SEQ_ORDER = Comparator.comparingLong(k -> k.seq);
+
+    final T item;
+    final int count;   // summaries only
+    final String name; // summaries only
+    final long seq;
+
+    Keyed(T item, int count, String name, long seq) {
+        this.item = item;
+        this.count = count;
+        this.name = name;
+        this.seq = seq;
+    }
+
+    Keyed(T item, long seq) {
+        this(item, 0, null, seq);
+    }
+}
@@ -0,0 +1,127 @@
+package com.six.spacex.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Sorted name → entries index behind the name lookups. Each distinct name is stored once and
+ * handed back by {@link #add} so entities can share the index's instance. A name held by one
+ * entry maps straight to it; duplicates map to an immutable array in insertion order, so the
+ * common unique case costs one map entry.
+ * <p>
+ * {@link #concurrent()} indexes may be read while another thread adds; the {@link #sorted()}
+ * variant has the single-threaded contract of its repository.
+ */
+final class NameIndex<T> {
+
+    private final NavigableMap<String, Object> byName;
+
+    private NameIndex(NavigableMap<String, Object> byName) {
+        this.byName = byName;
+    }
+
+    static <T> NameIndex<T> sorted() {
+        return new NameIndex<>(new TreeMap<>());
+    }
+
+    static <T> NameIndex<T> concurrent() {
+        return new NameIndex<>(new ConcurrentSkipListMap<>());
+    }
+
+    /**
+     * Indexes {@code value} under {@code name}, atomically with respect to other adds. Returns
+     * the indexed instance of {@code name}, or {@code null} without changing anything if
+     * {@code unique} is set and the name is already taken.
+     */
+    String add(String name, T value, boolean unique) {
+        boolean[] taken = new boolean[1];
+        byName.compute(name, (k, existing) -> {
+            taken[0] = existing != null;
+            if (existing == null) return value;
+            if (unique) return existing;
+            if (existing instanceof Object[] values) {
+                Object[] grown = Arrays.copyOf(values, values.length + 1);
+                grown[values.length] = value;
+                return grown;
+            }
+            return new Object[]{existing, value};
+        });
+        if (taken[0] && unique) return null;
+        return byName.ceilingKey(name);
+    }
+
+    /**
+     * Indexes the value of every entry under its name, in order, as repeated non-unique
+     * {@link #add}s would, but stores each name's values once instead of growing them one add
+     * at a time. Not atomic; meant for building an index before it is shared.
+     */
+    <E> void addAll(Collection<E> entries, Function<E, String> nameOf, Function<E, T> valueOf) {
+        Map<String, List<Object>> grouped = new HashMap<>();
+        for (E e : entries) grouped.computeIfAbsent(nameOf.apply(e), k -> new ArrayList<>(1)).add(valueOf.apply(e));
+        grouped.forEach((name, values) -> byName.compute(name, (k, existing) -> {
+            if (existing == null && values.size() == 1) return values.get(0);
+            List<Object> all = new ArrayList<>(values.size() + 1);
+            if (existing instanceof Object[] old) all.addAll(Arrays.asList(old));
+            else if (existing != null) all.add(existing);
+            all.addAll(values);
+            return all.toArray();
+        }));
+    }
+
+    /** Undoes an {@link #add} of {@code value}, e.g. when the entity turned out to be rejected. */
+    void remove(String name, T value) {
+        byName.computeIfPresent(name, (k, existing) -> {
+            if (!(existing instanceof Object[] values)) return existing.equals(value) ? null : existing;
+            List<Object> kept = new ArrayList<>(List.of(values));
+            kept.remove(value);
+            return kept.size() == 1 ? kept.get(0) : kept.toArray();
+        });
+    }
+
+    boolean hasDuplicates() {
+        for (Object v : byName.values()) {
+            if (v instanceof Object[]) return true;
+        }
+        return false;
+    }
+
+    /** Entries named exactly {@code name}, mapped by {@code toResult}; {@code null} results are skipped. */
+    <R> List<R> find(String name, Function<T, R> toResult) {
+        List<R> out = new ArrayList<>();
+        Object v = byName.get(name);
+        if (v != null) collect(v, toResult, out, Integer.MAX_VALUE);
+        return out;
+    }
+
+    /** Like {@link #find} for every name starting with {@code prefix}, by name, up to {@code limit} results. */
+    <R> List<R> findByPrefix(String prefix, int limit, Function<T, R> toResult) {
+        PageTokens.checkLimit(limit);
+        List<R> out = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, Object> e : byName.tailMap(prefix, true).entrySet()) {
+            if (out.size() >= limit || !e.getKey().startsWith(prefix)) break;
+            collect(e.getValue(), toResult, out, limit);
+        }
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, R> void collect(Object v, Function<T, R> toResult, List<R> out, int limit) {
+        if (v instanceof Object[] values) {
+            for (int i = 0; i < values.length && out.size() < limit; i++) {
+                R r = toResult.apply((T) values[i]);
+                if (r != null) out.add(r);
+            }
+        } else {
+            R r = toResult.apply((T) v);
+            if (r != null) out.add(r);
+        }
+    }
+}
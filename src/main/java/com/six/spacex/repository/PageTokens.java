@@ -0,0 +1,130 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.dto.Page;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Encodes page continuation tokens. A token records the key of the last item returned rather than
+ * an offset, so a page starts right after that item even if earlier items changed in between;
+ * items that move past the cursor while paging may be skipped or seen twice.
+ * <p>
+ * Tokens are URL-safe Base64 of a kind byte followed by the key.
+ */
+final class PageTokens {
+
+    private static final byte AFTER_POSITION = 1;
+    private static final byte AFTER_SEQ = 2;
+    private static final byte AFTER_SUMMARY = 3;
+
+    private PageTokens() {}
+
+    /** Position after the last item of a summary page: its dragons count, mission name and insertion sequence. */
+    static final class SummaryKey {
+        final int count;
+        final String name;
+        final long seq;
+
+        SummaryKey(int count, String name, long seq) {
+            this.count = count;
+            this.name = name;
+            this.seq = seq;
+        }
+
+        /** Whether the item with the given key sorts after this one in summary order. */
+        boolean isFollowedBy(int count, String name, long seq) {
+            if (count != this.count) return count < this.count;
+            int c = name.compareTo(this.name);
+            if (c != 0) return c < 0;
+            return seq > this.seq;
+        }
+    }
+
+    static void checkLimit(int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+    }
+
+    static String afterSeq(long seq) {
+        return encode(ByteBuffer.allocate(9).put(AFTER_SEQ).putLong(seq));
+    }
+
+    /** The sequence a page continues after, or -1 for the first page. */
+    static long seq(String token) {
+        if (token == null) return -1;
+        ByteBuffer b = decode(token, AFTER_SEQ);
+        long seq;
+        try {
+            seq = b.getLong();
+        } catch (BufferUnderflowException e) {
+            throw invalid();
+        }
+        if (seq < 0) throw invalid();
+        return seq;
+    }
+
+    static String afterSummary(int count, String name, long seq) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        return encode(ByteBuffer.allocate(13 + utf8.length).put(AFTER_SUMMARY).putInt(count).putLong(seq).put(utf8));
+    }
+
+    /** The summary key a page continues after, or {@code null} for the first page. */
+    static SummaryKey summaryKey(String token) {
+        if (token == null) return null;
+        ByteBuffer b = decode(token, AFTER_SUMMARY);
+        try {
+            int count = b.getInt();
+            long seq = b.getLong();
+            return new SummaryKey(count, StandardCharsets.UTF_8.decode(b).toString(), seq);
+        } catch (BufferUnderflowException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Pages through an already materialized list by position; the fallback for implementations
+     * without a stable order to page by.
+     */
+    static <T> Page<T> slice(List<T> all, int limit, String token) {
+        checkLimit(limit);
+        int from = 0;
+        if (token != null) {
+            try {
+                from = decode(token, AFTER_POSITION).getInt();
+            } catch (BufferUnderflowException e) {
+                throw invalid();
+            }
+        }
+        if (from < 0) throw invalid();
+        int to = (int) Math.min(all.size(), (long) from + limit);
+        List<T> items = from >= to ? List.of() : new ArrayList<>(all.subList(from, to));
+        Optional<String> next = to < all.size()
+                ? Optional.of(encode(ByteBuffer.allocate(5).put(AFTER_POSITION).putInt(to)))
+                : Optional.empty();
+        return new Page<>(items, next);
+    }
+
+    private static String encode(ByteBuffer b) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(b.array());
+    }
+
+    private static ByteBuffer decode(String token, byte kind) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        if (bytes.length == 0 || bytes[0] != kind) throw invalid();
+        return ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Invalid page token");
+    }
+}
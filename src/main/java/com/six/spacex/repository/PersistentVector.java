@@ -0,0 +1,89 @@
+package com.six.spacex.repository;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Immutable indexed sequence stored as a 32-way trie. {@link #set} and {@link #append} copy only
+ * the path to the changed leaf (a few 32-slot arrays) and share everything else with the
+ * original, so old and new versions can be read concurrently without coordination.
+ */
+final class PersistentVector<T> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentVector<Object> EMPTY = new PersistentVector<>(0, 0, new Object[WIDTH]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+
+    private PersistentVector(int size, int shift, Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        Objects.checkIndex(index, size);
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return (T) node[index & MASK];
+    }
+
+    PersistentVector<T> set(int index, T value) {
+        Objects.checkIndex(index, size);
+        return new PersistentVector<>(size, shift, assoc(root, shift, index, value));
+    }
+
+    PersistentVector<T> append(T value) {
+        if (size == 1 << (shift + BITS)) {
+            Object[] grown = new Object[WIDTH];
+            grown[0] = root;
+            return new PersistentVector<>(size + 1, shift + BITS, assoc(grown, shift + BITS, size, value));
+        }
+        return new PersistentVector<>(size + 1, shift, assoc(root, shift, size, value));
+    }
+
+    /** Visits the elements in index order. */
+    void forEach(Consumer<? super T> action) {
+        forEach(root, shift, 0, action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forEach(Object[] node, int level, int base, Consumer<? super T> action) {
+        for (int i = 0; i < WIDTH; i++) {
+            int start = base + (i << level);
+            if (start >= size) return;
+            if (level == 0) {
+                action.accept((T) node[i]);
+            } else {
+                forEach((Object[]) node[i], level - BITS, start, action);
+            }
+        }
+    }
+
+    private static Object[] assoc(Object[] node, int level, int index, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int child = (index >>> level) & MASK;
+            copy[child] = assoc((Object[]) copy[child], level - BITS, index, value);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,57 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+
+import java.util.Objects;
+
+/**
+ * One mutation in a {@link SpaceXRepository#applyBatch(java.util.List) batch}. Fields that do not
+ * apply to the command's type are {@code null}.
+ */
+public final class RepositoryCommand {
+
+    public enum Type { ASSIGN, UNASSIGN, CHANGE_ROCKET_STATUS, CHANGE_MISSION_STATUS }
+
+    public final Type type;
+    public final RocketId rocketId;
+    public final MissionId missionId;
+    public final RocketStatus rocketStatus;
+    public final MissionStatus missionStatus;
+
+    private RepositoryCommand(Type type, RocketId rocketId, MissionId missionId, RocketStatus rocketStatus, MissionStatus missionStatus) {
+        this.type = type;
+        this.rocketId = rocketId;
+        this.missionId = missionId;
+        this.rocketStatus = rocketStatus;
+        this.missionStatus = missionStatus;
+    }
+
+    public static RepositoryCommand assign(RocketId rocketId, MissionId missionId) {
+        return new RepositoryCommand(Type.ASSIGN, Objects.requireNonNull(rocketId), Objects.requireNonNull(missionId), null, null);
+    }
+
+    public static RepositoryCommand unassign(RocketId rocketId) {
+        return new RepositoryCommand(Type.UNASSIGN, Objects.requireNonNull(rocketId), null, null, null);
+    }
+
+    public static RepositoryCommand changeRocketStatus(RocketId rocketId, RocketStatus status) {
+        return new RepositoryCommand(Type.CHANGE_ROCKET_STATUS, Objects.requireNonNull(rocketId), null, Objects.requireNonNull(status), null);
+    }
+
+    public static RepositoryCommand changeMissionStatus(MissionId missionId, MissionStatus status) {
+        return new RepositoryCommand(Type.CHANGE_MISSION_STATUS, null, Objects.requireNonNull(missionId), null, Objects.requireNonNull(status));
+    }
+
+    @Override
+    public String toString() {
+        return switch (type) {
+            case ASSIGN -> "assign " + rocketId + " to " + missionId;
+            case UNASSIGN -> "unassign " + rocketId;
+            case CHANGE_ROCKET_STATUS -> "set rocket " + rocketId + " to " + rocketStatus;
+            case CHANGE_MISSION_STATUS -> "set mission " + missionId + " to " + missionStatus;
+        };
+    }
+}
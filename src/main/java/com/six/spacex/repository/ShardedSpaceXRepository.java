@@ -0,0 +1,596 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
+import com.six.spacex.dto.RocketDetails;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Thread-safe repository that hash-partitions missions across independent
+ * {@link InMemorySpaceXRepository} shards, each behind its own lock, so work on different shards
+ * runs in parallel. A rocket starts on the shard its id hashes to and moves to its mission's shard
+ * when it is assigned, so every mission and its rockets live on one shard and the status rules
+ * are checked there.
+ * <p>
+ * List and summary queries scatter to all shards and k-way merge the per-shard results, which
+ * already come in single-repository order. Insertion sequences are handed out globally, so merged
+ * results, their order and page tokens match those of one repository. Each shard is read under its
+ * own lock, so a query running next to mutations may see the shards at slightly different moments.
+ * <p>
+ * A batch confined to one shard is applied by that shard. A batch spanning shards locks all of
+ * them, is validated as a whole and then applied command by command, which ends in the same state.
+ * Name lookups are served from indexes kept here rather than by the shards.
+ */
+public final class ShardedSpaceXRepository implements SpaceXRepository {
+
+    private final Shard[] shards;
+    private final ConcurrentHashMap<RocketId, Placement> placements = new ConcurrentHashMap<>();
+    private final NameIndex<RocketId> rocketNames = NameIndex.concurrent();
+    private final NameIndex<MissionId> missionNames = NameIndex.concurrent();
+    private final AtomicLong nextRocketSeq = new AtomicLong();
+    private final AtomicLong nextMissionSeq = new AtomicLong();
+    private volatile boolean uniqueNames;
+    private volatile IdGenerator ids = IdGenerator.random();
+    private volatile ForkJoinPool queryPool;
+
+    /** Reads across shards; only used with every shard the batch touches locked. */
+    private final BatchValidator.StateView batchView = new BatchValidator.StateView() {
+        @Override
+        public RocketStatus rocketStatus(RocketId id) {
+            Placement p = placements.get(id);
+            return p == null ? null : shards[p.shard].repo.batchView().rocketStatus(id);
+        }
+
+        @Override
+        public MissionId rocketMission(RocketId id) {
+            return shards[placements.get(id).shard].repo.batchView().rocketMission(id);
+        }
+
+        @Override
+        public MissionStatus missionStatus(MissionId id) {
+            return missionShard(id).repo.batchView().missionStatus(id);
+        }
+
+        @Override
+        public int assignedCount(MissionId id) {
+            return missionShard(id).repo.batchView().assignedCount(id);
+        }
+
+        @Override
+        public int inRepairCount(MissionId id) {
+            return missionShard(id).repo.batchView().inRepairCount(id);
+        }
+    };
+
+    public ShardedSpaceXRepository(int shardCount) {
+        if (shardCount < 1) throw new IllegalArgumentException("shardCount must be positive");
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) shards[i] = new Shard();
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Reads the shards of list and summary queries on {@code pool}, one task per shard, instead
+     * of one after another on the calling thread; {@code null} turns it off.
+     */
+    public void setParallelQueries(ForkJoinPool pool) {
+        this.queryPool = pool;
+    }
+
+    /**
+     * With {@code unique} set, adding a rocket or mission under a name that is already taken is
+     * rejected. Turning it on fails if the repository already holds duplicate names.
+     */
+    public void setUniqueNames(boolean unique) {
+        int[] all = new int[shards.length];
+        for (int i = 0; i < all.length; i++) all[i] = i;
+        lock(all);
+        try {
+            if (unique && rocketNames.hasDuplicates()) throw new DomainException(Violation.DUPLICATE_ROCKET_NAME, "Rocket names are not unique");
+            if (unique && missionNames.hasDuplicates()) throw new DomainException(Violation.DUPLICATE_MISSION_NAME, "Mission names are not unique");
+            this.uniqueNames = unique;
+        } finally {
+            unlock(all);
+        }
+    }
+
+    /** Generates the ids of rockets and missions added without one; {@link IdGenerator#random()} by default. */
+    public void setIdGenerator(IdGenerator ids) {
+        this.ids = Objects.requireNonNull(ids, "ids");
+    }
+
+    @Override
+    public RocketId addRocket(String name) {
+        RocketId id = ids.nextRocketId();
+        addRocket(id, name);
+        return id;
+    }
+
+    @Override
+    public void addRocket(RocketId id, String name) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(name, "name");
+        int home = homeShard(id);
+        Shard shard = shards[home];
+        shard.lock.lock();
+        try {
+            Placement placement = new Placement(home, nextRocketSeq.getAndIncrement());
+            if (placements.putIfAbsent(id, placement) != null) throw new DomainException(Violation.DUPLICATE_ROCKET, "Rocket already exists: " + id);
+            String indexed = rocketNames.add(name, id, uniqueNames);
+            if (indexed == null) {
+                placements.remove(id);
+                throw new DomainException(Violation.DUPLICATE_ROCKET_NAME, "Rocket name already taken: " + name);
+            }
+            shard.repo.addRocket(id, indexed, placement.seq);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public MissionId addMission(String name) {
+        MissionId id = ids.nextMissionId();
+        addMission(id, name);
+        return id;
+    }
+
+    @Override
+    public void addMission(MissionId id, String name) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(name, "name");
+        mutateMission(id, repo -> {
+            if (repo.batchView().missionStatus(id) != null) throw new DomainException(Violation.DUPLICATE_MISSION, "Mission already exists: " + id);
+            String indexed = missionNames.add(name, id, uniqueNames);
+            if (indexed == null) throw new DomainException(Violation.DUPLICATE_MISSION_NAME, "Mission name already taken: " + name);
+            repo.addMission(id, indexed, nextMissionSeq.getAndIncrement());
+        });
+    }
+
+    @Override
+    public void assignRocketToMission(RocketId rocketId, MissionId missionId) {
+        int[] locked = lockFor(List.of(rocketId), List.of(missionId));
+        try {
+            assignLocked(rocketId, missionId);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    @Override
+    public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        int[] locked = lockFor(rocketIds, List.of(missionId));
+        try {
+            int target = homeShard(missionId);
+            boolean moving = false;
+            for (RocketId rid : rocketIds) {
+                Placement p = placements.get(rid);
+                moving |= p != null && p.shard != target;
+            }
+            if (moving) {
+                // check as the target shard would before moving anything, so a rejected call moves nothing
+                MissionStatus status = shards[target].repo.batchView().missionStatus(missionId);
+                if (status == null) throw new DomainException(Violation.UNKNOWN_MISSION, "Unknown mission: " + missionId);
+                StatusRules.checkAssignable(status);
+                for (RocketId rid : rocketIds) {
+                    Placement p = placements.get(rid);
+                    if (p == null) throw new DomainException(Violation.UNKNOWN_ROCKET, "Unknown rocket: " + rid);
+                    if (shards[p.shard].repo.batchView().rocketMission(rid) != null) {
+                        throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission: " + rid);
+                    }
+                }
+                for (RocketId rid : rocketIds) {
+                    Placement p = placements.get(rid);
+                    if (p.shard != target) move(rid, p, target);
+                }
+            }
+            shards[target].repo.assignRocketsToMission(missionId, rocketIds);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    @Override
+    public void changeRocketStatus(RocketId rocketId, RocketStatus status) {
+        mutateRocket(rocketId, repo -> repo.changeRocketStatus(rocketId, status));
+    }
+
+    @Override
+    public void changeMissionStatus(MissionId missionId, MissionStatus status) {
+        mutateMission(missionId, repo -> repo.changeMissionStatus(missionId, status));
+    }
+
+    @Override
+    public void unassignRocket(RocketId rocketId) {
+        mutateRocket(rocketId, repo -> repo.unassignRocket(rocketId));
+    }
+
+    @Override
+    public Violation tryChangeRocketStatus(RocketId rocketId, RocketStatus status) {
+        return tryMutateRocket(rocketId, repo -> repo.tryChangeRocketStatus(rocketId, status));
+    }
+
+    @Override
+    public Violation tryChangeMissionStatus(MissionId missionId, MissionStatus status) {
+        return tryMutateMission(missionId, repo -> repo.tryChangeMissionStatus(missionId, status));
+    }
+
+    @Override
+    public Violation tryUnassignRocket(RocketId rocketId) {
+        return tryMutateRocket(rocketId, repo -> repo.tryUnassignRocket(rocketId));
+    }
+
+    @Override
+    public void applyBatch(List<RepositoryCommand> commands) {
+        List<RocketId> rocketIds = new ArrayList<>();
+        List<MissionId> missionIds = new ArrayList<>();
+        for (RepositoryCommand c : commands) {
+            if (c.rocketId != null) rocketIds.add(c.rocketId);
+            if (c.missionId != null) missionIds.add(c.missionId);
+        }
+        int[] locked = lockFor(rocketIds, missionIds);
+        try {
+            if (locked.length == 1) {
+                shards[locked[0]].repo.applyBatch(commands);
+                return;
+            }
+            // the validator accepts a batch exactly when its commands succeed one by one
+            BatchValidator.validate(commands, batchView);
+            for (RepositoryCommand c : commands) {
+                switch (c.type) {
+                    case ASSIGN -> assignLocked(c.rocketId, c.missionId);
+                    case UNASSIGN -> rocketShard(c.rocketId).repo.unassignRocket(c.rocketId);
+                    case CHANGE_ROCKET_STATUS -> rocketShard(c.rocketId).repo.changeRocketStatus(c.rocketId, c.rocketStatus);
+                    case CHANGE_MISSION_STATUS -> missionShard(c.missionId).repo.changeMissionStatus(c.missionId, c.missionStatus);
+                }
+            }
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    @Override
+    public List<MissionSummary> summarizeMissionsByAssignedRockets() {
+        return items(merge(scatter(repo -> repo.keyedSummaries(null, Integer.MAX_VALUE)), Keyed.SUMMARY_ORDER, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must not be negative");
+        if (limit == 0) return new ArrayList<>();
+        return items(merge(scatter(repo -> repo.keyedSummaries(null, limit)), Keyed.SUMMARY_ORDER, limit));
+    }
+
+    @Override
+    public Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) {
+        PageTokens.checkLimit(limit);
+        PageTokens.SummaryKey after = PageTokens.summaryKey(pageToken);
+        return page(scatter(repo -> repo.keyedSummaries(after, plusOne(limit))), Keyed.SUMMARY_ORDER, limit,
+                k -> PageTokens.afterSummary(k.count, k.name, k.seq));
+    }
+
+    @Override
+    public Optional<RocketDetails> getRocket(RocketId id) {
+        return readRocket(id, repo -> repo.getRocket(id));
+    }
+
+    @Override
+    public Optional<MissionSummary> getMission(MissionId id) {
+        return missionShard(id).read(repo -> repo.getMission(id));
+    }
+
+    @Override
+    public List<RocketDetails> listRocketsByStatus(RocketStatus status) {
+        return items(merge(scatter(repo -> repo.keyedRockets(status, -1, Integer.MAX_VALUE)), Keyed.SEQ_ORDER, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<MissionSummary> listMissionsByStatus(MissionStatus status) {
+        return items(merge(scatter(repo -> repo.keyedMissions(status, -1, Integer.MAX_VALUE)), Keyed.SEQ_ORDER, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) {
+        PageTokens.checkLimit(limit);
+        long after = PageTokens.seq(pageToken);
+        return page(scatter(repo -> repo.keyedRockets(status, after, plusOne(limit))), Keyed.SEQ_ORDER, limit,
+                k -> PageTokens.afterSeq(k.seq));
+    }
+
+    @Override
+    public Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) {
+        PageTokens.checkLimit(limit);
+        long after = PageTokens.seq(pageToken);
+        return page(scatter(repo -> repo.keyedMissions(status, after, plusOne(limit))), Keyed.SEQ_ORDER, limit,
+                k -> PageTokens.afterSeq(k.seq));
+    }
+
+    @Override
+    public int countRocketsByStatus(RocketStatus status) {
+        int count = 0;
+        for (Shard s : shards) count += s.read(repo -> repo.countRocketsByStatus(status));
+        return count;
+    }
+
+    @Override
+    public int countMissionsByStatus(MissionStatus status) {
+        int count = 0;
+        for (Shard s : shards) count += s.read(repo -> repo.countMissionsByStatus(status));
+        return count;
+    }
+
+    @Override
+    public Optional<RocketStatus> getRocketStatus(RocketId id) {
+        return readRocket(id, repo -> repo.getRocketStatus(id));
+    }
+
+    @Override
+    public Optional<MissionStatus> getMissionStatus(MissionId id) {
+        return missionShard(id).read(repo -> repo.getMissionStatus(id));
+    }
+
+    @Override
+    public List<RocketId> findRocketsByName(String name) {
+        return rocketNames.find(Objects.requireNonNull(name, "name"), Function.identity());
+    }
+
+    @Override
+    public List<RocketId> findRocketsByNamePrefix(String prefix, int limit) {
+        return rocketNames.findByPrefix(Objects.requireNonNull(prefix, "prefix"), limit, Function.identity());
+    }
+
+    @Override
+    public List<MissionId> findMissionsByName(String name) {
+        return missionNames.find(Objects.requireNonNull(name, "name"), Function.identity());
+    }
+
+    @Override
+    public List<MissionId> findMissionsByNamePrefix(String prefix, int limit) {
+        return missionNames.findByPrefix(Objects.requireNonNull(prefix, "prefix"), limit, Function.identity());
+    }
+
+    /** The shard a rocket currently lives on, or -1 if it is unknown. */
+    int shardOf(RocketId id) {
+        Placement p = placements.get(id);
+        return p == null ? -1 : p.shard;
+    }
+
+    int shardOf(MissionId id) {
+        return homeShard(id);
+    }
+
+    // Helpers
+    private int homeShard(Object id) {
+        int h = id.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    private Shard missionShard(MissionId id) {
+        return shards[homeShard(id)];
+    }
+
+    /** The shard holding the rocket, or its home shard if it is unknown; the caller holds its lock. */
+    private Shard rocketShard(RocketId id) {
+        Placement p = placements.get(id);
+        return shards[p == null ? homeShard(id) : p.shard];
+    }
+
+    /** Locks and returns the shard holding the rocket (its home shard if unknown), retrying if it moved meanwhile. */
+    private Shard lockRocketShard(RocketId id) {
+        while (true) {
+            Shard shard = rocketShard(id);
+            shard.lock.lock();
+            if (rocketShard(id) == shard) return shard;
+            shard.lock.unlock();
+        }
+    }
+
+    private <T> T readRocket(RocketId id, Function<InMemorySpaceXRepository, T> query) {
+        Shard shard = lockRocketShard(id);
+        try {
+            return query.apply(shard.repo);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private void mutateRocket(RocketId id, Consumer<InMemorySpaceXRepository> mutation) {
+        Shard shard = lockRocketShard(id);
+        try {
+            mutation.accept(shard.repo);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private void mutateMission(MissionId id, Consumer<InMemorySpaceXRepository> mutation) {
+        Shard shard = missionShard(id);
+        shard.lock.lock();
+        try {
+            mutation.accept(shard.repo);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private Violation tryMutateRocket(RocketId id, Function<InMemorySpaceXRepository, Violation> mutation) {
+        Shard shard = lockRocketShard(id);
+        try {
+            return mutation.apply(shard.repo);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private Violation tryMutateMission(MissionId id, Function<InMemorySpaceXRepository, Violation> mutation) {
+        Shard shard = missionShard(id);
+        shard.lock.lock();
+        try {
+            return mutation.apply(shard.repo);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Locks, in ascending order, the shards of the given missions and of the given rockets' current
+     * placement, retrying if a rocket moved before its shard was locked. Unknown rockets need none.
+     */
+    private int[] lockFor(List<RocketId> rocketIds, List<MissionId> missionIds) {
+        while (true) {
+            BitSet wanted = new BitSet(shards.length);
+            for (MissionId m : missionIds) wanted.set(homeShard(m));
+            for (RocketId r : rocketIds) {
+                Placement p = placements.get(r);
+                if (p != null) wanted.set(p.shard);
+            }
+            int[] locked = wanted.stream().toArray();
+            lock(locked);
+            boolean stable = true;
+            for (RocketId r : rocketIds) {
+                Placement p = placements.get(r);
+                if (p != null && !wanted.get(p.shard)) {
+                    stable = false;
+                    break;
+                }
+            }
+            if (stable) return locked;
+            unlock(locked);
+        }
+    }
+
+    private void lock(int[] ascending) {
+        for (int s : ascending) shards[s].lock.lock();
+    }
+
+    private void unlock(int[] ascending) {
+        for (int i = ascending.length - 1; i >= 0; i--) shards[ascending[i]].lock.unlock();
+    }
+
+    /** Assigns with the rocket's and the mission's shards locked, first moving an unassigned rocket to the mission's shard. */
+    private void assignLocked(RocketId rocketId, MissionId missionId) {
+        int target = homeShard(missionId);
+        Placement p = placements.get(rocketId);
+        if (p != null && p.shard != target) {
+            // same checks, in the same order, as the target shard; a rejected assignment moves nothing
+            MissionStatus status = shards[target].repo.batchView().missionStatus(missionId);
+            if (status == null) throw new DomainException(Violation.UNKNOWN_MISSION, "Unknown mission: " + missionId);
+            StatusRules.checkAssignable(status);
+            if (shards[p.shard].repo.batchView().rocketMission(rocketId) != null) {
+                throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission");
+            }
+            move(rocketId, p, target);
+        }
+        shards[target].repo.assignRocketToMission(rocketId, missionId);
+    }
+
+    /** Moves an unassigned rocket, keeping its position in list order; both shards are locked. */
+    private void move(RocketId id, Placement p, int target) {
+        Rocket rocket = shards[p.shard].repo.detachRocket(id);
+        shards[target].repo.attachRocket(rocket, p.seq);
+        p.shard = target;
+    }
+
+    /** Runs {@code query} on every shard, in parallel if a query pool is set. */
+    private <T> List<List<Keyed<T>>> scatter(Function<InMemorySpaceXRepository, List<Keyed<T>>> query) {
+        List<List<Keyed<T>>> parts = new ArrayList<>(shards.length);
+        ForkJoinPool pool = queryPool;
+        if (pool == null || shards.length == 1) {
+            for (Shard s : shards) parts.add(s.read(query));
+            return parts;
+        }
+        List<ForkJoinTask<List<Keyed<T>>>> tasks = new ArrayList<>(shards.length);
+        for (Shard s : shards) tasks.add(pool.submit(() -> s.read(query)));
+        for (ForkJoinTask<List<Keyed<T>>> t : tasks) parts.add(t.join());
+        return parts;
+    }
+
+    /** K-way merges per-shard results, each already sorted by {@code order}, up to {@code limit} items. */
+    private static <T> List<Keyed<T>> merge(List<List<Keyed<T>>> parts, Comparator<Keyed<?>> order, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(parts.size(), (a, b) -> order.compare(a.head(), b.head()));
+        long total = 0;
+        for (List<Keyed<T>> part : parts) {
+            if (!part.isEmpty()) heads.add(new Cursor<>(part));
+            total += part.size();
+        }
+        List<Keyed<T>> out = new ArrayList<>((int) Math.min(limit, total));
+        while (out.size() < limit && !heads.isEmpty()) {
+            Cursor<T> c = heads.poll();
+            out.add(c.head());
+            if (c.advance()) heads.add(c);
+        }
+        return out;
+    }
+
+    /** A page of at most {@code limit} items from per-shard results holding up to {@code limit + 1} each. */
+    private static <T> Page<T> page(List<List<Keyed<T>>> parts, Comparator<Keyed<?>> order, int limit, Function<Keyed<T>, String> tokenAfter) {
+        List<Keyed<T>> merged = merge(parts, order, plusOne(limit));
+        if (merged.size() <= limit) return new Page<>(items(merged), Optional.empty());
+        return new Page<>(items(merged.subList(0, limit)), Optional.of(tokenAfter.apply(merged.get(limit - 1))));
+    }
+
+    private static <T> List<T> items(List<Keyed<T>> keyed) {
+        List<T> items = new ArrayList<>(keyed.size());
+        for (Keyed<T> k : keyed) items.add(k.item);
+        return items;
+    }
+
+    private static int plusOne(int limit) {
+        return limit == Integer.MAX_VALUE ? limit : limit + 1;
+    }
+
+    /** One partition: a single-threaded repository and the lock that guards it. */
+    private static final class Shard {
+        final InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        final ReentrantLock lock = new ReentrantLock();
+
+        <T> T read(Function<InMemorySpaceXRepository, T> query) {
+            lock.lock();
+            try {
+                return query.apply(repo);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Where a rocket lives. {@code shard} only changes while both the old and the new shard are locked. */
+    private static final class Placement {
+        final long seq;
+        volatile int shard;
+
+        Placement(int shard, long seq) {
+            this.shard = shard;
+            this.seq = seq;
+        }
+    }
+
+    /** Read position in one shard's sorted result. */
+    private static final class Cursor<T> {
+        private final List<Keyed<T>> items;
+        private int next;
+
+        Cursor(List<Keyed<T>> items) {
+            this.items = items;
+        }
+
+        Keyed<T> head() {
+            return items.get(next);
+        }
+
+        boolean advance() {
+            return ++next < items.size();
+        }
+    }
+}
@@ -1,33 +1,156 @@
 package com.six.spacex.repository;
 
+import com.six.spacex.domain.DomainException;
 import com.six.spacex.domain.MissionId;
 import com.six.spacex.domain.MissionStatus;
 import com.six.spacex.domain.RocketId;
 import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.Violation;
 import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
 import com.six.spacex.dto.RocketDetails;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SpaceXRepository {
     RocketId addRocket(String name);
     MissionId addMission(String name);
+
+    /** Adds a rocket under a caller-supplied id, e.g. when replaying a journal. */
+    void addRocket(RocketId id, String name);
+
+    /** Adds a mission under a caller-supplied id, e.g. when replaying a journal. */
+    void addMission(MissionId id, String name);
+
     void assignRocketToMission(RocketId rocketId, MissionId missionId);
     void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds);
     void changeRocketStatus(RocketId rocketId, RocketStatus status);
     void changeMissionStatus(MissionId missionId, MissionStatus status);
     void unassignRocket(RocketId rocketId);
+
+    // Exception-free mutators: each returns the rule a rejection broke, or Violation.NONE once the
+    // change is applied. The defaults call the throwing mutator and catch; implementations that
+    // validate without exceptions override them so a rejection allocates nothing.
+
+    default Violation tryAssignRocketToMission(RocketId rocketId, MissionId missionId) {
+        try {
+            assignRocketToMission(rocketId, missionId);
+            return Violation.NONE;
+        } catch (DomainException e) {
+            return e.violation();
+        }
+    }
+
+    default Violation tryChangeRocketStatus(RocketId rocketId, RocketStatus status) {
+        try {
+            changeRocketStatus(rocketId, status);
+            return Violation.NONE;
+        } catch (DomainException e) {
+            return e.violation();
+        }
+    }
+
+    default Violation tryChangeMissionStatus(MissionId missionId, MissionStatus status) {
+        try {
+            changeMissionStatus(missionId, status);
+            return Violation.NONE;
+        } catch (DomainException e) {
+            return e.violation();
+        }
+    }
+
+    default Violation tryUnassignRocket(RocketId rocketId) {
+        try {
+            unassignRocket(rocketId);
+            return Violation.NONE;
+        } catch (DomainException e) {
+            return e.violation();
+        }
+    }
+
+    /**
+     * Applies the commands in order, all or nothing: if any command would be rejected, a
+     * {@link com.six.spacex.domain.DomainException} naming it is thrown and nothing changes.
+     * Each affected mission's status is recalculated once, after the last command.
+     */
+    void applyBatch(List<RepositoryCommand> commands);
+
     List<MissionSummary> summarizeMissionsByAssignedRockets();
 
+    /** The first {@code limit} entries of {@link #summarizeMissionsByAssignedRockets()}. */
+    default List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must not be negative");
+        List<MissionSummary> all = summarizeMissionsByAssignedRockets();
+        return all.size() <= limit ? all : new ArrayList<>(all.subList(0, limit));
+    }
+
     // Extra queries
     Optional<RocketDetails> getRocket(RocketId id);
     Optional<MissionSummary> getMission(MissionId id);
     List<RocketDetails> listRocketsByStatus(RocketStatus status);
     List<MissionSummary> listMissionsByStatus(MissionStatus status);
 
+    // Paged and streaming queries. Page tokens are opaque and only valid for the query and
+    // repository that issued them; pass null for the first page. The defaults materialize the
+    // full list, implementations with a stable order override them to touch only one page.
+
+    /** A page of {@link #summarizeMissionsByAssignedRockets()}, at most {@code limit} entries. */
+    default Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) {
+        return PageTokens.slice(summarizeMissionsByAssignedRockets(), limit, pageToken);
+    }
+
+    default Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) {
+        return PageTokens.slice(listRocketsByStatus(status), limit, pageToken);
+    }
+
+    default Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) {
+        return PageTokens.slice(listMissionsByStatus(status), limit, pageToken);
+    }
+
+    /**
+     * {@link #summarizeMissionsByAssignedRockets()} as a stream whose summaries are built as it is
+     * consumed. Unless the implementation is thread-safe, consume it before the next mutation.
+     */
+    default Stream<MissionSummary> streamMissionsByAssignedRockets() {
+        return summarizeMissionsByAssignedRockets().stream();
+    }
+
+    default Stream<RocketDetails> streamRocketsByStatus(RocketStatus status) {
+        return listRocketsByStatus(status).stream();
+    }
+
+    default Stream<MissionSummary> streamMissionsByStatus(MissionStatus status) {
+        return listMissionsByStatus(status).stream();
+    }
+
+    default int countRocketsByStatus(RocketStatus status) {
+        return listRocketsByStatus(status).size();
+    }
+
+    default int countMissionsByStatus(MissionStatus status) {
+        return listMissionsByStatus(status).size();
+    }
+
     // Existing simple queries
     Optional<RocketStatus> getRocketStatus(RocketId id);
     Optional<MissionStatus> getMissionStatus(MissionId id);
+
+    // Name lookups, served from a sorted name index. Names match case-sensitively; ids that
+    // share a name come in the order they were added.
+
+    /** Rockets named exactly {@code name}. */
+    List<RocketId> findRocketsByName(String name);
+
+    /** Up to {@code limit} rockets whose name starts with {@code prefix}, ordered by name. */
+    List<RocketId> findRocketsByNamePrefix(String prefix, int limit);
+
+    /** Missions named exactly {@code name}. */
+    List<MissionId> findMissionsByName(String name);
+
+    /** Up to {@code limit} missions whose name starts with {@code prefix}, ordered by name. */
+    List<MissionId> findMissionsByNamePrefix(String prefix, int limit);
 }
 
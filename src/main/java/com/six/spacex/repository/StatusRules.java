@@ -0,0 +1,134 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.DomainException;
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.Violation;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Rocket and mission status rules shared by the repository implementations.
+ * <p>
+ * The rules are evaluated once per combination of inputs into lookup tables, so checking a
+ * transition is an array read; the {@code ...Violation} methods return {@link Violation#NONE}
+ * instead of throwing, for the exception-free {@code try...} mutators.
+ */
+final class StatusRules {
+
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+
+    // [status][assigned ? 1 : 0]
+    private static final Violation[][] ROCKET_RULES = new Violation[ROCKET_STATUSES.length][2];
+    // [status][assigned > 0 ? 1 : 0][anyInRepair ? 1 : 0]
+    private static final Violation[][][] MISSION_RULES = new Violation[MISSION_STATUSES.length][2][2];
+    // [current][assigned > 0 ? 1 : 0][anyInRepair ? 1 : 0]
+    private static final MissionStatus[][][] DERIVED = new MissionStatus[MISSION_STATUSES.length][2][2];
+    private static final Map<Violation, String> MESSAGES = new EnumMap<>(Violation.class);
+
+    static {
+        for (RocketStatus s : ROCKET_STATUSES) {
+            for (int assigned = 0; assigned < 2; assigned++) {
+                ROCKET_RULES[s.ordinal()][assigned] = rocketRule(s, assigned == 1);
+            }
+        }
+        for (MissionStatus s : MISSION_STATUSES) {
+            for (int assigned = 0; assigned < 2; assigned++) {
+                for (int repair = 0; repair < 2; repair++) {
+                    MISSION_RULES[s.ordinal()][assigned][repair] = missionRule(s, assigned, repair == 1);
+                    DERIVED[s.ordinal()][assigned][repair] = deriveRule(s, assigned, repair == 1);
+                }
+            }
+        }
+        MESSAGES.put(Violation.MISSION_ENDED, "Cannot assign rockets to an ended mission");
+        MESSAGES.put(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission");
+        MESSAGES.put(Violation.ROCKET_NOT_ASSIGNED, "Rocket is not assigned to any mission");
+        MESSAGES.put(Violation.IN_SPACE_WITHOUT_MISSION, "Rocket cannot be 'In space' without an assigned mission");
+        MESSAGES.put(Violation.ASSIGNED_ROCKET_IN_BUILD, "Assigned rocket cannot be set to 'In build'");
+        MESSAGES.put(Violation.END_WITH_ROCKETS_ASSIGNED, "Cannot end mission while rockets are assigned");
+        MESSAGES.put(Violation.SCHEDULED_WITH_ROCKETS, "Scheduled requires zero assigned rockets");
+        MESSAGES.put(Violation.MISSION_WITHOUT_ROCKETS, "Mission must have at least one assigned rocket");
+        MESSAGES.put(Violation.PENDING_WITHOUT_REPAIR, "Pending requires at least one rocket in repair");
+        MESSAGES.put(Violation.IN_PROGRESS_WITH_REPAIR, "In Progress cannot have rockets in repair");
+    }
+
+    private StatusRules() {}
+
+    static Violation assignViolation(MissionStatus missionStatus) {
+        return missionStatus == MissionStatus.ENDED ? Violation.MISSION_ENDED : Violation.NONE;
+    }
+
+    static Violation rocketStatusViolation(RocketStatus status, boolean assigned) {
+        return ROCKET_RULES[status.ordinal()][assigned ? 1 : 0];
+    }
+
+    static Violation missionStatusViolation(MissionStatus status, int assigned, boolean anyInRepair) {
+        return MISSION_RULES[status.ordinal()][assigned > 0 ? 1 : 0][anyInRepair ? 1 : 0];
+    }
+
+    static Violation missionStatusViolation(MissionStatus status, Mission mission) {
+        return missionStatusViolation(status, mission.assignedCount(), mission.rocketsInStatus(RocketStatus.IN_REPAIR) > 0);
+    }
+
+    static void checkAssignable(MissionStatus missionStatus) {
+        check(assignViolation(missionStatus));
+    }
+
+    static void checkRocketStatus(RocketStatus status, boolean assigned) {
+        check(rocketStatusViolation(status, assigned));
+    }
+
+    static void checkMissionStatus(MissionStatus status, int assigned, boolean anyInRepair) {
+        check(missionStatusViolation(status, assigned, anyInRepair));
+    }
+
+    static void checkMissionStatus(MissionStatus status, Mission mission) {
+        check(missionStatusViolation(status, mission));
+    }
+
+    static MissionStatus derive(Mission mission) {
+        return derive(mission.status(), mission.assignedCount(), mission.rocketsInStatus(RocketStatus.IN_REPAIR) > 0);
+    }
+
+    /** Status a mission takes after its assignments or rocket statuses changed. */
+    static MissionStatus derive(MissionStatus current, int assigned, boolean anyInRepair) {
+        return DERIVED[current.ordinal()][assigned > 0 ? 1 : 0][anyInRepair ? 1 : 0];
+    }
+
+    /** The exception the throwing mutators raise for a rule that needs no ids in its message. */
+    static DomainException rejection(Violation violation) {
+        return new DomainException(violation, MESSAGES.getOrDefault(violation, violation.name()));
+    }
+
+    private static void check(Violation violation) {
+        if (violation != Violation.NONE) throw rejection(violation);
+    }
+
+    private static Violation rocketRule(RocketStatus status, boolean assigned) {
+        if (status == RocketStatus.IN_SPACE && !assigned) return Violation.IN_SPACE_WITHOUT_MISSION;
+        if (status == RocketStatus.IN_BUILD && assigned) return Violation.ASSIGNED_ROCKET_IN_BUILD;
+        return Violation.NONE;
+    }
+
+    private static Violation missionRule(MissionStatus status, int assigned, boolean anyInRepair) {
+        return switch (status) {
+            case ENDED -> assigned != 0 ? Violation.END_WITH_ROCKETS_ASSIGNED : Violation.NONE;
+            case SCHEDULED -> assigned != 0 ? Violation.SCHEDULED_WITH_ROCKETS : Violation.NONE;
+            case PENDING, IN_PROGRESS -> {
+                if (assigned == 0) yield Violation.MISSION_WITHOUT_ROCKETS;
+                if (status == MissionStatus.PENDING && !anyInRepair) yield Violation.PENDING_WITHOUT_REPAIR;
+                if (status == MissionStatus.IN_PROGRESS && anyInRepair) yield Violation.IN_PROGRESS_WITH_REPAIR;
+                yield Violation.NONE;
+            }
+        };
+    }
+
+    private static MissionStatus deriveRule(MissionStatus current, int assigned, boolean anyInRepair) {
+        if (current == MissionStatus.ENDED) return MissionStatus.ENDED;
+        if (assigned == 0) return MissionStatus.SCHEDULED;
+        return anyInRepair ? MissionStatus.PENDING : MissionStatus.IN_PROGRESS;
+    }
+}
@@ -0,0 +1,770 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
+import com.six.spacex.dto.RocketDetails;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe {@link SpaceXRepository} whose queries never lock (multi-version concurrency
+ * control).
+ * <p>
+ * All state lives in an immutable version: rockets and missions in {@link PersistentVector}s
+ * indexed by insertion number, plus per-status counts. Writers are serialized by one lock; each
+ * mutation or batch builds the next version, sharing every untouched part of the previous one,
+ * and publishes it with a single volatile write. Readers pick up the latest published version
+ * and therefore always see a consistent point in time, however long they take. Use
+ * {@link #snapshot()} to run several queries against the same version.
+ * <p>
+ * Ids map to insertion numbers through append-only concurrent maps shared by all versions; a
+ * number at or beyond a version's size belongs to a later version and reads as absent.
+ * <p>
+ * List queries follow insertion order, as in {@link InMemorySpaceXRepository}. Status queries scan
+ * the version; the summary order is computed once per version on first use.
+ */
+public final class VersionedSpaceXRepository implements SpaceXRepository {
+
+    private static final int NONE = -1;
+    private static final int[] NO_ROCKETS = new int[0];
+
+    private final ConcurrentMap<RocketId, Integer> rocketNumbers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MissionId, Integer> missionNumbers = new ConcurrentHashMap<>();
+    private final NameIndex<Integer> rocketNames = NameIndex.concurrent();
+    private final NameIndex<Integer> missionNames = NameIndex.concurrent();
+    private boolean uniqueNames; // guarded by writeLock
+    private volatile IdGenerator ids = IdGenerator.random();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Version current = new Version(0, PersistentVector.empty(), PersistentVector.empty(),
+            new int[RocketStatus.values().length], new int[MissionStatus.values().length]);
+
+    /** A consistent view of the latest published version. */
+    public Snapshot snapshot() {
+        return new Snapshot(current);
+    }
+
+    /** Number of the latest published version; every mutation or batch increments it. */
+    public long version() {
+        return current.number;
+    }
+
+    /**
+     * With {@code unique} set, adding a rocket or mission under a name that is already taken is
+     * rejected. Turning it on fails if the repository already holds duplicate names.
+     */
+    public void setUniqueNames(boolean unique) {
+        writeLock.lock();
+        try {
+            if (unique && rocketNames.hasDuplicates()) throw new DomainException(Violation.DUPLICATE_ROCKET_NAME, "Rocket names are not unique");
+            if (unique && missionNames.hasDuplicates()) throw new DomainException(Violation.DUPLICATE_MISSION_NAME, "Mission names are not unique");
+            this.uniqueNames = unique;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Generates the ids of rockets and missions added without one; {@link IdGenerator#random()} by default. */
+    public void setIdGenerator(IdGenerator ids) {
+        this.ids = Objects.requireNonNull(ids, "ids");
+    }
+
+    @Override
+    public RocketId addRocket(String name) {
+        RocketId id = ids.nextRocketId();
+        addRocket(id, name);
+        return id;
+    }
+
+    @Override
+    public void addRocket(RocketId id, String name) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(name, "name");
+        writeLock.lock();
+        try {
+            if (rocketNumbers.containsKey(id)) throw new DomainException(Violation.DUPLICATE_ROCKET, "Rocket already exists: " + id);
+            // like the id maps, the name index may run ahead of the published version
+            String indexed = rocketNames.add(name, current.rockets.size(), uniqueNames);
+            if (indexed == null) throw new DomainException(Violation.DUPLICATE_ROCKET_NAME, "Rocket name already taken: " + name);
+            Txn txn = new Txn(current);
+            rocketNumbers.put(id, txn.addRocket(id, indexed));
+            publish(txn);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public MissionId addMission(String name) {
+        MissionId id = ids.nextMissionId();
+        addMission(id, name);
+        return id;
+    }
+
+    @Override
+    public void addMission(MissionId id, String name) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(name, "name");
+        writeLock.lock();
+        try {
+            if (missionNumbers.containsKey(id)) throw new DomainException(Violation.DUPLICATE_MISSION, "Mission already exists: " + id);
+            String indexed = missionNames.add(name, current.missions.size(), uniqueNames);
+            if (indexed == null) throw new DomainException(Violation.DUPLICATE_MISSION_NAME, "Mission name already taken: " + name);
+            Txn txn = new Txn(current);
+            missionNumbers.put(id, txn.addMission(id, indexed));
+            publish(txn);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void assignRocketToMission(RocketId rocketId, MissionId missionId) {
+        writeLock.lock();
+        try {
+            Txn txn = new Txn(current);
+            int r = requireRocket(rocketId);
+            int m = requireMission(missionId);
+            StatusRules.checkAssignable(txn.mission(m).status);
+            if (txn.rocket(r).mission != NONE) throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission");
+            txn.assign(r, m);
+            txn.recalcMissionStatus(m);
+            publish(txn);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        writeLock.lock();
+        try {
+            Txn txn = new Txn(current);
+            int m = requireMission(missionId);
+            StatusRules.checkAssignable(txn.mission(m).status);
+            int[] resolved = new int[rocketIds.size()];
+            BitSet seen = new BitSet();
+            for (int i = 0; i < resolved.length; i++) {
+                RocketId rid = rocketIds.get(i);
+                int r = requireRocket(rid);
+                if (txn.rocket(r).mission != NONE || seen.get(r)) {
+                    throw new DomainException(Violation.ROCKET_ALREADY_ASSIGNED, "Rocket already assigned to a mission: " + rid);
+                }
+                seen.set(r);
+                resolved[i] = r;
+            }
+            for (int r : resolved) txn.assign(r, m);
+            txn.recalcMissionStatus(m);
+            publish(txn);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void changeRocketStatus(RocketId rocketId, RocketStatus status) {
+        writeLock.lock();
+        try {
+            Txn txn = new Txn(current);
+            int r = requireRocket(rocketId);
+            int m = txn.rocket(r).mission;
+            StatusRules.checkRocketStatus(status, m != NONE);
+            txn.setRocketStatus(r, status);
+            if (m != NONE) txn.recalcMissionStatus(m);
+            publish(txn);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void changeMissionStatus(MissionId missionId, MissionStatus status) {
+        writeLock.lock();
+        try {
+            Txn txn = new Txn(current);
+            int m = requireMission(missionId);
+            MissionState mission = txn.mission(m);
+            StatusRules.checkMissionStatus(status, mission.rockets.length, mission.inRepair > 0);
+            txn.setMissionStatus(m, status);
+            publish(txn);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void unassignRocket(RocketId rocketId) {
+        writeLock.lock();
+        try {
+            Txn txn = new Txn(current);
+            int r = requireRocket(rocketId);
+            int m = txn.rocket(r).mission;
+            if (m == NONE) throw new DomainException(Violation.ROCKET_NOT_ASSIGNED, "Rocket is not assigned to any mission");
+            txn.unassign(r);
+            txn.recalcMissionStatus(m);
+            publish(txn);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Validates against the latest version and publishes the whole batch as one new version. */
+    @Override
+    public void applyBatch(List<RepositoryCommand> commands) {
+        writeLock.lock();
+        try {
+            Version base = current;
+            BatchValidator.validate(commands, batchView(base));
+            Txn txn = new Txn(base);
+            BitSet touched = new BitSet();
+            for (RepositoryCommand c : commands) {
+                switch (c.type) {
+                    case ASSIGN -> {
+                        int m = requireMission(c.missionId);
+                        txn.assign(requireRocket(c.rocketId), m);
+                        touched.set(m);
+                    }
+                    case UNASSIGN -> {
+                        int r = requireRocket(c.rocketId);
+                        touched.set(txn.rocket(r).mission);
+                        txn.unassign(r);
+                    }
+                    case CHANGE_ROCKET_STATUS -> {
+                        int r = requireRocket(c.rocketId);
+                        txn.setRocketStatus(r, c.rocketStatus);
+                        if (txn.rocket(r).mission != NONE) touched.set(txn.rocket(r).mission);
+                    }
+                    case CHANGE_MISSION_STATUS -> txn.setMissionStatus(requireMission(c.missionId), c.missionStatus);
+                }
+            }
+            for (int m = touched.nextSetBit(0); m >= 0; m = touched.nextSetBit(m + 1)) txn.recalcMissionStatus(m);
+            publish(txn);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<MissionSummary> summarizeMissionsByAssignedRockets() {
+        return snapshot().summarizeMissionsByAssignedRockets();
+    }
+
+    @Override
+    public List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) {
+        return snapshot().summarizeMissionsByAssignedRockets(limit);
+    }
+
+    @Override
+    public Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) {
+        return snapshot().summarizeMissionsByAssignedRockets(limit, pageToken);
+    }
+
+    @Override
+    public Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) {
+        return snapshot().listRocketsByStatus(status, limit, pageToken);
+    }
+
+    @Override
+    public Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) {
+        return snapshot().listMissionsByStatus(status, limit, pageToken);
+    }
+
+    /** Streams one version, so it can be consumed while writers continue. */
+    @Override
+    public Stream<MissionSummary> streamMissionsByAssignedRockets() {
+        return snapshot().streamMissionsByAssignedRockets();
+    }
+
+    @Override
+    public Stream<RocketDetails> streamRocketsByStatus(RocketStatus status) {
+        return snapshot().streamRocketsByStatus(status);
+    }
+
+    @Override
+    public Stream<MissionSummary> streamMissionsByStatus(MissionStatus status) {
+        return snapshot().streamMissionsByStatus(status);
+    }
+
+    @Override
+    public Optional<RocketDetails> getRocket(RocketId id) {
+        return snapshot().getRocket(id);
+    }
+
+    @Override
+    public Optional<MissionSummary> getMission(MissionId id) {
+        return snapshot().getMission(id);
+    }
+
+    @Override
+    public List<RocketDetails> listRocketsByStatus(RocketStatus status) {
+        return snapshot().listRocketsByStatus(status);
+    }
+
+    @Override
+    public List<MissionSummary> listMissionsByStatus(MissionStatus status) {
+        return snapshot().listMissionsByStatus(status);
+    }
+
+    @Override
+    public int countRocketsByStatus(RocketStatus status) {
+        return current.rocketsByStatus[status.ordinal()];
+    }
+
+    @Override
+    public int countMissionsByStatus(MissionStatus status) {
+        return current.missionsByStatus[status.ordinal()];
+    }
+
+    @Override
+    public Optional<RocketStatus> getRocketStatus(RocketId id) {
+        return snapshot().getRocketStatus(id);
+    }
+
+    @Override
+    public Optional<MissionStatus> getMissionStatus(MissionId id) {
+        return snapshot().getMissionStatus(id);
+    }
+
+    @Override
+    public List<RocketId> findRocketsByName(String name) {
+        return snapshot().findRocketsByName(name);
+    }
+
+    @Override
+    public List<RocketId> findRocketsByNamePrefix(String prefix, int limit) {
+        return snapshot().findRocketsByNamePrefix(prefix, limit);
+    }
+
+    @Override
+    public List<MissionId> findMissionsByName(String name) {
+        return snapshot().findMissionsByName(name);
+    }
+
+    @Override
+    public List<MissionId> findMissionsByNamePrefix(String prefix, int limit) {
+        return snapshot().findMissionsByNamePrefix(prefix, limit);
+    }
+
+    /**
+     * Read-only queries against one published version. Later mutations are not visible through
+     * it; take a new snapshot to see them.
+     */
+    public final class Snapshot {
+        private final Version v;
+
+        private Snapshot(Version v) {
+            this.v = v;
+        }
+
+        public long version() {
+            return v.number;
+        }
+
+        public List<MissionSummary> summarizeMissionsByAssignedRockets() {
+            return summarizeMissionsByAssignedRockets(Integer.MAX_VALUE);
+        }
+
+        public List<MissionSummary> summarizeMissionsByAssignedRockets(int limit) {
+            if (limit < 0) throw new IllegalArgumentException("limit must not be negative");
+            int[] order = v.summaryOrder();
+            int n = Math.min(limit, order.length);
+            List<MissionSummary> summaries = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) summaries.add(v.summaryOf(order[i]));
+            return summaries;
+        }
+
+        public Page<MissionSummary> summarizeMissionsByAssignedRockets(int limit, String pageToken) {
+            PageTokens.checkLimit(limit);
+            PageTokens.SummaryKey after = PageTokens.summaryKey(pageToken);
+            int[] order = v.summaryOrder();
+            int from = 0;
+            if (after != null) {
+                // first position that sorts after the token's key
+                int lo = 0, hi = order.length;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    MissionState m = v.missions.get(order[mid]);
+                    if (after.isFollowedBy(m.rockets.length, m.name, order[mid])) hi = mid;
+                    else lo = mid + 1;
+                }
+                from = lo;
+            }
+            int to = (int) Math.min(order.length, (long) from + limit);
+            List<MissionSummary> items = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) items.add(v.summaryOf(order[i]));
+            if (to == order.length) return new Page<>(items, Optional.empty());
+            MissionState last = v.missions.get(order[to - 1]);
+            return new Page<>(items, Optional.of(PageTokens.afterSummary(last.rockets.length, last.name, order[to - 1])));
+        }
+
+        public Page<RocketDetails> listRocketsByStatus(RocketStatus status, int limit, String pageToken) {
+            PageTokens.checkLimit(limit);
+            List<RocketDetails> items = new ArrayList<>(Math.min(limit, v.rocketsByStatus[status.ordinal()]));
+            int size = v.rockets.size();
+            int last = NONE;
+            for (long r = PageTokens.seq(pageToken) + 1; r < size; r++) {
+                RocketState rocket = v.rockets.get((int) r);
+                if (rocket.status != status) continue;
+                if (items.size() == limit) return new Page<>(items, Optional.of(PageTokens.afterSeq(last)));
+                items.add(v.detailsOf(rocket));
+                last = (int) r;
+            }
+            return new Page<>(items, Optional.empty());
+        }
+
+        public Page<MissionSummary> listMissionsByStatus(MissionStatus status, int limit, String pageToken) {
+            PageTokens.checkLimit(limit);
+            List<MissionSummary> items = new ArrayList<>(Math.min(limit, v.missionsByStatus[status.ordinal()]));
+            int size = v.missions.size();
+            int last = NONE;
+            for (long m = PageTokens.seq(pageToken) + 1; m < size; m++) {
+                MissionState mission = v.missions.get((int) m);
+                if (mission.status != status) continue;
+                if (items.size() == limit) return new Page<>(items, Optional.of(PageTokens.afterSeq(last)));
+                items.add(v.summaryOf(mission));
+                last = (int) m;
+            }
+            return new Page<>(items, Optional.empty());
+        }
+
+        public Stream<MissionSummary> streamMissionsByAssignedRockets() {
+            return Arrays.stream(v.summaryOrder()).mapToObj(v::summaryOf);
+        }
+
+        public Stream<RocketDetails> streamRocketsByStatus(RocketStatus status) {
+            return IntStream.range(0, v.rockets.size()).mapToObj(v.rockets::get)
+                    .filter(r -> r.status == status).map(v::detailsOf);
+        }
+
+        public Stream<MissionSummary> streamMissionsByStatus(MissionStatus status) {
+            return IntStream.range(0, v.missions.size()).mapToObj(v.missions::get)
+                    .filter(m -> m.status == status).map(v::summaryOf);
+        }
+
+        public Optional<RocketDetails> getRocket(RocketId id) {
+            int r = v.rocketNumber(rocketNumbers.get(id));
+            return r == NONE ? Optional.empty() : Optional.of(v.detailsOf(r));
+        }
+
+        public Optional<MissionSummary> getMission(MissionId id) {
+            int m = v.missionNumber(missionNumbers.get(id));
+            return m == NONE ? Optional.empty() : Optional.of(v.summaryOf(m));
+        }
+
+        public List<RocketDetails> listRocketsByStatus(RocketStatus status) {
+            List<RocketDetails> result = new ArrayList<>(v.rocketsByStatus[status.ordinal()]);
+            v.rockets.forEach(r -> {
+                if (r.status == status) result.add(v.detailsOf(r));
+            });
+            return result;
+        }
+
+        public List<MissionSummary> listMissionsByStatus(MissionStatus status) {
+            List<MissionSummary> result = new ArrayList<>(v.missionsByStatus[status.ordinal()]);
+            v.missions.forEach(m -> {
+                if (m.status == status) result.add(v.summaryOf(m));
+            });
+            return result;
+        }
+
+        public int countRocketsByStatus(RocketStatus status) {
+            return v.rocketsByStatus[status.ordinal()];
+        }
+
+        public int countMissionsByStatus(MissionStatus status) {
+            return v.missionsByStatus[status.ordinal()];
+        }
+
+        public Optional<RocketStatus> getRocketStatus(RocketId id) {
+            int r = v.rocketNumber(rocketNumbers.get(id));
+            return r == NONE ? Optional.empty() : Optional.of(v.rockets.get(r).status);
+        }
+
+        public Optional<MissionStatus> getMissionStatus(MissionId id) {
+            int m = v.missionNumber(missionNumbers.get(id));
+            return m == NONE ? Optional.empty() : Optional.of(v.missions.get(m).status);
+        }
+
+        public List<RocketId> findRocketsByName(String name) {
+            return rocketNames.find(Objects.requireNonNull(name, "name"), this::rocketIdOf);
+        }
+
+        public List<RocketId> findRocketsByNamePrefix(String prefix, int limit) {
+            return rocketNames.findByPrefix(Objects.requireNonNull(prefix, "prefix"), limit, this::rocketIdOf);
+        }
+
+        public List<MissionId> findMissionsByName(String name) {
+            return missionNames.find(Objects.requireNonNull(name, "name"), this::missionIdOf);
+        }
+
+        public List<MissionId> findMissionsByNamePrefix(String prefix, int limit) {
+            return missionNames.findByPrefix(Objects.requireNonNull(prefix, "prefix"), limit, this::missionIdOf);
+        }
+
+        private RocketId rocketIdOf(Integer number) {
+            int r = v.rocketNumber(number);
+            return r == NONE ? null : v.rockets.get(r).id;
+        }
+
+        private MissionId missionIdOf(Integer number) {
+            int m = v.missionNumber(number);
+            return m == NONE ? null : v.missions.get(m).id;
+        }
+    }
+
+    // Helpers
+    /** Caller holds the write lock, so every registered number belongs to the current version. */
+    private int requireRocket(RocketId id) {
+        Integer r = rocketNumbers.get(id);
+        if (r == null) throw new DomainException(Violation.UNKNOWN_ROCKET, "Unknown rocket: " + id);
+        return r;
+    }
+
+    /** Caller holds the write lock. */
+    private int requireMission(MissionId id) {
+        Integer m = missionNumbers.get(id);
+        if (m == null) throw new DomainException(Violation.UNKNOWN_MISSION, "Unknown mission: " + id);
+        return m;
+    }
+
+    private void publish(Txn txn) {
+        current = txn.toVersion();
+    }
+
+    private BatchValidator.StateView batchView(Version v) {
+        return new BatchValidator.StateView() {
+            @Override
+            public RocketStatus rocketStatus(RocketId id) {
+                int r = v.rocketNumber(rocketNumbers.get(id));
+                return r == NONE ? null : v.rockets.get(r).status;
+            }
+
+            @Override
+            public MissionId rocketMission(RocketId id) {
+                int m = v.rockets.get(rocketNumbers.get(id)).mission;
+                return m == NONE ? null : v.missions.get(m).id;
+            }
+
+            @Override
+            public MissionStatus missionStatus(MissionId id) {
+                int m = v.missionNumber(missionNumbers.get(id));
+                return m == NONE ? null : v.missions.get(m).status;
+            }
+
+            @Override
+            public int assignedCount(MissionId id) {
+                return v.missions.get(missionNumbers.get(id)).rockets.length;
+            }
+
+            @Override
+            public int inRepairCount(MissionId id) {
+                return v.missions.get(missionNumbers.get(id)).inRepair;
+            }
+        };
+    }
+
+    /** Immutable state of one rocket. */
+    private static final class RocketState {
+        final RocketId id;
+        final String name;
+        final RocketStatus status;
+        final int mission;
+
+        RocketState(RocketId id, String name, RocketStatus status, int mission) {
+            this.id = id;
+            this.name = name;
+            this.status = status;
+            this.mission = mission;
+        }
+    }
+
+    /** Immutable state of one mission; {@code rockets} holds rocket numbers in assignment order and is never modified. */
+    private static final class MissionState {
+        final MissionId id;
+        final String name;
+        final MissionStatus status;
+        final int[] rockets;
+        final int inRepair;
+
+        MissionState(MissionId id, String name, MissionStatus status, int[] rockets, int inRepair) {
+            this.id = id;
+            this.name = name;
+            this.status = status;
+            this.rockets = rockets;
+            this.inRepair = inRepair;
+        }
+    }
+
+    /** One published, immutable state of the repository. */
+    private static final class Version {
+        final long number;
+        final PersistentVector<RocketState> rockets;
+        final PersistentVector<MissionState> missions;
+        final int[] rocketsByStatus;
+        final int[] missionsByStatus;
+        private volatile int[] summaryOrder; // computed on first use; racing readers compute the same value
+
+        Version(long number, PersistentVector<RocketState> rockets, PersistentVector<MissionState> missions,
+                int[] rocketsByStatus, int[] missionsByStatus) {
+            this.number = number;
+            this.rockets = rockets;
+            this.missions = missions;
+            this.rocketsByStatus = rocketsByStatus;
+            this.missionsByStatus = missionsByStatus;
+        }
+
+        int rocketNumber(Integer registered) {
+            return registered == null || registered >= rockets.size() ? NONE : registered;
+        }
+
+        int missionNumber(Integer registered) {
+            return registered == null || registered >= missions.size() ? NONE : registered;
+        }
+
+        /** Mission numbers by dragons count desc, then mission name desc, then insertion order. */
+        int[] summaryOrder() {
+            int[] order = summaryOrder;
+            if (order == null) {
+                MissionState[] states = new MissionState[missions.size()];
+                int[] next = {0};
+                missions.forEach(m -> states[next[0]++] = m);
+                Integer[] boxed = new Integer[states.length];
+                for (int m = 0; m < states.length; m++) boxed[m] = m;
+                Arrays.sort(boxed, (a, b) -> {
+                    int c = Integer.compare(states[b].rockets.length, states[a].rockets.length);
+                    if (c != 0) return c;
+                    c = states[b].name.compareTo(states[a].name);
+                    return c != 0 ? c : Integer.compare(a, b);
+                });
+                order = new int[states.length];
+                for (int i = 0; i < states.length; i++) order[i] = boxed[i];
+                summaryOrder = order;
+            }
+            return order;
+        }
+
+        MissionSummary summaryOf(int m) {
+            return summaryOf(missions.get(m));
+        }
+
+        MissionSummary summaryOf(MissionState m) {
+            List<MissionSummary.RocketView> rv = new ArrayList<>(m.rockets.length);
+            for (int r : m.rockets) {
+                RocketState rocket = rockets.get(r);
+                rv.add(new MissionSummary.RocketView(rocket.name, rocket.status));
+            }
+            return new MissionSummary(m.name, m.status, rv.size(), rv);
+        }
+
+        RocketDetails detailsOf(int r) {
+            return detailsOf(rockets.get(r));
+        }
+
+        RocketDetails detailsOf(RocketState r) {
+            Optional<String> missionName = r.mission == NONE ? Optional.empty() : Optional.of(missions.get(r.mission).name);
+            return new RocketDetails(r.name, r.status, missionName);
+        }
+    }
+
+    /** The next version under construction; only used by the writer holding the lock. */
+    private static final class Txn {
+        private final long number;
+        private PersistentVector<RocketState> rockets;
+        private PersistentVector<MissionState> missions;
+        private final int[] rocketsByStatus;
+        private final int[] missionsByStatus;
+
+        Txn(Version base) {
+            this.number = base.number + 1;
+            this.rockets = base.rockets;
+            this.missions = base.missions;
+            this.rocketsByStatus = base.rocketsByStatus.clone();
+            this.missionsByStatus = base.missionsByStatus.clone();
+        }
+
+        RocketState rocket(int r) {
+            return rockets.get(r);
+        }
+
+        MissionState mission(int m) {
+            return missions.get(m);
+        }
+
+        int addRocket(RocketId id, String name) {
+            rockets = rockets.append(new RocketState(id, name, RocketStatus.ON_GROUND, NONE));
+            rocketsByStatus[RocketStatus.ON_GROUND.ordinal()]++;
+            return rockets.size() - 1;
+        }
+
+        int addMission(MissionId id, String name) {
+            missions = missions.append(new MissionState(id, name, MissionStatus.SCHEDULED, NO_ROCKETS, 0));
+            missionsByStatus[MissionStatus.SCHEDULED.ordinal()]++;
+            return missions.size() - 1;
+        }
+
+        void assign(int r, int m) {
+            RocketState rocket = rockets.get(r);
+            MissionState mission = missions.get(m);
+            int[] assigned = Arrays.copyOf(mission.rockets, mission.rockets.length + 1);
+            assigned[mission.rockets.length] = r;
+            int inRepair = mission.inRepair + (rocket.status == RocketStatus.IN_REPAIR ? 1 : 0);
+            missions = missions.set(m, new MissionState(mission.id, mission.name, mission.status, assigned, inRepair));
+            rockets = rockets.set(r, new RocketState(rocket.id, rocket.name, rocket.status, m));
+        }
+
+        void unassign(int r) {
+            RocketState rocket = rockets.get(r);
+            MissionState mission = missions.get(rocket.mission);
+            int[] assigned = new int[mission.rockets.length - 1];
+            int n = 0;
+            for (int other : mission.rockets) {
+                if (other != r) assigned[n++] = other;
+            }
+            int inRepair = mission.inRepair - (rocket.status == RocketStatus.IN_REPAIR ? 1 : 0);
+            missions = missions.set(rocket.mission, new MissionState(mission.id, mission.name, mission.status, assigned, inRepair));
+            rockets = rockets.set(r, new RocketState(rocket.id, rocket.name, rocket.status, NONE));
+        }
+
+        void recalcMissionStatus(int m) {
+            MissionState mission = missions.get(m);
+            setMissionStatus(m, StatusRules.derive(mission.status, mission.rockets.length, mission.inRepair > 0));
+        }
+
+        /** All rocket status writes go through here to keep the counts and the owner's repair count in sync. */
+        void setRocketStatus(int r, RocketStatus status) {
+            RocketState rocket = rockets.get(r);
+            RocketStatus previous = rocket.status;
+            if (previous == status) return;
+            rocketsByStatus[previous.ordinal()]--;
+            rocketsByStatus[status.ordinal()]++;
+            rockets = rockets.set(r, new RocketState(rocket.id, rocket.name, status, rocket.mission));
+            if (rocket.mission != NONE) {
+                MissionState owner = missions.get(rocket.mission);
+                int inRepair = owner.inRepair
+                        - (previous == RocketStatus.IN_REPAIR ? 1 : 0)
+                        + (status == RocketStatus.IN_REPAIR ? 1 : 0);
+                if (inRepair != owner.inRepair) {
+                    missions = missions.set(rocket.mission, new MissionState(owner.id, owner.name, owner.status, owner.rockets, inRepair));
+                }
+            }
+        }
+
+        void setMissionStatus(int m, MissionStatus status) {
+            MissionState mission = missions.get(m);
+            MissionStatus previous = mission.status;
+            if (previous == status) return;
+            missionsByStatus[previous.ordinal()]--;
+            missionsByStatus[status.ordinal()]++;
+            missions = missions.set(m, new MissionState(mission.id, mission.name, status, mission.rockets, mission.inRepair));
+        }
+
+        Version toVersion() {
+            return new Version(number, rockets, missions, rocketsByStatus, missionsByStatus);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.six.spacex.server;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.persistence.MutationCodec;
+import com.six.spacex.repository.RepositoryCommand;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Blocking client for a {@link RepositoryServer}. Not thread-safe; use one per thread.
+ * <p>
+ * Every call only queues its request and returns a {@link Reply}. Requests are sent when a reply
+ * is needed ({@link Reply#get()} or {@link #sync()}), so issuing several calls before reading
+ * any reply pipelines them over one round trip:
+ * <pre>{@code
+ * Reply<Void> add = client.addRocket(id, "Dragon");
+ * Reply<Optional<RocketStatus>> status = client.getRocketStatus(id);
+ * status.get(); // one write, one round trip for both
+ * }</pre>
+ * At most {@code maxInFlight} requests are queued or unanswered at a time; the next call first
+ * waits for the outstanding replies. The server does not read from a connection whose responses
+ * are not being read, so this bound also keeps both ends from blocking on full socket buffers.
+ */
+public final class RepositoryClient implements Closeable {
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 256;
+    private static final Violation[] VIOLATIONS = Violation.values();
+
+    private final SocketChannel channel;
+    private final int maxInFlight;
+    private final MutationCodec codec = new MutationCodec();
+    private final Wire.Output out = new Wire.Output(8 * 1024);
+    private final ArrayDeque<Reply<?>> outstanding = new ArrayDeque<>();
+    private ByteBuffer in = ByteBuffer.allocate(8 * 1024).flip();
+
+    private RepositoryClient(SocketChannel channel, int maxInFlight) {
+        this.channel = channel;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public static RepositoryClient connect(SocketAddress address) throws IOException {
+        return connect(address, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public static RepositoryClient connect(SocketAddress address, int maxInFlight) throws IOException {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be positive");
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                : SocketChannel.open();
+        try {
+            channel.connect(address);
+            if (channel.supportedOptions().contains(StandardSocketOptions.TCP_NODELAY)) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new RepositoryClient(channel, maxInFlight);
+    }
+
+    public Reply<Void> addRocket(RocketId id, String name) { return mutation(codec.addRocket(id, name)); }
+    public Reply<Void> addMission(MissionId id, String name) { return mutation(codec.addMission(id, name)); }
+    public Reply<Void> assignRocketToMission(RocketId rocketId, MissionId missionId) { return mutation(codec.assign(rocketId, missionId)); }
+    public Reply<Void> assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) { return mutation(codec.assignMany(missionId, rocketIds)); }
+    public Reply<Void> changeRocketStatus(RocketId rocketId, RocketStatus status) { return mutation(codec.rocketStatus(rocketId, status)); }
+    public Reply<Void> changeMissionStatus(MissionId missionId, MissionStatus status) { return mutation(codec.missionStatus(missionId, status)); }
+    public Reply<Void> unassignRocket(RocketId rocketId) { return mutation(codec.unassign(rocketId)); }
+    public Reply<Void> applyBatch(List<RepositoryCommand> commands) { return mutation(codec.batch(commands)); }
+
+    public Reply<Optional<RocketDetails>> getRocket(RocketId id) {
+        return request(o -> o.putByte(Wire.GET_ROCKET).putId(id.value()),
+                r -> r.get() != 0 ? Optional.of(Wire.getRocketDetails(r)) : Optional.empty());
+    }
+
+    public Reply<Optional<MissionSummary>> getMission(MissionId id) {
+        return request(o -> o.putByte(Wire.GET_MISSION).putId(id.value()),
+                r -> r.get() != 0 ? Optional.of(Wire.getMissionSummary(r)) : Optional.empty());
+    }
+
+    public Reply<Optional<RocketStatus>> getRocketStatus(RocketId id) {
+        return request(o -> o.putByte(Wire.GET_ROCKET_STATUS).putId(id.value()), r -> {
+            byte s = r.get();
+            return s < 0 ? Optional.empty() : Optional.of(Wire.ROCKET_STATUSES[s]);
+        });
+    }
+
+    public Reply<Optional<MissionStatus>> getMissionStatus(MissionId id) {
+        return request(o -> o.putByte(Wire.GET_MISSION_STATUS).putId(id.value()), r -> {
+            byte s = r.get();
+            return s < 0 ? Optional.empty() : Optional.of(Wire.MISSION_STATUSES[s]);
+        });
+    }
+
+    public Reply<Integer> countRocketsByStatus(RocketStatus status) {
+        return request(o -> o.putByte(Wire.COUNT_ROCKETS_BY_STATUS).putByte(status.ordinal()), ByteBuffer::getInt);
+    }
+
+    public Reply<Integer> countMissionsByStatus(MissionStatus status) {
+        return request(o -> o.putByte(Wire.COUNT_MISSIONS_BY_STATUS).putByte(status.ordinal()), ByteBuffer::getInt);
+    }
+
+    /** The first {@code limit} entries of the server's mission summary. */
+    public Reply<List<MissionSummary>> summarizeMissionsByAssignedRockets(int limit) {
+        return request(o -> o.putByte(Wire.SUMMARIZE).putInt(limit), r -> {
+            int count = r.getInt();
+            List<MissionSummary> summaries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) summaries.add(Wire.getMissionSummary(r));
+            return summaries;
+        });
+    }
+
+    public Reply<List<RocketId>> findRocketsByName(String name) {
+        return request(o -> o.putByte(Wire.FIND_ROCKETS_BY_NAME).putString(name), r -> {
+            int count = r.getInt();
+            List<RocketId> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) ids.add(RocketId.of(Wire.getId(r)));
+            return ids;
+        });
+    }
+
+    public Reply<List<MissionId>> findMissionsByName(String name) {
+        return request(o -> o.putByte(Wire.FIND_MISSIONS_BY_NAME).putString(name), r -> {
+            int count = r.getInt();
+            List<MissionId> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) ids.add(MissionId.of(Wire.getId(r)));
+            return ids;
+        });
+    }
+
+    /** Sends everything queued and waits for all outstanding replies. */
+    public void sync() {
+        if (!outstanding.isEmpty()) awaitReply(outstanding.peekLast());
+    }
+
+    /** Requests queued or sent but not yet answered. */
+    public int inFlight() {
+        return outstanding.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Reply<Void> mutation(ByteBuffer record) {
+        return request(o -> o.put(record), r -> null);
+    }
+
+    private <T> Reply<T> request(Consumer<Wire.Output> encoder, Function<ByteBuffer, T> decoder) {
+        if (outstanding.size() >= maxInFlight) sync();
+        int frame = out.beginFrame();
+        try {
+            encoder.accept(out);
+            out.endFrame(frame);
+        } catch (RuntimeException e) {
+            out.truncate(frame);
+            throw e;
+        }
+        Reply<T> reply = new Reply<>(decoder);
+        outstanding.add(reply);
+        return reply;
+    }
+
+    private void awaitReply(Reply<?> reply) {
+        try {
+            if (!out.isEmpty()) {
+                ByteBuffer pending = out.flip();
+                while (pending.hasRemaining()) channel.write(pending);
+                out.clear();
+            }
+            while (!reply.done) {
+                ByteBuffer payload = readFrame();
+                outstanding.poll().complete(payload);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Returns the next response payload, valid until the following call. */
+    private ByteBuffer readFrame() throws IOException {
+        fill(4);
+        int length = in.getInt();
+        if (length < 1 || length > Wire.MAX_FRAME_BYTES) throw new IOException("Bad frame length: " + length);
+        fill(length);
+        ByteBuffer payload = in.slice(in.position(), length);
+        in.position(in.position() + length);
+        return payload;
+    }
+
+    private void fill(int bytes) throws IOException {
+        if (in.remaining() >= bytes) return;
+        if (in.capacity() < bytes) {
+            in = ByteBuffer.allocate(Math.max(bytes, in.capacity() * 2)).put(in);
+        } else {
+            in.compact();
+        }
+        while (in.position() < bytes) {
+            if (channel.read(in) < 0) throw new EOFException("Server closed the connection");
+        }
+        in.flip();
+    }
+
+    /** The eventual result of one request; {@link #get()} sends and waits as needed. */
+    public final class Reply<T> {
+        private final Function<ByteBuffer, T> decoder;
+        private boolean done;
+        private T value;
+        private RuntimeException failure;
+
+        private Reply(Function<ByteBuffer, T> decoder) {
+            this.decoder = decoder;
+        }
+
+        /**
+         * The result, waiting for it if needed. Throws the server's {@link DomainException} (with
+         * its {@link Violation}) if the request was rejected, {@link IllegalStateException} if
+         * the server could not process it and {@link UncheckedIOException} on connection errors.
+         */
+        public T get() {
+            if (!done) awaitReply(this);
+            if (failure != null) throw failure;
+            return value;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        private void complete(ByteBuffer payload) {
+            done = true;
+            try {
+                byte status = payload.get();
+                switch (status) {
+                    case Wire.OK -> value = decoder.apply(payload);
+                    case Wire.REJECTED -> {
+                        Violation violation = VIOLATIONS[payload.get()];
+                        failure = new DomainException(violation, Wire.getString(payload));
+                    }
+                    default -> failure = new IllegalStateException("Server failed the request: " + Wire.getString(payload));
+                }
+            } catch (RuntimeException e) {
+                failure = new IllegalStateException("Malformed response", e);
+            }
+        }
+    }
+}
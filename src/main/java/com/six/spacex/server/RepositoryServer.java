@@ -0,0 +1,314 @@
+package com.six.spacex.server;
+
+import com.six.spacex.domain.DomainException;
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.persistence.MutationCodec;
+import com.six.spacex.repository.SpaceXRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves a {@link SpaceXRepository} to other processes over TCP or a Unix domain socket, using
+ * the framed protocol described in {@link Wire} and implemented by {@link RepositoryClient}.
+ * <p>
+ * One event-loop thread multiplexes every connection through a {@link Selector} and runs the
+ * requests itself, so any implementation can be served, including the single-threaded ones, and
+ * an idle connection costs only its channel and a small state object. Each read is decoded into
+ * as many complete frames as it holds; their responses are collected in one buffer and written
+ * back with a single write. A connection whose responses the socket does not take is not read
+ * again until they are flushed, which pushes back on clients that stop reading.
+ * <p>
+ * A request whose response would not fit in one frame is answered with {@link Wire#FAILED}.
+ * Whatever one request throws, only its own connection can be lost, never the event loop.
+ */
+public final class RepositoryServer implements Closeable {
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int MIN_CARRY_BYTES = 256;
+
+    private final SpaceXRepository repository;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final SocketAddress address;
+    private final Thread loop;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+    private final Wire.Output output = new Wire.Output(READ_BUFFER_BYTES);
+    private volatile boolean closed;
+    private volatile int connections;
+    private volatile long requests;
+
+    private RepositoryServer(SpaceXRepository repository, SocketAddress bindTo, int backlog) throws IOException {
+        this.repository = repository;
+        this.server = bindTo instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        try {
+            server.bind(bindTo, backlog);
+            server.configureBlocking(false);
+            this.address = server.getLocalAddress();
+            this.selector = Selector.open();
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException | RuntimeException e) {
+            server.close();
+            throw e;
+        }
+        this.loop = new Thread(this::run, "repository-server");
+    }
+
+    /**
+     * Binds to {@code address} (an {@link java.net.InetSocketAddress}, port 0 for any free port,
+     * or a {@link UnixDomainSocketAddress}) and starts serving {@code repository}.
+     */
+    public static RepositoryServer start(SpaceXRepository repository, SocketAddress address) throws IOException {
+        return start(repository, address, 4096);
+    }
+
+    public static RepositoryServer start(SpaceXRepository repository, SocketAddress address, int backlog) throws IOException {
+        RepositoryServer s = new RepositoryServer(repository, address, backlog);
+        s.loop.start();
+        return s;
+    }
+
+    /** The bound address, with the actual port when started on port 0. */
+    public SocketAddress address() {
+        return address;
+    }
+
+    /** Currently open client connections. */
+    public int connections() {
+        return connections;
+    }
+
+    /** Requests answered since start. */
+    public long requests() {
+        return requests;
+    }
+
+    /** Stops accepting, closes every connection and waits for the event loop to exit. */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select(this::handle);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (SelectionKey key : selector.keys()) closeQuietly(key);
+            closeQuietly(selector);
+            closeQuietly(server);
+            if (address instanceof UnixDomainSocketAddress unix) {
+                try {
+                    Files.deleteIfExists(unix.getPath());
+                } catch (IOException ignored) {
+                    // best effort; a stale socket file only blocks the next bind
+                }
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (key.isAcceptable()) {
+            try {
+                accept();
+            } catch (IOException e) {
+                // e.g. out of file descriptors: keep serving the open connections, retry on the next select
+            }
+            return;
+        }
+        try {
+            Connection c = (Connection) key.attachment();
+            if (key.isWritable()) c.flushPending();
+            if (key.isValid() && key.isReadable()) c.read();
+        } catch (IOException | RuntimeException | Error e) {
+            // a broken or misbehaving client only loses its own connection; nothing it sends may end the loop
+            closeConnection(key);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            if (channel.supportedOptions().contains(StandardSocketOptions.TCP_NODELAY)) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+            connections++;
+        }
+    }
+
+    private void closeConnection(SelectionKey key) {
+        if (key.attachment() instanceof Connection && key.isValid()) connections--;
+        closeQuietly(key);
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        closeQuietly(key.channel());
+    }
+
+    private static void closeQuietly(Closeable c) {
+        try {
+            c.close();
+        } catch (IOException ignored) {
+            // closing anyway
+        }
+    }
+
+    /** Answers one request payload (between {@code in}'s position and limit) into {@link #output}. */
+    private void respond(ByteBuffer in) {
+        int frame = output.beginFrame();
+        int status = output.position();
+        output.putByte(Wire.OK);
+        try {
+            execute(in);
+            int length = output.position() - frame - 4;
+            if (length > Wire.MAX_FRAME_BYTES) {
+                throw new IllegalStateException("Response of " + length + " bytes exceeds the frame limit of " + Wire.MAX_FRAME_BYTES);
+            }
+        } catch (DomainException e) {
+            output.truncate(status);
+            output.putByte(Wire.REJECTED).putByte(e.violation().ordinal()).putString(String.valueOf(e.getMessage()));
+        } catch (RuntimeException e) {
+            output.truncate(status);
+            output.putByte(Wire.FAILED).putString(String.valueOf(e));
+        }
+        output.endFrame(frame);
+        requests++;
+    }
+
+    private void execute(ByteBuffer in) {
+        byte op = in.get(in.position());
+        if (op < Wire.FIRST_QUERY) {
+            MutationCodec.apply(in, repository);
+            return;
+        }
+        in.get();
+        switch (op) {
+            case Wire.GET_ROCKET -> {
+                Optional<RocketDetails> rocket = repository.getRocket(RocketId.of(Wire.getId(in)));
+                output.putByte(rocket.isPresent() ? 1 : 0);
+                rocket.ifPresent(output::putRocketDetails);
+            }
+            case Wire.GET_MISSION -> {
+                Optional<MissionSummary> mission = repository.getMission(MissionId.of(Wire.getId(in)));
+                output.putByte(mission.isPresent() ? 1 : 0);
+                mission.ifPresent(output::putMissionSummary);
+            }
+            case Wire.GET_ROCKET_STATUS -> output.putByte(repository.getRocketStatus(RocketId.of(Wire.getId(in))).map(Enum::ordinal).orElse(-1));
+            case Wire.GET_MISSION_STATUS -> output.putByte(repository.getMissionStatus(MissionId.of(Wire.getId(in))).map(Enum::ordinal).orElse(-1));
+            case Wire.COUNT_ROCKETS_BY_STATUS -> output.putInt(repository.countRocketsByStatus(Wire.ROCKET_STATUSES[in.get()]));
+            case Wire.COUNT_MISSIONS_BY_STATUS -> output.putInt(repository.countMissionsByStatus(Wire.MISSION_STATUSES[in.get()]));
+            case Wire.SUMMARIZE -> {
+                List<MissionSummary> summaries = repository.summarizeMissionsByAssignedRockets(in.getInt());
+                output.putInt(summaries.size());
+                for (MissionSummary s : summaries) output.putMissionSummary(s);
+            }
+            case Wire.FIND_ROCKETS_BY_NAME -> {
+                List<RocketId> ids = repository.findRocketsByName(Wire.getString(in));
+                output.putInt(ids.size());
+                for (RocketId id : ids) output.putId(id.value());
+            }
+            case Wire.FIND_MISSIONS_BY_NAME -> {
+                List<MissionId> ids = repository.findMissionsByName(Wire.getString(in));
+                output.putInt(ids.size());
+                for (MissionId id : ids) output.putId(id.value());
+            }
+            default -> throw new IllegalArgumentException("Unknown opcode: " + op);
+        }
+    }
+
+    /** Per-connection state; the buffers are only held while a frame or a write is incomplete. */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private ByteBuffer carry;   // start of an incomplete frame, in write mode
+        private ByteBuffer pending; // responses the socket did not take, in read mode
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void read() throws IOException {
+            ByteBuffer in = carry != null ? carry : readBuffer.clear();
+            if (channel.read(in) < 0) {
+                closeConnection(key);
+                return;
+            }
+            in.flip();
+            output.clear();
+            while (in.remaining() >= 4) {
+                int length = in.getInt(in.position());
+                if (length < 1 || length > Wire.MAX_FRAME_BYTES) throw new IOException("Bad frame length: " + length);
+                if (in.remaining() - 4 < length) break;
+                int end = in.position() + 4 + length;
+                int limit = in.limit();
+                in.position(in.position() + 4).limit(end);
+                respond(in);
+                in.limit(limit).position(end);
+            }
+            keepRemainder(in);
+            if (!output.isEmpty()) write(output.flip());
+        }
+
+        private void keepRemainder(ByteBuffer in) {
+            if (!in.hasRemaining()) {
+                carry = null;
+                return;
+            }
+            int needed = in.remaining() < 4 ? 4 : 4 + in.getInt(in.position());
+            if (in == carry && carry.capacity() >= needed) {
+                carry.compact();
+            } else {
+                carry = ByteBuffer.allocate(Math.max(needed, MIN_CARRY_BYTES)).put(in);
+            }
+        }
+
+        private void write(ByteBuffer out) throws IOException {
+            channel.write(out);
+            if (out.hasRemaining()) {
+                pending = ByteBuffer.allocate(out.remaining()).put(out).flip();
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+        }
+
+        void flushPending() throws IOException {
+            channel.write(pending);
+            if (!pending.hasRemaining()) {
+                pending = null;
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.six.spacex.server;
+
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The socket protocol shared by {@link RepositoryServer} and {@link RepositoryClient}.
+ * <p>
+ * Both directions are a sequence of frames: a 4-byte big-endian payload length, then the payload.
+ * A request payload is either a {@link com.six.spacex.persistence.MutationCodec} record (opcodes
+ * below {@link #FIRST_QUERY}) or a query opcode followed by its operands. A response payload is a
+ * status byte followed by the result ({@link #OK}), the violation ordinal and message
+ * ({@link #REJECTED}) or a message ({@link #FAILED}). Responses come back in request order, so
+ * clients may pipeline requests without correlation ids.
+ * <p>
+ * Ids are the two longs of their UUID, statuses their ordinal byte, strings an int length followed
+ * by UTF-8 bytes, optionals a presence byte followed by the value and lists an int count followed
+ * by the elements.
+ */
+final class Wire {
+
+    static final int MAX_FRAME_BYTES = 16 << 20;
+
+    static final byte FIRST_QUERY = 32;
+    static final byte GET_ROCKET = 32;
+    static final byte GET_MISSION = 33;
+    static final byte GET_ROCKET_STATUS = 34;
+    static final byte GET_MISSION_STATUS = 35;
+    static final byte COUNT_ROCKETS_BY_STATUS = 36;
+    static final byte COUNT_MISSIONS_BY_STATUS = 37;
+    static final byte SUMMARIZE = 38;
+    static final byte FIND_ROCKETS_BY_NAME = 39;
+    static final byte FIND_MISSIONS_BY_NAME = 40;
+
+    static final byte OK = 0;
+    static final byte REJECTED = 1;
+    static final byte FAILED = 2;
+
+    static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+
+    private Wire() {}
+
+    static UUID getId(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) throw new IllegalArgumentException("Bad string length: " + length);
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    static RocketDetails getRocketDetails(ByteBuffer in) {
+        String name = getString(in);
+        RocketStatus status = ROCKET_STATUSES[in.get()];
+        Optional<String> mission = in.get() != 0 ? Optional.of(getString(in)) : Optional.empty();
+        return new RocketDetails(name, status, mission);
+    }
+
+    static MissionSummary getMissionSummary(ByteBuffer in) {
+        String name = getString(in);
+        MissionStatus status = MISSION_STATUSES[in.get()];
+        int dragons = in.getInt();
+        int count = in.getInt();
+        List<MissionSummary.RocketView> rockets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) rockets.add(new MissionSummary.RocketView(getString(in), ROCKET_STATUSES[in.get()]));
+        return new MissionSummary(name, status, dragons, rockets);
+    }
+
+    /**
+     * Growable heap buffer that frames are written into; reused across frames. A buffer grown past
+     * {@link #MAX_FRAME_BYTES}, e.g. by a response too large to send, goes back to its initial
+     * capacity on {@link #clear()}.
+     */
+    static final class Output {
+        private final int initialCapacity;
+        private ByteBuffer buffer;
+
+        Output(int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+            buffer = ByteBuffer.allocate(initialCapacity);
+        }
+
+        /** Reserves the length prefix of a new frame and returns its offset for {@link #endFrame}. */
+        int beginFrame() {
+            int start = buffer.position();
+            putInt(0);
+            return start;
+        }
+
+        void endFrame(int start) {
+            int length = buffer.position() - start - 4;
+            if (length > MAX_FRAME_BYTES) throw new IllegalArgumentException("Frame larger than " + MAX_FRAME_BYTES + " bytes");
+            buffer.putInt(start, length);
+        }
+
+        /** Drops everything written after {@code position}, e.g. a half-written result. */
+        void truncate(int position) {
+            buffer.position(position);
+        }
+
+        int position() {
+            return buffer.position();
+        }
+
+        Output putByte(int b) {
+            ensure(1).put((byte) b);
+            return this;
+        }
+
+        Output putInt(int i) {
+            ensure(4).putInt(i);
+            return this;
+        }
+
+        Output putId(UUID id) {
+            ensure(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+            return this;
+        }
+
+        Output putString(String s) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            ensure(4 + utf8.length).putInt(utf8.length).put(utf8);
+            return this;
+        }
+
+        Output put(ByteBuffer bytes) {
+            ensure(bytes.remaining()).put(bytes);
+            return this;
+        }
+
+        Output putRocketDetails(RocketDetails d) {
+            putString(d.name).putByte(d.status.ordinal());
+            if (d.missionName.isPresent()) putByte(1).putString(d.missionName.get());
+            else putByte(0);
+            return this;
+        }
+
+        Output putMissionSummary(MissionSummary s) {
+            putString(s.missionName).putByte(s.missionStatus.ordinal()).putInt(s.dragonsCount).putInt(s.rockets.size());
+            for (MissionSummary.RocketView r : s.rockets) putString(r.name).putByte(r.status.ordinal());
+            return this;
+        }
+
+        /** Flips the buffer for draining; {@link #clear()} afterwards to reuse it. */
+        ByteBuffer flip() {
+            return buffer.flip();
+        }
+
+        void clear() {
+            if (buffer.capacity() > MAX_FRAME_BYTES) buffer = ByteBuffer.allocate(initialCapacity);
+            else buffer.clear();
+        }
+
+        boolean isEmpty() {
+            return buffer.position() == 0;
+        }
+
+        private ByteBuffer ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+                buffer = ByteBuffer.allocate(capacity).put(buffer.flip());
+            }
+            return buffer;
+        }
+    }
+}
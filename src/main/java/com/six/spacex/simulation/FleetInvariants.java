@@ -0,0 +1,123 @@
+package com.six.spacex.simulation;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.repository.SpaceXRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Consistency checks on a quiescent repository through its public queries, for rockets and
+ * missions with unique names:
+ * <ul>
+ *   <li>every mission's status is the one mission status recalculation derives: {@code Ended}
+ *       with no rockets, {@code Scheduled} without rockets, {@code Pending} with a rocket in
+ *       repair and {@code In progress} otherwise;</li>
+ *   <li>a mission's dragon count matches its rocket list, and every rocket it lists names it as
+ *       its mission, with the same status;</li>
+ *   <li>no rocket is listed by two missions, and a rocket naming a mission is listed by it;</li>
+ *   <li>per-status counts add up and match the status lists and the missions' statuses;</li>
+ *   <li>the summary report holds every mission, in its documented order.</li>
+ * </ul>
+ */
+public final class FleetInvariants {
+
+    private static final int MAX_PROBLEMS = 100;
+
+    private FleetInvariants() {}
+
+    /** Descriptions of every broken invariant (at most 100), empty if the state is consistent. */
+    public static List<String> check(SpaceXRepository repo, List<RocketId> rockets, List<MissionId> missions) {
+        List<String> problems = new ArrayList<>();
+        Map<String, String> missionOfRocket = new HashMap<>();
+        Map<String, RocketStatus> statusInMission = new HashMap<>();
+        int[] missionCounts = new int[MissionStatus.values().length];
+
+        for (MissionId id : missions) {
+            Optional<MissionSummary> found = repo.getMission(id);
+            if (found.isEmpty()) {
+                report(problems, "Mission missing: " + id);
+                continue;
+            }
+            MissionSummary m = found.get();
+            missionCounts[m.missionStatus.ordinal()]++;
+            if (m.dragonsCount != m.rockets.size()) {
+                report(problems, m.missionName + " counts " + m.dragonsCount + " dragons but lists " + m.rockets.size());
+            }
+            boolean anyInRepair = false;
+            for (MissionSummary.RocketView r : m.rockets) {
+                anyInRepair |= r.status == RocketStatus.IN_REPAIR;
+                String other = missionOfRocket.put(r.name, m.missionName);
+                if (other != null) report(problems, r.name + " is listed by " + other + " and " + m.missionName);
+                statusInMission.put(r.name, r.status);
+            }
+            MissionStatus expected = m.missionStatus == MissionStatus.ENDED ? MissionStatus.ENDED
+                    : m.rockets.isEmpty() ? MissionStatus.SCHEDULED
+                    : anyInRepair ? MissionStatus.PENDING : MissionStatus.IN_PROGRESS;
+            if (m.missionStatus == MissionStatus.ENDED && !m.rockets.isEmpty()) {
+                report(problems, m.missionName + " is ended with " + m.rockets.size() + " rockets");
+            } else if (m.missionStatus != expected) {
+                report(problems, m.missionName + " is " + m.missionStatus + " but should be " + expected);
+            }
+        }
+
+        int[] rocketCounts = new int[RocketStatus.values().length];
+        for (RocketId id : rockets) {
+            Optional<RocketDetails> found = repo.getRocket(id);
+            if (found.isEmpty()) {
+                report(problems, "Rocket missing: " + id);
+                continue;
+            }
+            RocketDetails r = found.get();
+            rocketCounts[r.status.ordinal()]++;
+            String listedBy = missionOfRocket.get(r.name);
+            String named = r.missionName.orElse(null);
+            if (named == null ? listedBy != null : !named.equals(listedBy)) {
+                report(problems, r.name + " names mission " + named + " but is listed by " + listedBy);
+            }
+            RocketStatus seen = statusInMission.get(r.name);
+            if (seen != null && seen != r.status) {
+                report(problems, r.name + " is " + r.status + " but its mission shows " + seen);
+            }
+        }
+
+        for (RocketStatus s : RocketStatus.values()) {
+            int count = repo.countRocketsByStatus(s);
+            int listed = repo.listRocketsByStatus(s).size();
+            if (count != rocketCounts[s.ordinal()] || listed != count) {
+                report(problems, "Rockets " + s + ": count " + count + ", listed " + listed + ", found " + rocketCounts[s.ordinal()]);
+            }
+        }
+        for (MissionStatus s : MissionStatus.values()) {
+            int count = repo.countMissionsByStatus(s);
+            if (count != missionCounts[s.ordinal()]) {
+                report(problems, "Missions " + s + ": count " + count + ", found " + missionCounts[s.ordinal()]);
+            }
+        }
+
+        List<MissionSummary> summary = repo.summarizeMissionsByAssignedRockets();
+        if (summary.size() != missions.size()) {
+            report(problems, "Summary holds " + summary.size() + " of " + missions.size() + " missions");
+        }
+        for (int i = 1; i < summary.size(); i++) {
+            MissionSummary a = summary.get(i - 1);
+            MissionSummary b = summary.get(i);
+            if (a.dragonsCount < b.dragonsCount || a.dragonsCount == b.dragonsCount && a.missionName.compareTo(b.missionName) < 0) {
+                report(problems, "Summary order broken at " + i + ": " + a.missionName + " before " + b.missionName);
+            }
+        }
+        return problems;
+    }
+
+    private static void report(List<String> problems, String problem) {
+        if (problems.size() < MAX_PROBLEMS) problems.add(problem);
+    }
+}
@@ -0,0 +1,29 @@
+package com.six.spacex.simulation;
+
+/**
+ * Steps of a fleet's life that a {@link Workload} is made of. Mutations go through the
+ * exception-free {@code try...} mutators, so a step the current state does not allow is counted
+ * as a rejection rather than failing the run.
+ */
+public enum FleetOperation {
+    /** Rocket back into the hangar: {@code In build}. */
+    BUILD,
+    ASSIGN,
+    /** Rocket to {@code In space}. */
+    LAUNCH,
+    REPAIR,
+    /** Rocket back to {@code On ground}. */
+    RETURN,
+    UNASSIGN,
+    /** Mission to {@code Ended}; rejected while it still has rockets. */
+    END_MISSION,
+    /** Top ten of the summary report. */
+    SUMMARIZE,
+    /** First page of twenty rockets in one status. */
+    LIST_BY_STATUS,
+    GET_ROCKET;
+
+    boolean isMutation() {
+        return ordinal() <= END_MISSION.ordinal();
+    }
+}
@@ -0,0 +1,75 @@
+package com.six.spacex.simulation;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Shape of a generated {@link Workload}: thread, rocket, mission and operation counts, the
+ * random seed and the relative weight of each {@link FleetOperation}. Setters return
+ * {@code this} for chaining.
+ */
+public final class SimulationConfig {
+
+    int threads = 4;
+    int rockets = 10_000;
+    int missions = 1_000;
+    int operationsPerThread = 100_000;
+    long seed = 42;
+    final EnumMap<FleetOperation, Integer> mix = new EnumMap<>(FleetOperation.class);
+
+    public SimulationConfig() {
+        mix.put(FleetOperation.BUILD, 5);
+        mix.put(FleetOperation.ASSIGN, 20);
+        mix.put(FleetOperation.LAUNCH, 15);
+        mix.put(FleetOperation.REPAIR, 10);
+        mix.put(FleetOperation.RETURN, 10);
+        mix.put(FleetOperation.UNASSIGN, 15);
+        mix.put(FleetOperation.END_MISSION, 1);
+        mix.put(FleetOperation.SUMMARIZE, 2);
+        mix.put(FleetOperation.LIST_BY_STATUS, 7);
+        mix.put(FleetOperation.GET_ROCKET, 15);
+    }
+
+    public SimulationConfig threads(int threads) {
+        this.threads = positive(threads, "threads");
+        return this;
+    }
+
+    public SimulationConfig rockets(int rockets) {
+        this.rockets = positive(rockets, "rockets");
+        return this;
+    }
+
+    public SimulationConfig missions(int missions) {
+        this.missions = positive(missions, "missions");
+        return this;
+    }
+
+    public SimulationConfig operationsPerThread(int operations) {
+        this.operationsPerThread = positive(operations, "operations");
+        return this;
+    }
+
+    public SimulationConfig seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /** Relative weight of {@code operation}; {@code 0} leaves it out. */
+    public SimulationConfig weight(FleetOperation operation, int weight) {
+        if (weight < 0) throw new IllegalArgumentException("weight must not be negative");
+        mix.put(operation, weight);
+        return this;
+    }
+
+    /** Replaces the whole mix; operations not in {@code weights} get weight 0. */
+    public SimulationConfig mix(Map<FleetOperation, Integer> weights) {
+        for (FleetOperation op : FleetOperation.values()) weight(op, weights.getOrDefault(op, 0));
+        return this;
+    }
+
+    private static int positive(int value, String what) {
+        if (value < 1) throw new IllegalArgumentException(what + " must be positive");
+        return value;
+    }
+}
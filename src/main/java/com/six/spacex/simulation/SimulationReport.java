@@ -0,0 +1,69 @@
+package com.six.spacex.simulation;
+
+import com.six.spacex.domain.Violation;
+import com.six.spacex.metrics.LatencyHistogram;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one {@link WorkloadSimulator} run: throughput, latency per operation, rejections by
+ * rule, unexpected errors and the {@link FleetInvariants} that did not hold afterwards.
+ */
+public final class SimulationReport {
+
+    public final String repository;
+    public final int threads;
+    public final long operations;
+    public final long elapsedNanos;
+    /** Operations completed in the slowest whole second of the run; equals the total for shorter runs. */
+    public final long slowestSecond;
+    public final Map<FleetOperation, LatencyHistogram.Snapshot> latencies;
+    public final Map<Violation, Long> rejections;
+    /** Calls that threw anything other than a rule rejection, and up to ten of their messages. */
+    public final long errors;
+    public final List<String> errorSamples;
+    public final List<String> invariantViolations;
+
+    SimulationReport(String repository, int threads, long operations, long elapsedNanos, long slowestSecond,
+                     Map<FleetOperation, LatencyHistogram.Snapshot> latencies, Map<Violation, Long> rejections,
+                     long errors, List<String> errorSamples, List<String> invariantViolations) {
+        this.repository = repository;
+        this.threads = threads;
+        this.operations = operations;
+        this.elapsedNanos = elapsedNanos;
+        this.slowestSecond = slowestSecond;
+        this.latencies = latencies;
+        this.rejections = rejections;
+        this.errors = errors;
+        this.errorSamples = errorSamples;
+        this.invariantViolations = invariantViolations;
+    }
+
+    /** No unexpected errors and every invariant held. */
+    public boolean passed() {
+        return errors == 0 && invariantViolations.isEmpty();
+    }
+
+    public double operationsPerSecond() {
+        return elapsedNanos == 0 ? 0 : operations * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s, %d threads: %,d operations in %.2f s, %,.0f ops/s (slowest second %,d)%n",
+                repository, threads, operations, elapsedNanos / 1e9, operationsPerSecond(), slowestSecond));
+        sb.append(String.format("%-15s %12s %10s %10s %10s %10s%n", "operation", "calls", "p50 us", "p99 us", "p99.9 us", "max us"));
+        for (Map.Entry<FleetOperation, LatencyHistogram.Snapshot> e : latencies.entrySet()) {
+            LatencyHistogram.Snapshot s = e.getValue();
+            if (s.count() == 0) continue;
+            sb.append(String.format("%-15s %,12d %10.1f %10.1f %10.1f %10.1f%n", e.getKey(), s.count(),
+                    s.percentile(50) / 1e3, s.percentile(99) / 1e3, s.percentile(99.9) / 1e3, s.max() / 1e3));
+        }
+        if (!rejections.isEmpty()) sb.append("rejections: ").append(rejections).append(System.lineSeparator());
+        if (errors > 0) sb.append("errors: ").append(errors).append(' ').append(errorSamples).append(System.lineSeparator());
+        sb.append(invariantViolations.isEmpty() ? "invariants: ok" : "invariants broken: " + invariantViolations);
+        return sb.toString();
+    }
+}
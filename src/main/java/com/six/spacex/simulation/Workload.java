@@ -0,0 +1,164 @@
+package com.six.spacex.simulation;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.RocketId;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * A fleet and, per thread, the exact sequence of {@link FleetOperation}s to run against it.
+ * <p>
+ * Everything follows from the seed: rocket {@code i} has id {@code (seed, i)} and name
+ * {@code "Dragon i"}, mission {@code j} has id {@code (seed, 2^62 + j)} and name
+ * {@code "Mission j"}, and each thread's operations come from its own random stream. A workload
+ * written with {@link #write} and loaded with {@link #read} runs the same operations again; with
+ * one thread the outcome is identical, with several only the interleaving may differ.
+ * <p>
+ * File layout (big-endian): {@code [int magic][int version][long seed][int rockets][int missions]
+ * [int threads]}, then per thread {@code [int count]} and {@code count} operations as
+ * {@code [byte operation][int rocket][int mission]}.
+ */
+public final class Workload {
+
+    private static final int MAGIC = 0x5350584C; // "SPXL"
+    private static final int VERSION = 1;
+    private static final long MISSION_ID_BASE = 1L << 62;
+    private static final FleetOperation[] OPERATIONS = FleetOperation.values();
+
+    final long seed;
+    final int rockets;
+    final int missions;
+    final byte[][] operations;
+    final int[][] rocketIndexes;
+    final int[][] missionIndexes;
+
+    private Workload(long seed, int rockets, int missions, byte[][] operations, int[][] rocketIndexes, int[][] missionIndexes) {
+        this.seed = seed;
+        this.rockets = rockets;
+        this.missions = missions;
+        this.operations = operations;
+        this.rocketIndexes = rocketIndexes;
+        this.missionIndexes = missionIndexes;
+    }
+
+    public static Workload generate(SimulationConfig config) {
+        int[] cumulative = new int[OPERATIONS.length];
+        int total = 0;
+        for (FleetOperation op : OPERATIONS) {
+            total += config.mix.getOrDefault(op, 0);
+            cumulative[op.ordinal()] = total;
+        }
+        if (total == 0) throw new IllegalArgumentException("The operation mix is empty");
+
+        int threads = config.threads;
+        int count = config.operationsPerThread;
+        byte[][] operations = new byte[threads][count];
+        int[][] rocketIndexes = new int[threads][count];
+        int[][] missionIndexes = new int[threads][count];
+        SplittableRandom root = new SplittableRandom(config.seed);
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom rnd = root.split();
+            for (int i = 0; i < count; i++) {
+                int pick = rnd.nextInt(total);
+                int op = 0;
+                while (cumulative[op] <= pick) op++;
+                operations[t][i] = (byte) op;
+                rocketIndexes[t][i] = rnd.nextInt(config.rockets);
+                missionIndexes[t][i] = rnd.nextInt(config.missions);
+            }
+        }
+        return new Workload(config.seed, config.rockets, config.missions, operations, rocketIndexes, missionIndexes);
+    }
+
+    public static Workload read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a workload file: " + file);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported workload version " + version + ": " + file);
+            long seed = in.readLong();
+            int rockets = in.readInt();
+            int missions = in.readInt();
+            int threads = in.readInt();
+            byte[][] operations = new byte[threads][];
+            int[][] rocketIndexes = new int[threads][];
+            int[][] missionIndexes = new int[threads][];
+            for (int t = 0; t < threads; t++) {
+                int count = in.readInt();
+                operations[t] = new byte[count];
+                rocketIndexes[t] = new int[count];
+                missionIndexes[t] = new int[count];
+                for (int i = 0; i < count; i++) {
+                    int op = in.readByte();
+                    if (op < 0 || op >= OPERATIONS.length) throw new IOException("Unknown operation " + op + ": " + file);
+                    operations[t][i] = (byte) op;
+                    rocketIndexes[t][i] = checkIndex(in.readInt(), rockets, file);
+                    missionIndexes[t][i] = checkIndex(in.readInt(), missions, file);
+                }
+            }
+            return new Workload(seed, rockets, missions, operations, rocketIndexes, missionIndexes);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+            out.writeInt(rockets);
+            out.writeInt(missions);
+            out.writeInt(operations.length);
+            for (int t = 0; t < operations.length; t++) {
+                out.writeInt(operations[t].length);
+                for (int i = 0; i < operations[t].length; i++) {
+                    out.writeByte(operations[t][i]);
+                    out.writeInt(rocketIndexes[t][i]);
+                    out.writeInt(missionIndexes[t][i]);
+                }
+            }
+        }
+    }
+
+    public int threads() {
+        return operations.length;
+    }
+
+    public int rocketCount() {
+        return rockets;
+    }
+
+    public int missionCount() {
+        return missions;
+    }
+
+    /** Operations over all threads for one pass. */
+    public long operationCount() {
+        long n = 0;
+        for (byte[] ops : operations) n += ops.length;
+        return n;
+    }
+
+    public RocketId rocketId(int index) {
+        return RocketId.of(new UUID(seed, index));
+    }
+
+    public MissionId missionId(int index) {
+        return MissionId.of(new UUID(seed, MISSION_ID_BASE + index));
+    }
+
+    FleetOperation operation(int thread, int i) {
+        return OPERATIONS[operations[thread][i]];
+    }
+
+    private static int checkIndex(int index, int bound, Path file) throws IOException {
+        if (index < 0 || index >= bound) throw new IOException("Entity index out of range: " + index + ": " + file);
+        return index;
+    }
+}
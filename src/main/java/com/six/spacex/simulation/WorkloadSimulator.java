@@ -0,0 +1,249 @@
+package com.six.spacex.simulation;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.Violation;
+import com.six.spacex.metrics.LatencyHistogram;
+import com.six.spacex.repository.CompactSpaceXRepository;
+import com.six.spacex.repository.ConcurrentSpaceXRepository;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.ShardedSpaceXRepository;
+import com.six.spacex.repository.SpaceXRepository;
+import com.six.spacex.repository.VersionedSpaceXRepository;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a {@link Workload} against any {@link SpaceXRepository} from one thread per operation
+ * stream, then checks the {@link FleetInvariants} and reports throughput and per-operation
+ * latency percentiles.
+ * <pre>
+ * java -cp target/classes com.six.spacex.simulation.WorkloadSimulator \
+ *     [repository=concurrent] [threads=4] [rockets=10000] [missions=1000] [operations=100000] \
+ *     [seconds=0] [seed=42] [mix=ASSIGN:20,LAUNCH:15,...] [record=file | replay=file]
+ * </pre>
+ * {@code repository} is one of {@code inmemory}, {@code concurrent}, {@code compact},
+ * {@code versioned} or {@code sharded[:n]}; only the thread-safe ones can take more than one
+ * thread. With {@code seconds} above zero each thread cycles its operations for that long (a soak
+ * run). {@code record} saves the generated workload, {@code replay} runs a saved one instead.
+ * The exit code is 1 if an invariant broke or an operation failed unexpectedly.
+ */
+public final class WorkloadSimulator {
+
+    private static final int ERROR_SAMPLES = 10;
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+
+    private WorkloadSimulator() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value: " + arg);
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        Workload workload;
+        if (options.containsKey("replay")) {
+            workload = Workload.read(Path.of(options.get("replay")));
+        } else {
+            SimulationConfig config = new SimulationConfig()
+                    .threads(Integer.parseInt(options.getOrDefault("threads", "4")))
+                    .rockets(Integer.parseInt(options.getOrDefault("rockets", "10000")))
+                    .missions(Integer.parseInt(options.getOrDefault("missions", "1000")))
+                    .operationsPerThread(Integer.parseInt(options.getOrDefault("operations", "100000")))
+                    .seed(Long.parseLong(options.getOrDefault("seed", "42")));
+            if (options.containsKey("mix")) config.mix(parseMix(options.get("mix")));
+            workload = Workload.generate(config);
+            if (options.containsKey("record")) workload.write(Path.of(options.get("record")));
+        }
+        SpaceXRepository repo = repository(options.getOrDefault("repository", "concurrent"));
+        Duration soak = Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "0")));
+        SimulationReport report = run(repo, workload, soak);
+        System.out.println(report);
+        if (!report.passed()) System.exit(1);
+    }
+
+    /** Adds the workload's fleet to {@code repo}, which must not hold any of it yet. */
+    public static void seed(SpaceXRepository repo, Workload workload) {
+        for (int j = 0; j < workload.missions; j++) repo.addMission(workload.missionId(j), "Mission " + j);
+        for (int i = 0; i < workload.rockets; i++) repo.addRocket(workload.rocketId(i), "Dragon " + i);
+    }
+
+    /** Seeds {@code repo} and runs every thread's operations once. */
+    public static SimulationReport run(SpaceXRepository repo, Workload workload) {
+        return run(repo, workload, Duration.ZERO);
+    }
+
+    /**
+     * Seeds {@code repo} and runs the workload; with a positive {@code soak}, each thread repeats
+     * its operations until {@code soak} has passed.
+     */
+    public static SimulationReport run(SpaceXRepository repo, Workload workload, Duration soak) {
+        seed(repo, workload);
+        int threads = workload.threads();
+        LatencyHistogram[] latencies = new LatencyHistogram[FleetOperation.values().length];
+        for (int i = 0; i < latencies.length; i++) latencies[i] = new LatencyHistogram();
+        LongAdder[] rejections = new LongAdder[Violation.values().length];
+        for (int i = 0; i < rejections.length; i++) rejections[i] = new LongAdder();
+        LongAdder errors = new LongAdder();
+        List<String> errorSamples = Collections.synchronizedList(new ArrayList<>());
+        long[][] perSecond = new long[threads][];
+        long[] completed = new long[threads];
+        long soakNanos = soak.toNanos();
+
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] start = new long[1];
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                ready.countDown();
+                awaitQuietly(go);
+                long[] seconds = new long[16];
+                long done = 0;
+                long begin = start[0];
+                int count = workload.operations[thread].length;
+                passes:
+                while (true) {
+                    for (int i = 0; i < count; i++) {
+                        FleetOperation op = workload.operation(thread, i);
+                        long t0 = System.nanoTime();
+                        try {
+                            Violation v = execute(repo, workload, op, thread, i);
+                            if (v != Violation.NONE) rejections[v.ordinal()].increment();
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                            if (errorSamples.size() < ERROR_SAMPLES) errorSamples.add(op + ": " + e);
+                        }
+                        long t1 = System.nanoTime();
+                        latencies[op.ordinal()].record(t1 - t0);
+                        int second = (int) ((t1 - begin) / 1_000_000_000L);
+                        if (second >= seconds.length) seconds = Arrays.copyOf(seconds, Math.max(second + 1, seconds.length * 2));
+                        seconds[second]++;
+                        done++;
+                        if (soakNanos > 0 && (i & 1023) == 0 && t1 - begin >= soakNanos) break passes;
+                    }
+                    if (soakNanos <= 0 || System.nanoTime() - begin >= soakNanos) break;
+                }
+                perSecond[thread] = seconds;
+                completed[thread] = done;
+            }, "simulator-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        awaitQuietly(ready);
+        start[0] = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the simulation", e);
+            }
+        }
+        long elapsed = System.nanoTime() - start[0];
+
+        long operations = 0;
+        for (long n : completed) operations += n;
+        Map<FleetOperation, LatencyHistogram.Snapshot> latencyReport = new EnumMap<>(FleetOperation.class);
+        for (FleetOperation op : FleetOperation.values()) latencyReport.put(op, latencies[op.ordinal()].snapshot());
+        Map<Violation, Long> rejectionReport = new EnumMap<>(Violation.class);
+        for (Violation v : Violation.values()) {
+            long n = rejections[v.ordinal()].sum();
+            if (n > 0) rejectionReport.put(v, n);
+        }
+        List<RocketId> rocketIds = new ArrayList<>(workload.rockets);
+        for (int i = 0; i < workload.rockets; i++) rocketIds.add(workload.rocketId(i));
+        List<MissionId> missionIds = new ArrayList<>(workload.missions);
+        for (int j = 0; j < workload.missions; j++) missionIds.add(workload.missionId(j));
+        List<String> invariants = FleetInvariants.check(repo, rocketIds, missionIds);
+
+        return new SimulationReport(repo.getClass().getSimpleName(), threads, operations, elapsed,
+                slowestSecond(perSecond, elapsed, operations), latencyReport, rejectionReport,
+                errors.sum(), List.copyOf(errorSamples), invariants);
+    }
+
+    private static Violation execute(SpaceXRepository repo, Workload workload, FleetOperation op, int thread, int i) {
+        int rocket = workload.rocketIndexes[thread][i];
+        RocketId rocketId = workload.rocketId(rocket);
+        return switch (op) {
+            case BUILD -> repo.tryChangeRocketStatus(rocketId, RocketStatus.IN_BUILD);
+            case ASSIGN -> repo.tryAssignRocketToMission(rocketId, workload.missionId(workload.missionIndexes[thread][i]));
+            case LAUNCH -> repo.tryChangeRocketStatus(rocketId, RocketStatus.IN_SPACE);
+            case REPAIR -> repo.tryChangeRocketStatus(rocketId, RocketStatus.IN_REPAIR);
+            case RETURN -> repo.tryChangeRocketStatus(rocketId, RocketStatus.ON_GROUND);
+            case UNASSIGN -> repo.tryUnassignRocket(rocketId);
+            case END_MISSION -> repo.tryChangeMissionStatus(workload.missionId(workload.missionIndexes[thread][i]), MissionStatus.ENDED);
+            case SUMMARIZE -> {
+                repo.summarizeMissionsByAssignedRockets(10);
+                yield Violation.NONE;
+            }
+            case LIST_BY_STATUS -> {
+                repo.listRocketsByStatus(ROCKET_STATUSES[rocket % ROCKET_STATUSES.length], 20, null);
+                yield Violation.NONE;
+            }
+            case GET_ROCKET -> {
+                repo.getRocket(rocketId);
+                yield Violation.NONE;
+            }
+        };
+    }
+
+    /** Fewest operations completed in any whole second of the run. */
+    private static long slowestSecond(long[][] perSecond, long elapsedNanos, long operations) {
+        int whole = (int) (elapsedNanos / 1_000_000_000L);
+        if (whole == 0) return operations;
+        long slowest = Long.MAX_VALUE;
+        for (int s = 0; s < whole; s++) {
+            long n = 0;
+            for (long[] seconds : perSecond) if (s < seconds.length) n += seconds[s];
+            slowest = Math.min(slowest, n);
+        }
+        return slowest;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<FleetOperation, Integer> parseMix(String spec) {
+        Map<FleetOperation, Integer> mix = new EnumMap<>(FleetOperation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.split(":");
+            mix.put(FleetOperation.valueOf(kv[0].trim()), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+
+    private static SpaceXRepository repository(String name) {
+        if (name.startsWith("sharded")) {
+            int shards = name.contains(":") ? Integer.parseInt(name.substring(name.indexOf(':') + 1)) : Runtime.getRuntime().availableProcessors();
+            return new ShardedSpaceXRepository(shards);
+        }
+        return switch (name) {
+            case "inmemory" -> new InMemorySpaceXRepository();
+            case "concurrent" -> new ConcurrentSpaceXRepository();
+            case "compact" -> new CompactSpaceXRepository();
+            case "versioned" -> new VersionedSpaceXRepository();
+            default -> throw new IllegalArgumentException("Unknown repository: " + name);
+        };
+    }
+}
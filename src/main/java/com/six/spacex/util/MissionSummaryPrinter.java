@@ -4,47 +4,181 @@ import com.six.spacex.domain.MissionStatus;
 import com.six.spacex.domain.RocketStatus;
 import com.six.spacex.dto.MissionSummary;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Renders mission summaries as a text report: one block per mission, its rockets indented below
+ * it, blocks separated by a blank line and no trailing line break.
+ * <p>
+ * The {@code print} methods write each summary as it is taken from the source, so a report over
+ * a lazily built stream (e.g. {@code streamMissionsByAssignedRockets()}) needs memory for one
+ * summary at a time. Status labels are rendered once per JVM; the channel variant encodes names
+ * straight into a reusable UTF-8 buffer.
+ */
 public final class MissionSummaryPrinter {
 
+    private static final String NEWLINE = System.lineSeparator();
+    private static final String ROCKET_PREFIX = NEWLINE + "   o ";
+    private static final String MISSION_SEPARATOR = NEWLINE + NEWLINE;
+    private static final String[] MISSION_LABELS = new String[MissionStatus.values().length];
+    private static final String[] ROCKET_LABELS = new String[RocketStatus.values().length];
+    private static final byte[][] MISSION_LABEL_BYTES = new byte[MISSION_LABELS.length][];
+    private static final byte[][] ROCKET_LABEL_BYTES = new byte[ROCKET_LABELS.length][];
+    private static final byte[] ROCKET_PREFIX_BYTES = ROCKET_PREFIX.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MISSION_SEPARATOR_BYTES = MISSION_SEPARATOR.getBytes(StandardCharsets.UTF_8);
+    private static final int CHANNEL_BUFFER_BYTES = 64 * 1024;
+
+    static {
+        for (MissionStatus s : MissionStatus.values()) {
+            MISSION_LABELS[s.ordinal()] = " - " + s.label() + " - Dragons: ";
+            MISSION_LABEL_BYTES[s.ordinal()] = MISSION_LABELS[s.ordinal()].getBytes(StandardCharsets.UTF_8);
+        }
+        for (RocketStatus s : RocketStatus.values()) {
+            ROCKET_LABELS[s.ordinal()] = " - " + s.label();
+            ROCKET_LABEL_BYTES[s.ordinal()] = ROCKET_LABELS[s.ordinal()].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
     private MissionSummaryPrinter() {}
 
     public static String printSummaries(List<MissionSummary> summaries) {
         StringBuilder sb = new StringBuilder();
-        for (MissionSummary ms : summaries) {
-            sb.append(ms.missionName)
-                    .append(" - ")
-                    .append(format(ms.missionStatus))
-                    .append(" - Dragons: ")
-                    .append(ms.dragonsCount)
-                    .append(System.lineSeparator());
+        try {
+            print(summaries.iterator(), sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder does not throw
+        }
+        return sb.toString().trim();
+    }
+
+    /** Writes the report for {@code summaries} to {@code out}, e.g. a {@link java.io.Writer}. */
+    public static void print(Stream<MissionSummary> summaries, Appendable out) throws IOException {
+        print(summaries.iterator(), out);
+    }
+
+    public static void print(Iterator<MissionSummary> summaries, Appendable out) throws IOException {
+        boolean first = true;
+        while (summaries.hasNext()) {
+            MissionSummary ms = summaries.next();
+            if (!first) out.append(MISSION_SEPARATOR);
+            first = false;
+            out.append(ms.missionName).append(MISSION_LABELS[ms.missionStatus.ordinal()]);
+            appendInt(out, ms.dragonsCount);
             for (MissionSummary.RocketView r : ms.rockets) {
-                sb.append("   o ").append(r.name)
-                        .append(" - ").append(format(r.status))
-                        .append(System.lineSeparator());
+                out.append(ROCKET_PREFIX).append(r.name).append(ROCKET_LABELS[r.status.ordinal()]);
             }
-            sb.append(System.lineSeparator());
         }
-        return sb.toString().trim();
     }
 
-    private static String format(MissionStatus s) {
-        return switch (s) {
-            case SCHEDULED -> "Scheduled";
-            case PENDING -> "Pending";
-            case IN_PROGRESS -> "In progress";
-            case ENDED -> "Ended";
-        };
+    /** Writes the report for {@code summaries} to {@code channel} as UTF-8. */
+    public static void print(Stream<MissionSummary> summaries, WritableByteChannel channel) throws IOException {
+        print(summaries.iterator(), channel);
     }
 
-    private static String format(RocketStatus s) {
-        return switch (s) {
-            case ON_GROUND -> "On ground";
-            case IN_SPACE -> "In space";
-            case IN_REPAIR -> "In repair";
-            case IN_BUILD -> "In build";
-        };
+    public static void print(Iterator<MissionSummary> summaries, WritableByteChannel channel) throws IOException {
+        ChannelSink sink = new ChannelSink(channel);
+        boolean first = true;
+        while (summaries.hasNext()) {
+            MissionSummary ms = summaries.next();
+            if (!first) sink.write(MISSION_SEPARATOR_BYTES);
+            first = false;
+            sink.write(ms.missionName);
+            sink.write(MISSION_LABEL_BYTES[ms.missionStatus.ordinal()]);
+            sink.writeInt(ms.dragonsCount);
+            for (MissionSummary.RocketView r : ms.rockets) {
+                sink.write(ROCKET_PREFIX_BYTES);
+                sink.write(r.name);
+                sink.write(ROCKET_LABEL_BYTES[r.status.ordinal()]);
+            }
+        }
+        sink.flush();
+    }
+
+    private static void appendInt(Appendable out, int value) throws IOException {
+        if (value < 0) {
+            out.append(Integer.toString(value));
+            return;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) divisor *= 10;
+        for (; divisor > 0; divisor /= 10) out.append((char) ('0' + value / divisor % 10));
     }
-}
 
+    /** Buffers UTF-8 output for a channel; one per report. */
+    private static final class ChannelSink {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHANNEL_BUFFER_BYTES);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private char[] chars = new char[256];
+        private CharBuffer charBuffer = CharBuffer.wrap(chars);
+
+        ChannelSink(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) drain();
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        void write(String text) throws IOException {
+            if (text.length() > chars.length) {
+                chars = new char[Math.max(text.length(), chars.length * 2)];
+                charBuffer = CharBuffer.wrap(chars);
+            }
+            text.getChars(0, text.length(), chars, 0);
+            charBuffer.clear().limit(text.length());
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(charBuffer, buffer, true);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+            while (encoder.flush(buffer).isOverflow()) drain();
+        }
+
+        void writeInt(int value) throws IOException {
+            if (value < 0) {
+                write(Integer.toString(value));
+                return;
+            }
+            if (buffer.remaining() < 10) drain();
+            int divisor = 1;
+            while (value / divisor >= 10) divisor *= 10;
+            for (; divisor > 0; divisor /= 10) buffer.put((byte) ('0' + value / divisor % 10));
+        }
+
+        void flush() throws IOException {
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+}
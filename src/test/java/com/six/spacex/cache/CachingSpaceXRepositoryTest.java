@@ -0,0 +1,207 @@
+package com.six.spacex.cache;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.metrics.InstrumentedSpaceXRepository;
+import com.six.spacex.metrics.Operation;
+import com.six.spacex.metrics.RepositoryMetrics;
+import com.six.spacex.repository.ConcurrentSpaceXRepository;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.RepositoryCommand;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingSpaceXRepositoryTest {
+
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    @Test
+    void servesRepeatedReadsFromTheCache() {
+        InstrumentedSpaceXRepository counted = new InstrumentedSpaceXRepository(new InMemorySpaceXRepository());
+        CachingSpaceXRepository repo = new CachingSpaceXRepository(counted, 100, MINUTE);
+        RepositoryMetrics delegateCalls = counted.metrics();
+        RocketId r = repo.addRocket("Dragon 1");
+        MissionId m = repo.addMission("Mars");
+        repo.assignRocketToMission(r, m);
+
+        MissionSummary first = repo.getMission(m).orElseThrow();
+        for (int i = 0; i < 99; i++) assertSame(first, repo.getMission(m).orElseThrow());
+        assertEquals(Optional.of(MissionStatus.IN_PROGRESS), repo.getMissionStatus(m));
+        assertEquals(Optional.empty(), repo.getRocket(RocketId.random()));
+
+        assertEquals(1, delegateCalls.calls(Operation.GET_MISSION));
+        assertEquals(0, delegateCalls.calls(Operation.GET_MISSION_STATUS));
+        CacheStats stats = repo.missionStats();
+        assertEquals(99, stats.hits);
+        assertEquals(1, stats.misses);
+        assertEquals(0.99, stats.hitRatio(), 1e-9);
+        assertEquals(0.01, stats.missRatio(), 1e-9);
+        assertEquals(1, repo.rocketStats().misses);
+    }
+
+    @Test
+    void mutationsInvalidateTheRocketAndItsMission() {
+        CachingSpaceXRepository repo = new CachingSpaceXRepository(new InMemorySpaceXRepository(), 100, MINUTE);
+        RocketId r1 = repo.addRocket("Dragon 1");
+        RocketId r2 = repo.addRocket("Dragon 2");
+        MissionId m = repo.addMission("Mars");
+        MissionId other = repo.addMission("Luna");
+        MissionSummary untouched = repo.getMission(other).orElseThrow();
+
+        assertEquals(0, repo.getMission(m).orElseThrow().dragonsCount);
+        repo.assignRocketsToMission(m, List.of(r1, r2));
+        assertEquals(2, repo.getMission(m).orElseThrow().dragonsCount);
+
+        repo.getRocket(r1);
+        repo.changeRocketStatus(r1, RocketStatus.IN_REPAIR);
+        assertEquals(RocketStatus.IN_REPAIR, repo.getRocket(r1).orElseThrow().status);
+        assertEquals(MissionStatus.PENDING, repo.getMission(m).orElseThrow().missionStatus);
+
+        repo.unassignRocket(r1);
+        assertEquals(Optional.empty(), repo.getRocket(r1).orElseThrow().missionName);
+        assertEquals(MissionStatus.IN_PROGRESS, repo.getMission(m).orElseThrow().missionStatus);
+
+        repo.applyBatch(List.of(
+                RepositoryCommand.assign(r1, m),
+                RepositoryCommand.changeRocketStatus(r2, RocketStatus.IN_REPAIR)));
+        MissionSummary mars = repo.getMission(m).orElseThrow();
+        assertEquals(2, mars.dragonsCount);
+        assertEquals(MissionStatus.PENDING, mars.missionStatus);
+
+        assertSame(untouched, repo.getMission(other).orElseThrow());
+        assertThrows(DomainException.class, () -> repo.unassignRocket(RocketId.random()));
+    }
+
+    @Test
+    void findsTheMissionOfRocketsAssignedBeforeWrapping() {
+        InMemorySpaceXRepository delegate = new InMemorySpaceXRepository();
+        RocketId r = delegate.addRocket("Dragon 1");
+        MissionId m = delegate.addMission("Mars");
+        delegate.assignRocketToMission(r, m);
+
+        CachingSpaceXRepository repo = new CachingSpaceXRepository(delegate, 100, MINUTE);
+        assertEquals(MissionStatus.IN_PROGRESS, repo.getMission(m).orElseThrow().missionStatus);
+        repo.changeRocketStatus(r, RocketStatus.IN_REPAIR);
+        assertEquals(MissionStatus.PENDING, repo.getMission(m).orElseThrow().missionStatus);
+        assertEquals(RocketStatus.IN_REPAIR, repo.getMission(m).orElseThrow().rockets.get(0).status);
+    }
+
+    @Test
+    void cachesUnknownIdsUntilTheyAreAdded() {
+        CachingSpaceXRepository repo = new CachingSpaceXRepository(new InMemorySpaceXRepository(), 100, MINUTE);
+        RocketId r = RocketId.random();
+        MissionId m = MissionId.random();
+        assertEquals(Optional.empty(), repo.getRocket(r));
+        assertEquals(Optional.empty(), repo.getMission(m));
+        repo.addRocket(r, "Dragon 1");
+        repo.addMission(m, "Mars");
+        assertEquals("Dragon 1", repo.getRocket(r).orElseThrow().name);
+        assertEquals("Mars", repo.getMission(m).orElseThrow().missionName);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndExpiredEntries() {
+        AtomicLong now = new AtomicLong();
+        InMemorySpaceXRepository delegate = new InMemorySpaceXRepository();
+        CachingSpaceXRepository repo = new CachingSpaceXRepository(delegate, 2, Duration.ofSeconds(10), now::get);
+        RocketId r1 = delegate.addRocket("Dragon 1");
+        RocketId r2 = delegate.addRocket("Dragon 2");
+        RocketId r3 = delegate.addRocket("Dragon 3");
+
+        repo.getRocket(r1);
+        repo.getRocket(r2);
+        repo.getRocket(r1);
+        repo.getRocket(r3); // evicts r2, the least recently used
+        repo.getRocket(r1);
+        repo.getRocket(r2);
+        CacheStats stats = repo.rocketStats();
+        assertEquals(2, stats.hits);
+        assertEquals(4, stats.misses);
+        assertEquals(2, stats.evictions);
+        assertEquals(2, stats.size);
+
+        delegate.changeRocketStatus(r1, RocketStatus.IN_REPAIR);
+        assertEquals(RocketStatus.ON_GROUND, repo.getRocket(r1).orElseThrow().status, "direct changes wait for the ttl");
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals(RocketStatus.IN_REPAIR, repo.getRocket(r1).orElseThrow().status);
+    }
+
+    @Test
+    void invalidatingOneKeyDoesNotStopOthersFromBeingCached() {
+        // 16 entries make a single segment, so every key shares it
+        BoundedCache<Integer, String> cache = new BoundedCache<>(16, MINUTE.toNanos(), System::nanoTime);
+        assertEquals("1", cache.get(1, k -> {
+            cache.invalidate(2);
+            return "1";
+        }));
+        assertEquals("1", cache.peek(1));
+
+        assertEquals("3", cache.get(3, k -> {
+            cache.invalidate(3);
+            return "3";
+        }));
+        assertNull(cache.peek(3), "a value read before its key was invalidated is not cached");
+
+        assertThrows(IllegalStateException.class, () -> cache.get(4, k -> {
+            throw new IllegalStateException("delegate failed");
+        }));
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.stats().misses);
+    }
+
+    @Test
+    void concurrentMutationsLeaveNoStaleEntries() throws Exception {
+        ConcurrentSpaceXRepository delegate = new ConcurrentSpaceXRepository();
+        CachingSpaceXRepository repo = new CachingSpaceXRepository(delegate, 1_000, MINUTE);
+        List<RocketId> rockets = new ArrayList<>();
+        List<MissionId> missions = new ArrayList<>();
+        for (int i = 0; i < 40; i++) rockets.add(repo.addRocket("Dragon " + i));
+        for (int i = 0; i < 8; i++) missions.add(repo.addMission("Mission " + i));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                SplittableRandom rnd = new SplittableRandom(t);
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+                        MissionId m = missions.get(rnd.nextInt(missions.size()));
+                        try {
+                            switch (rnd.nextInt(6)) {
+                                case 0 -> repo.assignRocketToMission(r, m);
+                                case 1 -> repo.unassignRocket(r);
+                                case 2 -> repo.changeRocketStatus(r, rnd.nextBoolean() ? RocketStatus.IN_REPAIR : RocketStatus.ON_GROUND);
+                                case 3 -> repo.getRocket(r);
+                                default -> repo.getMission(m);
+                            }
+                        } catch (DomainException expected) {
+                            // rejected moves are part of the mix
+                        }
+                    }
+                }));
+            }
+            for (Future<?> w : workers) w.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        for (RocketId r : rockets) {
+            assertEquals(String.valueOf(delegate.getRocket(r)), String.valueOf(repo.getRocket(r)));
+        }
+        for (MissionId m : missions) {
+            assertEquals(String.valueOf(delegate.getMission(m)), String.valueOf(repo.getMission(m)));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.six.spacex.domain;
+
+import com.six.spacex.repository.CompactSpaceXRepository;
+import com.six.spacex.repository.ConcurrentSpaceXRepository;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.ShardedSpaceXRepository;
+import com.six.spacex.repository.VersionedSpaceXRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorTest {
+
+    @Test
+    void timeOrderedIdsAreVersion7AndIncreasePerThread() {
+        AtomicLong now = new AtomicLong(1_700_000_000_000L);
+        IdGenerator ids = IdGenerator.timeOrdered(now::get);
+        UUID previous = ids.next();
+        assertEquals(7, previous.version());
+        assertEquals(2, previous.variant());
+        assertEquals(now.get(), previous.getMostSignificantBits() >>> 16);
+
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1_000 == 0) now.addAndGet(1);
+            if (i == 5_000) now.addAndGet(-50); // the clock going back must not break the order
+            UUID id = ids.next();
+            assertTrue(id.compareTo(previous) > 0, "ids from one thread increase");
+            assertEquals(7, id.version());
+            assertEquals(2, id.variant());
+            previous = id;
+        }
+    }
+
+    @Test
+    void timeOrderedIdsAreUniqueAcrossThreads() throws Exception {
+        IdGenerator ids = IdGenerator.timeOrdered();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    List<UUID> out = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) out.add(ids.next());
+                    return out;
+                }));
+            }
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> f : futures) all.addAll(f.get());
+            assertEquals(80_000, all.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void sequentialIdsAreVersion8AndConsecutive() {
+        IdGenerator ids = IdGenerator.sequential(0xABCDEFL, 41);
+        UUID first = ids.next();
+        UUID second = ids.next();
+        assertEquals(8, first.version());
+        assertEquals(2, first.variant());
+        assertEquals(0xABCDEFL, first.getMostSignificantBits() >>> 16);
+        assertEquals(41, first.getLeastSignificantBits() & 0x3FFF_FFFF_FFFF_FFFFL);
+        assertTrue(second.compareTo(first) > 0);
+        assertEquals(1, second.getLeastSignificantBits() - first.getLeastSignificantBits());
+        assertNotEquals(IdGenerator.sequential().next(), IdGenerator.sequential().next());
+        assertThrows(IllegalArgumentException.class, () -> IdGenerator.sequential(1L << 48, 0));
+    }
+
+    @Test
+    void repositoriesTakeIdsFromTheirGenerator() {
+        InMemorySpaceXRepository inMemory = new InMemorySpaceXRepository();
+        ConcurrentSpaceXRepository concurrent = new ConcurrentSpaceXRepository();
+        CompactSpaceXRepository compact = new CompactSpaceXRepository();
+        VersionedSpaceXRepository versioned = new VersionedSpaceXRepository();
+        ShardedSpaceXRepository sharded = new ShardedSpaceXRepository(2);
+        inMemory.setIdGenerator(IdGenerator.sequential(1, 0));
+        concurrent.setIdGenerator(IdGenerator.sequential(2, 0));
+        compact.setIdGenerator(IdGenerator.sequential(3, 0));
+        versioned.setIdGenerator(IdGenerator.sequential(4, 0));
+        sharded.setIdGenerator(IdGenerator.sequential(5, 0));
+
+        assertEquals(IdGenerator.sequential(1, 0).nextRocketId(), inMemory.addRocket("Dragon 1"));
+        assertEquals(IdGenerator.sequential(1, 1).nextMissionId(), inMemory.addMission("Mars"));
+        assertEquals(IdGenerator.sequential(2, 0).nextRocketId(), concurrent.addRocket("Dragon 1"));
+        assertEquals(IdGenerator.sequential(3, 0).nextMissionId(), compact.addMission("Mars"));
+        assertEquals(IdGenerator.sequential(4, 0).nextRocketId(), versioned.addRocket("Dragon 1"));
+        assertEquals(IdGenerator.sequential(5, 0).nextMissionId(), sharded.addMission("Mars"));
+        assertEquals(1, sharded.listMissionsByStatus(MissionStatus.SCHEDULED).size());
+    }
+}
@@ -0,0 +1,29 @@
+package com.six.spacex.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MissionTest {
+
+    @Test
+    void assignedRocketsChangeStatusOnlyThroughTheirMission() {
+        Mission mission = new Mission(MissionId.random(), "Luna1");
+        Rocket assigned = new Rocket(RocketId.random(), "Dragon 1");
+        Rocket spare = new Rocket(RocketId.random(), "Dragon 2");
+        assigned.assignTo(mission.id());
+        mission.addRocket(assigned);
+
+        assertThrows(IllegalStateException.class, () -> assigned.setStatus(RocketStatus.IN_REPAIR));
+        assertEquals(1, mission.rocketsInStatus(RocketStatus.ON_GROUND));
+
+        mission.changeRocketStatus(assigned, RocketStatus.IN_REPAIR);
+        assertEquals(RocketStatus.IN_REPAIR, assigned.status());
+        assertEquals(0, mission.rocketsInStatus(RocketStatus.ON_GROUND));
+        assertEquals(1, mission.rocketsInStatus(RocketStatus.IN_REPAIR));
+
+        assertThrows(IllegalArgumentException.class, () -> mission.changeRocketStatus(spare, RocketStatus.IN_SPACE));
+        spare.setStatus(RocketStatus.IN_SPACE);
+        assertEquals(RocketStatus.IN_SPACE, spare.status());
+    }
+}
@@ -0,0 +1,214 @@
+package com.six.spacex.events;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.repository.CompactSpaceXRepository;
+import com.six.spacex.repository.ConcurrentSpaceXRepository;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.repository.SpaceXRepository;
+import com.six.spacex.simulation.FleetInvariants;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventStreamTest {
+
+    @Test
+    void reportsDirectAndDerivedChanges() {
+        List<RepositoryEvent> events = new ArrayList<>();
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        repo.setListener(events::add);
+
+        RocketId r = repo.addRocket("Dragon 1");
+        MissionId m = repo.addMission("Luna1");
+        repo.assignRocketToMission(r, m);
+        repo.changeRocketStatus(r, RocketStatus.IN_REPAIR);
+        repo.unassignRocket(r);
+
+        assertEquals(List.of(
+                RepositoryEvent.rocketAdded(r, "Dragon 1").toString(),
+                RepositoryEvent.missionAdded(m, "Luna1").toString(),
+                RepositoryEvent.rocketAssigned(r, m).toString(),
+                RepositoryEvent.missionStatusChanged(m, MissionStatus.SCHEDULED, MissionStatus.IN_PROGRESS).toString(),
+                RepositoryEvent.rocketStatusChanged(r, m, RocketStatus.ON_GROUND, RocketStatus.IN_REPAIR).toString(),
+                RepositoryEvent.missionStatusChanged(m, MissionStatus.IN_PROGRESS, MissionStatus.PENDING).toString(),
+                RepositoryEvent.rocketUnassigned(r, m).toString(),
+                RepositoryEvent.missionStatusChanged(m, MissionStatus.PENDING, MissionStatus.SCHEDULED).toString()),
+                events.stream().map(RepositoryEvent::toString).toList());
+        assertEquals(m, events.get(4).missionId);
+
+        int before = events.size();
+        repo.changeRocketStatus(r, RocketStatus.IN_REPAIR);
+        repo.setListener(null);
+        repo.changeRocketStatus(r, RocketStatus.ON_GROUND);
+        assertEquals(before, events.size());
+    }
+
+    @Test
+    void implementationsEmitTheSameEvents() {
+        List<RepositoryEvent> expected = new ArrayList<>();
+        List<RepositoryEvent> concurrent = new ArrayList<>();
+        List<RepositoryEvent> compact = new ArrayList<>();
+        InMemorySpaceXRepository a = new InMemorySpaceXRepository();
+        ConcurrentSpaceXRepository b = new ConcurrentSpaceXRepository();
+        CompactSpaceXRepository c = new CompactSpaceXRepository();
+        a.setListener(expected::add);
+        b.setListener(concurrent::add);
+        c.setListener(compact::add);
+
+        RocketId r1 = RocketId.random();
+        RocketId r2 = RocketId.random();
+        MissionId m1 = MissionId.random();
+        MissionId m2 = MissionId.random();
+        for (var repo : List.of(a, b, c)) {
+            repo.addRocket(r1, "Dragon 1");
+            repo.addRocket(r2, "Dragon 2");
+            repo.addMission(m1, "Luna1");
+            repo.addMission(m2, "Mars");
+            repo.assignRocketsToMission(m1, List.of(r1, r2));
+            repo.changeRocketStatus(r2, RocketStatus.IN_SPACE);
+            repo.applyBatch(List.of(
+                    RepositoryCommand.unassign(r1),
+                    RepositoryCommand.assign(r1, m2),
+                    RepositoryCommand.changeRocketStatus(r1, RocketStatus.IN_REPAIR)));
+            repo.unassignRocket(r2);
+            repo.changeMissionStatus(m1, MissionStatus.ENDED);
+        }
+
+        List<String> rendered = expected.stream().map(RepositoryEvent::toString).toList();
+        assertEquals(rendered, concurrent.stream().map(RepositoryEvent::toString).toList());
+        assertEquals(rendered, compact.stream().map(RepositoryEvent::toString).toList());
+    }
+
+    @Test
+    void aThrowingListenerLeavesTheRepositoryConsistent() {
+        List<SpaceXRepository> repos = List.of(new InMemorySpaceXRepository(), new ConcurrentSpaceXRepository(), new CompactSpaceXRepository());
+        RepositoryListener closed = e -> {
+            throw new IllegalStateException("Stream is closed");
+        };
+        for (SpaceXRepository repo : repos) {
+            List<RocketId> rockets = new ArrayList<>();
+            for (int i = 0; i < 4; i++) rockets.add(repo.addRocket("Dragon " + i));
+            MissionId luna = repo.addMission("Luna1");
+            MissionId mars = repo.addMission("Mars");
+            listen(repo, closed);
+
+            assertThrows(IllegalStateException.class, () -> repo.assignRocketToMission(rockets.get(0), luna));
+            assertThrows(IllegalStateException.class, () -> repo.assignRocketsToMission(mars, rockets.subList(1, 3)));
+            assertThrows(IllegalStateException.class, () -> repo.changeRocketStatus(rockets.get(1), RocketStatus.IN_REPAIR));
+            assertThrows(IllegalStateException.class, () -> repo.applyBatch(List.of(
+                    RepositoryCommand.unassign(rockets.get(0)),
+                    RepositoryCommand.assign(rockets.get(3), luna))));
+            assertThrows(IllegalStateException.class, () -> repo.unassignRocket(rockets.get(2)));
+
+            String name = repo.getClass().getSimpleName();
+            assertEquals(List.of(), FleetInvariants.check(repo, rockets, List.of(luna, mars)), name);
+            assertEquals(Optional.of(MissionStatus.PENDING), repo.getMissionStatus(mars), name);
+            assertEquals(Optional.of(MissionStatus.IN_PROGRESS), repo.getMissionStatus(luna), name);
+        }
+    }
+
+    private static void listen(SpaceXRepository repo, RepositoryListener listener) {
+        if (repo instanceof InMemorySpaceXRepository r) r.setListener(listener);
+        else if (repo instanceof ConcurrentSpaceXRepository r) r.setListener(listener);
+        else if (repo instanceof CompactSpaceXRepository r) r.setListener(listener);
+    }
+
+    @Test
+    void deliversEveryEventInProducerOrderUnderBackpressure() throws Exception {
+        int producers = 4;
+        int perProducer = 5_000;
+        List<List<RepositoryEvent>> received = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger largestBatch = new AtomicInteger();
+
+        EventStream stream = EventStream.start(16, 8);
+        try {
+            stream.subscribe(batch -> {
+                largestBatch.accumulateAndGet(batch.size(), Math::max);
+                received.add(List.copyOf(batch));
+                if (received.size() % 64 == 0) Thread.yield();
+            });
+            stream.subscribe(batch -> {
+                throw new IllegalStateException("faulty subscriber");
+            });
+
+            ConcurrentSpaceXRepository repo = new ConcurrentSpaceXRepository();
+            repo.setListener(stream);
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                Thread t = new Thread(() -> {
+                    for (int i = 0; i < perProducer; i++) repo.addRocket(Thread.currentThread().getName() + "-" + i);
+                }, "p" + p);
+                threads.add(t);
+                t.start();
+            }
+            for (Thread t : threads) t.join();
+        } finally {
+            stream.close();
+        }
+        assertEquals(producers * perProducer, stream.published());
+        assertEquals(producers * perProducer, stream.delivered());
+        assertTrue(stream.subscriberFailures() > 0);
+
+        Map<String, Integer> nextPerProducer = new ConcurrentHashMap<>();
+        int total = 0;
+        for (List<RepositoryEvent> batch : received) {
+            for (RepositoryEvent e : batch) {
+                String[] parts = e.name.split("-");
+                int expected = nextPerProducer.getOrDefault(parts[0], 0);
+                assertEquals(expected, Integer.parseInt(parts[1]), "out of order for " + parts[0]);
+                nextPerProducer.put(parts[0], expected + 1);
+                total++;
+            }
+        }
+        assertEquals(producers * perProducer, total);
+        assertTrue(largestBatch.get() <= 8);
+    }
+
+    @Test
+    void deliversEveryAcceptedEventWhenClosedUnderLoad() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            EventStream stream = EventStream.start(8, 4);
+            AtomicInteger delivered = new AtomicInteger();
+            stream.subscribe(batch -> delivered.addAndGet(batch.size()));
+            AtomicInteger accepted = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        while (true) {
+                            stream.onEvent(RepositoryEvent.rocketAdded(RocketId.random(), "x"));
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException closed) {
+                        // the stream was closed under this producer
+                    }
+                });
+                threads.add(t);
+                t.start();
+            }
+            Thread.sleep(2);
+            stream.close();
+            for (Thread t : threads) t.join();
+
+            assertEquals(accepted.get(), delivered.get(), "round " + round);
+            assertEquals(accepted.get(), stream.published());
+            assertEquals(accepted.get(), stream.delivered());
+        }
+    }
+
+    @Test
+    void rejectsEventsAfterClose() {
+        EventStream stream = EventStream.start(4, 4);
+        stream.close();
+        assertThrows(IllegalStateException.class, () -> stream.onEvent(RepositoryEvent.rocketAdded(RocketId.random(), "x")));
+    }
+}
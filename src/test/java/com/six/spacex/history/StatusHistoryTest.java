@@ -0,0 +1,193 @@
+package com.six.spacex.history;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusHistoryTest {
+
+    @Test
+    void answersAsOfQueriesAndTimeInStatus() {
+        ManualClock clock = new ManualClock();
+        StatusHistory history = new StatusHistory(10_000, Duration.ofDays(1), clock);
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        repo.setListener(history);
+
+        RocketId dragon1 = repo.addRocket("Dragon 1");
+        RocketId dragon2 = repo.addRocket("Dragon 2");
+        MissionId luna = repo.addMission("Luna1");
+        Instant added = clock.instant();
+        clock.advance(Duration.ofMinutes(10));
+        repo.assignRocketToMission(dragon1, luna);
+        repo.assignRocketToMission(dragon2, luna);
+        clock.advance(Duration.ofMinutes(5));
+        repo.changeRocketStatus(dragon2, RocketStatus.IN_REPAIR);
+        Instant repairStarted = clock.instant();
+        clock.advance(Duration.ofMinutes(30));
+        repo.changeRocketStatus(dragon2, RocketStatus.IN_SPACE);
+        Instant now = clock.instant();
+
+        assertEquals(List.of(), history.listRocketsByStatus(RocketStatus.IN_REPAIR, added));
+        assertEquals("[Dragon 2 - In repair (mission: Luna1)]",
+                history.listRocketsByStatus(RocketStatus.IN_REPAIR, repairStarted.plusSeconds(60)).toString());
+        assertEquals(MissionStatus.PENDING,
+                history.summarizeMissionsByAssignedRockets(repairStarted).get(0).missionStatus);
+        assertEquals(1, history.listMissionsByStatus(MissionStatus.SCHEDULED, added).size());
+        assertEquals(0, history.listMissionsByStatus(MissionStatus.SCHEDULED, now).size());
+
+        Map<MissionStatus, Duration> luna1 = history.missionTimeInStatus(luna, added, now);
+        assertEquals(Duration.ofMinutes(30), luna1.get(MissionStatus.PENDING));
+        assertEquals(Duration.ofMinutes(10), luna1.get(MissionStatus.SCHEDULED));
+        assertEquals(Duration.ofMinutes(5), luna1.get(MissionStatus.IN_PROGRESS));
+        Map<RocketStatus, Duration> window = history.rocketTimeInStatus(dragon2, repairStarted.plusSeconds(600), now.plusSeconds(60));
+        assertEquals(Map.of(RocketStatus.IN_REPAIR, Duration.ofMinutes(20), RocketStatus.IN_SPACE, Duration.ofMinutes(1)), window);
+        assertEquals(Map.of(), history.rocketTimeInStatus(RocketId.random(), added, now));
+    }
+
+    @Test
+    void replaysTheRepositoryAtEveryCheckpointWithinRetention() {
+        for (int maxRecords : new int[]{1_000_000, 300}) {
+            ManualClock clock = new ManualClock();
+            StatusHistory history = new StatusHistory(maxRecords, Duration.ofDays(1), clock);
+            InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+            repo.setListener(history);
+            List<Instant> times = new ArrayList<>();
+            List<String> expected = new ArrayList<>();
+
+            Random rnd = new Random(23);
+            List<RocketId> rockets = new ArrayList<>();
+            List<MissionId> missions = new ArrayList<>();
+            for (int i = 0; i < 3_000; i++) {
+                clock.advance(Duration.ofMillis(1 + rnd.nextInt(3)));
+                if (rockets.size() < 40 && rnd.nextInt(10) == 0) rockets.add(repo.addRocket("Dragon " + rnd.nextInt(20)));
+                if (missions.size() < 8 && rnd.nextInt(30) == 0) missions.add(repo.addMission("Mission " + rnd.nextInt(5)));
+                if (rockets.isEmpty() || missions.isEmpty()) continue;
+                RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+                MissionId m = missions.get(rnd.nextInt(missions.size()));
+                switch (rnd.nextInt(4)) {
+                    case 0 -> repo.tryAssignRocketToMission(r, m);
+                    case 1 -> repo.tryUnassignRocket(r);
+                    case 2 -> repo.tryChangeRocketStatus(r, RocketStatus.values()[rnd.nextInt(RocketStatus.values().length)]);
+                    default -> repo.tryChangeMissionStatus(m, MissionStatus.values()[rnd.nextInt(MissionStatus.values().length)]);
+                }
+                if (i % 50 == 0) {
+                    times.add(clock.instant());
+                    expected.add(render(repo.summarizeMissionsByAssignedRockets(), repo.listRocketsByStatus(RocketStatus.IN_REPAIR)));
+                }
+            }
+
+            assertTrue(history.size() <= maxRecords);
+            Instant horizon = history.horizon();
+            int checked = 0;
+            for (int i = 0; i < times.size(); i++) {
+                Instant at = times.get(i);
+                if (at.isBefore(horizon)) {
+                    assertThrows(IllegalArgumentException.class, () -> history.summarizeMissionsByAssignedRockets(at));
+                    continue;
+                }
+                assertEquals(expected.get(i), render(history.summarizeMissionsByAssignedRockets(at),
+                        history.listRocketsByStatus(RocketStatus.IN_REPAIR, at)), "checkpoint " + i);
+                checked++;
+            }
+            assertTrue(checked > 0);
+            assertEquals(maxRecords == 300, horizon.isAfter(Instant.MIN));
+        }
+    }
+
+    @Test
+    void foldsRecordsOlderThanTheRetention() {
+        ManualClock clock = new ManualClock();
+        StatusHistory history = new StatusHistory(10_000, Duration.ofMinutes(1), clock);
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        repo.setListener(history);
+        RocketId r = repo.addRocket("Dragon 1");
+        MissionId m = repo.addMission("Mars");
+        Instant start = clock.instant();
+        for (int i = 0; i < 5_000; i++) {
+            clock.advance(Duration.ofMillis(100));
+            repo.changeRocketStatus(r, i % 2 == 0 ? RocketStatus.IN_REPAIR : RocketStatus.ON_GROUND);
+        }
+        repo.assignRocketToMission(r, m);
+
+        assertTrue(history.horizon().isAfter(start));
+        assertTrue(history.size() < 5_000);
+        assertThrows(IllegalArgumentException.class, () -> history.listRocketsByStatus(RocketStatus.IN_REPAIR, start));
+        assertEquals(render(repo.summarizeMissionsByAssignedRockets(), repo.listRocketsByStatus(RocketStatus.IN_REPAIR)),
+                render(history.summarizeMissionsByAssignedRockets(clock.instant()),
+                        history.listRocketsByStatus(RocketStatus.IN_REPAIR, clock.instant())));
+    }
+
+    @Test
+    void answersQueriesWhileTheWriterKeepsFoldingRecords() throws Exception {
+        StatusHistory history = new StatusHistory(64, Duration.ofDays(1));
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        repo.setListener(history);
+        Instant future = Instant.parse("3000-01-01T00:00:00Z");
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                RocketId r = repo.addRocket("Dragon " + i);
+                repo.changeRocketStatus(r, RocketStatus.IN_REPAIR);
+                repo.changeRocketStatus(r, RocketStatus.ON_GROUND);
+            }
+            done.set(true);
+        });
+        writer.start();
+        int queries = 0;
+        while (!done.get() || queries == 0) {
+            // the writer repairs one rocket at a time, so every prefix of the history has at most one in repair
+            List<RocketDetails> inRepair = history.listRocketsByStatus(RocketStatus.IN_REPAIR, future);
+            assertTrue(inRepair.size() <= 1, inRepair::toString);
+            for (RocketDetails d : history.listRocketsByStatus(RocketStatus.ON_GROUND, future)) {
+                assertTrue(d.name.startsWith("Dragon "), d::toString);
+            }
+            queries++;
+        }
+        writer.join();
+        assertTrue(history.horizon().isAfter(Instant.MIN));
+        assertEquals(20_000, history.listRocketsByStatus(RocketStatus.ON_GROUND, future).size());
+    }
+
+    private static String render(List<MissionSummary> summaries, List<RocketDetails> inRepair) {
+        return summaries + " " + inRepair;
+    }
+
+    /** Clock the test moves by hand. */
+    private static final class ManualClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T14:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
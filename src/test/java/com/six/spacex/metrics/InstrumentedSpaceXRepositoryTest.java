@@ -0,0 +1,71 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.RepositoryCommand;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedSpaceXRepositoryTest {
+
+    @Test
+    void countsCallsErrorsAndViolations() {
+        InstrumentedSpaceXRepository repo = new InstrumentedSpaceXRepository(new InMemorySpaceXRepository());
+        RepositoryMetrics metrics = repo.metrics();
+
+        RocketId r1 = repo.addRocket("Dragon 1");
+        RocketId r2 = repo.addRocket("Dragon 2");
+        MissionId m = repo.addMission("Mars");
+        repo.assignRocketToMission(r1, m);
+        DomainException e = assertThrows(DomainException.class, () -> repo.assignRocketToMission(r1, m));
+        assertEquals(Violation.ROCKET_ALREADY_ASSIGNED, e.violation());
+        assertThrows(DomainException.class, () -> repo.changeRocketStatus(r2, RocketStatus.IN_SPACE));
+        assertThrows(DomainException.class, () -> repo.applyBatch(List.of(RepositoryCommand.unassign(r2))));
+        repo.summarizeMissionsByAssignedRockets();
+        repo.summarizeMissionsByAssignedRockets(1, null);
+
+        assertEquals(2, metrics.calls(Operation.ADD_ROCKET));
+        assertEquals(2, metrics.calls(Operation.ASSIGN_ROCKET));
+        assertEquals(1, metrics.errors(Operation.ASSIGN_ROCKET));
+        assertEquals(1, metrics.errors(Operation.CHANGE_ROCKET_STATUS));
+        assertEquals(2, metrics.calls(Operation.SUMMARIZE_MISSIONS));
+        assertEquals(0, metrics.errors(Operation.SUMMARIZE_MISSIONS));
+        assertEquals(1, metrics.violations(Violation.ROCKET_ALREADY_ASSIGNED));
+        assertEquals(1, metrics.violations(Violation.IN_SPACE_WITHOUT_MISSION));
+        assertEquals(1, metrics.violations(Violation.ROCKET_NOT_ASSIGNED));
+        assertTrue(metrics.latency(Operation.ASSIGN_ROCKET).max() > 0);
+
+        metrics.reset();
+        assertEquals(0, metrics.calls(Operation.ADD_ROCKET));
+        assertEquals(0, metrics.violations(Violation.ROCKET_ALREADY_ASSIGNED));
+    }
+
+    @Test
+    void exposesMetricsOverJmx() throws Exception {
+        InstrumentedSpaceXRepository repo = new InstrumentedSpaceXRepository(new InMemorySpaceXRepository());
+        repo.addRocket("Dragon 1");
+        assertThrows(DomainException.class, () -> repo.unassignRocket(RocketId.random()));
+
+        ObjectName name = repo.metrics().register("jmx-test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            TabularData calls = (TabularData) server.getAttribute(name, "Calls");
+            assertEquals(1L, calls.get(new Object[]{"ADD_ROCKET"}).get("value"));
+            TabularData violations = (TabularData) server.getAttribute(name, "Violations");
+            assertEquals(1L, violations.get(new Object[]{"UNKNOWN_ROCKET"}).get("value"));
+            assertNotNull(((TabularData) server.getAttribute(name, "P99Nanos")).get(new Object[]{"UNASSIGN_ROCKET"}));
+
+            server.invoke(name, "reset", null, null);
+            assertTrue(((TabularData) server.getAttribute(name, "Calls")).isEmpty());
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
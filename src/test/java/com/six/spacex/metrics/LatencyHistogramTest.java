@@ -0,0 +1,49 @@
+package com.six.spacex.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValueWithinOneSixteenth() {
+        Random rnd = new Random(15);
+        for (int i = 0; i < 100_000; i++) {
+            long value = rnd.nextLong() >>> (1 + rnd.nextInt(63));
+            int bucket = LatencyHistogram.bucketOf(value);
+            if (bucket == LatencyHistogram.BUCKETS - 1) {
+                assertTrue(value >= LatencyHistogram.highestValueIn(bucket - 1));
+                continue;
+            }
+            long high = LatencyHistogram.highestValueIn(bucket);
+            assertTrue(value <= high, () -> value + " above bucket " + bucket);
+            assertTrue(bucket == 0 || value > LatencyHistogram.highestValueIn(bucket - 1));
+            assertTrue(high - value <= Math.max(0, value / 16), () -> value + " reported as " + high);
+        }
+    }
+
+    @Test
+    void reportsPercentilesMeanAndMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().percentile(99));
+        for (int v = 1; v <= 1000; v++) histogram.record(v * 1000L);
+        histogram.record(-5);
+
+        LatencyHistogram.Snapshot s = histogram.snapshot();
+        assertEquals(1001, s.count());
+        assertEquals(1_000_000, s.max());
+        assertEquals(0, s.percentile(0));
+        assertEquals(500_000, s.percentile(50), 500_000 / 16.0);
+        assertEquals(990_000, s.percentile(99), 990_000 / 16.0);
+        assertEquals(1_000_000, s.percentile(100));
+        assertEquals(500_500_000 / 1001.0, s.mean(), 1e-6);
+        assertThrows(IllegalArgumentException.class, () -> s.percentile(101));
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().count());
+        assertEquals(1001, s.count());
+    }
+}
@@ -0,0 +1,173 @@
+package com.six.spacex.persistence;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.repository.FleetImport;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.repository.SpaceXRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledSpaceXRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysMutationsAfterRestart() throws Exception {
+        Path file = dir.resolve("repo.wal");
+        RocketId r1, r2;
+        MissionId m1, m2;
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(file, new InMemorySpaceXRepository(), FsyncPolicy.everyWrite())) {
+            r1 = repo.addRocket("Dragon 1");
+            r2 = repo.addRocket("Dragon 2");
+            m1 = repo.addMission("Luna1");
+            m2 = repo.addMission("Ended");
+            repo.assignRocketsToMission(m1, List.of(r1, r2));
+            repo.changeRocketStatus(r2, RocketStatus.IN_REPAIR);
+            repo.unassignRocket(r1);
+            repo.changeMissionStatus(m2, MissionStatus.ENDED);
+            // rejected, so never logged
+            assertThrows(DomainException.class, () -> repo.assignRocketToMission(r1, m2));
+        }
+
+        SpaceXRepository restored = new InMemorySpaceXRepository();
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(file, restored, FsyncPolicy.never())) {
+            assertEquals(8, repo.log().recordCount());
+            assertEquals(MissionStatus.PENDING, repo.getMissionStatus(m1).orElseThrow());
+            assertEquals(MissionStatus.ENDED, repo.getMissionStatus(m2).orElseThrow());
+            assertEquals(RocketStatus.IN_REPAIR, repo.getRocketStatus(r2).orElseThrow());
+            assertTrue(repo.getRocket(r1).orElseThrow().missionName.isEmpty());
+
+            repo.assignRocketToMission(r1, m1);
+        }
+
+        SpaceXRepository again = new InMemorySpaceXRepository();
+        JournaledSpaceXRepository.open(file, again, FsyncPolicy.never()).close();
+        assertEquals(2, again.getMission(m1).orElseThrow().dragonsCount);
+    }
+
+    @Test
+    void batchIsLoggedAsOneRecordAndReplayed() throws Exception {
+        Path file = dir.resolve("batch.wal");
+        RocketId r1, r2;
+        MissionId m;
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(file, new InMemorySpaceXRepository(), FsyncPolicy.never())) {
+            r1 = repo.addRocket("Dragon 1");
+            r2 = repo.addRocket("Dragon 2");
+            m = repo.addMission("Luna1");
+            repo.applyBatch(List.of(
+                    RepositoryCommand.assign(r1, m),
+                    RepositoryCommand.assign(r2, m),
+                    RepositoryCommand.changeRocketStatus(r2, RocketStatus.IN_REPAIR),
+                    RepositoryCommand.changeMissionStatus(m, MissionStatus.PENDING)));
+            assertThrows(DomainException.class, () -> repo.applyBatch(List.of(RepositoryCommand.unassign(r1), RepositoryCommand.unassign(r1))));
+            assertEquals(4, repo.log().recordCount());
+        }
+
+        SpaceXRepository restored = new InMemorySpaceXRepository();
+        JournaledSpaceXRepository.open(file, restored, FsyncPolicy.never()).close();
+        assertEquals(MissionStatus.PENDING, restored.getMissionStatus(m).orElseThrow());
+        assertEquals(2, restored.getMission(m).orElseThrow().dragonsCount);
+    }
+
+    @Test
+    void tornTailIsTruncatedOnOpen() throws Exception {
+        Path file = dir.resolve("torn.wal");
+        RocketId r;
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(file, new InMemorySpaceXRepository(), FsyncPolicy.never())) {
+            r = repo.addRocket("Dragon 1");
+            repo.addMission("Luna1");
+        }
+        long validLength;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            validLength = ch.size();
+            // half-written frame: plausible length, missing body
+            ch.write(java.nio.ByteBuffer.allocate(6).putInt(40).putShort((short) 7).flip(), validLength);
+        }
+
+        SpaceXRepository restored = new InMemorySpaceXRepository();
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(file, restored, FsyncPolicy.never())) {
+            assertEquals(2, repo.log().recordCount());
+            assertEquals(validLength, repo.log().position());
+            assertTrue(repo.getRocket(r).isPresent());
+        }
+    }
+
+    @Test
+    void batchedPolicyFlushesInBackground() throws Exception {
+        Path file = dir.resolve("batched.wal");
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(file, new InMemorySpaceXRepository(),
+                FsyncPolicy.batched(4, Duration.ofMillis(5)))) {
+            for (int i = 0; i < 10; i++) repo.addRocket("Dragon " + i);
+            long[] seen = new long[1];
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (seen[0] < 10 && System.nanoTime() < deadline) {
+                seen[0] = WriteAheadLog.replay(file, record -> { });
+                Thread.sleep(5);
+            }
+            assertEquals(10, seen[0]);
+        }
+    }
+
+    @Test
+    void neverPolicyHandsEachRecordToTheOsBeforeReturning() throws Exception {
+        Path file = dir.resolve("never.wal");
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(file, new InMemorySpaceXRepository(), FsyncPolicy.never())) {
+            repo.addRocket("Dragon 1");
+            repo.addMission("Luna1");
+            // still open, as after a JVM crash: the records are in the file, not only in the buffer
+            assertEquals(2, WriteAheadLog.replay(file, body -> { }));
+        }
+    }
+
+    @Test
+    void failsClosedWhenTheLogCannotTakeARecord() throws Exception {
+        Path file = dir.resolve("failed.wal");
+        JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(file, new InMemorySpaceXRepository(), FsyncPolicy.never());
+        RocketId r = repo.addRocket("Dragon 1");
+        repo.log().close();
+
+        assertThrows(IllegalStateException.class, () -> repo.changeRocketStatus(r, RocketStatus.IN_REPAIR));
+        // memory is ahead of the log now, so nothing else is applied
+        IllegalStateException failed = assertThrows(IllegalStateException.class, () -> repo.addRocket("Dragon 2"));
+        assertTrue(failed.getMessage().contains("reopen"));
+        assertEquals(1, repo.countRocketsByStatus(RocketStatus.IN_REPAIR) + repo.countRocketsByStatus(RocketStatus.ON_GROUND));
+
+        SpaceXRepository restored = new InMemorySpaceXRepository();
+        JournaledSpaceXRepository.open(file, restored, FsyncPolicy.never()).close();
+        assertEquals(RocketStatus.ON_GROUND, restored.getRocketStatus(r).orElseThrow());
+    }
+
+    @Test
+    void importedFleetIsSnapshottedInsteadOfLogged() throws Exception {
+        Path file = dir.resolve("import.wal");
+        Path snapshot = dir.resolve("import.snap");
+        RocketId r1 = RocketId.random(), r2 = RocketId.random();
+        MissionId m = MissionId.random();
+        FleetImport fleet = new FleetImport()
+                .mission(m, "Mars")
+                .rocket(r1, "Dragon 1", RocketStatus.IN_SPACE, m)
+                .rocket(r2, "Dragon 2");
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.importFleet(file, snapshot, fleet, FsyncPolicy.never())) {
+            assertEquals(0, repo.log().recordCount());
+            assertEquals(MissionStatus.IN_PROGRESS, repo.getMissionStatus(m).orElseThrow());
+            repo.assignRocketToMission(r2, m);
+        }
+
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(file, snapshot, FsyncPolicy.never())) {
+            assertEquals(1, repo.log().recordCount());
+            assertEquals(2, repo.getMission(m).orElseThrow().dragonsCount);
+        }
+        assertThrows(IllegalStateException.class, () -> JournaledSpaceXRepository.importFleet(file, snapshot,
+                new FleetImport().rocket(RocketId.random(), "Dragon 3"), FsyncPolicy.never()));
+    }
+}
@@ -0,0 +1,153 @@
+package com.six.spacex.persistence;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.repository.ConcurrentSpaceXRepository;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositorySnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripPreservesGraphAndOrder() throws Exception {
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        RocketId r1 = repo.addRocket("Dragon 1");
+        RocketId r2 = repo.addRocket("Dragon 2");
+        RocketId r3 = repo.addRocket("Dragon 3");
+        RocketId r4 = repo.addRocket("Dragon 1");
+        MissionId luna = repo.addMission("Luna1");
+        MissionId mars = repo.addMission("Mars");
+        MissionId ended = repo.addMission("Vertical Landing");
+        repo.assignRocketsToMission(luna, List.of(r2, r1));
+        repo.assignRocketToMission(r3, mars);
+        repo.changeRocketStatus(r1, RocketStatus.IN_REPAIR);
+        repo.changeRocketStatus(r3, RocketStatus.IN_SPACE);
+        repo.changeRocketStatus(r4, RocketStatus.IN_BUILD);
+        repo.changeMissionStatus(ended, MissionStatus.ENDED);
+
+        Path file = dir.resolve("repo.snap");
+        RepositorySnapshot.write(file, repo, 1234);
+        RepositorySnapshot loaded = RepositorySnapshot.read(file);
+        InMemorySpaceXRepository restored = loaded.repository();
+
+        assertEquals(1234, loaded.walPosition());
+        assertSummariesEqual(repo.summarizeMissionsByAssignedRockets(), restored.summarizeMissionsByAssignedRockets());
+        assertEquals(MissionStatus.PENDING, restored.getMissionStatus(luna).orElseThrow());
+        assertEquals(RocketStatus.IN_BUILD, restored.getRocketStatus(r4).orElseThrow());
+        assertEquals(List.of("Dragon 3"), restored.listRocketsByStatus(RocketStatus.IN_SPACE).stream().map(d -> d.name).toList());
+
+        // restored state accepts further mutations under the usual rules
+        restored.changeRocketStatus(r1, RocketStatus.ON_GROUND);
+        assertEquals(MissionStatus.IN_PROGRESS, restored.getMissionStatus(luna).orElseThrow());
+        assertThrows(DomainException.class, () -> restored.assignRocketToMission(r4, ended));
+    }
+
+    @Test
+    void checkpointThenReplayLogTail() throws Exception {
+        Path wal = dir.resolve("repo.wal");
+        Path snap = dir.resolve("repo.snap");
+        RocketId r1, r2;
+        MissionId m;
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(wal, snap, FsyncPolicy.never())) {
+            r1 = repo.addRocket("Dragon 1");
+            m = repo.addMission("Luna1");
+            repo.assignRocketToMission(r1, m);
+            assertEquals(repo.log().position(), repo.checkpoint(snap));
+            r2 = repo.addRocket("Dragon 2");
+            repo.assignRocketToMission(r2, m);
+            repo.changeRocketStatus(r2, RocketStatus.IN_REPAIR);
+        }
+
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(wal, snap, FsyncPolicy.never())) {
+            assertEquals(3, repo.log().recordCount());
+            MissionSummary s = repo.getMission(m).orElseThrow();
+            assertEquals(2, s.dragonsCount);
+            assertEquals(MissionStatus.PENDING, s.missionStatus);
+            assertTrue(repo.getRocket(r2).isPresent());
+        }
+    }
+
+    @Test
+    void periodicCheckpointerWritesSnapshots() throws Exception {
+        Path snap = dir.resolve("periodic.snap");
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(dir.resolve("periodic.wal"), snap, FsyncPolicy.never());
+             PeriodicCheckpointer checkpointer = PeriodicCheckpointer.start(repo, snap, Duration.ofMillis(5))) {
+            repo.addRocket("Dragon 1");
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (checkpointer.checkpoints() == 0 && System.nanoTime() < deadline) Thread.sleep(5);
+            assertTrue(checkpointer.checkpoints() > 0);
+            assertTrue(checkpointer.lastFailure().isEmpty());
+        }
+        assertEquals(1, RepositorySnapshot.read(snap).repository().rocketCount());
+    }
+
+    @Test
+    void periodicCheckpointerKeepsRetryingAfterAFailedRound() throws Exception {
+        Path snap = dir.resolve("failing.snap");
+        // checkpoints need an InMemorySpaceXRepository, so every round fails
+        try (JournaledSpaceXRepository repo = JournaledSpaceXRepository.open(dir.resolve("failing.wal"), new ConcurrentSpaceXRepository(), FsyncPolicy.never());
+             PeriodicCheckpointer checkpointer = PeriodicCheckpointer.start(repo, snap, Duration.ofMillis(5))) {
+            repo.addRocket("Dragon 1");
+            Exception first = awaitFailure(checkpointer, null);
+            assertInstanceOf(UnsupportedOperationException.class, first);
+            assertNotSame(first, awaitFailure(checkpointer, first), "a later round ran");
+            assertEquals(0, checkpointer.checkpoints());
+        }
+    }
+
+    private static Exception awaitFailure(PeriodicCheckpointer checkpointer, Exception previous) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            Exception failure = checkpointer.lastFailure().orElse(null);
+            if (failure != null && failure != previous) return failure;
+            Thread.sleep(5);
+        }
+        return fail("no new failure recorded");
+    }
+
+    @Test
+    void corruptSnapshotIsRejected() throws Exception {
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        repo.addRocket("Dragon 1");
+        Path file = dir.resolve("corrupt.snap");
+        RepositorySnapshot.write(file, repo, 8);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(java.nio.ByteBuffer.wrap(new byte[]{0x7f}), 40);
+        }
+        assertThrows(IOException.class, () -> RepositorySnapshot.read(file));
+    }
+
+    @Test
+    void restoreRejectsInconsistentGraph() {
+        Rocket rocket = new Rocket(RocketId.random(), "Dragon 1");
+        Mission mission = new Mission(MissionId.random(), "Luna1");
+        rocket.assignTo(mission.id());
+        // mission does not list the rocket
+        assertThrows(DomainException.class, () -> InMemorySpaceXRepository.restore(List.of(rocket), List.of(mission)));
+
+        mission.addRocket(rocket);
+        mission.setStatus(MissionStatus.PENDING);
+        assertThrows(DomainException.class, () -> InMemorySpaceXRepository.restore(List.of(rocket), List.of(mission)));
+
+        mission.setStatus(MissionStatus.IN_PROGRESS);
+        assertEquals(1, InMemorySpaceXRepository.restore(List.of(rocket), List.of(mission)).missionCount());
+    }
+
+    private static void assertSummariesEqual(List<MissionSummary> expected, List<MissionSummary> actual) {
+        assertEquals(expected.stream().map(MissionSummary::toString).toList(),
+                actual.stream().map(MissionSummary::toString).toList());
+    }
+}
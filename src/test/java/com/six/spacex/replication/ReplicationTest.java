@@ -0,0 +1,207 @@
+package com.six.spacex.replication;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import com.six.spacex.persistence.MutationCodec;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.repository.SpaceXRepository;
+import com.six.spacex.repository.VersionedSpaceXRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    @Test
+    void followersApplyTheStreamInOrderAndStayReadOnly() throws Exception {
+        AtomicLong now = new AtomicLong(1_000);
+        ReplicatedSpaceXRepository primary = new ReplicatedSpaceXRepository(new InMemorySpaceXRepository(), 100_000, now::get);
+        try (ReplicaSpaceXRepository a = ReplicaSpaceXRepository.follow(primary);
+             ReplicaSpaceXRepository b = ReplicaSpaceXRepository.follow(primary)) {
+            Workload workload = new Workload(primary, 24);
+            workload.run(2_000);
+            RocketId r = primary.addRocket("Dragon X");
+            MissionId m = primary.addMission("Luna1");
+            primary.applyBatch(List.of(RepositoryCommand.assign(r, m), RepositoryCommand.changeRocketStatus(r, RocketStatus.IN_REPAIR)));
+            assertThrows(DomainException.class, () -> primary.unassignRocket(RocketId.random()));
+
+            for (ReplicaSpaceXRepository replica : List.of(a, b)) {
+                assertTrue(replica.awaitSequence(primary.sequence(), WAIT));
+                assertEquals(primary.sequence(), replica.appliedSequence());
+                assertEquals(render(primary), render(replica));
+                assertEquals(0, replica.lagRecords());
+                assertEquals(Duration.ZERO, replica.lag());
+                assertTrue(replica.connected());
+                assertEquals(MissionStatus.PENDING, replica.getMissionStatus(m).orElseThrow());
+                assertThrows(UnsupportedOperationException.class, () -> replica.addRocket("Dragon Y"));
+                assertThrows(UnsupportedOperationException.class, () -> replica.unassignRocket(r));
+            }
+        }
+    }
+
+    @Test
+    void reportsLagFromThePrimarysCommitTimes() throws Exception {
+        AtomicLong now = new AtomicLong(1_000);
+        ReplicatedSpaceXRepository primary = new ReplicatedSpaceXRepository(new InMemorySpaceXRepository(), 16, now::get);
+        primary.addRocket("Dragon 1");
+        ReplicationBatch first = primary.fetch(0, 1, 0);
+        now.set(1_250);
+        primary.addRocket("Dragon 2");
+        now.set(1_900);
+        primary.addRocket("Dragon 3");
+
+        ReplicationBatch next = primary.fetch(first.lastSequence, 1, 0);
+        assertFalse(next.reset);
+        assertEquals(2, next.lastSequence);
+        assertEquals(1_250, next.lastMillis);
+        assertEquals(3, next.headSequence);
+        assertEquals(1_900, next.headMillis);
+        assertTrue(primary.fetch(3, 10, 0).records.isEmpty());
+        assertTrue(primary.fetch(4, 10, 0).reset, "a position the primary never reached needs a state transfer");
+    }
+
+    @Test
+    void catchesUpFromAnyPositionWithAStateTransfer() throws Exception {
+        ReplicatedSpaceXRepository primary = new ReplicatedSpaceXRepository(new InMemorySpaceXRepository(), 32);
+        Workload workload = new Workload(primary, 30);
+        workload.run(3_000);
+        MissionId ended = primary.addMission("Ended");
+        primary.changeMissionStatus(ended, MissionStatus.ENDED);
+
+        ReplicationBatch transfer = primary.fetch(0, 10, 0);
+        assertTrue(transfer.reset);
+        assertEquals(primary.sequence(), transfer.lastSequence);
+
+        try (ReplicaSpaceXRepository replica = ReplicaSpaceXRepository.follow(primary)) {
+            assertTrue(replica.awaitSequence(primary.sequence(), WAIT));
+            assertEquals(render(primary), render(replica));
+            workload.run(500);
+            assertTrue(replica.awaitSequence(primary.sequence(), WAIT));
+            assertEquals(render(primary), render(replica));
+        }
+    }
+
+    @Test
+    void stateTransferRebuildsStatesOnlyReachableInOrder() throws Exception {
+        for (long seed = 0; seed < 50; seed++) {
+            ReplicatedSpaceXRepository primary = new ReplicatedSpaceXRepository(new InMemorySpaceXRepository(), 1);
+            new Workload(primary, 16, seed).run(1_000);
+            VersionedSpaceXRepository rebuilt = new VersionedSpaceXRepository();
+            for (byte[] record : primary.fetch(-1, 1, 0).records) MutationCodec.apply(ByteBuffer.wrap(record), rebuilt);
+            assertEquals(render(primary), render(rebuilt), "seed " + seed);
+        }
+    }
+
+    @Test
+    void resyncsAfterARecordFailsToApplyBeforeTheRingWraps() throws Exception {
+        ReplicatedSpaceXRepository primary = new ReplicatedSpaceXRepository(new InMemorySpaceXRepository(), 100);
+        primary.addRocket("Dragon 1");
+        primary.addMission("Luna1");
+        assertTrue(primary.fetch(-1, 10, 10).reset);
+
+        AtomicBoolean corrupted = new AtomicBoolean();
+        ReplicationSource corrupting = (after, max, timeoutMillis) -> {
+            ReplicationBatch batch = primary.fetch(after, max, timeoutMillis);
+            if (batch.reset || batch.records.isEmpty() || !corrupted.compareAndSet(false, true)) return batch;
+            return new ReplicationBatch(false, batch.lastSequence, batch.lastMillis, batch.headSequence, batch.headMillis,
+                    List.of(new byte[] {Byte.MAX_VALUE}));
+        };
+        try (ReplicaSpaceXRepository replica = ReplicaSpaceXRepository.follow(corrupting)) {
+            assertTrue(replica.awaitSequence(primary.sequence(), WAIT));
+            assertTrue(corrupted.get());
+            assertEquals(render(primary), render(replica));
+            primary.addRocket("Dragon 2");
+            assertTrue(replica.awaitSequence(primary.sequence(), WAIT));
+            assertEquals(render(primary), render(replica));
+        }
+    }
+
+    @Test
+    void followsOverASocketAndResumesAfterADisconnect(@TempDir Path dir) throws Exception {
+        ReplicatedSpaceXRepository primary = new ReplicatedSpaceXRepository(new InMemorySpaceXRepository(), 100_000);
+        SocketAddress address = UnixDomainSocketAddress.of(dir.resolve("replication.sock"));
+        Workload workload = new Workload(primary, 20);
+        workload.run(300);
+
+        ReplicationServer server = ReplicationServer.start(primary, address);
+        try (ReplicaSpaceXRepository replica = ReplicaSpaceXRepository.follow(address)) {
+            assertTrue(replica.awaitSequence(primary.sequence(), WAIT));
+            assertEquals(render(primary), render(replica));
+            assertEquals(1, server.connections());
+
+            server.close();
+            workload.run(300);
+            long before = replica.appliedSequence();
+            assertTrue(before < primary.sequence());
+
+            server = ReplicationServer.start(primary, address);
+            assertTrue(replica.awaitSequence(primary.sequence(), WAIT));
+            assertEquals(render(primary), render(replica));
+        } finally {
+            server.close();
+        }
+    }
+
+    private static String render(SpaceXRepository repo) {
+        StringBuilder sb = new StringBuilder();
+        for (MissionSummary s : repo.summarizeMissionsByAssignedRockets()) sb.append(s).append('\n');
+        for (RocketStatus status : RocketStatus.values()) {
+            for (RocketDetails d : repo.listRocketsByStatus(status)) sb.append(d).append('\n');
+        }
+        for (MissionStatus status : MissionStatus.values()) {
+            sb.append(status).append(' ').append(repo.countMissionsByStatus(status)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** Random mutations on a small fleet; rejected ones are simply not replicated. */
+    private static final class Workload {
+        private final SpaceXRepository repo;
+        private final int fleet;
+        private final Random rnd;
+        private final List<RocketId> rockets = new ArrayList<>();
+        private final List<MissionId> missions = new ArrayList<>();
+
+        Workload(SpaceXRepository repo, int fleet) {
+            this(repo, fleet, 24);
+        }
+
+        Workload(SpaceXRepository repo, int fleet, long seed) {
+            this.repo = repo;
+            this.fleet = fleet;
+            this.rnd = new Random(seed);
+        }
+
+        void run(int operations) {
+            for (int i = 0; i < operations; i++) {
+                if (rockets.size() < fleet && rnd.nextInt(8) == 0) rockets.add(repo.addRocket("Dragon " + rnd.nextInt(fleet)));
+                if (missions.size() < fleet / 4 && rnd.nextInt(20) == 0) missions.add(repo.addMission("Mission " + rnd.nextInt(5)));
+                if (rockets.isEmpty() || missions.isEmpty()) continue;
+                RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+                MissionId m = missions.get(rnd.nextInt(missions.size()));
+                switch (rnd.nextInt(4)) {
+                    case 0 -> repo.tryAssignRocketToMission(r, m);
+                    case 1 -> repo.tryUnassignRocket(r);
+                    case 2 -> repo.tryChangeRocketStatus(r, RocketStatus.values()[rnd.nextInt(RocketStatus.values().length)]);
+                    default -> repo.tryChangeMissionStatus(m, MissionStatus.values()[rnd.nextInt(MissionStatus.values().length)]);
+                }
+            }
+        }
+    }
+}
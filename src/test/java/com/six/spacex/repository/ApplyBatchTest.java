@@ -0,0 +1,146 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplyBatchTest {
+
+    private static final List<Supplier<SpaceXRepository>> IMPLEMENTATIONS = List.of(
+            InMemorySpaceXRepository::new, ConcurrentSpaceXRepository::new, CompactSpaceXRepository::new);
+
+    @Test
+    void rejectedBatchChangesNothing() {
+        for (Supplier<SpaceXRepository> impl : IMPLEMENTATIONS) {
+            SpaceXRepository repo = impl.get();
+            RocketId r1 = repo.addRocket("Dragon 1");
+            RocketId r2 = repo.addRocket("Dragon 2");
+            MissionId m1 = repo.addMission("Luna1");
+            MissionId m2 = repo.addMission("Mars");
+
+            DomainException e = assertThrows(DomainException.class, () -> repo.applyBatch(List.of(
+                    RepositoryCommand.assign(r1, m1),
+                    RepositoryCommand.changeRocketStatus(r1, RocketStatus.IN_REPAIR),
+                    RepositoryCommand.assign(r1, m2))));
+            assertTrue(e.getMessage().startsWith("Batch command 2"), e.getMessage());
+            assertTrue(e.getMessage().endsWith("Rocket already assigned to a mission"), e.getMessage());
+
+            assertEquals(MissionStatus.SCHEDULED, repo.getMissionStatus(m1).orElseThrow());
+            assertEquals(RocketStatus.ON_GROUND, repo.getRocketStatus(r1).orElseThrow());
+            assertTrue(repo.getRocket(r1).orElseThrow().missionName.isEmpty());
+            assertThrows(DomainException.class, () -> repo.applyBatch(List.of(
+                    RepositoryCommand.assign(r2, m2), RepositoryCommand.unassign(RocketId.random()))));
+            assertEquals(0, repo.getMission(m2).orElseThrow().dragonsCount);
+        }
+    }
+
+    @Test
+    void laterCommandsSeeEffectsOfEarlierOnes() {
+        for (Supplier<SpaceXRepository> impl : IMPLEMENTATIONS) {
+            SpaceXRepository repo = impl.get();
+            RocketId r1 = repo.addRocket("Dragon 1");
+            RocketId r2 = repo.addRocket("Dragon 2");
+            MissionId m1 = repo.addMission("Luna1");
+            MissionId m2 = repo.addMission("Mars");
+
+            repo.applyBatch(List.of(
+                    RepositoryCommand.assign(r1, m1),
+                    RepositoryCommand.assign(r2, m1),
+                    RepositoryCommand.changeRocketStatus(r2, RocketStatus.IN_REPAIR),
+                    // only valid because the previous command put a rocket in repair
+                    RepositoryCommand.changeMissionStatus(m1, MissionStatus.PENDING),
+                    RepositoryCommand.unassign(r1),
+                    RepositoryCommand.assign(r1, m2),
+                    RepositoryCommand.changeRocketStatus(r1, RocketStatus.IN_SPACE),
+                    RepositoryCommand.changeMissionStatus(m2, MissionStatus.IN_PROGRESS)));
+
+            assertEquals(MissionStatus.PENDING, repo.getMissionStatus(m1).orElseThrow());
+            assertEquals(MissionStatus.IN_PROGRESS, repo.getMissionStatus(m2).orElseThrow());
+            assertEquals(1, repo.getMission(m1).orElseThrow().dragonsCount);
+            assertEquals(1, repo.countMissionsByStatus(MissionStatus.PENDING));
+            assertEquals(1, repo.countRocketsByStatus(RocketStatus.IN_SPACE));
+        }
+    }
+
+    @Test
+    void batchMatchesSequentialApplication() {
+        for (Supplier<SpaceXRepository> impl : IMPLEMENTATIONS) {
+            List<RocketId> rockets = new ArrayList<>();
+            List<MissionId> missions = new ArrayList<>();
+            for (int i = 0; i < 40; i++) rockets.add(RocketId.random());
+            for (int i = 0; i < 8; i++) missions.add(MissionId.random());
+            SpaceXRepository batched = fleet(impl, rockets, missions);
+            List<RepositoryCommand> history = new ArrayList<>();
+
+            Random rnd = new Random(5);
+            int applied = 0;
+            for (int round = 0; round < 300; round++) {
+                List<RepositoryCommand> batch = new ArrayList<>();
+                for (int i = 0; i < 1 + rnd.nextInt(6); i++) batch.add(randomCommand(rnd, rockets, missions));
+
+                // replay the accepted history plus this batch one command at a time on a fresh copy
+                SpaceXRepository sequential = fleet(impl, rockets, missions);
+                history.forEach(c -> applyOne(sequential, c));
+                boolean valid = true;
+                try {
+                    batch.forEach(c -> applyOne(sequential, c));
+                } catch (DomainException e) {
+                    valid = false;
+                }
+
+                if (valid) {
+                    batched.applyBatch(batch);
+                    history.addAll(batch);
+                    applied++;
+                    assertEquals(render(sequential.summarizeMissionsByAssignedRockets()), render(batched.summarizeMissionsByAssignedRockets()));
+                    for (RocketStatus s : RocketStatus.values()) {
+                        assertEquals(sequential.countRocketsByStatus(s), batched.countRocketsByStatus(s));
+                    }
+                } else {
+                    String before = render(batched.summarizeMissionsByAssignedRockets()).toString();
+                    assertThrows(DomainException.class, () -> batched.applyBatch(batch));
+                    assertEquals(before, render(batched.summarizeMissionsByAssignedRockets()).toString());
+                }
+            }
+            assertTrue(applied > 20, "too few valid batches to be meaningful: " + applied);
+        }
+    }
+
+    private static SpaceXRepository fleet(Supplier<SpaceXRepository> impl, List<RocketId> rockets, List<MissionId> missions) {
+        SpaceXRepository repo = impl.get();
+        for (int i = 0; i < rockets.size(); i++) repo.addRocket(rockets.get(i), "Dragon " + i);
+        for (int i = 0; i < missions.size(); i++) repo.addMission(missions.get(i), "Mission " + i);
+        return repo;
+    }
+
+    private static void applyOne(SpaceXRepository repo, RepositoryCommand c) {
+        switch (c.type) {
+            case ASSIGN -> repo.assignRocketToMission(c.rocketId, c.missionId);
+            case UNASSIGN -> repo.unassignRocket(c.rocketId);
+            case CHANGE_ROCKET_STATUS -> repo.changeRocketStatus(c.rocketId, c.rocketStatus);
+            case CHANGE_MISSION_STATUS -> repo.changeMissionStatus(c.missionId, c.missionStatus);
+        }
+    }
+
+    private static RepositoryCommand randomCommand(Random rnd, List<RocketId> rockets, List<MissionId> missions) {
+        RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+        MissionId m = missions.get(rnd.nextInt(missions.size()));
+        return switch (rnd.nextInt(6)) {
+            case 0, 1 -> RepositoryCommand.assign(r, m);
+            case 2 -> RepositoryCommand.unassign(r);
+            case 3, 4 -> RepositoryCommand.changeRocketStatus(r, RocketStatus.values()[rnd.nextInt(RocketStatus.values().length)]);
+            default -> RepositoryCommand.changeMissionStatus(m, MissionStatus.values()[rnd.nextInt(MissionStatus.values().length)]);
+        };
+    }
+
+    private static List<String> render(List<MissionSummary> summaries) {
+        return summaries.stream().map(MissionSummary::toString).toList();
+    }
+}
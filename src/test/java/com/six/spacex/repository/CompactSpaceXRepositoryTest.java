@@ -0,0 +1,117 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactSpaceXRepositoryTest {
+
+    @Test
+    void rejectsDuplicateRocketInBatchWithoutChangingState() {
+        SpaceXRepository repo = new CompactSpaceXRepository();
+        RocketId r1 = repo.addRocket("Dragon 1");
+        RocketId r2 = repo.addRocket("Dragon 2");
+        MissionId m1 = repo.addMission("Luna1");
+
+        assertThrows(DomainException.class, () -> repo.assignRocketsToMission(m1, List.of(r1, r2, r1)));
+        assertThrows(DomainException.class, () -> repo.assignRocketsToMission(m1, List.of(r1, RocketId.random())));
+        assertEquals(0, repo.getMission(m1).orElseThrow().dragonsCount);
+
+        repo.assignRocketsToMission(m1, List.of(r2, r1));
+        assertEquals(List.of("Dragon 2", "Dragon 1"),
+                repo.getMission(m1).orElseThrow().rockets.stream().map(r -> r.name).toList());
+    }
+
+    @Test
+    void behavesLikeInMemoryRepositoryUnderRandomOperations() {
+        SpaceXRepository expected = new InMemorySpaceXRepository();
+        SpaceXRepository actual = new CompactSpaceXRepository();
+        List<RocketId> rockets = new ArrayList<>();
+        List<MissionId> missions = new ArrayList<>();
+        Random rnd = new Random(11);
+        RocketStatus[] rocketStatuses = RocketStatus.values();
+        MissionStatus[] missionStatuses = MissionStatus.values();
+
+        for (int i = 0; i < 20_000; i++) {
+            int op = rnd.nextInt(10);
+            if (op == 0 || rockets.isEmpty()) {
+                RocketId id = RocketId.random();
+                String name = "Dragon " + rnd.nextInt(50);
+                expected.addRocket(id, name);
+                actual.addRocket(id, name);
+                rockets.add(id);
+            } else if (op == 1 || missions.isEmpty()) {
+                MissionId id = MissionId.random();
+                String name = "Mission " + rnd.nextInt(20);
+                expected.addMission(id, name);
+                actual.addMission(id, name);
+                missions.add(id);
+            } else {
+                RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+                MissionId m = missions.get(rnd.nextInt(missions.size()));
+                switch (op) {
+                    case 2, 3 -> same(() -> expected.assignRocketToMission(r, m), () -> actual.assignRocketToMission(r, m));
+                    case 4 -> same(() -> expected.unassignRocket(r), () -> actual.unassignRocket(r));
+                    case 5, 6, 7 -> {
+                        RocketStatus s = rocketStatuses[rnd.nextInt(rocketStatuses.length)];
+                        same(() -> expected.changeRocketStatus(r, s), () -> actual.changeRocketStatus(r, s));
+                    }
+                    case 8 -> {
+                        MissionStatus s = missionStatuses[rnd.nextInt(missionStatuses.length)];
+                        same(() -> expected.changeMissionStatus(m, s), () -> actual.changeMissionStatus(m, s));
+                    }
+                    default -> {
+                        List<RocketId> batch = List.of(r, rockets.get(rnd.nextInt(rockets.size())));
+                        if (batch.get(0).equals(batch.get(1))) continue;
+                        same(() -> expected.assignRocketsToMission(m, batch), () -> actual.assignRocketsToMission(m, batch));
+                    }
+                }
+            }
+        }
+
+        assertEquals(render(expected.summarizeMissionsByAssignedRockets()), render(actual.summarizeMissionsByAssignedRockets()));
+        assertEquals(render(expected.summarizeMissionsByAssignedRockets(5)), render(actual.summarizeMissionsByAssignedRockets(5)));
+        for (RocketStatus s : RocketStatus.values()) {
+            assertEquals(details(expected.listRocketsByStatus(s)), details(actual.listRocketsByStatus(s)));
+            assertEquals(expected.countRocketsByStatus(s), actual.countRocketsByStatus(s));
+        }
+        for (MissionStatus s : MissionStatus.values()) {
+            assertEquals(render(expected.listMissionsByStatus(s)), render(actual.listMissionsByStatus(s)));
+            assertEquals(expected.countMissionsByStatus(s), actual.countMissionsByStatus(s));
+        }
+        for (RocketId r : rockets) {
+            assertEquals(expected.getRocket(r).map(RocketDetails::toString), actual.getRocket(r).map(RocketDetails::toString));
+        }
+        assertTrue(actual.getRocket(RocketId.random()).isEmpty());
+        assertTrue(actual.getMissionStatus(MissionId.random()).isEmpty());
+    }
+
+    private static void same(Runnable expected, Runnable actual) {
+        String expectedError = errorOf(expected);
+        assertEquals(expectedError, errorOf(actual));
+    }
+
+    private static String errorOf(Runnable action) {
+        try {
+            action.run();
+            return null;
+        } catch (DomainException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static List<String> render(List<MissionSummary> summaries) {
+        return summaries.stream().map(MissionSummary::toString).toList();
+    }
+
+    private static List<String> details(List<RocketDetails> details) {
+        return details.stream().map(RocketDetails::toString).toList();
+    }
+}
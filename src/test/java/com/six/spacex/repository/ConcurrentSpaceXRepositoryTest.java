@@ -0,0 +1,92 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentSpaceXRepositoryTest {
+
+    @Test
+    void enforcesSameRulesAsInMemoryRepository() {
+        SpaceXRepository repo = new ConcurrentSpaceXRepository();
+        RocketId r1 = repo.addRocket("Dragon 1");
+        RocketId r2 = repo.addRocket("Dragon 2");
+        MissionId m1 = repo.addMission("Luna1");
+
+        repo.assignRocketsToMission(m1, List.of(r1, r2));
+        assertEquals(MissionStatus.IN_PROGRESS, repo.getMissionStatus(m1).orElseThrow());
+
+        repo.changeRocketStatus(r2, RocketStatus.IN_REPAIR);
+        assertEquals(MissionStatus.PENDING, repo.getMissionStatus(m1).orElseThrow());
+
+        assertThrows(DomainException.class, () -> repo.changeRocketStatus(r1, RocketStatus.IN_BUILD));
+        assertThrows(DomainException.class, () -> repo.changeMissionStatus(m1, MissionStatus.ENDED));
+        assertThrows(DomainException.class, () -> repo.assignRocketToMission(r1, m1));
+
+        repo.unassignRocket(r1);
+        repo.unassignRocket(r2);
+        assertEquals(MissionStatus.SCHEDULED, repo.getMissionStatus(m1).orElseThrow());
+        assertThrows(DomainException.class, () -> repo.unassignRocket(r1));
+    }
+
+    @Test
+    void concurrentMutationsKeepMissionStatusesConsistent() throws Exception {
+        SpaceXRepository repo = new ConcurrentSpaceXRepository(8);
+        List<MissionId> missions = new ArrayList<>();
+        List<RocketId> rockets = new ArrayList<>();
+        for (int i = 0; i < 16; i++) missions.add(repo.addMission("Mission " + i));
+        for (int i = 0; i < 200; i++) rockets.add(repo.addRocket("Dragon " + i));
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                start.await();
+                for (int i = 0; i < 20_000; i++) {
+                    RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+                    MissionId m = missions.get((seed + rnd.nextInt(missions.size())) % missions.size());
+                    try {
+                        switch (rnd.nextInt(4)) {
+                            case 0 -> repo.assignRocketToMission(r, m);
+                            case 1 -> repo.unassignRocket(r);
+                            case 2 -> repo.changeRocketStatus(r, RocketStatus.IN_REPAIR);
+                            default -> repo.changeRocketStatus(r, RocketStatus.IN_SPACE);
+                        }
+                    } catch (DomainException expected) {
+                        // contention makes many operations invalid at the time they run
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        int assignedRockets = 0;
+        for (MissionSummary s : repo.summarizeMissionsByAssignedRockets()) {
+            boolean anyRepair = s.rockets.stream().anyMatch(r -> r.status == RocketStatus.IN_REPAIR);
+            MissionStatus expected = s.dragonsCount == 0 ? MissionStatus.SCHEDULED
+                    : anyRepair ? MissionStatus.PENDING : MissionStatus.IN_PROGRESS;
+            assertEquals(expected, s.missionStatus, s.missionName);
+            assignedRockets += s.dragonsCount;
+        }
+        long withMission = 0;
+        for (RocketId r : rockets) {
+            RocketDetails d = repo.getRocket(r).orElseThrow();
+            if (d.missionName.isPresent()) withMission++;
+        }
+        assertEquals(withMission, assignedRockets);
+    }
+}
@@ -0,0 +1,123 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetImportTest {
+
+    @Test
+    void importsTheSameStateAsOneCallAtATime() {
+        SpaceXRepository expected = new InMemorySpaceXRepository();
+        List<RocketId> rockets = new ArrayList<>();
+        List<MissionId> missions = new ArrayList<>();
+        Random rnd = new Random(20);
+        for (int i = 0; i < 300; i++) {
+            RocketId r = RocketId.random();
+            expected.addRocket(r, "Dragon " + rnd.nextInt(40));
+            rockets.add(r);
+        }
+        for (int i = 0; i < 60; i++) {
+            MissionId m = MissionId.random();
+            expected.addMission(m, "Mission " + rnd.nextInt(20));
+            missions.add(m);
+        }
+        Map<RocketId, MissionId> assignments = new HashMap<>();
+        for (RocketId r : rockets) {
+            if (rnd.nextInt(4) > 0) {
+                MissionId m = missions.get(rnd.nextInt(missions.size()));
+                expected.assignRocketToMission(r, m);
+                assignments.put(r, m);
+            }
+            RocketStatus[] allowed = assignments.containsKey(r)
+                    ? new RocketStatus[]{RocketStatus.ON_GROUND, RocketStatus.IN_SPACE, RocketStatus.IN_REPAIR}
+                    : new RocketStatus[]{RocketStatus.ON_GROUND, RocketStatus.IN_BUILD, RocketStatus.IN_REPAIR};
+            expected.changeRocketStatus(r, allowed[rnd.nextInt(allowed.length)]);
+        }
+        for (MissionId m : missions) {
+            if (expected.getMission(m).orElseThrow().dragonsCount == 0 && rnd.nextBoolean()) {
+                expected.changeMissionStatus(m, MissionStatus.ENDED);
+            }
+        }
+
+        // records in an order no sequence of mutations could produce: rockets before their missions
+        FleetImport fleet = new FleetImport(rockets.size(), missions.size());
+        for (RocketId r : rockets) {
+            RocketDetails d = expected.getRocket(r).orElseThrow();
+            fleet.rocket(r, d.name, d.status, assignments.get(r));
+        }
+        for (MissionId m : missions) {
+            MissionSummary s = expected.getMission(m).orElseThrow();
+            if (s.missionStatus == MissionStatus.ENDED || rnd.nextBoolean()) fleet.mission(m, s.missionName, s.missionStatus);
+            else fleet.mission(m, s.missionName);
+        }
+        InMemorySpaceXRepository actual = InMemorySpaceXRepository.importFleet(fleet);
+
+        assertEquals(render(expected.summarizeMissionsByAssignedRockets()), render(actual.summarizeMissionsByAssignedRockets()));
+        for (RocketStatus s : RocketStatus.values()) {
+            assertEquals(details(expected.listRocketsByStatus(s)), details(actual.listRocketsByStatus(s)));
+        }
+        for (MissionStatus s : MissionStatus.values()) {
+            assertEquals(render(expected.listMissionsByStatus(s)), render(actual.listMissionsByStatus(s)));
+        }
+        assertEquals(expected.findRocketsByNamePrefix("Dragon 1", 50), actual.findRocketsByNamePrefix("Dragon 1", 50));
+        assertEquals(expected.findMissionsByName("Mission 7"), actual.findMissionsByName("Mission 7"));
+
+        RocketId added = actual.addRocket("Dragon new");
+        assertEquals(List.of(added), actual.findRocketsByName("Dragon new"));
+        assertEquals(rockets.size() + 1, actual.rocketCount());
+        assertThrows(IllegalStateException.class, () -> fleet.rocket(RocketId.random(), "Late"));
+        assertThrows(IllegalStateException.class, () -> InMemorySpaceXRepository.importFleet(fleet));
+    }
+
+    @Test
+    void rejectsAFleetThatBreaksTheDomainRules() {
+        MissionId m = MissionId.random();
+        RocketId r = RocketId.random();
+
+        assertEquals(Violation.UNKNOWN_MISSION, rejected(new FleetImport()
+                .rocket(r, "Dragon 1", RocketStatus.ON_GROUND, MissionId.random())));
+        assertEquals(Violation.DUPLICATE_ROCKET, rejected(new FleetImport()
+                .rocket(r, "Dragon 1").rocket(r, "Dragon 2")));
+        assertEquals(Violation.DUPLICATE_MISSION, rejected(new FleetImport()
+                .mission(m, "Mars").mission(m, "Luna")));
+        assertEquals(Violation.IN_SPACE_WITHOUT_MISSION, rejected(new FleetImport()
+                .rocket(r, "Dragon 1", RocketStatus.IN_SPACE, null)));
+        assertEquals(Violation.ASSIGNED_ROCKET_IN_BUILD, rejected(new FleetImport()
+                .mission(m, "Mars").rocket(r, "Dragon 1", RocketStatus.IN_BUILD, m)));
+        assertEquals(Violation.MISSION_ENDED, rejected(new FleetImport()
+                .mission(m, "Mars", MissionStatus.ENDED).rocket(r, "Dragon 1", RocketStatus.ON_GROUND, m)));
+        assertEquals(Violation.PENDING_WITHOUT_REPAIR, rejected(new FleetImport()
+                .mission(m, "Mars", MissionStatus.PENDING).rocket(r, "Dragon 1", RocketStatus.IN_SPACE, m)));
+        assertEquals(Violation.MISSION_WITHOUT_ROCKETS, rejected(new FleetImport()
+                .mission(m, "Mars", MissionStatus.IN_PROGRESS)));
+
+        InMemorySpaceXRepository repo = InMemorySpaceXRepository.importFleet(new FleetImport()
+                .rocket(r, "Dragon 1", RocketStatus.IN_REPAIR, m)
+                .mission(m, "Mars"));
+        assertEquals(MissionStatus.PENDING, repo.getMissionStatus(m).orElseThrow());
+        assertEquals(Violation.ROCKET_ALREADY_ASSIGNED,
+                assertThrows(DomainException.class, () -> repo.assignRocketToMission(r, m)).violation());
+    }
+
+    private static Violation rejected(FleetImport fleet) {
+        return assertThrows(DomainException.class, () -> InMemorySpaceXRepository.importFleet(fleet)).violation();
+    }
+
+    private static List<String> render(List<MissionSummary> summaries) {
+        return summaries.stream().map(MissionSummary::toString).toList();
+    }
+
+    private static List<String> details(List<RocketDetails> details) {
+        return details.stream().map(RocketDetails::toString).toList();
+    }
+}
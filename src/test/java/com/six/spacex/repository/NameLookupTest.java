@@ -0,0 +1,152 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameLookupTest {
+
+    private static final List<Supplier<SpaceXRepository>> IMPLEMENTATIONS = List.of(
+            InMemorySpaceXRepository::new, ConcurrentSpaceXRepository::new,
+            CompactSpaceXRepository::new, VersionedSpaceXRepository::new, () -> new ShardedSpaceXRepository(4));
+
+    @Test
+    void findsByExactNameAndPrefix() {
+        for (Supplier<SpaceXRepository> impl : IMPLEMENTATIONS) {
+            SpaceXRepository repo = impl.get();
+            RocketId xl = repo.addRocket("Dragon XL");
+            RocketId red = repo.addRocket("Red Dragon");
+            RocketId d1 = repo.addRocket("Dragon 1");
+            RocketId xl2 = repo.addRocket("Dragon XL");
+            RocketId falcon = repo.addRocket("Falcon");
+            MissionId mars = repo.addMission("Mars");
+            MissionId marsII = repo.addMission("Mars II");
+            repo.addMission("Luna");
+
+            assertEquals(List.of(xl, xl2), repo.findRocketsByName("Dragon XL"));
+            assertEquals(List.of(red), repo.findRocketsByName("Red Dragon"));
+            assertEquals(List.of(), repo.findRocketsByName("dragon xl"));
+            assertEquals(List.of(), repo.findRocketsByName("Mars"), "rocket and mission names are separate");
+
+            assertEquals(List.of(d1, xl, xl2), repo.findRocketsByNamePrefix("Dragon", 10));
+            assertEquals(List.of(d1, xl), repo.findRocketsByNamePrefix("Dragon", 2));
+            assertEquals(List.of(d1, xl, xl2, falcon, red), repo.findRocketsByNamePrefix("", 10));
+            assertEquals(List.of(), repo.findRocketsByNamePrefix("Zeta", 10));
+            assertThrows(IllegalArgumentException.class, () -> repo.findRocketsByNamePrefix("D", 0));
+
+            assertEquals(List.of(mars), repo.findMissionsByName("Mars"));
+            assertEquals(List.of(mars, marsII), repo.findMissionsByNamePrefix("Mars", 10));
+            assertEquals(List.of(), repo.findMissionsByNamePrefix("Dragon", 10));
+        }
+    }
+
+    @Test
+    void uniqueModeRejectsTakenNames() {
+        for (Supplier<SpaceXRepository> impl : IMPLEMENTATIONS) {
+            SpaceXRepository repo = impl.get();
+            RocketId first = repo.addRocket("Dragon");
+            repo.addMission("Mars");
+            setUniqueNames(repo, true);
+
+            DomainException e = assertThrows(DomainException.class, () -> repo.addRocket("Dragon"));
+            assertEquals(Violation.DUPLICATE_ROCKET_NAME, e.violation());
+            e = assertThrows(DomainException.class, () -> repo.addMission("Mars"));
+            assertEquals(Violation.DUPLICATE_MISSION_NAME, e.violation());
+            assertEquals(List.of(first), repo.findRocketsByName("Dragon"));
+            assertEquals(1, repo.countRocketsByStatus(RocketStatus.ON_GROUND));
+            repo.addRocket("Mars");
+
+            setUniqueNames(repo, false);
+            repo.addRocket("Dragon");
+            assertEquals(2, repo.findRocketsByName("Dragon").size());
+            e = assertThrows(DomainException.class, () -> setUniqueNames(repo, true));
+            assertEquals(Violation.DUPLICATE_ROCKET_NAME, e.violation());
+        }
+    }
+
+    @Test
+    void rejectedIdDoesNotLeaveANameBehind() {
+        for (Supplier<SpaceXRepository> impl : IMPLEMENTATIONS) {
+            SpaceXRepository repo = impl.get();
+            RocketId id = repo.addRocket("Dragon");
+            assertThrows(DomainException.class, () -> repo.addRocket(id, "Falcon"));
+            assertEquals(List.of(), repo.findRocketsByName("Falcon"));
+        }
+    }
+
+    @Test
+    void restoredRepositoryIsIndexed() {
+        Rocket rocket = new Rocket(RocketId.random(), "Dragon");
+        Mission mission = new Mission(MissionId.random(), "Mars");
+        InMemorySpaceXRepository repo = InMemorySpaceXRepository.restore(List.of(rocket), List.of(mission));
+        assertEquals(List.of(rocket.id()), repo.findRocketsByNamePrefix("Dr", 5));
+        assertEquals(List.of(mission.id()), repo.findMissionsByName("Mars"));
+    }
+
+    @Test
+    void versionedSnapshotOnlySeesItsOwnNames() {
+        VersionedSpaceXRepository repo = new VersionedSpaceXRepository();
+        RocketId first = repo.addRocket("Dragon");
+        VersionedSpaceXRepository.Snapshot before = repo.snapshot();
+        RocketId second = repo.addRocket("Dragon");
+
+        assertEquals(List.of(first), before.findRocketsByName("Dragon"));
+        assertEquals(List.of(first), before.findRocketsByNamePrefix("D", 5));
+        assertEquals(List.of(first, second), repo.findRocketsByName("Dragon"));
+    }
+
+    @Test
+    void concurrentUniqueAddsLetExactlyOneWin() throws Exception {
+        for (Supplier<SpaceXRepository> impl : List.<Supplier<SpaceXRepository>>of(ConcurrentSpaceXRepository::new, VersionedSpaceXRepository::new)) {
+            SpaceXRepository repo = impl.get();
+            setUniqueNames(repo, true);
+            int threads = 4;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                for (int round = 0; round < 200; round++) {
+                    String name = "Dragon " + round;
+                    CountDownLatch start = new CountDownLatch(1);
+                    AtomicInteger added = new AtomicInteger();
+                    Future<?>[] futures = new Future<?>[threads];
+                    for (int t = 0; t < threads; t++) {
+                        futures[t] = pool.submit(() -> {
+                            start.await();
+                            try {
+                                repo.addRocket(name);
+                                added.incrementAndGet();
+                            } catch (DomainException e) {
+                                assertEquals(Violation.DUPLICATE_ROCKET_NAME, e.violation());
+                            }
+                            return null;
+                        });
+                    }
+                    start.countDown();
+                    for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+                    assertEquals(1, added.get());
+                    assertEquals(1, repo.findRocketsByName(name).size());
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private static void setUniqueNames(SpaceXRepository repo, boolean unique) {
+        if (repo instanceof InMemorySpaceXRepository r) r.setUniqueNames(unique);
+        else if (repo instanceof ConcurrentSpaceXRepository r) r.setUniqueNames(unique);
+        else if (repo instanceof CompactSpaceXRepository r) r.setUniqueNames(unique);
+        else if (repo instanceof VersionedSpaceXRepository r) r.setUniqueNames(unique);
+        else if (repo instanceof ShardedSpaceXRepository r) r.setUniqueNames(unique);
+        else throw new IllegalArgumentException(repo.getClass().getName());
+    }
+}
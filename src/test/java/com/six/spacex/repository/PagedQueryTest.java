@@ -0,0 +1,123 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
+import com.six.spacex.dto.RocketDetails;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedQueryTest {
+
+    private static final List<Supplier<SpaceXRepository>> IMPLEMENTATIONS = List.of(
+            InMemorySpaceXRepository::new, ConcurrentSpaceXRepository::new,
+            CompactSpaceXRepository::new, VersionedSpaceXRepository::new);
+
+    @Test
+    void pagesAndStreamsMatchFullQueries() {
+        for (Supplier<SpaceXRepository> impl : IMPLEMENTATIONS) {
+            SpaceXRepository repo = fleet(impl.get());
+            for (int limit : new int[]{1, 3, 7, 1000}) {
+                assertEquals(render(repo.summarizeMissionsByAssignedRockets()),
+                        render(collect((l, t) -> repo.summarizeMissionsByAssignedRockets(l, t), limit)));
+                for (RocketStatus s : RocketStatus.values()) {
+                    assertEquals(details(repo.listRocketsByStatus(s)),
+                            details(collect((l, t) -> repo.listRocketsByStatus(s, l, t), limit)));
+                }
+                for (MissionStatus s : MissionStatus.values()) {
+                    assertEquals(render(repo.listMissionsByStatus(s)),
+                            render(collect((l, t) -> repo.listMissionsByStatus(s, l, t), limit)));
+                }
+            }
+            assertEquals(render(repo.summarizeMissionsByAssignedRockets()), render(repo.streamMissionsByAssignedRockets().toList()));
+            for (RocketStatus s : RocketStatus.values()) {
+                assertEquals(details(repo.listRocketsByStatus(s)), details(repo.streamRocketsByStatus(s).toList()));
+            }
+            for (MissionStatus s : MissionStatus.values()) {
+                assertEquals(render(repo.listMissionsByStatus(s)), render(repo.streamMissionsByStatus(s).toList()));
+            }
+        }
+    }
+
+    @Test
+    void nextPageContinuesAfterLastItemEvenIfEarlierItemsChange() {
+        List<Supplier<SpaceXRepository>> keyset = List.of(InMemorySpaceXRepository::new, CompactSpaceXRepository::new, VersionedSpaceXRepository::new);
+        for (Supplier<SpaceXRepository> impl : keyset) {
+            SpaceXRepository repo = impl.get();
+            List<RocketId> rockets = new ArrayList<>();
+            for (int i = 0; i < 6; i++) rockets.add(repo.addRocket("Dragon " + i));
+
+            Page<RocketDetails> first = repo.listRocketsByStatus(RocketStatus.ON_GROUND, 3, null);
+            assertEquals(List.of("Dragon 0", "Dragon 1", "Dragon 2"), first.items.stream().map(d -> d.name).toList());
+            repo.changeRocketStatus(rockets.get(0), RocketStatus.IN_REPAIR);
+
+            Page<RocketDetails> second = repo.listRocketsByStatus(RocketStatus.ON_GROUND, 3, first.nextPageToken.orElseThrow());
+            assertEquals(List.of("Dragon 3", "Dragon 4", "Dragon 5"), second.items.stream().map(d -> d.name).toList());
+            assertTrue(second.nextPageToken.isEmpty());
+        }
+    }
+
+    @Test
+    void rejectsBadLimitsAndTokens() {
+        for (Supplier<SpaceXRepository> impl : IMPLEMENTATIONS) {
+            SpaceXRepository repo = fleet(impl.get());
+            String summaryToken = repo.summarizeMissionsByAssignedRockets(1, null).nextPageToken.orElseThrow();
+            assertThrows(IllegalArgumentException.class, () -> repo.listRocketsByStatus(RocketStatus.ON_GROUND, 0, null));
+            assertThrows(IllegalArgumentException.class, () -> repo.listMissionsByStatus(MissionStatus.SCHEDULED, 5, "not a token!"));
+            assertThrows(IllegalArgumentException.class, () -> repo.listMissionsByStatus(MissionStatus.SCHEDULED, 5, ""));
+            if (!(repo instanceof ConcurrentSpaceXRepository)) {
+                assertThrows(IllegalArgumentException.class, () -> repo.listRocketsByStatus(RocketStatus.ON_GROUND, 5, summaryToken));
+            }
+        }
+    }
+
+    private static <T> List<T> collect(BiFunction<Integer, String, Page<T>> query, int limit) {
+        List<T> all = new ArrayList<>();
+        String token = null;
+        do {
+            Page<T> page = query.apply(limit, token);
+            assertTrue(page.items.size() <= limit);
+            all.addAll(page.items);
+            token = page.nextPageToken.orElse(null);
+        } while (token != null);
+        return all;
+    }
+
+    private static SpaceXRepository fleet(SpaceXRepository repo) {
+        Random rnd = new Random(21);
+        List<RocketId> rockets = new ArrayList<>();
+        List<MissionId> missions = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            RocketId id = RocketId.of(new UUID(0, i));
+            repo.addRocket(id, "Dragon " + i);
+            rockets.add(id);
+        }
+        for (int i = 0; i < 15; i++) {
+            MissionId id = MissionId.of(new UUID(1, i));
+            repo.addMission(id, "Mission " + (i % 5));
+            missions.add(id);
+        }
+        for (RocketId r : rockets) {
+            if (rnd.nextInt(3) == 0) continue;
+            repo.assignRocketToMission(r, missions.get(rnd.nextInt(missions.size())));
+            if (rnd.nextInt(4) == 0) repo.changeRocketStatus(r, RocketStatus.IN_REPAIR);
+        }
+        return repo;
+    }
+
+    private static List<String> render(List<MissionSummary> summaries) {
+        return summaries.stream().map(MissionSummary::toString).toList();
+    }
+
+    private static List<String> details(List<RocketDetails> details) {
+        return details.stream().map(RocketDetails::toString).toList();
+    }
+}
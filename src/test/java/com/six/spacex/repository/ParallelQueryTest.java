@@ -0,0 +1,80 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelQueryTest {
+
+    @Test
+    void parallelQueriesReturnTheSequentialResults() {
+        InMemorySpaceXRepository sequential = fleet();
+        InMemorySpaceXRepository parallel = fleet();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            parallel.setParallelQueries(pool, 100);
+
+            assertEquals(render(sequential.summarizeMissionsByAssignedRockets()), render(parallel.summarizeMissionsByAssignedRockets()));
+            for (RocketStatus s : RocketStatus.values()) {
+                assertEquals(details(sequential.listRocketsByStatus(s)), details(parallel.listRocketsByStatus(s)));
+            }
+            for (MissionStatus s : MissionStatus.values()) {
+                assertEquals(render(sequential.listMissionsByStatus(s)), render(parallel.listMissionsByStatus(s)));
+            }
+            assertTrue(pool.getPoolSize() > 0, "queries above the threshold should run on the pool");
+
+            // both paths return the same growable list type, whatever the result size
+            for (List<MissionSummary> summaries : List.of(parallel.summarizeMissionsByAssignedRockets(), sequential.summarizeMissionsByAssignedRockets())) {
+                assertEquals(ArrayList.class, summaries.getClass());
+                summaries.add(summaries.remove(0));
+            }
+            assertEquals(ArrayList.class, parallel.listRocketsByStatus(RocketStatus.ON_GROUND).getClass());
+            assertEquals(ArrayList.class, sequential.listRocketsByStatus(RocketStatus.ON_GROUND).getClass());
+
+            parallel.setParallelQueries(null, 0);
+            assertEquals(render(sequential.listMissionsByStatus(MissionStatus.PENDING)), render(parallel.listMissionsByStatus(MissionStatus.PENDING)));
+            assertThrows(IllegalArgumentException.class, () -> parallel.setParallelQueries(pool, 0));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static InMemorySpaceXRepository fleet() {
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        Random rnd = new Random(8);
+        List<RocketId> rockets = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            RocketId id = RocketId.of(new UUID(0, i));
+            repo.addRocket(id, "Dragon " + i);
+            rockets.add(id);
+        }
+        for (int i = 0; i < 800; i++) {
+            MissionId m = MissionId.of(new UUID(1, i));
+            repo.addMission(m, "Mission " + (i % 50));
+            for (int k = rnd.nextInt(6); k > 0; k--) {
+                RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+                if (repo.getRocket(r).orElseThrow().missionName.isPresent()) continue;
+                repo.assignRocketToMission(r, m);
+                if (rnd.nextInt(4) == 0) repo.changeRocketStatus(r, RocketStatus.IN_REPAIR);
+            }
+        }
+        return repo;
+    }
+
+    private static List<String> render(List<MissionSummary> summaries) {
+        return summaries.stream().map(MissionSummary::toString).toList();
+    }
+
+    private static List<String> details(List<RocketDetails> details) {
+        return details.stream().map(RocketDetails::toString).toList();
+    }
+}
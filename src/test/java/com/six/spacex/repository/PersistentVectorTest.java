@@ -0,0 +1,39 @@
+package com.six.spacex.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentVectorTest {
+
+    @Test
+    void appendsAcrossSeveralTrieLevelsAndKeepsOldVersions() {
+        PersistentVector<Integer> v = PersistentVector.empty();
+        List<PersistentVector<Integer>> versions = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            if (i % 1000 == 0) versions.add(v);
+            v = v.append(i);
+        }
+        assertEquals(40_000, v.size());
+        for (int i = 0; i < v.size(); i++) assertEquals(i, v.get(i));
+        for (int k = 0; k < versions.size(); k++) {
+            assertEquals(k * 1000, versions.get(k).size());
+        }
+
+        PersistentVector<Integer> changed = v.set(33_000, -1).set(5, -5);
+        assertEquals(-1, changed.get(33_000));
+        assertEquals(-5, changed.get(5));
+        assertEquals(33_000, v.get(33_000));
+        assertEquals(5, v.get(5));
+
+        List<Integer> visited = new ArrayList<>();
+        changed.forEach(visited::add);
+        assertEquals(40_000, visited.size());
+        assertEquals(-5, visited.get(5));
+        assertEquals(39_999, visited.get(39_999));
+        assertThrows(IndexOutOfBoundsException.class, () -> versions.get(3).get(3000));
+    }
+}
@@ -0,0 +1,225 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.Page;
+import com.six.spacex.dto.RocketDetails;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedSpaceXRepositoryTest {
+
+    @Test
+    void movesUnassignedRocketsToTheirMissionShard() {
+        ShardedSpaceXRepository repo = new ShardedSpaceXRepository(8);
+        MissionId m = repo.addMission("Mars");
+        List<RocketId> rockets = new ArrayList<>();
+        for (int i = 0; i < 20; i++) rockets.add(repo.addRocket("Dragon " + i));
+        assertTrue(rockets.stream().anyMatch(r -> repo.shardOf(r) != repo.shardOf(m)), "some rockets start elsewhere");
+
+        repo.assignRocketToMission(rockets.get(0), m);
+        repo.assignRocketsToMission(m, rockets.subList(1, 10));
+        repo.changeRocketStatus(rockets.get(3), RocketStatus.IN_REPAIR);
+        for (RocketId r : rockets.subList(0, 10)) assertEquals(repo.shardOf(m), repo.shardOf(r));
+
+        MissionSummary mars = repo.getMission(m).orElseThrow();
+        assertEquals(10, mars.dragonsCount);
+        assertEquals(MissionStatus.PENDING, mars.missionStatus);
+        assertEquals(Optional.of("Mars"), repo.getRocket(rockets.get(5)).orElseThrow().missionName);
+
+        RocketId assigned = rockets.get(0);
+        MissionId other = repo.addMission("Luna");
+        DomainException e = assertThrows(DomainException.class, () -> repo.assignRocketsToMission(other, List.of(rockets.get(15), assigned)));
+        assertEquals(Violation.ROCKET_ALREADY_ASSIGNED, e.violation());
+        assertEquals(0, repo.getMission(other).orElseThrow().dragonsCount);
+        assertEquals(Violation.UNKNOWN_MISSION,
+                assertThrows(DomainException.class, () -> repo.assignRocketToMission(rockets.get(15), MissionId.random())).violation());
+        assertEquals(List.of(rockets.get(15)), repo.findRocketsByName("Dragon 15"));
+        assertEquals(-1, repo.shardOf(RocketId.random()));
+    }
+
+    @Test
+    void behavesLikeInMemoryRepositoryUnderRandomOperations() {
+        SpaceXRepository expected = new InMemorySpaceXRepository();
+        ShardedSpaceXRepository actual = new ShardedSpaceXRepository(4);
+        List<RocketId> rockets = new ArrayList<>();
+        List<MissionId> missions = new ArrayList<>();
+        Random rnd = new Random(19);
+        RocketStatus[] rocketStatuses = RocketStatus.values();
+        MissionStatus[] missionStatuses = MissionStatus.values();
+
+        for (int i = 0; i < 20_000; i++) {
+            int op = rnd.nextInt(11);
+            if (op == 0 || rockets.isEmpty()) {
+                RocketId id = RocketId.random();
+                String name = "Dragon " + rnd.nextInt(50);
+                expected.addRocket(id, name);
+                actual.addRocket(id, name);
+                rockets.add(id);
+            } else if (op == 1 || missions.isEmpty()) {
+                MissionId id = MissionId.random();
+                String name = "Mission " + rnd.nextInt(20);
+                expected.addMission(id, name);
+                actual.addMission(id, name);
+                missions.add(id);
+            } else {
+                RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+                RocketId r2 = rockets.get(rnd.nextInt(rockets.size()));
+                MissionId m = missions.get(rnd.nextInt(missions.size()));
+                MissionId m2 = missions.get(rnd.nextInt(missions.size()));
+                switch (op) {
+                    case 2, 3 -> same(() -> expected.assignRocketToMission(r, m), () -> actual.assignRocketToMission(r, m));
+                    case 4 -> same(() -> expected.unassignRocket(r), () -> actual.unassignRocket(r));
+                    case 5, 6, 7 -> {
+                        RocketStatus s = rocketStatuses[rnd.nextInt(rocketStatuses.length)];
+                        same(() -> expected.changeRocketStatus(r, s), () -> actual.changeRocketStatus(r, s));
+                    }
+                    case 8 -> {
+                        MissionStatus s = missionStatuses[rnd.nextInt(missionStatuses.length)];
+                        same(() -> expected.changeMissionStatus(m, s), () -> actual.changeMissionStatus(m, s));
+                    }
+                    case 9 -> {
+                        if (r.equals(r2)) continue;
+                        same(() -> expected.assignRocketsToMission(m, List.of(r, r2)), () -> actual.assignRocketsToMission(m, List.of(r, r2)));
+                    }
+                    default -> {
+                        List<RepositoryCommand> batch = List.of(
+                                RepositoryCommand.unassign(r),
+                                RepositoryCommand.assign(r, m2),
+                                RepositoryCommand.changeRocketStatus(r2, rocketStatuses[rnd.nextInt(rocketStatuses.length)]),
+                                RepositoryCommand.assign(r2, m));
+                        same(() -> expected.applyBatch(batch), () -> actual.applyBatch(batch));
+                    }
+                }
+            }
+        }
+
+        assertSameState(expected, actual, rockets);
+        actual.setParallelQueries(ForkJoinPool.commonPool());
+        assertSameState(expected, actual, rockets);
+    }
+
+    @Test
+    void concurrentWritersOnDisjointFleetsMatchASequentialRun() throws Exception {
+        int threads = 4;
+        SpaceXRepository expected = new InMemorySpaceXRepository();
+        ShardedSpaceXRepository actual = new ShardedSpaceXRepository(8);
+        List<List<RocketId>> rockets = new ArrayList<>();
+        List<List<MissionId>> missions = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<RocketId> rs = new ArrayList<>();
+            List<MissionId> ms = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                RocketId id = RocketId.random();
+                expected.addRocket(id, "Dragon " + t + "-" + i);
+                actual.addRocket(id, "Dragon " + t + "-" + i);
+                rs.add(id);
+            }
+            for (int i = 0; i < 10; i++) {
+                MissionId id = MissionId.random();
+                expected.addMission(id, "Mission " + t + "-" + i);
+                actual.addMission(id, "Mission " + t + "-" + i);
+                ms.add(id);
+            }
+            rockets.add(rs);
+            missions.add(ms);
+        }
+
+        BiFunction<SpaceXRepository, Integer, Runnable> workload = (repo, t) -> () -> {
+            Random rnd = new Random(t);
+            List<RocketId> rs = rockets.get(t);
+            List<MissionId> ms = missions.get(t);
+            for (int i = 0; i < 5_000; i++) {
+                RocketId r = rs.get(rnd.nextInt(rs.size()));
+                MissionId m = ms.get(rnd.nextInt(ms.size()));
+                try {
+                    switch (rnd.nextInt(4)) {
+                        case 0 -> repo.assignRocketToMission(r, m);
+                        case 1 -> repo.unassignRocket(r);
+                        case 2 -> repo.changeRocketStatus(r, rnd.nextBoolean() ? RocketStatus.IN_REPAIR : RocketStatus.ON_GROUND);
+                        default -> repo.applyBatch(List.of(RepositoryCommand.unassign(r), RepositoryCommand.assign(r, m)));
+                    }
+                } catch (DomainException expectedRejection) {
+                    // rejected moves are part of the mix
+                }
+            }
+        };
+        for (int t = 0; t < threads; t++) workload.apply(expected, t).run();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) futures.add(pool.submit(workload.apply(actual, t)));
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        List<RocketId> all = new ArrayList<>();
+        rockets.forEach(all::addAll);
+        assertSameState(expected, actual, all);
+    }
+
+    private static void assertSameState(SpaceXRepository expected, SpaceXRepository actual, List<RocketId> rockets) {
+        assertEquals(render(expected.summarizeMissionsByAssignedRockets()), render(actual.summarizeMissionsByAssignedRockets()));
+        assertEquals(render(expected.summarizeMissionsByAssignedRockets(5)), render(actual.summarizeMissionsByAssignedRockets(5)));
+        assertEquals(render(expected.summarizeMissionsByAssignedRockets()),
+                render(allPages((limit, token) -> actual.summarizeMissionsByAssignedRockets(limit, token))));
+        for (RocketStatus s : RocketStatus.values()) {
+            assertEquals(details(expected.listRocketsByStatus(s)), details(actual.listRocketsByStatus(s)));
+            assertEquals(details(expected.listRocketsByStatus(s)), details(allPages((limit, token) -> actual.listRocketsByStatus(s, limit, token))));
+            assertEquals(expected.countRocketsByStatus(s), actual.countRocketsByStatus(s));
+        }
+        for (MissionStatus s : MissionStatus.values()) {
+            assertEquals(render(expected.listMissionsByStatus(s)), render(actual.listMissionsByStatus(s)));
+            assertEquals(render(expected.listMissionsByStatus(s)), render(allPages((limit, token) -> actual.listMissionsByStatus(s, limit, token))));
+            assertEquals(expected.countMissionsByStatus(s), actual.countMissionsByStatus(s));
+        }
+        for (RocketId r : rockets) {
+            assertEquals(expected.getRocket(r).map(RocketDetails::toString), actual.getRocket(r).map(RocketDetails::toString));
+        }
+        assertEquals(expected.findRocketsByNamePrefix("Dragon 1", 30), actual.findRocketsByNamePrefix("Dragon 1", 30));
+    }
+
+    private static <T> List<T> allPages(BiFunction<Integer, String, Page<T>> query) {
+        List<T> all = new ArrayList<>();
+        String token = null;
+        do {
+            Page<T> page = query.apply(7, token);
+            all.addAll(page.items);
+            token = page.nextPageToken.orElse(null);
+        } while (token != null);
+        return all;
+    }
+
+    private static void same(Runnable expected, Runnable actual) {
+        assertEquals(errorOf(expected), errorOf(actual));
+    }
+
+    private static String errorOf(Runnable action) {
+        try {
+            action.run();
+            return null;
+        } catch (DomainException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static List<String> render(List<MissionSummary> summaries) {
+        return summaries.stream().map(MissionSummary::toString).toList();
+    }
+
+    private static List<String> details(List<RocketDetails> details) {
+        return details.stream().map(RocketDetails::toString).toList();
+    }
+}
@@ -75,5 +75,69 @@ class SpaceXRepositoryExtraTest {
         assertTrue(output.contains("Red Dragon - On ground"));
         assertTrue(output.contains("Dragon XL - In space"));
     }
-}
 
+    @Test
+    void summaryIndex_tracksAssignmentsAndStatusChanges() {
+        SpaceXRepository repo = new InMemorySpaceXRepository();
+        MissionId alpha = repo.addMission("Alpha");
+        MissionId beta = repo.addMission("Beta");
+        RocketId r1 = repo.addRocket("Dragon 1");
+        RocketId r2 = repo.addRocket("Dragon 2");
+        repo.assignRocketsToMission(alpha, List.of(r1, r2));
+
+        assertEquals("Alpha", repo.summarizeMissionsByAssignedRockets().get(0).missionName);
+
+        repo.unassignRocket(r2);
+        repo.assignRocketToMission(r2, beta);
+        // Both have one rocket now -> name desc
+        assertEquals("Beta", repo.summarizeMissionsByAssignedRockets().get(0).missionName);
+
+        repo.changeRocketStatus(r1, RocketStatus.IN_REPAIR);
+        var alphaSummary = repo.summarizeMissionsByAssignedRockets().get(1);
+        assertEquals(MissionStatus.PENDING, alphaSummary.missionStatus);
+        assertEquals(RocketStatus.IN_REPAIR, alphaSummary.rockets.get(0).status);
+    }
+
+    @Test
+    void summarizeMissionsByAssignedRockets_withLimit_returnsTopN() {
+        SpaceXRepository repo = new InMemorySpaceXRepository();
+        MissionId big = repo.addMission("Big");
+        repo.addMission("Empty A");
+        repo.addMission("Empty B");
+        repo.assignRocketToMission(repo.addRocket("Dragon 1"), big);
+
+        var top = repo.summarizeMissionsByAssignedRockets(2);
+        assertEquals(2, top.size());
+        assertEquals("Big", top.get(0).missionName);
+        assertEquals("Empty B", top.get(1).missionName);
+        assertEquals(3, repo.summarizeMissionsByAssignedRockets(10).size());
+        assertTrue(repo.summarizeMissionsByAssignedRockets(0).isEmpty());
+    }
+
+    @Test
+    void statusBuckets_followStatusChanges_andExposeCounts() {
+        SpaceXRepository repo = new InMemorySpaceXRepository();
+        RocketId r1 = repo.addRocket("Dragon 1");
+        RocketId r2 = repo.addRocket("Dragon 2");
+        MissionId m1 = repo.addMission("Luna1");
+        repo.addMission("Luna2");
+        assertEquals(2, repo.countRocketsByStatus(RocketStatus.ON_GROUND));
+        assertEquals(2, repo.countMissionsByStatus(MissionStatus.SCHEDULED));
+
+        repo.assignRocketsToMission(m1, List.of(r1, r2));
+        repo.changeRocketStatus(r2, RocketStatus.IN_REPAIR);
+
+        assertEquals(1, repo.countRocketsByStatus(RocketStatus.ON_GROUND));
+        assertEquals(1, repo.countRocketsByStatus(RocketStatus.IN_REPAIR));
+        assertEquals(1, repo.countMissionsByStatus(MissionStatus.PENDING));
+        assertEquals("Luna1", repo.listMissionsByStatus(MissionStatus.PENDING).get(0).missionName);
+        assertEquals("Luna2", repo.listMissionsByStatus(MissionStatus.SCHEDULED).get(0).missionName);
+
+        repo.changeRocketStatus(r2, RocketStatus.ON_GROUND);
+        // Bucket order is insertion order, not the order rockets entered the status
+        List<RocketDetails> onGround = repo.listRocketsByStatus(RocketStatus.ON_GROUND);
+        assertEquals(List.of("Dragon 1", "Dragon 2"), onGround.stream().map(d -> d.name).toList());
+        assertEquals(0, repo.countMissionsByStatus(MissionStatus.PENDING));
+        assertEquals(1, repo.countMissionsByStatus(MissionStatus.IN_PROGRESS));
+    }
+}
@@ -154,4 +154,27 @@ class SpaceXRepositoryTest {
         assertTrue(formatted.contains("Falcon Heavy - In space"));
         assertTrue(formatted.contains("Red Dragon - On ground"));
     }
+
+    @Test
+    void missionStaysPendingUntilLastRocketLeavesRepair() {
+        SpaceXRepository repo = new InMemorySpaceXRepository();
+        RocketId r1 = repo.addRocket("Dragon 1");
+        RocketId r2 = repo.addRocket("Dragon 2");
+        RocketId r3 = repo.addRocket("Dragon 3");
+        MissionId m = repo.addMission("Luna1");
+        repo.changeRocketStatus(r3, RocketStatus.IN_REPAIR);
+        repo.assignRocketsToMission(m, List.of(r1, r2, r3));
+        repo.changeRocketStatus(r1, RocketStatus.IN_REPAIR);
+        assertEquals(MissionStatus.PENDING, repo.getMissionStatus(m).orElseThrow());
+
+        repo.changeRocketStatus(r1, RocketStatus.IN_SPACE);
+        assertEquals(MissionStatus.PENDING, repo.getMissionStatus(m).orElseThrow());
+
+        repo.unassignRocket(r3);
+        assertEquals(MissionStatus.IN_PROGRESS, repo.getMissionStatus(m).orElseThrow());
+        assertThrows(DomainException.class, () -> repo.changeMissionStatus(m, MissionStatus.PENDING));
+
+        repo.assignRocketToMission(r3, m);
+        assertEquals(MissionStatus.PENDING, repo.getMissionStatus(m).orElseThrow());
+    }
 }
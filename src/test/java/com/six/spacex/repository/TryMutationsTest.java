@@ -0,0 +1,104 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.metrics.InstrumentedSpaceXRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TryMutationsTest {
+
+    private static final List<Supplier<SpaceXRepository>> IMPLEMENTATIONS = List.of(
+            InMemorySpaceXRepository::new,
+            ConcurrentSpaceXRepository::new,
+            () -> new ShardedSpaceXRepository(4),
+            () -> new InstrumentedSpaceXRepository(new InMemorySpaceXRepository()));
+
+    @Test
+    void reportsTheRuleTheThrowingMutatorWouldBreak() {
+        SpaceXRepository repo = new InMemorySpaceXRepository();
+        RocketId r = repo.addRocket("Dragon 1");
+        MissionId m = repo.addMission("Mars");
+        MissionId ended = repo.addMission("Luna");
+        repo.changeMissionStatus(ended, MissionStatus.ENDED);
+
+        assertEquals(Violation.UNKNOWN_ROCKET, repo.tryChangeRocketStatus(RocketId.random(), RocketStatus.IN_REPAIR));
+        assertEquals(Violation.UNKNOWN_MISSION, repo.tryAssignRocketToMission(r, MissionId.random()));
+        assertEquals(Violation.MISSION_ENDED, repo.tryAssignRocketToMission(r, ended));
+        assertEquals(Violation.ROCKET_NOT_ASSIGNED, repo.tryUnassignRocket(r));
+        assertEquals(Violation.IN_SPACE_WITHOUT_MISSION, repo.tryChangeRocketStatus(r, RocketStatus.IN_SPACE));
+        assertEquals(Violation.MISSION_WITHOUT_ROCKETS, repo.tryChangeMissionStatus(m, MissionStatus.PENDING));
+
+        assertEquals(Violation.NONE, repo.tryAssignRocketToMission(r, m));
+        assertEquals(Violation.ROCKET_ALREADY_ASSIGNED, repo.tryAssignRocketToMission(r, m));
+        assertEquals(Violation.NONE, repo.tryChangeRocketStatus(r, RocketStatus.IN_REPAIR));
+        assertEquals(MissionStatus.PENDING, repo.getMissionStatus(m).orElseThrow());
+        assertEquals(Violation.IN_PROGRESS_WITH_REPAIR, repo.tryChangeMissionStatus(m, MissionStatus.IN_PROGRESS));
+        assertEquals(Violation.END_WITH_ROCKETS_ASSIGNED, repo.tryChangeMissionStatus(m, MissionStatus.ENDED));
+        assertEquals(Violation.NONE, repo.tryUnassignRocket(r));
+        assertEquals(MissionStatus.SCHEDULED, repo.getMissionStatus(m).orElseThrow());
+
+        DomainException e = assertThrows(DomainException.class, () -> repo.changeRocketStatus(r, RocketStatus.IN_SPACE));
+        assertEquals("Rocket cannot be 'In space' without an assigned mission", e.getMessage());
+    }
+
+    @Test
+    void matchesTheThrowingMutatorsUnderRandomOperations() {
+        for (Supplier<SpaceXRepository> implementation : IMPLEMENTATIONS) {
+            SpaceXRepository throwing = implementation.get();
+            SpaceXRepository trying = implementation.get();
+            List<RocketId> rockets = new ArrayList<>();
+            List<MissionId> missions = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                RocketId id = RocketId.random();
+                throwing.addRocket(id, "Dragon " + i);
+                trying.addRocket(id, "Dragon " + i);
+                rockets.add(id);
+            }
+            for (int i = 0; i < 6; i++) {
+                MissionId id = MissionId.random();
+                throwing.addMission(id, "Mission " + i);
+                trying.addMission(id, "Mission " + i);
+                missions.add(id);
+            }
+            rockets.add(RocketId.random());
+            missions.add(MissionId.random());
+
+            Random rnd = new Random(21);
+            RocketStatus[] rocketStatuses = RocketStatus.values();
+            MissionStatus[] missionStatuses = MissionStatus.values();
+            for (int i = 0; i < 5_000; i++) {
+                RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+                MissionId m = missions.get(rnd.nextInt(missions.size()));
+                RocketStatus rs = rocketStatuses[rnd.nextInt(rocketStatuses.length)];
+                MissionStatus ms = missionStatuses[rnd.nextInt(missionStatuses.length)];
+                switch (rnd.nextInt(4)) {
+                    case 0 -> assertEquals(violationOf(() -> throwing.assignRocketToMission(r, m)), trying.tryAssignRocketToMission(r, m));
+                    case 1 -> assertEquals(violationOf(() -> throwing.unassignRocket(r)), trying.tryUnassignRocket(r));
+                    case 2 -> assertEquals(violationOf(() -> throwing.changeRocketStatus(r, rs)), trying.tryChangeRocketStatus(r, rs));
+                    default -> assertEquals(violationOf(() -> throwing.changeMissionStatus(m, ms)), trying.tryChangeMissionStatus(m, ms));
+                }
+            }
+            assertEquals(render(throwing.summarizeMissionsByAssignedRockets()), render(trying.summarizeMissionsByAssignedRockets()));
+        }
+    }
+
+    private static Violation violationOf(Runnable action) {
+        try {
+            action.run();
+            return Violation.NONE;
+        } catch (DomainException e) {
+            return e.violation();
+        }
+    }
+
+    private static List<String> render(List<MissionSummary> summaries) {
+        return summaries.stream().map(MissionSummary::toString).toList();
+    }
+}
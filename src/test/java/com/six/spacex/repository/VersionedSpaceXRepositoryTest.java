@@ -0,0 +1,182 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.dto.RocketDetails;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedSpaceXRepositoryTest {
+
+    @Test
+    void snapshotKeepsItsVersionWhileWritersMoveOn() {
+        VersionedSpaceXRepository repo = new VersionedSpaceXRepository();
+        RocketId r1 = repo.addRocket("Dragon 1");
+        MissionId m1 = repo.addMission("Luna1");
+        repo.assignRocketToMission(r1, m1);
+
+        VersionedSpaceXRepository.Snapshot before = repo.snapshot();
+        repo.changeRocketStatus(r1, RocketStatus.IN_REPAIR);
+        RocketId r2 = repo.addRocket("Dragon 2");
+        VersionedSpaceXRepository.Snapshot after = repo.snapshot();
+
+        assertEquals(3, before.version());
+        assertEquals(5, after.version());
+        assertEquals(MissionStatus.IN_PROGRESS, before.getMissionStatus(m1).orElseThrow());
+        assertEquals(MissionStatus.PENDING, after.getMissionStatus(m1).orElseThrow());
+        assertTrue(before.getRocket(r2).isEmpty());
+        assertEquals(0, before.countRocketsByStatus(RocketStatus.IN_REPAIR));
+        assertEquals(List.of("Dragon 1"), after.listRocketsByStatus(RocketStatus.IN_REPAIR).stream().map(d -> d.name).toList());
+        assertEquals(1, before.listMissionsByStatus(MissionStatus.IN_PROGRESS).size());
+
+        long version = repo.version();
+        assertThrows(DomainException.class, () -> repo.applyBatch(List.of(
+                RepositoryCommand.unassign(r1), RepositoryCommand.unassign(r1))));
+        assertEquals(version, repo.version());
+        repo.applyBatch(List.of(RepositoryCommand.unassign(r1), RepositoryCommand.assign(r2, m1)));
+        assertEquals(version + 1, repo.version());
+    }
+
+    @Test
+    void behavesLikeInMemoryRepositoryUnderRandomOperations() {
+        SpaceXRepository expected = new InMemorySpaceXRepository();
+        SpaceXRepository actual = new VersionedSpaceXRepository();
+        List<RocketId> rockets = new ArrayList<>();
+        List<MissionId> missions = new ArrayList<>();
+        Random rnd = new Random(13);
+        RocketStatus[] rocketStatuses = RocketStatus.values();
+        MissionStatus[] missionStatuses = MissionStatus.values();
+
+        for (int i = 0; i < 10_000; i++) {
+            int op = rnd.nextInt(10);
+            if (op == 0 || rockets.isEmpty()) {
+                RocketId id = RocketId.random();
+                expected.addRocket(id, "Dragon " + i);
+                actual.addRocket(id, "Dragon " + i);
+                rockets.add(id);
+            } else if (op == 1 || missions.isEmpty()) {
+                MissionId id = MissionId.random();
+                String name = "Mission " + rnd.nextInt(20);
+                expected.addMission(id, name);
+                actual.addMission(id, name);
+                missions.add(id);
+            } else {
+                RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+                MissionId m = missions.get(rnd.nextInt(missions.size()));
+                switch (op) {
+                    case 2, 3 -> same(() -> expected.assignRocketToMission(r, m), () -> actual.assignRocketToMission(r, m));
+                    case 4 -> same(() -> expected.unassignRocket(r), () -> actual.unassignRocket(r));
+                    case 5, 6, 7 -> {
+                        RocketStatus s = rocketStatuses[rnd.nextInt(rocketStatuses.length)];
+                        same(() -> expected.changeRocketStatus(r, s), () -> actual.changeRocketStatus(r, s));
+                    }
+                    case 8 -> {
+                        MissionStatus s = missionStatuses[rnd.nextInt(missionStatuses.length)];
+                        same(() -> expected.changeMissionStatus(m, s), () -> actual.changeMissionStatus(m, s));
+                    }
+                    default -> {
+                        List<RocketId> batch = List.of(r, rockets.get(rnd.nextInt(rockets.size())));
+                        if (batch.get(0).equals(batch.get(1))) continue;
+                        same(() -> expected.assignRocketsToMission(m, batch), () -> actual.assignRocketsToMission(m, batch));
+                    }
+                }
+            }
+        }
+
+        assertEquals(render(expected.summarizeMissionsByAssignedRockets()), render(actual.summarizeMissionsByAssignedRockets()));
+        for (RocketStatus s : RocketStatus.values()) {
+            assertEquals(details(expected.listRocketsByStatus(s)), details(actual.listRocketsByStatus(s)));
+            assertEquals(expected.countRocketsByStatus(s), actual.countRocketsByStatus(s));
+        }
+        for (MissionStatus s : MissionStatus.values()) {
+            assertEquals(render(expected.listMissionsByStatus(s)), render(actual.listMissionsByStatus(s)));
+        }
+        assertTrue(actual.getRocket(RocketId.random()).isEmpty());
+    }
+
+    @Test
+    void readersAlwaysSeeAConsistentVersion() throws Exception {
+        VersionedSpaceXRepository repo = new VersionedSpaceXRepository();
+        List<RocketId> rockets = new ArrayList<>();
+        List<MissionId> missions = new ArrayList<>();
+        for (int i = 0; i < 40; i++) rockets.add(repo.addRocket("Dragon " + i));
+        for (int i = 0; i < 6; i++) missions.add(repo.addMission("Mission " + i));
+
+        Thread writer = new Thread(() -> {
+            Random rnd = new Random(3);
+            for (int i = 0; i < 20_000; i++) {
+                RocketId r = rockets.get(rnd.nextInt(rockets.size()));
+                try {
+                    switch (rnd.nextInt(3)) {
+                        case 0 -> repo.assignRocketToMission(r, missions.get(rnd.nextInt(missions.size())));
+                        case 1 -> repo.unassignRocket(r);
+                        default -> repo.changeRocketStatus(r, rnd.nextBoolean() ? RocketStatus.IN_REPAIR : RocketStatus.ON_GROUND);
+                    }
+                } catch (DomainException ignored) {
+                    // invalid random moves are expected
+                }
+            }
+        });
+        AtomicReference<AssertionError> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (writer.isAlive()) {
+                    VersionedSpaceXRepository.Snapshot s = repo.snapshot();
+                    int dragons = 0;
+                    for (MissionSummary m : s.summarizeMissionsByAssignedRockets()) {
+                        dragons += m.dragonsCount;
+                        boolean anyInRepair = m.rockets.stream().anyMatch(rv -> rv.status == RocketStatus.IN_REPAIR);
+                        MissionStatus expected = m.dragonsCount == 0 ? MissionStatus.SCHEDULED
+                                : anyInRepair ? MissionStatus.PENDING : MissionStatus.IN_PROGRESS;
+                        assertEquals(expected, m.missionStatus);
+                    }
+                    long assigned = 0;
+                    int total = 0;
+                    for (RocketStatus st : RocketStatus.values()) {
+                        List<RocketDetails> list = s.listRocketsByStatus(st);
+                        assertEquals(s.countRocketsByStatus(st), list.size());
+                        assigned += list.stream().filter(d -> d.missionName.isPresent()).count();
+                        total += list.size();
+                    }
+                    assertEquals(rockets.size(), total);
+                    assertEquals(dragons, assigned);
+                }
+            } catch (AssertionError e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        if (failure.get() != null) throw failure.get();
+    }
+
+    private static void same(Runnable expected, Runnable actual) {
+        String expectedError = errorOf(expected);
+        assertEquals(expectedError, errorOf(actual));
+    }
+
+    private static String errorOf(Runnable action) {
+        try {
+            action.run();
+            return null;
+        } catch (DomainException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static List<String> render(List<MissionSummary> summaries) {
+        return summaries.stream().map(MissionSummary::toString).toList();
+    }
+
+    private static List<String> details(List<RocketDetails> details) {
+        return details.stream().map(RocketDetails::toString).toList();
+    }
+}
@@ -0,0 +1,173 @@
+package com.six.spacex.server;
+
+import com.six.spacex.domain.*;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.RepositoryCommand;
+import com.six.spacex.util.MissionSummaryPrinter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryServerTest {
+
+    private static final SocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    @Test
+    void servesMutationsAndQueries() throws Exception {
+        InMemorySpaceXRepository local = new InMemorySpaceXRepository();
+        try (RepositoryServer server = RepositoryServer.start(local, LOOPBACK);
+             RepositoryClient client = RepositoryClient.connect(server.address())) {
+            RocketId r1 = RocketId.random();
+            RocketId r2 = RocketId.random();
+            MissionId m = MissionId.random();
+            client.addRocket(r1, "Dragon 1");
+            client.addRocket(r2, "Dragon 2");
+            client.addMission(m, "Mars");
+            client.assignRocketsToMission(m, List.of(r1, r2));
+            client.applyBatch(List.of(RepositoryCommand.changeRocketStatus(r2, RocketStatus.IN_REPAIR)));
+
+            assertEquals(Optional.of(MissionStatus.PENDING), client.getMissionStatus(m).get());
+            assertEquals(Optional.of(RocketStatus.IN_REPAIR), client.getRocketStatus(r2).get());
+            assertEquals(Optional.empty(), client.getRocketStatus(RocketId.random()).get());
+            assertEquals(local.getRocket(r1).orElseThrow().toString(), client.getRocket(r1).get().orElseThrow().toString());
+            assertEquals(local.getMission(m).orElseThrow().toString(), client.getMission(m).get().orElseThrow().toString());
+            assertEquals(Optional.empty(), client.getMission(MissionId.random()).get());
+            assertEquals(1, client.countRocketsByStatus(RocketStatus.IN_REPAIR).get());
+            assertEquals(1, client.countMissionsByStatus(MissionStatus.PENDING).get());
+            assertEquals(List.of(r2), client.findRocketsByName("Dragon 2").get());
+            assertEquals(List.of(m), client.findMissionsByName("Mars").get());
+            List<MissionSummary> summary = client.summarizeMissionsByAssignedRockets(10).get();
+            assertEquals(MissionSummaryPrinter.printSummaries(local.summarizeMissionsByAssignedRockets()),
+                    MissionSummaryPrinter.printSummaries(summary));
+
+            DomainException e = assertThrows(DomainException.class, () -> client.unassignRocket(RocketId.random()).get());
+            assertEquals(Violation.UNKNOWN_ROCKET, e.violation());
+            assertThrows(IllegalStateException.class, () -> client.summarizeMissionsByAssignedRockets(-1).get());
+            assertEquals(Optional.of(MissionStatus.PENDING), client.getMissionStatus(m).get(), "connection survives errors");
+        }
+    }
+
+    @Test
+    void pipelinesRequestsAndKeepsReplyOrder() throws Exception {
+        InMemorySpaceXRepository local = new InMemorySpaceXRepository();
+        try (RepositoryServer server = RepositoryServer.start(local, LOOPBACK);
+             RepositoryClient client = RepositoryClient.connect(server.address(), 64)) {
+            List<RocketId> ids = new ArrayList<>();
+            List<RepositoryClient.Reply<Void>> adds = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                RocketId id = RocketId.random();
+                ids.add(id);
+                adds.add(client.addRocket(id, "Dragon " + i));
+                assertTrue(client.inFlight() <= 64);
+            }
+            RepositoryClient.Reply<Void> duplicate = client.addRocket(ids.get(0), "again");
+            List<RepositoryClient.Reply<List<RocketId>>> lookups = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) lookups.add(client.findRocketsByName("Dragon " + i));
+            client.sync();
+
+            assertEquals(0, client.inFlight());
+            for (RepositoryClient.Reply<Void> add : adds) assertTrue(add.isDone());
+            assertEquals(Violation.DUPLICATE_ROCKET, assertThrows(DomainException.class, duplicate::get).violation());
+            for (int i = 0; i < 1_000; i++) assertEquals(List.of(ids.get(i)), lookups.get(i).get());
+            assertEquals(1_000, local.countRocketsByStatus(RocketStatus.ON_GROUND));
+            assertEquals(2_001, server.requests());
+        }
+    }
+
+    @Test
+    void servesUnixDomainSocketsAndRemovesTheSocketFile(@TempDir Path dir) throws Exception {
+        UnixDomainSocketAddress address = UnixDomainSocketAddress.of(dir.resolve("repo.sock"));
+        try (RepositoryServer server = RepositoryServer.start(new InMemorySpaceXRepository(), address);
+             RepositoryClient client = RepositoryClient.connect(address)) {
+            RocketId id = RocketId.random();
+            client.addRocket(id, "Dragon");
+            assertEquals(Optional.of(RocketStatus.ON_GROUND), client.getRocketStatus(id).get());
+            assertEquals(1, server.connections());
+            assertTrue(Files.exists(address.getPath()));
+        }
+        assertFalse(Files.exists(address.getPath()));
+    }
+
+    @Test
+    void holdsManyConnectionsAndDropsOnlyBrokenOnes() throws Exception {
+        try (RepositoryServer server = RepositoryServer.start(new InMemorySpaceXRepository(), LOOPBACK)) {
+            List<RepositoryClient> clients = new ArrayList<>();
+            try {
+                for (int i = 0; i < 500; i++) {
+                    RepositoryClient c = RepositoryClient.connect(server.address());
+                    clients.add(c);
+                    c.addRocket(RocketId.random(), "Dragon " + i);
+                }
+                for (RepositoryClient c : clients) c.sync();
+                assertEquals(500, server.connections());
+
+                try (SocketChannel raw = SocketChannel.open(server.address())) {
+                    raw.write(ByteBuffer.allocate(5).putInt(1).put((byte) 99).flip());
+                    ByteBuffer response = ByteBuffer.allocate(64);
+                    while (response.position() < 5) raw.read(response);
+                    assertEquals(Wire.FAILED, response.get(4));
+
+                    raw.write(ByteBuffer.allocate(4).putInt(-7).flip());
+                    assertEquals(-1, raw.read(ByteBuffer.allocate(16)), "bad frame length closes the connection");
+                }
+                assertEquals(500, clients.get(0).countRocketsByStatus(RocketStatus.ON_GROUND).get());
+            } finally {
+                for (RepositoryClient c : clients) c.close();
+            }
+        }
+    }
+
+    @Test
+    void rejectsACountLargerThanItsFrameWithoutStoppingTheServer() throws Exception {
+        InMemorySpaceXRepository local = new InMemorySpaceXRepository();
+        try (RepositoryServer server = RepositoryServer.start(local, LOOPBACK)) {
+            try (SocketChannel raw = SocketChannel.open(server.address())) {
+                // ASSIGN_MANY for a mission, claiming Integer.MAX_VALUE rocket ids that are not there
+                raw.write(ByteBuffer.allocate(4 + 21).putInt(21).put((byte) 4).putLong(1).putLong(2).putInt(Integer.MAX_VALUE).flip());
+                ByteBuffer response = ByteBuffer.allocate(256);
+                while (response.position() < 5) assertTrue(raw.read(response) >= 0, "the request is answered, not dropped");
+                assertEquals(Wire.FAILED, response.get(4));
+            }
+            try (RepositoryClient second = RepositoryClient.connect(server.address())) {
+                RocketId id = RocketId.random();
+                second.addRocket(id, "Dragon");
+                assertEquals(Optional.of(RocketStatus.ON_GROUND), second.getRocketStatus(id).get());
+            }
+        }
+    }
+
+    @Test
+    void failsAResponseLargerThanAFrameAndKeepsTheConnection() throws Exception {
+        InMemorySpaceXRepository local = new InMemorySpaceXRepository();
+        MissionId mars = local.addMission("Mars");
+        String longName = "D".repeat(60_000);
+        List<RocketId> rockets = new ArrayList<>();
+        for (int i = 0; i < 300; i++) rockets.add(local.addRocket(longName + i));
+        local.assignRocketsToMission(mars, rockets);
+        try (RepositoryServer server = RepositoryServer.start(local, LOOPBACK);
+             RepositoryClient client = RepositoryClient.connect(server.address())) {
+            RepositoryClient.Reply<Optional<MissionStatus>> before = client.getMissionStatus(mars);
+            RepositoryClient.Reply<List<MissionSummary>> tooLarge = client.summarizeMissionsByAssignedRockets(1);
+            RepositoryClient.Reply<Integer> after = client.countRocketsByStatus(RocketStatus.ON_GROUND);
+
+            assertEquals(Optional.of(MissionStatus.IN_PROGRESS), before.get());
+            IllegalStateException e = assertThrows(IllegalStateException.class, tooLarge::get);
+            assertTrue(e.getMessage().contains("frame limit"), e::getMessage);
+            assertEquals(300, after.get());
+        }
+    }
+}
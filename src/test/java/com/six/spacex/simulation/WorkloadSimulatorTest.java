@@ -0,0 +1,92 @@
+package com.six.spacex.simulation;
+
+import com.six.spacex.domain.MissionId;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketId;
+import com.six.spacex.dto.MissionSummary;
+import com.six.spacex.metrics.LatencyHistogram;
+import com.six.spacex.repository.ConcurrentSpaceXRepository;
+import com.six.spacex.repository.ForwardingSpaceXRepository;
+import com.six.spacex.repository.InMemorySpaceXRepository;
+import com.six.spacex.repository.ShardedSpaceXRepository;
+import com.six.spacex.repository.SpaceXRepository;
+import com.six.spacex.repository.VersionedSpaceXRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadSimulatorTest {
+
+    @Test
+    void concurrentImplementationsKeepTheInvariantsUnderLoad() {
+        Workload workload = Workload.generate(new SimulationConfig()
+                .threads(4).rockets(200).missions(30).operationsPerThread(20_000).seed(7));
+        List<Supplier<SpaceXRepository>> implementations = List.of(
+                ConcurrentSpaceXRepository::new,
+                VersionedSpaceXRepository::new,
+                () -> new ShardedSpaceXRepository(4));
+        for (Supplier<SpaceXRepository> implementation : implementations) {
+            SimulationReport report = WorkloadSimulator.run(implementation.get(), workload);
+            assertTrue(report.passed(), report::toString);
+            assertEquals(80_000, report.operations);
+            assertEquals(80_000, report.latencies.values().stream().mapToLong(LatencyHistogram.Snapshot::count).sum());
+            assertFalse(report.rejections.isEmpty(), "a random mix breaks rules now and then");
+            assertTrue(report.operationsPerSecond() > 0);
+        }
+    }
+
+    @Test
+    void replaysARecordedWorkloadExactly(@TempDir Path dir) throws Exception {
+        Workload recorded = Workload.generate(new SimulationConfig()
+                .threads(1).rockets(100).missions(12).operationsPerThread(10_000).seed(11));
+        Path file = dir.resolve("workload.bin");
+        recorded.write(file);
+        Workload replayed = Workload.read(file);
+        assertEquals(recorded.operationCount(), replayed.operationCount());
+        assertEquals(recorded.rocketId(5), replayed.rocketId(5));
+
+        InMemorySpaceXRepository first = new InMemorySpaceXRepository();
+        InMemorySpaceXRepository second = new InMemorySpaceXRepository();
+        SimulationReport a = WorkloadSimulator.run(first, recorded);
+        SimulationReport b = WorkloadSimulator.run(second, replayed);
+        assertTrue(a.passed(), a::toString);
+        assertEquals(a.rejections, b.rejections);
+        assertEquals(render(first.summarizeMissionsByAssignedRockets()), render(second.summarizeMissionsByAssignedRockets()));
+        assertNotEquals(render(first.summarizeMissionsByAssignedRockets()),
+                render(run(Workload.generate(new SimulationConfig().threads(1).rockets(100).missions(12).operationsPerThread(10_000).seed(12)))));
+    }
+
+    @Test
+    void reportsBrokenInvariants() {
+        Workload workload = Workload.generate(new SimulationConfig()
+                .threads(1).rockets(50).missions(5).operationsPerThread(2_000).seed(3));
+        SpaceXRepository lying = new ForwardingSpaceXRepository(new InMemorySpaceXRepository()) {
+            @Override
+            public Optional<MissionSummary> getMission(MissionId id) {
+                return delegate.getMission(id).map(m -> new MissionSummary(m.missionName, MissionStatus.SCHEDULED, m.dragonsCount, m.rockets));
+            }
+        };
+        SimulationReport report = WorkloadSimulator.run(lying, workload);
+        assertFalse(report.passed());
+        assertTrue(report.invariantViolations.stream().anyMatch(p -> p.contains("should be")), report::toString);
+
+        List<String> missing = FleetInvariants.check(new InMemorySpaceXRepository(), List.of(RocketId.random()), List.of());
+        assertEquals(1, missing.size());
+    }
+
+    private static List<MissionSummary> run(Workload workload) {
+        InMemorySpaceXRepository repo = new InMemorySpaceXRepository();
+        WorkloadSimulator.run(repo, workload);
+        return repo.summarizeMissionsByAssignedRockets();
+    }
+
+    private static List<String> render(List<MissionSummary> summaries) {
+        return summaries.stream().map(MissionSummary::toString).toList();
+    }
+}
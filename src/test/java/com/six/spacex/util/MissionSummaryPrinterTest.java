@@ -0,0 +1,76 @@
+package com.six.spacex.util;
+
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.dto.MissionSummary;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MissionSummaryPrinterTest {
+
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    void printsTheDocumentedLayout() {
+        List<MissionSummary> summaries = List.of(
+                new MissionSummary("Transit", MissionStatus.IN_PROGRESS, 2, List.of(
+                        new MissionSummary.RocketView("Red Dragon", RocketStatus.ON_GROUND),
+                        new MissionSummary.RocketView("Dragon XL", RocketStatus.IN_SPACE))),
+                new MissionSummary("Mars", MissionStatus.SCHEDULED, 0, List.of()));
+
+        assertEquals("Transit - In progress - Dragons: 2" + NL
+                + "   o Red Dragon - On ground" + NL
+                + "   o Dragon XL - In space" + NL
+                + NL
+                + "Mars - Scheduled - Dragons: 0", MissionSummaryPrinter.printSummaries(summaries));
+        assertEquals("", MissionSummaryPrinter.printSummaries(List.of()));
+    }
+
+    @Test
+    void streamingTargetsMatchPrintSummaries() throws Exception {
+        List<MissionSummary> summaries = new ArrayList<>();
+        for (int m = 0; m < 2_000; m++) {
+            List<MissionSummary.RocketView> rockets = new ArrayList<>();
+            for (int r = 0; r < m % 7; r++) {
+                rockets.add(new MissionSummary.RocketView("Drache Ü " + m + "/" + r + " 🚀",
+                        RocketStatus.values()[(m + r) % RocketStatus.values().length]));
+            }
+            summaries.add(new MissionSummary("Mission " + m, MissionStatus.values()[m % 4], rockets.size(), rockets));
+        }
+        // a name longer than the channel buffer forces the encoder to drain mid-string
+        String longName = "x".repeat(70_000) + "é";
+        summaries.add(new MissionSummary(longName, MissionStatus.ENDED, 1234567890, List.of()));
+        String expected = MissionSummaryPrinter.printSummaries(summaries);
+
+        StringWriter writer = new StringWriter();
+        MissionSummaryPrinter.print(summaries.stream(), writer);
+        assertEquals(expected, writer.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MissionSummaryPrinter.print(summaries.stream(), Channels.newChannel(bytes));
+        assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writesEachSummaryBeforeTakingTheNext() throws Exception {
+        StringBuilder out = new StringBuilder();
+        List<Integer> writtenBefore = new ArrayList<>();
+        MissionSummaryPrinter.print(IntStream.range(0, 3).mapToObj(i -> {
+            writtenBefore.add(out.length());
+            return new MissionSummary("M" + i, MissionStatus.SCHEDULED, 0, List.of());
+        }), out);
+
+        String block = "M0 - Scheduled - Dragons: 0";
+        assertEquals(List.of(0, block.length(), 2 * block.length() + 2 * NL.length()), writtenBefore);
+        assertEquals(block + NL + NL + "M1 - Scheduled - Dragons: 0" + NL + NL + "M2 - Scheduled - Dragons: 0", out.toString());
+    }
+}